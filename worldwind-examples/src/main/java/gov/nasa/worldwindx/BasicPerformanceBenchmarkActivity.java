@@ -28,6 +28,8 @@ import gov.nasa.worldwind.WorldWindowController;
 import gov.nasa.worldwind.geom.Camera;
 import gov.nasa.worldwind.geom.Location;
 import gov.nasa.worldwind.geom.Position;
+import gov.nasa.worldwind.geom.Vec3;
+import gov.nasa.worldwind.globe.Globe;
 import gov.nasa.worldwind.layer.Layer;
 import gov.nasa.worldwind.layer.RenderableLayer;
 import gov.nasa.worldwind.render.ImageSource;
@@ -194,6 +196,63 @@ public class BasicPerformanceBenchmarkActivity extends GeneralGlobeActivity {
         }
     }
 
+    public static class BenchmarkProjectionCommand implements Runnable {
+
+        protected Globe globe;
+
+        protected int positionCount;
+
+        protected int iterations;
+
+        public BenchmarkProjectionCommand(Globe globe, int positionCount, int iterations) {
+            this.globe = globe;
+            this.positionCount = positionCount;
+            this.iterations = iterations;
+        }
+
+        @Override
+        public void run() {
+            // Distribute positions along a great circle path, as a shape's vertices would be.
+            double[] positions = new double[this.positionCount * 3];
+            Location begin = new Location(37.415229, -122.06265);
+            Location end = new Location(41.826947, 12.674122);
+            Location loc = new Location();
+            for (int idx = 0, pos = 0; idx < this.positionCount; idx++, pos += 3) {
+                begin.interpolateAlongPath(end, WorldWind.GREAT_CIRCLE, (double) idx / this.positionCount, loc);
+                positions[pos] = loc.latitude;
+                positions[pos + 1] = loc.longitude;
+                positions[pos + 2] = 1e4;
+            }
+
+            float[] points = new float[this.positionCount * 3];
+            Vec3 origin = this.globe.geographicToCartesian(positions[0], positions[1], positions[2], new Vec3());
+            Vec3 point = new Vec3();
+
+            // Convert the positions one at a time, as the shapes did prior to the array API.
+            long loopStart = System.nanoTime();
+            for (int iter = 0; iter < this.iterations; iter++) {
+                for (int idx = 0, pos = 0; idx < this.positionCount; idx++, pos += 3) {
+                    this.globe.geographicToCartesian(positions[pos], positions[pos + 1], positions[pos + 2], point);
+                    points[pos] = (float) (point.x - origin.x);
+                    points[pos + 1] = (float) (point.y - origin.y);
+                    points[pos + 2] = (float) (point.z - origin.z);
+                }
+            }
+            long loopElapsed = System.nanoTime() - loopStart;
+
+            // Convert the positions with one call to the array API.
+            long arrayStart = System.nanoTime();
+            for (int iter = 0; iter < this.iterations; iter++) {
+                this.globe.geographicToCartesianArray(positions, 3, 0, this.positionCount, origin, points, 3, 0);
+            }
+            long arrayElapsed = System.nanoTime() - arrayStart;
+
+            double count = (double) this.positionCount * this.iterations;
+            Logger.log(Logger.INFO, String.format("Projection benchmark, %d positions: per-position %.1f ns, array %.1f ns",
+                this.positionCount, loopElapsed / count, arrayElapsed / count));
+        }
+    }
+
     protected static final int FRAME_INTERVAL = 67; // 67 millis; 15 frames per second
 
     protected static Handler activityHandler = new Handler(Looper.getMainLooper());
@@ -246,6 +305,7 @@ public class BasicPerformanceBenchmarkActivity extends GeneralGlobeActivity {
         // After a 1 second initial delay, clear the frame statistics associated with this test.
         Executor exec = getNewCommandExecutor();   // gets a new instance
         exec.execute(new SleepCommand(1000));
+        exec.execute(new BenchmarkProjectionCommand(wwd.getGlobe(), 10000, 20));
         exec.execute(new ClearFrameMetricsCommand(wwd));
 
         // After a 1/2 second delay, fly to NASA Ames Research Center over 100 frames.
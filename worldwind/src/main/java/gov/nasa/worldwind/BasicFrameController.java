@@ -7,18 +7,19 @@ package gov.nasa.worldwind;
 
 import android.opengl.GLES20;
 
-import java.util.Set;
-
 import gov.nasa.worldwind.draw.DrawContext;
 import gov.nasa.worldwind.draw.Drawable;
 import gov.nasa.worldwind.draw.DrawableSurfaceColor;
+import gov.nasa.worldwind.geom.Line;
 import gov.nasa.worldwind.geom.Position;
 import gov.nasa.worldwind.geom.Vec3;
+import gov.nasa.worldwind.geom.Viewport;
 import gov.nasa.worldwind.globe.Tessellator;
 import gov.nasa.worldwind.layer.LayerList;
 import gov.nasa.worldwind.render.BasicShaderProgram;
 import gov.nasa.worldwind.render.Color;
 import gov.nasa.worldwind.render.RenderContext;
+import gov.nasa.worldwind.util.IntSet;
 import gov.nasa.worldwind.util.Logger;
 import gov.nasa.worldwind.util.Pool;
 
@@ -30,6 +31,8 @@ public class BasicFrameController implements FrameController {
 
     private Position pickPos = new Position();
 
+    private IntSet pickIds = new IntSet();
+
     public BasicFrameController() {
     }
 
@@ -73,6 +76,16 @@ public class BasicFrameController implements FrameController {
         if (this.resolveTerrainPickPosition(rc, this.pickPos)) {
             rc.offerPickedObject(PickedObject.fromTerrain(pickedObjectId, this.pickPos));
         }
+
+        // Associate the terrain drawable with the intersection position of each coalesced pick request's pick ray.
+        if (rc.pickRequests != null) {
+            for (int idx = 0, len = rc.pickRequests.size(); idx < len; idx++) {
+                PickRequest request = rc.pickRequests.get(idx);
+                if (this.resolveTerrainPickPosition(rc, request.pickRay, this.pickPos)) {
+                    request.terrainObject = PickedObject.fromTerrain(pickedObjectId, this.pickPos);
+                }
+            }
+        }
     }
 
     protected void renderLayers(RenderContext rc) {
@@ -92,6 +105,7 @@ public class BasicFrameController implements FrameController {
     }
 
     protected void prepareDrawables(RenderContext rc) {
+        rc.declutterDrawables();
         rc.sortDrawables();
     }
 
@@ -100,7 +114,9 @@ public class BasicFrameController implements FrameController {
         this.clearFrame(dc);
         this.drawDrawables(dc);
 
-        if (dc.pickMode && dc.pickPoint != null) {
+        if (dc.pickMode && dc.pickRequests != null) {
+            this.resolvePickRequests(dc);
+        } else if (dc.pickMode && dc.pickPoint != null) {
             this.resolvePick(dc);
         } else if (dc.pickMode) {
             this.resolvePickRect(dc);
@@ -108,7 +124,7 @@ public class BasicFrameController implements FrameController {
     }
 
     protected void clearFrame(DrawContext dc) {
-        GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT | GLES20.GL_DEPTH_BUFFER_BIT);
+        dc.clear(GLES20.GL_COLOR_BUFFER_BIT | GLES20.GL_DEPTH_BUFFER_BIT);
     }
 
     protected void drawDrawables(DrawContext dc) {
@@ -158,18 +174,16 @@ public class BasicFrameController implements FrameController {
             return; // no eligible objects; avoid expensive calls to glReadPixels
         }
 
-        // Read the unique fragment colors in the pick rectangle.
-        Set<Color> pickColors = dc.readPixelColors(dc.pickViewport.x, dc.pickViewport.y, dc.pickViewport.width, dc.pickViewport.height);
+        // Read the unique picked object IDs in the pick rectangle, limited to the pick polygon when the frame picks a
+        // polygonal region.
+        Viewport viewport = dc.pickViewport;
+        IntSet pickIds = dc.readPixelIdentifiers(viewport.x, viewport.y, viewport.width, viewport.height,
+            dc.pickPolygon, this.pickIds.clear());
 
-        for (Color pickColor : pickColors) {
-            // Convert the fragment color to a picked object ID. This returns zero if the color cannot indicate a picked
-            // object ID.
-            int topObjectId = PickedObject.uniqueColorToIdentifier(pickColor);
-            if (topObjectId != 0) {
-                PickedObject topObject = dc.pickedObjects.pickedObjectWithId(topObjectId);
-                if (topObject != null) {
-                    topObject.markOnTop();
-                }
+        for (int idx = 0, len = pickIds.size(); idx < len; idx++) {
+            PickedObject topObject = dc.pickedObjects.pickedObjectWithId(pickIds.get(idx));
+            if (topObject != null) {
+                topObject.markOnTop();
             }
         }
 
@@ -177,8 +191,66 @@ public class BasicFrameController implements FrameController {
         dc.pickedObjects.keepTopObjects();
     }
 
+    protected void resolvePickRequests(DrawContext dc) {
+        // Resolve each pick request coalesced into the frame by reading the fragment colors in its pick viewport. The
+        // frame's picked objects are candidates shared by every request.
+        for (int idx = 0, len = dc.pickRequests.size(); idx < len; idx++) {
+            PickRequest request = dc.pickRequests.get(idx);
+            if (dc.pickedObjects.count() == 0 && request.terrainObject == null) {
+                continue; // no eligible objects; avoid expensive calls to glReadPixels
+            }
+
+            if (request.pickPoint != null) {
+                this.resolvePickRequestPoint(dc, request);
+            } else {
+                this.resolvePickRequestRect(dc, request);
+            }
+        }
+    }
+
+    protected void resolvePickRequestPoint(DrawContext dc, PickRequest request) {
+        // Read the fragment color at the request's pick point.
+        this.pickColor = dc.readPixelColor((int) Math.round(request.pickPoint.x), (int) Math.round(request.pickPoint.y), this.pickColor);
+
+        // Convert the fragment color to a picked object ID. The terrain picked object is specific to the request, since
+        // the terrain position depends on the request's pick point.
+        int topObjectId = PickedObject.uniqueColorToIdentifier(this.pickColor);
+        PickedObject terrainObject = request.terrainObject;
+        if (terrainObject != null && terrainObject.getIdentifier() == topObjectId) {
+            terrainObject.markOnTop();
+            request.pickedObjects.offerPickedObject(terrainObject);
+        } else if (topObjectId != 0) {
+            PickedObject topObject = dc.pickedObjects.pickedObjectWithId(topObjectId);
+            if (topObject != null) {
+                topObject.markOnTop();
+                request.pickedObjects.offerPickedObject(topObject);
+                request.pickedObjects.offerPickedObject(terrainObject); // handles null objects
+            }
+        }
+    }
+
+    protected void resolvePickRequestRect(DrawContext dc, PickRequest request) {
+        // Read the unique picked object IDs in the request's pick rectangle or pick polygon, and collect the candidate
+        // picked object associated with each ID.
+        Viewport viewport = request.pickViewport;
+        IntSet pickIds = dc.readPixelIdentifiers(viewport.x, viewport.y, viewport.width, viewport.height,
+            request.pickPolygon, this.pickIds.clear());
+
+        for (int idx = 0, len = pickIds.size(); idx < len; idx++) {
+            PickedObject topObject = dc.pickedObjects.pickedObjectWithId(pickIds.get(idx));
+            if (topObject != null) {
+                topObject.markOnTop();
+                request.pickedObjects.offerPickedObject(topObject);
+            }
+        }
+    }
+
     protected boolean resolveTerrainPickPosition(RenderContext rc, Position result) {
-        if (rc.pickRay != null && rc.terrain.intersect(rc.pickRay, this.pickPoint)) {
+        return this.resolveTerrainPickPosition(rc, rc.pickRay, result);
+    }
+
+    protected boolean resolveTerrainPickPosition(RenderContext rc, Line pickRay, Position result) {
+        if (pickRay != null && rc.terrain.intersect(pickRay, this.pickPoint)) {
             result = rc.globe.cartesianToGeographic(this.pickPoint.x, this.pickPoint.y, this.pickPoint.z, result);
             result.altitude = 0; // report the actual altitude, which does necessarily match the Cartesian surface
             return true;
@@ -5,6 +5,7 @@
 
 package gov.nasa.worldwind;
 
+import java.util.List;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -37,8 +38,16 @@ public class Frame {
 
     public Vec2 pickPoint;
 
+    public float[] pickPolygon;
+
     public Line pickRay;
 
+    /**
+     * The asynchronous pick requests coalesced into this pick frame, or null if the frame is not an asynchronous pick
+     * frame.
+     */
+    public List<PickRequest> pickRequests;
+
     public boolean pickMode;
 
     private boolean isDone;
@@ -75,7 +84,9 @@ public class Frame {
         this.pickedObjects = null;
         this.pickViewport = null;
         this.pickPoint = null;
+        this.pickPolygon = null;
         this.pickRay = null;
+        this.pickRequests = null;
         this.pickMode = false;
 
         if (this.pool != null) { // return this instance to the pool
@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind;
+
+/**
+ * Receives the result of an asynchronous pick requested by {@link WorldWindow#pick(float, float, PickCallback)} or
+ * {@link WorldWindow#pickShapesInRect(float, float, float, float, PickCallback)}.
+ */
+public interface PickCallback {
+
+    /**
+     * Called on the main thread when a pick completes.
+     *
+     * @param wwd           the World Window that performed the pick
+     * @param pickedObjects the objects picked, which is empty if no objects are displayed at the pick location
+     */
+    void pickCompleted(WorldWindow wwd, PickedObjectList pickedObjects);
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind;
+
+import gov.nasa.worldwind.geom.Line;
+import gov.nasa.worldwind.geom.Vec2;
+import gov.nasa.worldwind.geom.Viewport;
+
+/**
+ * An asynchronous pick of a screen point or a screen rectangle. Pick requests submitted during the same display frame
+ * are coalesced into a single pick frame, whose pick viewport contains the pick viewport of each request. The pick
+ * frame's picked objects are candidates shared by its requests; each request collects the candidates displayed within
+ * its own pick viewport.
+ */
+public class PickRequest {
+
+    /**
+     * The screen rectangle to pick, in OpenGL screen coordinates.
+     */
+    public Viewport pickViewport;
+
+    /**
+     * The screen point to pick, in OpenGL screen coordinates, or null if the request picks the shapes in a screen
+     * rectangle.
+     */
+    public Vec2 pickPoint;
+
+    /**
+     * The screen polygon to pick within the pick viewport, in OpenGL screen coordinates, or null if the request picks
+     * the entire pick viewport.
+     */
+    public float[] pickPolygon;
+
+    /**
+     * The Cartesian line through the pick point, or null if the request picks the shapes in a screen rectangle.
+     */
+    public Line pickRay;
+
+    /**
+     * The terrain displayed at the pick point, or null if the pick ray does not intersect the terrain.
+     */
+    public PickedObject terrainObject;
+
+    /**
+     * The objects picked by this request.
+     */
+    public final PickedObjectList pickedObjects = new PickedObjectList();
+
+    public PickCallback callback;
+
+    public PickRequest(PickCallback callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * Discards the result of a pick frame that has not completed, allowing the request to be coalesced into another
+     * pick frame.
+     */
+    public void reset() {
+        this.pickRay = null;
+        this.terrainObject = null;
+        this.pickedObjects.clearPickedObjects();
+    }
+}
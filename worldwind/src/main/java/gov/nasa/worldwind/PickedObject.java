@@ -23,6 +23,8 @@ public class PickedObject {
 
     protected Position terrainPosition;
 
+    protected int itemIndex = -1;
+
     protected PickedObject() {
     }
 
@@ -44,6 +46,36 @@ public class PickedObject {
         return po;
     }
 
+    /**
+     * Creates a picked object for one item of a renderable that displays many items, such as {@link
+     * gov.nasa.worldwind.shape.PlacemarkCollection}. The picked object's user object is the renderable, or its pick
+     * delegate, and its item index identifies the picked item.
+     *
+     * @param identifier the picked object ID
+     * @param renderable the renderable containing the picked item
+     * @param itemIndex  the index of the picked item within the renderable
+     * @param layer      the layer containing the renderable
+     *
+     * @return the new picked object
+     *
+     * @throws IllegalArgumentException If the renderable or the layer is null
+     */
+    public static PickedObject fromRenderableItem(int identifier, Renderable renderable, int itemIndex, Layer layer) {
+        if (renderable == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "PickedObject", "fromRenderableItem", "missingRenderable"));
+        }
+
+        if (layer == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "PickedObject", "fromRenderableItem", "missingLayer"));
+        }
+
+        PickedObject po = fromRenderable(identifier, renderable, layer);
+        po.itemIndex = itemIndex;
+        return po;
+    }
+
     public static PickedObject fromTerrain(int identifier, Position position) {
         if (position == null) {
             throw new IllegalArgumentException(
@@ -97,6 +129,7 @@ public class PickedObject {
             ", userObject=" + this.userObject +
             ", layer=" + this.layer +
             ", terrainPosition=" + this.terrainPosition +
+            ", itemIndex=" + this.itemIndex +
             '}';
     }
 
@@ -127,4 +160,13 @@ public class PickedObject {
     public Position getTerrainPosition() {
         return this.terrainPosition;
     }
+
+    /**
+     * Indicates the index of the picked item within the picked renderable, for renderables that display many items.
+     *
+     * @return the picked item's index, or -1 if the picked object is not an item of a renderable
+     */
+    public int getItemIndex() {
+        return this.itemIndex;
+    }
 }
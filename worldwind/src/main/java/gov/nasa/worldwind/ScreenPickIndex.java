@@ -0,0 +1,786 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind;
+
+import android.opengl.GLES20;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gov.nasa.worldwind.geom.BoundingBox;
+import gov.nasa.worldwind.geom.Line;
+import gov.nasa.worldwind.geom.Matrix4;
+import gov.nasa.worldwind.geom.Position;
+import gov.nasa.worldwind.geom.Sector;
+import gov.nasa.worldwind.geom.Vec3;
+import gov.nasa.worldwind.geom.Viewport;
+import gov.nasa.worldwind.globe.Globe;
+import gov.nasa.worldwind.globe.Terrain;
+import gov.nasa.worldwind.layer.Layer;
+import gov.nasa.worldwind.render.Declutterer;
+import gov.nasa.worldwind.render.RenderContext;
+import gov.nasa.worldwind.render.Renderable;
+import gov.nasa.worldwind.util.Logger;
+
+/**
+ * Answers pick requests on the CPU from the screen geometry of the most recently rendered frame, avoiding the cost of
+ * rendering a pick frame and reading pixels back on the OpenGL thread.
+ * <p/>
+ * Renderables record their pickable geometry while the frame renders, through the render context's pick index. Screen
+ * rectangles, such as those displayed by {@link gov.nasa.worldwind.shape.Placemark} and {@link
+ * gov.nasa.worldwind.shape.Label}, are indexed in a screen-space grid. Shapes such as {@link
+ * gov.nasa.worldwind.shape.Path} and {@link gov.nasa.worldwind.shape.Polygon} record references to their cached
+ * Cartesian geometry, which is projected and tested only when the pick ray passes near the shape. Recording retains
+ * references rather than copying geometry, so the index must be queried on the thread that renders frames, before the
+ * next frame renders.
+ * <p/>
+ * Shapes drawn on the terrain surface cannot be picked on the CPU. They record their geographic regions instead, and
+ * {@link #pick(double, double, PickedObjectList)} declines pick points where such a region is the top object, so the
+ * caller can fall back to picking with the OpenGL thread. Renderables that record nothing in the index are not found by
+ * CPU picking, including application renderables and {@link gov.nasa.worldwind.shape.TiledSurfaceImage}.
+ * <p/>
+ * The index is disabled by default. Applications whose pickable renderables all record their geometry in the index may
+ * enable it with {@link #setEnabled(boolean)}.
+ */
+public class ScreenPickIndex {
+
+    /**
+     * The width and height of grid cells, in screen pixels.
+     */
+    protected static final int CELL_SIZE = 64;
+
+    protected static final int TERRAIN_OBJECT_ID = 1;
+
+    protected static final int TOP_OBJECT_ID = 2;
+
+    protected boolean enabled;
+
+    protected boolean valid;
+
+    protected Viewport viewport = new Viewport();
+
+    protected Matrix4 modelviewProjection = new Matrix4();
+
+    protected Matrix4 inverseModelviewProjection = new Matrix4();
+
+    protected double pixelSizeFactor;
+
+    protected Globe globe;
+
+    protected Terrain terrain;
+
+    protected Declutterer declutterer;
+
+    protected int rectCount;
+
+    /**
+     * The screen bounds of each rectangle, as consecutive minimum X, minimum Y, maximum X and maximum Y coordinates.
+     */
+    protected float[] rectBounds = new float[32 * 4];
+
+    protected float[] rectDepths = new float[32];
+
+    protected boolean[] rectDepthTest = new boolean[32];
+
+    protected Renderable[] rectRenderables = new Renderable[32];
+
+    protected Layer[] rectLayers = new Layer[32];
+
+    protected int[] rectItems = new int[32];
+
+    protected Object[] rectDeclutterKeys = new Object[32];
+
+    protected int gridCols;
+
+    protected int gridRows;
+
+    protected int[] cellHeads = new int[0];
+
+    protected int[] nodeNext = new int[32];
+
+    protected int[] nodeRect = new int[32];
+
+    protected int nodeCount;
+
+    protected List<ShapeEntry> shapes = new ArrayList<>();
+
+    protected int shapeCount;
+
+    protected ShapeEntry currentShape;
+
+    protected List<Sector> surfaceSectors = new ArrayList<>();
+
+    protected int surfaceCount;
+
+    private Line ray = new Line();
+
+    private Vec3 farPoint = new Vec3();
+
+    private Vec3 terrainPoint = new Vec3();
+
+    private Position terrainPosition = new Position();
+
+    private double[] screen0 = new double[3];
+
+    private double[] screen1 = new double[3];
+
+    private double[] screen2 = new double[3];
+
+    public ScreenPickIndex() {
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Specifies whether renderables record their geometry in this index, and whether picks are answered on the CPU. A
+     * disabled index declines every pick. The index is disabled by default.
+     * <p/>
+     * Enable the index only when every pickable renderable the application displays records its geometry in the index.
+     * Renderables that record nothing are not found by picks the index answers.
+     *
+     * @param enabled true to enable the index, false to disable it
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        this.clear();
+    }
+
+    /**
+     * Discards the geometry recorded for the previous frame and begins recording geometry for a frame rendered with
+     * the render context's current viewing parameters.
+     *
+     * @param rc the render context for the frame
+     */
+    public void beginFrame(RenderContext rc) {
+        this.clear();
+        this.viewport.set(rc.viewport);
+        this.modelviewProjection.set(rc.modelviewProjection);
+        this.inverseModelviewProjection.invertMatrix(rc.modelviewProjection);
+        this.pixelSizeFactor = rc.pixelSizeAtDistance(1);
+    }
+
+    /**
+     * Completes the geometry recorded for the current frame, making it available to subsequent picks.
+     *
+     * @param rc the render context for the frame
+     */
+    public void endFrame(RenderContext rc) {
+        this.globe = rc.globe;
+        this.terrain = rc.terrain;
+        this.declutterer = rc.getDeclutterer();
+        this.currentShape = null;
+        this.assembleGrid();
+        this.valid = true;
+    }
+
+    /**
+     * Discards the recorded geometry. Subsequent picks are declined until another frame is recorded.
+     */
+    public void clear() {
+        for (int idx = 0; idx < this.rectCount; idx++) {
+            this.rectRenderables[idx] = null;
+            this.rectLayers[idx] = null;
+            this.rectDeclutterKeys[idx] = null;
+        }
+
+        for (int idx = 0; idx < this.shapeCount; idx++) {
+            this.shapes.get(idx).clear();
+        }
+
+        this.rectCount = 0;
+        this.shapeCount = 0;
+        this.surfaceCount = 0;
+        this.nodeCount = 0;
+        this.currentShape = null;
+        this.globe = null;
+        this.terrain = null;
+        this.declutterer = null;
+        this.valid = false;
+    }
+
+    /**
+     * Records a renderable's screen rectangle.
+     *
+     * @param renderable   the renderable displaying the rectangle
+     * @param layer        the layer displaying the renderable
+     * @param screenBounds the rectangle's screen bounds
+     * @param depth        the rectangle's screen depth in the range [0, 1]
+     * @param depthTest    true if the rectangle is hidden by nearer terrain, otherwise false
+     * @param declutterKey the key the renderable offers its drawable to the declutterer with, or null if the rectangle
+     *                     is not decluttered
+     */
+    public void addScreenRect(Renderable renderable, Layer layer, Viewport screenBounds, double depth,
+                              boolean depthTest, Object declutterKey) {
+        int index = this.addRect(renderable, layer, screenBounds.x, screenBounds.y,
+            screenBounds.x + screenBounds.width, screenBounds.y + screenBounds.height, depth, depthTest);
+        this.rectDeclutterKeys[index] = declutterKey;
+    }
+
+    /**
+     * Records the screen rectangle of one item of a renderable that displays many items, such as {@link
+     * gov.nasa.worldwind.shape.PlacemarkCollection}.
+     *
+     * @param renderable the renderable displaying the item
+     * @param itemIndex  the index of the item within the renderable
+     * @param layer      the layer displaying the renderable
+     * @param x0         the rectangle's minimum X screen coordinate
+     * @param y0         the rectangle's minimum Y screen coordinate
+     * @param x1         the rectangle's maximum X screen coordinate
+     * @param y1         the rectangle's maximum Y screen coordinate
+     * @param depth      the rectangle's screen depth in the range [0, 1]
+     * @param depthTest  true if the rectangle is hidden by nearer terrain, otherwise false
+     */
+    public void addScreenRect(Renderable renderable, int itemIndex, Layer layer, double x0, double y0, double x1,
+                              double y1, double depth, boolean depthTest) {
+        int index = this.addRect(renderable, layer, x0, y0, x1, y1, depth, depthTest);
+        this.rectItems[index] = itemIndex;
+    }
+
+    /**
+     * Begins recording a shape's Cartesian geometry. The shape's primitives are recorded by subsequent calls to {@link
+     * #addShapeElements(int, int[], int)}. The index retains references to the vertex and element arrays, which must
+     * not be modified until the next frame renders.
+     *
+     * @param renderable   the shape
+     * @param layer        the layer displaying the shape
+     * @param vertices     the shape's vertex array, whose first three values for each vertex are its Cartesian
+     *                     coordinates relative to the vertex origin
+     * @param vertexStride the number of values per vertex
+     * @param vertexOrigin the Cartesian point the vertex coordinates are relative to
+     * @param boundingBox  the shape's Cartesian bounding box, or null if the shape's bounds are unknown
+     * @param lineWidth    the width of the shape's line primitives, in screen pixels
+     * @param depthTest    true if the shape is hidden by nearer terrain, otherwise false
+     */
+    public void beginShape(Renderable renderable, Layer layer, float[] vertices, int vertexStride, Vec3 vertexOrigin,
+                           BoundingBox boundingBox, float lineWidth, boolean depthTest) {
+        if (this.shapes.size() == this.shapeCount) {
+            this.shapes.add(new ShapeEntry());
+        }
+
+        ShapeEntry shape = this.shapes.get(this.shapeCount++);
+        shape.renderable = renderable;
+        shape.layer = layer;
+        shape.vertices = vertices;
+        shape.vertexStride = vertexStride;
+        shape.vertexOrigin.set(vertexOrigin);
+        shape.lineWidth = lineWidth;
+        shape.depthTest = depthTest;
+        shape.elementsCount = 0;
+
+        if (boundingBox != null && !boundingBox.isUnitBox()) {
+            boundingBox.getCenter(shape.center);
+            shape.radius = boundingBox.getRadius();
+        } else {
+            shape.radius = -1; // the shape's bounds are unknown
+        }
+
+        this.currentShape = shape;
+    }
+
+    /**
+     * Records a set of primitives of the shape most recently passed to {@link #beginShape}.
+     *
+     * @param mode     the primitive mode: GL_TRIANGLES, GL_TRIANGLE_STRIP, GL_LINES or GL_LINE_STRIP
+     * @param elements the primitives' vertex indices
+     * @param count    the number of vertex indices
+     *
+     * @throws IllegalArgumentException If the mode is not one of the accepted modes
+     */
+    public void addShapeElements(int mode, int[] elements, int count) {
+        if (mode != GLES20.GL_TRIANGLES && mode != GLES20.GL_TRIANGLE_STRIP
+            && mode != GLES20.GL_LINES && mode != GLES20.GL_LINE_STRIP) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ScreenPickIndex", "addShapeElements", "invalidMode"));
+        }
+
+        if (this.currentShape != null && count > 0) {
+            this.currentShape.addElements(mode, elements, count);
+        }
+    }
+
+    /**
+     * Records a geographic region displayed on the terrain surface, such as a surface shape or a surface image. Pick
+     * points where the terrain in such a region is the top object are declined.
+     *
+     * @param sector the region's sector
+     */
+    public void addSurfaceRegion(Sector sector) {
+        if (this.surfaceSectors.size() == this.surfaceCount) {
+            this.surfaceSectors.add(new Sector());
+        }
+
+        this.surfaceSectors.get(this.surfaceCount++).set(sector);
+    }
+
+    /**
+     * Determines the objects displayed at a screen point in the most recently recorded frame. The picked objects
+     * match those determined by rendering a pick frame: the top object at the screen point marked as on top, and the
+     * terrain position at the screen point.
+     * <p/>
+     * Objects displayed by layers that are not pick enabled are ignored, as they are when rendering a pick frame.
+     * <p/>
+     * This returns false without modifying the result when the index cannot answer the pick: no frame has been
+     * recorded, the screen point is outside the frame's viewport, or the top object at the screen point is displayed
+     * on the terrain surface.
+     *
+     * @param x      the screen point's X coordinate in OpenGL screen pixels
+     * @param y      the screen point's Y coordinate in OpenGL screen pixels
+     * @param result the list in which to return the picked objects
+     *
+     * @return true if the pick is answered, false if the caller must pick by rendering a pick frame
+     */
+    public boolean pick(double x, double y, PickedObjectList result) {
+        if (result == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ScreenPickIndex", "pick", "missingList"));
+        }
+
+        if (!this.enabled || !this.valid || !this.viewport.contains((int) Math.floor(x), (int) Math.floor(y))) {
+            return false;
+        }
+
+        // Compute the pick ray through the screen point, and the terrain position and screen depth at the screen point.
+        // Objects with depth testing enabled are hidden behind nearer terrain.
+        if (!this.inverseModelviewProjection.unProject(x, y, this.viewport, this.ray.origin, this.farPoint)) {
+            return false;
+        }
+
+        this.ray.direction.set(this.farPoint).subtract(this.ray.origin).normalize();
+        double terrainDepth = Double.POSITIVE_INFINITY;
+        boolean terrainHit = this.terrain != null && this.terrain.intersect(this.ray, this.terrainPoint);
+        if (terrainHit && this.project(this.terrainPoint.x, this.terrainPoint.y, this.terrainPoint.z, this.screen0)) {
+            terrainDepth = this.screen0[2];
+        }
+
+        // Find the nearest screen rectangle and the nearest shape at the screen point.
+        int topRect = this.pickRect(x, y, terrainDepth);
+        double topDepth = (topRect >= 0) ? this.rectDepths[topRect] : Double.POSITIVE_INFINITY;
+        ShapeEntry topShape = null;
+        for (int idx = 0; idx < this.shapeCount; idx++) {
+            ShapeEntry shape = this.shapes.get(idx);
+            if (!shape.layer.isPickEnabled()) {
+                continue; // the shape's layer is excluded from picking
+            }
+
+            double depth = this.pickShape(shape, x, y);
+            if (depth == Double.POSITIVE_INFINITY) {
+                continue; // the shape is not displayed at the screen point
+            }
+
+            if (depth <= topDepth && (!shape.depthTest || depth <= terrainDepth)) {
+                topShape = shape;
+                topDepth = depth;
+            }
+        }
+
+        // Decline the pick when no object is displayed at the screen point in front of the terrain, and the terrain at
+        // the screen point displays a surface shape or surface image. Objects hidden by the terrain have already been
+        // excluded, so any top object is displayed in front of the terrain surface.
+        if (terrainHit) {
+            this.globe.cartesianToGeographic(this.terrainPoint.x, this.terrainPoint.y, this.terrainPoint.z,
+                this.terrainPosition);
+            this.terrainPosition.altitude = 0; // the terrain position is on the surface
+            if (topShape == null && topRect < 0 && this.surfaceContains(this.terrainPosition)) {
+                return false;
+            }
+        }
+
+        // Report the top object, followed by the terrain object. The terrain is on top when no other object is.
+        PickedObject topObject = null;
+        if (topShape != null) {
+            topObject = PickedObject.fromRenderable(TOP_OBJECT_ID, topShape.renderable, topShape.layer);
+        } else if (topRect >= 0 && this.rectItems[topRect] >= 0) {
+            topObject = PickedObject.fromRenderableItem(TOP_OBJECT_ID, this.rectRenderables[topRect],
+                this.rectItems[topRect], this.rectLayers[topRect]);
+        } else if (topRect >= 0) {
+            topObject = PickedObject.fromRenderable(TOP_OBJECT_ID, this.rectRenderables[topRect],
+                this.rectLayers[topRect]);
+        }
+
+        PickedObject terrainObject = terrainHit ?
+            PickedObject.fromTerrain(TERRAIN_OBJECT_ID, this.terrainPosition) : null;
+        // Copy pick delegates that describe the recorded frame, since the frame's delegates change when the next frame
+        // renders.
+        if (topObject != null && topObject.userObject instanceof FramePickDelegate) {
+            topObject.userObject = ((FramePickDelegate) topObject.userObject).copyPickDelegate();
+        }
+
+        if (topObject != null) {
+            topObject.markOnTop();
+            result.offerPickedObject(topObject);
+        } else if (terrainObject != null) {
+            terrainObject.markOnTop();
+        }
+
+        if (terrainObject != null) {
+            result.offerPickedObject(terrainObject);
+        }
+
+        return true;
+    }
+
+    protected int addRect(Renderable renderable, Layer layer, double x0, double y0, double x1, double y1,
+                          double depth, boolean depthTest) {
+        if (this.rectRenderables.length == this.rectCount) {
+            this.growRects(this.rectCount * 2);
+        }
+
+        int index = this.rectCount++;
+        int b = index * 4;
+        this.rectBounds[b] = (float) x0;
+        this.rectBounds[b + 1] = (float) y0;
+        this.rectBounds[b + 2] = (float) x1;
+        this.rectBounds[b + 3] = (float) y1;
+        this.rectDepths[index] = (float) depth;
+        this.rectDepthTest[index] = depthTest;
+        this.rectRenderables[index] = renderable;
+        this.rectLayers[index] = layer;
+        this.rectItems[index] = -1;
+        this.rectDeclutterKeys[index] = null;
+
+        return index;
+    }
+
+    protected void growRects(int capacity) {
+        float[] newBounds = new float[capacity * 4];
+        System.arraycopy(this.rectBounds, 0, newBounds, 0, this.rectCount * 4);
+        this.rectBounds = newBounds;
+
+        float[] newDepths = new float[capacity];
+        System.arraycopy(this.rectDepths, 0, newDepths, 0, this.rectCount);
+        this.rectDepths = newDepths;
+
+        boolean[] newDepthTest = new boolean[capacity];
+        System.arraycopy(this.rectDepthTest, 0, newDepthTest, 0, this.rectCount);
+        this.rectDepthTest = newDepthTest;
+
+        Renderable[] newRenderables = new Renderable[capacity];
+        System.arraycopy(this.rectRenderables, 0, newRenderables, 0, this.rectCount);
+        this.rectRenderables = newRenderables;
+
+        Layer[] newLayers = new Layer[capacity];
+        System.arraycopy(this.rectLayers, 0, newLayers, 0, this.rectCount);
+        this.rectLayers = newLayers;
+
+        int[] newItems = new int[capacity];
+        System.arraycopy(this.rectItems, 0, newItems, 0, this.rectCount);
+        this.rectItems = newItems;
+
+        Object[] newKeys = new Object[capacity];
+        System.arraycopy(this.rectDeclutterKeys, 0, newKeys, 0, this.rectCount);
+        this.rectDeclutterKeys = newKeys;
+    }
+
+    protected void assembleGrid() {
+        // Index each rectangle in the grid cells it overlaps. Rectangles are culled against the viewport by the
+        // renderables that record them, so the grid covers the viewport.
+        this.gridCols = Math.max(1, (this.viewport.width + CELL_SIZE - 1) / CELL_SIZE);
+        this.gridRows = Math.max(1, (this.viewport.height + CELL_SIZE - 1) / CELL_SIZE);
+        int cellCount = this.gridCols * this.gridRows;
+        if (this.cellHeads.length < cellCount) {
+            this.cellHeads = new int[cellCount];
+        }
+
+        for (int idx = 0; idx < cellCount; idx++) {
+            this.cellHeads[idx] = -1;
+        }
+
+        this.nodeCount = 0;
+        for (int rect = 0; rect < this.rectCount; rect++) {
+            int b = rect * 4;
+            int col0 = this.cellCol(this.rectBounds[b]), col1 = this.cellCol(this.rectBounds[b + 2]);
+            int row0 = this.cellRow(this.rectBounds[b + 1]), row1 = this.cellRow(this.rectBounds[b + 3]);
+            for (int row = row0; row <= row1; row++) {
+                for (int col = col0; col <= col1; col++) {
+                    if (this.nodeNext.length == this.nodeCount) {
+                        int[] newNext = new int[this.nodeCount * 2];
+                        System.arraycopy(this.nodeNext, 0, newNext, 0, this.nodeCount);
+                        this.nodeNext = newNext;
+                        int[] newRect = new int[this.nodeCount * 2];
+                        System.arraycopy(this.nodeRect, 0, newRect, 0, this.nodeCount);
+                        this.nodeRect = newRect;
+                    }
+
+                    int cell = row * this.gridCols + col;
+                    int node = this.nodeCount++;
+                    this.nodeRect[node] = rect;
+                    this.nodeNext[node] = this.cellHeads[cell];
+                    this.cellHeads[cell] = node;
+                }
+            }
+        }
+    }
+
+    protected int cellCol(double x) {
+        int col = (int) Math.floor((x - this.viewport.x) / CELL_SIZE);
+        return (col < 0) ? 0 : ((col >= this.gridCols) ? this.gridCols - 1 : col);
+    }
+
+    protected int cellRow(double y) {
+        int row = (int) Math.floor((y - this.viewport.y) / CELL_SIZE);
+        return (row < 0) ? 0 : ((row >= this.gridRows) ? this.gridRows - 1 : row);
+    }
+
+    protected int pickRect(double x, double y, double terrainDepth) {
+        // Select the nearest rectangle containing the screen point. Rectangles recorded later are drawn later, and win
+        // ties. Decluttered rectangles are displayed only if the declutterer placed them.
+        int topRect = -1;
+        int cell = this.cellRow(y) * this.gridCols + this.cellCol(x);
+        for (int node = this.cellHeads[cell]; node != -1; node = this.nodeNext[node]) {
+            int rect = this.nodeRect[node];
+            int b = rect * 4;
+            if (x < this.rectBounds[b] || x > this.rectBounds[b + 2]
+                || y < this.rectBounds[b + 1] || y > this.rectBounds[b + 3]) {
+                continue;
+            }
+
+            if (!this.rectLayers[rect].isPickEnabled()) {
+                continue; // the rectangle's layer is excluded from picking
+            }
+
+            float depth = this.rectDepths[rect];
+            if (this.rectDepthTest[rect] && depth > terrainDepth) {
+                continue; // hidden behind the terrain
+            }
+
+            Object key = this.rectDeclutterKeys[rect];
+            if (key != null && (this.declutterer == null || !this.declutterer.isPlaced(key))) {
+                continue; // suppressed by the declutterer
+            }
+
+            float topDepth = (topRect >= 0) ? this.rectDepths[topRect] : Float.POSITIVE_INFINITY;
+            if (depth < topDepth || (depth == topDepth && rect > topRect)) {
+                topRect = rect;
+            }
+        }
+
+        return topRect;
+    }
+
+    /**
+     * Determines the screen depth of a shape at a screen point.
+     *
+     * @param shape the shape to test
+     * @param x     the screen point's X coordinate
+     * @param y     the screen point's Y coordinate
+     *
+     * @return the nearest screen depth of the shape's primitives at the screen point, or positive infinity if the
+     * shape is not displayed at the screen point
+     */
+    protected double pickShape(ShapeEntry shape, double x, double y) {
+        // Line primitives are hit within half their width of the screen point, plus half a pixel.
+        double tolerance = Math.max(shape.lineWidth, 1) * 0.5 + 0.5;
+
+        // Reject shapes whose bounding sphere is farther from the pick ray than the tolerance, in meters at the
+        // sphere's distance.
+        if (shape.radius >= 0) {
+            Vec3 o = this.ray.origin, d = this.ray.direction, c = shape.center;
+            double vx = c.x - o.x, vy = c.y - o.y, vz = c.z - o.z;
+            double t = vx * d.x + vy * d.y + vz * d.z;
+            double px = vx - t * d.x, py = vy - t * d.y, pz = vz - t * d.z;
+            double distance = Math.sqrt(px * px + py * py + pz * pz);
+            double slop = this.pixelSizeFactor * Math.max(t, 0) * tolerance;
+            if (t < -shape.radius || distance > shape.radius + slop) {
+                return Double.POSITIVE_INFINITY;
+            }
+        }
+
+        double nearest = Double.POSITIVE_INFINITY;
+        for (int idx = 0; idx < shape.elementsCount; idx++) {
+            int mode = shape.modes[idx];
+            int[] elements = shape.elements[idx];
+            int count = shape.counts[idx];
+            double depth;
+            if (mode == GLES20.GL_TRIANGLES || mode == GLES20.GL_TRIANGLE_STRIP) {
+                depth = this.pickTriangles(shape, elements, count, mode == GLES20.GL_TRIANGLES ? 3 : 1, x, y);
+            } else {
+                depth = this.pickLines(shape, elements, count, mode == GLES20.GL_LINES ? 2 : 1, x, y, tolerance);
+            }
+
+            if (nearest > depth) {
+                nearest = depth;
+            }
+        }
+
+        return nearest;
+    }
+
+    protected double pickTriangles(ShapeEntry shape, int[] elements, int count, int step, double x, double y) {
+        double nearest = Double.POSITIVE_INFINITY;
+        double[] s0 = this.screen0, s1 = this.screen1, s2 = this.screen2;
+        for (int idx = 0; idx + 2 < count; idx += step) {
+            if (!this.projectVertex(shape, elements[idx], s0)
+                || !this.projectVertex(shape, elements[idx + 1], s1)
+                || !this.projectVertex(shape, elements[idx + 2], s2)) {
+                continue; // the triangle is clipped by the near plane or the far plane
+            }
+
+            // Compute the screen point's barycentric coordinates, and interpolate the triangle's depth at the screen
+            // point when the point is inside the triangle.
+            double det = (s1[1] - s2[1]) * (s0[0] - s2[0]) + (s2[0] - s1[0]) * (s0[1] - s2[1]);
+            if (det == 0) {
+                continue; // the triangle is degenerate on screen
+            }
+
+            double a = ((s1[1] - s2[1]) * (x - s2[0]) + (s2[0] - s1[0]) * (y - s2[1])) / det;
+            double b = ((s2[1] - s0[1]) * (x - s2[0]) + (s0[0] - s2[0]) * (y - s2[1])) / det;
+            double c = 1 - a - b;
+            if (a < 0 || b < 0 || c < 0) {
+                continue; // the screen point is outside the triangle
+            }
+
+            double depth = a * s0[2] + b * s1[2] + c * s2[2];
+            if (nearest > depth) {
+                nearest = depth;
+            }
+        }
+
+        return nearest;
+    }
+
+    protected double pickLines(ShapeEntry shape, int[] elements, int count, int step, double x, double y,
+                               double tolerance) {
+        double nearest = Double.POSITIVE_INFINITY;
+        double[] s0 = this.screen0, s1 = this.screen1;
+        for (int idx = 0; idx + 1 < count; idx += step) {
+            if (!this.projectVertex(shape, elements[idx], s0) || !this.projectVertex(shape, elements[idx + 1], s1)) {
+                continue; // the segment is clipped by the near plane or the far plane
+            }
+
+            // Find the point on the segment nearest the screen point, and interpolate the segment's depth at that point
+            // when it's within the tolerance.
+            double dx = s1[0] - s0[0], dy = s1[1] - s0[1];
+            double length2 = dx * dx + dy * dy;
+            double t = (length2 > 0) ? ((x - s0[0]) * dx + (y - s0[1]) * dy) / length2 : 0;
+            t = (t < 0) ? 0 : (t > 1 ? 1 : t);
+            double ex = s0[0] + t * dx - x, ey = s0[1] + t * dy - y;
+            if (ex * ex + ey * ey > tolerance * tolerance) {
+                continue;
+            }
+
+            double depth = s0[2] + t * (s1[2] - s0[2]);
+            if (nearest > depth) {
+                nearest = depth;
+            }
+        }
+
+        return nearest;
+    }
+
+    protected boolean projectVertex(ShapeEntry shape, int vertex, double[] result) {
+        float[] v = shape.vertices;
+        int offset = vertex * shape.vertexStride;
+        Vec3 origin = shape.vertexOrigin;
+        return this.project(v[offset] + origin.x, v[offset + 1] + origin.y, v[offset + 2] + origin.z, result);
+    }
+
+    protected boolean project(double mx, double my, double mz, double[] result) {
+        double[] m = this.modelviewProjection.m;
+        double w = m[12] * mx + m[13] * my + m[14] * mz + m[15];
+        if (w <= 0) {
+            return false; // behind the eye point
+        }
+
+        double z = (m[8] * mx + m[9] * my + m[10] * mz + m[11]) / w;
+        if (z < -1 || z > 1) {
+            return false; // clipped by the near plane or the far plane
+        }
+
+        double x = (m[0] * mx + m[1] * my + m[2] * mz + m[3]) / w;
+        double y = (m[4] * mx + m[5] * my + m[6] * mz + m[7]) / w;
+        result[0] = (x * 0.5 + 0.5) * this.viewport.width + this.viewport.x;
+        result[1] = (y * 0.5 + 0.5) * this.viewport.height + this.viewport.y;
+        result[2] = z * 0.5 + 0.5;
+
+        return true;
+    }
+
+    protected boolean surfaceContains(Position position) {
+        for (int idx = 0; idx < this.surfaceCount; idx++) {
+            if (this.surfaceSectors.get(idx).contains(position.latitude, position.longitude)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Pick delegate that describes the frame in which its renderable was displayed, and is reused by subsequent frames.
+     * Picks answered by the index return a copy of such delegates, so that picked objects are unaffected by the frames
+     * rendered after the pick.
+     */
+    public interface FramePickDelegate {
+
+        /**
+         * Returns a copy of this pick delegate that is independent of subsequent frames.
+         *
+         * @return a copy of this pick delegate
+         */
+        Object copyPickDelegate();
+    }
+
+    protected static class ShapeEntry {
+
+        public Renderable renderable;
+
+        public Layer layer;
+
+        public float[] vertices;
+
+        public int vertexStride;
+
+        public Vec3 vertexOrigin = new Vec3();
+
+        public Vec3 center = new Vec3();
+
+        public double radius;
+
+        public float lineWidth;
+
+        public boolean depthTest;
+
+        public int[] modes = new int[4];
+
+        public int[][] elements = new int[4][];
+
+        public int[] counts = new int[4];
+
+        public int elementsCount;
+
+        public void addElements(int mode, int[] elements, int count) {
+            if (this.modes.length == this.elementsCount) {
+                int capacity = this.elementsCount * 2;
+                int[] newModes = new int[capacity];
+                int[][] newElements = new int[capacity][];
+                int[] newCounts = new int[capacity];
+                System.arraycopy(this.modes, 0, newModes, 0, this.elementsCount);
+                System.arraycopy(this.elements, 0, newElements, 0, this.elementsCount);
+                System.arraycopy(this.counts, 0, newCounts, 0, this.elementsCount);
+                this.modes = newModes;
+                this.elements = newElements;
+                this.counts = newCounts;
+            }
+
+            int index = this.elementsCount++;
+            this.modes[index] = mode;
+            this.elements[index] = elements;
+            this.counts[index] = count;
+        }
+
+        public void clear() {
+            this.renderable = null;
+            this.layer = null;
+            this.vertices = null;
+            for (int idx = 0; idx < this.elementsCount; idx++) {
+                this.elements[idx] = null;
+            }
+            this.elementsCount = 0;
+        }
+    }
+}
@@ -143,13 +143,20 @@ public class WorldWind {
      */
     public static final int RGB_565 = 1;
 
+    /**
+     * {@link ImageConfig} constant indicating that the image configuration is chosen per image: 16-bit RGB_565 for
+     * images that are fully opaque, and 32-bit RGBA_8888 for images that have transparent or translucent pixels.
+     */
+    public static final int RGB_565_IF_OPAQUE = 2;
+
     /**
      * Image config indicates the in-memory representation for images displayed by World Wind components. Images are
      * typically represented in the 32-bit RGBA_8888 configuration, the highest quality available. Components that do
-     * not require an alpha channel and want to conserve memory may use the 16-bit RGBA_565 configuration. Accepted
-     * values are {@link #RGBA_8888} and {@link #RGB_565}.
+     * not require an alpha channel and want to conserve memory may use the 16-bit RGBA_565 configuration. Components
+     * displaying images whose alpha content is not known in advance may use RGB_565_IF_OPAQUE to conserve memory for
+     * opaque images only. Accepted values are {@link #RGBA_8888}, {@link #RGB_565} and {@link #RGB_565_IF_OPAQUE}.
      */
-    @IntDef({RGBA_8888, RGB_565})
+    @IntDef({RGBA_8888, RGB_565, RGB_565_IF_OPAQUE})
     @Retention(RetentionPolicy.SOURCE)
     public @interface ImageConfig {
 
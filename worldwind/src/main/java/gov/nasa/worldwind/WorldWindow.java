@@ -9,6 +9,7 @@ import android.content.Context;
 import android.graphics.PointF;
 import android.opengl.GLES20;
 import android.opengl.GLSurfaceView;
+import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
@@ -17,6 +18,10 @@ import android.view.Choreographer;
 import android.view.MotionEvent;
 import android.view.SurfaceHolder;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.TimeZone;
@@ -38,6 +43,7 @@ import gov.nasa.worldwind.globe.GeographicProjection;
 import gov.nasa.worldwind.globe.Globe;
 import gov.nasa.worldwind.globe.GlobeWgs84;
 import gov.nasa.worldwind.layer.LayerList;
+import gov.nasa.worldwind.render.ProgramBinaryCache;
 import gov.nasa.worldwind.render.RenderContext;
 import gov.nasa.worldwind.render.RenderResourceCache;
 import gov.nasa.worldwind.util.Logger;
@@ -61,6 +67,10 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
 
     protected static final int MSG_ID_SET_DEPTH_BITS = 4;
 
+    protected static final int MSG_ID_SET_ELEMENT_INDEX_UINT = 5;
+
+    protected static final int MSG_ID_PICK_COMPLETED = 6;
+
     /**
      * Indicates the planet or celestial object displayed by this World Window.
      */
@@ -80,6 +90,8 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
 
     protected FrameMetrics frameMetrics = new FrameMetrics();
 
+    protected ScreenPickIndex pickIndex = new ScreenPickIndex();
+
     protected WorldWindowController worldWindowController = new BasicWorldWindowController();
 
     protected RenderResourceCache renderResourceCache;
@@ -92,6 +104,8 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
 
     protected int depthBits;
 
+    protected boolean elementIndexUint;
+
     protected Pool<Frame> framePool = new SynchronizedPool<>();
 
     protected Queue<Frame> frameQueue = new ConcurrentLinkedQueue<>();
@@ -104,6 +118,17 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
 
     protected boolean isWaitingForRedraw;
 
+    protected List<PickRequest> pendingPicks = new ArrayList<>();
+
+    protected boolean isWaitingForPick;
+
+    protected Choreographer.FrameCallback pickFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            renderPickRequests();
+        }
+    };
+
     protected Handler mainThreadHandler = new Handler(Looper.getMainLooper(), new Handler.Callback() {
         @Override
         public boolean handleMessage(Message msg) {
@@ -113,8 +138,13 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
                 requestRedraw();
             } else if (msg.what == MSG_ID_SET_VIEWPORT) {
                 viewport.set((Viewport) msg.obj);
+                requestPickFrame(); // render picks requested before the surface was available
             } else if (msg.what == MSG_ID_SET_DEPTH_BITS) {
                 depthBits = (Integer) msg.obj;
+            } else if (msg.what == MSG_ID_SET_ELEMENT_INDEX_UINT) {
+                elementIndexUint = (Boolean) msg.obj;
+            } else if (msg.what == MSG_ID_PICK_COMPLETED) {
+                completePickRequests(msg.obj);
             }
             return false;
         }
@@ -180,6 +210,10 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
         int cacheCapacity = RenderResourceCache.recommendedCapacity(this.getContext());
         this.renderResourceCache = new RenderResourceCache(cacheCapacity);
 
+        // Initialize the World Window's shader program binary cache in the application's cache directory.
+        File programDir = new File(this.getContext().getCacheDir(), "gov.nasa.worldwind.programs");
+        this.dc.programBinaryCache = new ProgramBinaryCache(programDir);
+
         // Set up to render on demand to an OpenGL ES 2.x context
         // TODO Investigate and use the EGL chooser submitted by jgiovino
         this.setEGLConfigChooser(configChooser);
@@ -211,6 +245,11 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
         Choreographer.getInstance().removeFrameCallback(this);
         this.mainThreadHandler.removeMessages(MSG_ID_REQUEST_REDRAW /*msg.what*/);
         this.isWaitingForRedraw = false;
+
+        // Cancel any outstanding pick frame. Pending pick requests are retained, and are picked once the World Window
+        // has a surface to draw to.
+        Choreographer.getInstance().removeFrameCallback(this.pickFrameCallback);
+        this.isWaitingForPick = false;
     }
 
     /**
@@ -344,6 +383,17 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
         this.frameMetrics = frameMetrics;
     }
 
+    /**
+     * Returns the index that answers picks from the screen geometry of the most recently rendered frame. The index is
+     * disabled by default, in which case every pick renders a pick frame. Applications whose pickable renderables all
+     * record their geometry in the index may enable it to answer picks without waiting for the OpenGL thread.
+     *
+     * @return the World Window's pick index
+     */
+    public ScreenPickIndex getPickIndex() {
+        return this.pickIndex;
+    }
+
     public WorldWindowController getWorldWindowController() {
         return this.worldWindowController;
     }
@@ -390,6 +440,10 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
      * This returns an empty list when nothing in the World Wind scene intersects the screen point, when the screen
      * point is outside this View's bounds, or if the OpenGL thread displaying the World Window's scene is paused (or
      * becomes paused while this method is executing).
+     * <p/>
+     * Picks are answered on the calling thread from the screen geometry of the most recently rendered frame when the
+     * World Window's pick index is enabled and can answer them. Otherwise this renders a pick frame and waits for the OpenGL thread to
+     * determine the objects displayed at the screen point. See {@link ScreenPickIndex}.
      *
      * @param x the screen point's X coordinate in Android screen pixels
      * @param y the screen point's Y coordinate in Android screen pixels
@@ -413,6 +467,12 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
             return pickedObjects;
         }
 
+        // Answer the pick from the screen geometry recorded for the most recently rendered frame when possible. This
+        // avoids rendering a pick frame and waiting for the OpenGL thread to read back the pick frame's pixels.
+        if (this.pickIndex.pick(x, this.getHeight() - y, pickedObjects)) {
+            return pickedObjects;
+        }
+
         // Compute the line in Cartesian coordinates that passes through the pick point. Nothing can be picked if the
         // line cannot be constructed.
         Line pickRay = new Line();
@@ -488,6 +548,181 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
         return pickedObjects;
     }
 
+    /**
+     * Determines the World Wind objects displayed at a screen point without blocking the calling thread. The screen
+     * point is interpreted as coordinates in Android screen pixels relative to this View. Must be called on the main
+     * thread.
+     * <p/>
+     * The callback receives the same list of picked objects as {@link #pick(float, float)}, and is called on the main
+     * thread after this method returns. Picks requested during the same display frame are coalesced into a single pick
+     * frame rendered at the next display frame, so that continuous picks while the user drags do not block input
+     * handling. Picks requested while the OpenGL thread is paused complete after the World Window resumes.
+     *
+     * @param x        the screen point's X coordinate in Android screen pixels
+     * @param y        the screen point's Y coordinate in Android screen pixels
+     * @param callback the callback to receive the World Wind objects at the screen point
+     *
+     * @throws IllegalArgumentException If the callback is null
+     */
+    public void pick(float x, float y, PickCallback callback) {
+        if (callback == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "WorldWindow", "pick", "missingCallback"));
+        }
+
+        PickRequest request = new PickRequest(callback);
+
+        // Compute the pick point in OpenGL screen coordinates, rounding to the nearest whole pixel.
+        int px = Math.round(x);
+        int py = Math.round(this.getHeight() - y);
+        request.pickPoint = new Vec2(px, py);
+        request.pickViewport = new Viewport(px - 1, py - 1, 3, 3); // 3x3 viewport centered on the pick point
+
+        // Answer the pick immediately when the pick point is outside the World Window's viewport, or when the pick
+        // index can answer it. Pending picks wait for the World Window to resume.
+        if (!this.isPaused && !this.viewport.isEmpty()) {
+            if (!this.viewport.contains(px, py)
+                || this.pickIndex.pick(x, this.getHeight() - y, request.pickedObjects)) {
+                this.postPickCompleted(Collections.singletonList(request));
+                return;
+            }
+        }
+
+        this.pendingPicks.add(request);
+        this.requestPickFrame();
+    }
+
+    /**
+     * Determines the World Wind shapes displayed in a screen rectangle without blocking the calling thread. The screen
+     * rectangle is interpreted as coordinates in Android screen pixels relative to this view. Must be called on the
+     * main thread.
+     * <p/>
+     * The callback receives the same list of picked objects as {@link #pickShapesInRect(float, float, float, float)},
+     * and is called on the main thread after this method returns. Picks are coalesced and deferred as described in
+     * {@link #pick(float, float, PickCallback)}.
+     *
+     * @param x        the screen rectangle's X coordinate in Android screen pixels
+     * @param y        the screen rectangle's Y coordinate in Android screen pixels
+     * @param width    the screen rectangle's width in Android screen pixels
+     * @param height   the screen rectangle's height in Android screen pixels
+     * @param callback the callback to receive the World Wind shapes in the screen rectangle
+     *
+     * @throws IllegalArgumentException If the callback is null
+     */
+    public void pickShapesInRect(float x, float y, float width, float height, PickCallback callback) {
+        if (callback == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "WorldWindow", "pickShapesInRect", "missingCallback"));
+        }
+
+        PickRequest request = new PickRequest(callback);
+
+        int px = (int) Math.floor(x);
+        int py = (int) Math.floor(this.getHeight() - (y + height));
+        int pw = (int) Math.ceil(width);
+        int ph = (int) Math.ceil(height);
+        request.pickViewport = new Viewport(px, py, pw, ph); // caller-specified pick rectangle
+
+        // Answer the pick immediately when the screen rectangle is outside the World Window's viewport.
+        if (!this.isPaused && !this.viewport.isEmpty() && !this.viewport.intersects(px, py, pw, ph)) {
+            this.postPickCompleted(Collections.singletonList(request));
+            return;
+        }
+
+        this.pendingPicks.add(request);
+        this.requestPickFrame();
+    }
+
+    /**
+     * Determines the World Wind shapes displayed in a screen polygon, such as a lasso drawn by the user. The polygon's
+     * vertices are interpreted as coordinates in Android screen pixels relative to this view. The polygon is implicitly
+     * closed, and its interior is determined by the even-odd rule.
+     * <p/>
+     * The returned list is determined in the same manner as {@link #pickShapesInRect(float, float, float, float)},
+     * limited to the shapes displayed in the polygon's interior.
+     *
+     * @param points the polygon's vertices as consecutive X and Y coordinates in Android screen pixels
+     *
+     * @return a list of World Wind shapes in the screen polygon
+     *
+     * @throws IllegalArgumentException If the points array is null or contains fewer than three vertices
+     */
+    public PickedObjectList pickShapesInPolygon(float[] points) {
+        if (points == null || points.length < 6 || points.length % 2 != 0) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "WorldWindow", "pickShapesInPolygon", "missingArray"));
+        }
+
+        // Allocate a list in which to collect and return the picked objects.
+        PickedObjectList pickedObjects = new PickedObjectList();
+
+        // Nothing can be picked if the World Window's OpenGL thread is paused.
+        if (this.isPaused) {
+            return pickedObjects;
+        }
+
+        // Convert the polygon to OpenGL screen coordinates, and pick the shapes in the polygon's bounding rectangle
+        // that are displayed in the polygon's interior.
+        float[] pickPolygon = this.screenPolygon(points);
+        Viewport pickViewport = this.screenPolygonBounds(pickPolygon);
+        if (!pickViewport.intersect(this.viewport)) {
+            return pickedObjects;
+        }
+
+        // Obtain a frame from the pool and render the frame, accumulating Drawables to process in the OpenGL thread.
+        Frame frame = Frame.obtain(this.framePool);
+        frame.pickedObjects = pickedObjects;
+        frame.pickViewport = pickViewport;
+        frame.pickPolygon = pickPolygon;
+        frame.pickMode = true;
+        this.renderFrame(frame);
+
+        // Wait until the OpenGL thread is done processing the frame and resolving the picked objects.
+        frame.awaitDone();
+
+        return pickedObjects;
+    }
+
+    /**
+     * Determines the World Wind shapes displayed in a screen polygon without blocking the calling thread. The polygon's
+     * vertices are interpreted as coordinates in Android screen pixels relative to this view. Must be called on the
+     * main thread.
+     * <p/>
+     * The callback receives the same list of picked objects as {@link #pickShapesInPolygon(float[])}, and is called on
+     * the main thread after this method returns. Picks are coalesced and deferred as described in {@link #pick(float,
+     * float, PickCallback)}.
+     *
+     * @param points   the polygon's vertices as consecutive X and Y coordinates in Android screen pixels
+     * @param callback the callback to receive the World Wind shapes in the screen polygon
+     *
+     * @throws IllegalArgumentException If the points array is null or contains fewer than three vertices, or if the
+     *                                  callback is null
+     */
+    public void pickShapesInPolygon(float[] points, PickCallback callback) {
+        if (points == null || points.length < 6 || points.length % 2 != 0) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "WorldWindow", "pickShapesInPolygon", "missingArray"));
+        }
+
+        if (callback == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "WorldWindow", "pickShapesInPolygon", "missingCallback"));
+        }
+
+        PickRequest request = new PickRequest(callback);
+        request.pickPolygon = this.screenPolygon(points);
+        request.pickViewport = this.screenPolygonBounds(request.pickPolygon);
+
+        // Answer the pick immediately when the polygon is outside the World Window's viewport.
+        if (!this.isPaused && !this.viewport.isEmpty() && !this.viewport.intersects(request.pickViewport)) {
+            this.postPickCompleted(Collections.singletonList(request));
+            return;
+        }
+
+        this.pendingPicks.add(request);
+        this.requestPickFrame();
+    }
+
     /**
      * Transforms a Cartesian coordinate point to Android screen coordinates. The resultant screen point is in Android
      * screen pixels relative to this View.
@@ -712,12 +947,28 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
         // Clear any cached OpenGL resources and state, which are now invalid.
         this.dc.contextLost();
 
+        // Determine whether the OpenGL context supports loading shader programs from their stored binaries.
+        if (this.dc.programBinaryCache != null) {
+            this.dc.programBinaryCache.contextCreated();
+        }
+
+        // Determine whether the OpenGL context supports vertex array objects, which are core in OpenGL ES 3.0.
+        String version = GLES20.glGetString(GLES20.GL_VERSION);
+        this.dc.vertexArraysSupported = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2
+            && version != null && version.startsWith("OpenGL ES ") && !version.startsWith("OpenGL ES 2");
+
         // Set the World Window's depth bits.
         int[] depthBits = new int[1];
         GLES20.glGetIntegerv(GLES20.GL_DEPTH_BITS, depthBits, 0);
         this.mainThreadHandler.sendMessage(
             Message.obtain(this.mainThreadHandler, MSG_ID_SET_DEPTH_BITS /*msg.what*/, depthBits[0] /*msg.obj*/));
 
+        // Determine whether the OpenGL context supports 32-bit element indices.
+        String extensions = GLES20.glGetString(GLES20.GL_EXTENSIONS);
+        boolean elementIndexUint = extensions != null && extensions.contains("GL_OES_element_index_uint");
+        this.mainThreadHandler.sendMessage(
+            Message.obtain(this.mainThreadHandler, MSG_ID_SET_ELEMENT_INDEX_UINT /*msg.what*/, elementIndexUint /*msg.obj*/));
+
         // Clear the render resource cache on the main thread.
         this.mainThreadHandler.sendEmptyMessage(MSG_ID_CLEAR_CACHE /*msg.what*/);
     }
@@ -756,6 +1007,9 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
                 Logger.logMessage(Logger.ERROR, "WorldWindow", "onDrawFrame",
                     "Exception while processing pick in OpenGL thread", e);
             } finally {
+                if (pickFrame.pickRequests != null) {
+                    this.postPickCompleted(pickFrame.pickRequests);
+                }
                 pickFrame.signalDone();
                 pickFrame.recycle();
                 super.requestRender();
@@ -847,6 +1101,9 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
 
         // Mark the World Window as not paused.
         this.isPaused = false;
+
+        // Render any picks requested while the World Window was paused.
+        this.requestPickFrame();
     }
 
     @Override
@@ -893,6 +1150,7 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
         this.rc.camera = this.navigator.getAsCamera(this.globe, this.rc.camera);
         this.rc.cameraPoint = this.globe.geographicToCartesian(this.rc.camera.latitude, this.rc.camera.longitude, this.rc.camera.altitude, this.rc.cameraPoint);
         this.rc.renderResourceCache = this.renderResourceCache;
+        this.rc.elementIndexUint = this.elementIndexUint;
         this.rc.renderResourceCache.setResources(this.getContext().getResources());
         this.rc.resources = this.getContext().getResources();
 
@@ -918,11 +1176,29 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
         this.rc.pickViewport = frame.pickViewport;
         this.rc.pickPoint = frame.pickPoint;
         this.rc.pickRay = frame.pickRay;
+        this.rc.pickRequests = frame.pickRequests;
         this.rc.pickMode = frame.pickMode;
 
+        // Record the pickable geometry of displayed frames in the pick index, which answers subsequent picks without
+        // rendering a pick frame.
+        if (!pickMode && this.pickIndex.isEnabled()) {
+            this.rc.pickIndex = this.pickIndex;
+            this.pickIndex.beginFrame(this.rc);
+        }
+
+        // Adopt a limited number of text glyphs rasterized on separate threads since the previous frame, spreading the
+        // cost of displaying new text across frames. Request another frame when glyphs remain to be adopted.
+        if (this.renderResourceCache.getGlyphAtlas().adoptGlyphs()) {
+            this.rc.requestRedraw();
+        }
+
         // Let the frame controller render the World Window's current state.
         this.frameController.renderFrame(this.rc);
 
+        if (this.rc.pickIndex != null) {
+            this.rc.pickIndex.endFrame(this.rc);
+        }
+
         // Enqueue the frame for processing on the OpenGL thread as soon as possible and wake the OpenGL thread.
         if (pickMode) {
             this.pickQueue.offer(frame);
@@ -974,6 +1250,8 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
         this.dc.pickedObjects = frame.pickedObjects;
         this.dc.pickViewport = frame.pickViewport;
         this.dc.pickPoint = frame.pickPoint;
+        this.dc.pickPolygon = frame.pickPolygon;
+        this.dc.pickRequests = frame.pickRequests;
         this.dc.pickMode = frame.pickMode;
 
         // Let the frame controller draw the frame.
@@ -996,6 +1274,7 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
         // that threads waiting for the frame to finish don't block indefinitely.
         Frame pickFrame;
         while ((pickFrame = this.pickQueue.poll()) != null) {
+            this.retainPickRequests(pickFrame.pickRequests);
             pickFrame.signalDone();
             pickFrame.recycle();
         }
@@ -1013,6 +1292,150 @@ public class WorldWindow extends GLSurfaceView implements Choreographer.FrameCal
         }
     }
 
+    protected float[] screenPolygon(float[] points) {
+        // Convert the polygon's vertices from Android screen coordinates to OpenGL screen coordinates.
+        float[] polygon = new float[points.length];
+        float height = this.getHeight();
+        for (int idx = 0; idx < points.length; idx += 2) {
+            polygon[idx] = points[idx];
+            polygon[idx + 1] = height - points[idx + 1];
+        }
+
+        return polygon;
+    }
+
+    protected Viewport screenPolygonBounds(float[] polygon) {
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int idx = 0; idx < polygon.length; idx += 2) {
+            minX = Math.min(minX, polygon[idx]);
+            maxX = Math.max(maxX, polygon[idx]);
+            minY = Math.min(minY, polygon[idx + 1]);
+            maxY = Math.max(maxY, polygon[idx + 1]);
+        }
+
+        int x = (int) Math.floor(minX);
+        int y = (int) Math.floor(minY);
+        return new Viewport(x, y, (int) Math.ceil(maxX) - x, (int) Math.ceil(maxY) - y);
+    }
+
+    protected void requestPickFrame() {
+        // Suppress duplicate pick frame requests, requests that occur while the World Window is paused, and requests
+        // that occur before we have an Android surface to draw to.
+        if (!this.isWaitingForPick && !this.isPaused && !this.viewport.isEmpty() && !this.pendingPicks.isEmpty()) {
+            Choreographer.getInstance().postFrameCallback(this.pickFrameCallback);
+            this.isWaitingForPick = true;
+        }
+    }
+
+    protected void renderPickRequests() {
+        // Allow subsequent pick frame requests.
+        this.isWaitingForPick = false;
+
+        if (this.isPaused || this.viewport.isEmpty() || this.pendingPicks.isEmpty()) {
+            return; // pending picks are rendered after the World Window resumes
+        }
+
+        // Coalesce the pending pick requests into a single pick frame whose pick viewport contains each request's pick
+        // viewport. Requests outside the World Window's viewport, which may have changed since they were submitted,
+        // complete with an empty list.
+        List<PickRequest> requests = new ArrayList<>();
+        List<PickRequest> emptyRequests = null;
+        Viewport pickViewport = new Viewport();
+        for (int idx = 0, len = this.pendingPicks.size(); idx < len; idx++) {
+            PickRequest request = this.pendingPicks.get(idx);
+            Vec2 pickPoint = request.pickPoint;
+            if ((pickPoint != null && !this.viewport.contains((int) pickPoint.x, (int) pickPoint.y))
+                || !request.pickViewport.intersect(this.viewport)) {
+                if (emptyRequests == null) {
+                    emptyRequests = new ArrayList<>();
+                }
+                emptyRequests.add(request);
+                continue;
+            }
+
+            // Compute the line in Cartesian coordinates that passes through the pick point. The terrain position is
+            // unknown if the line cannot be constructed.
+            if (pickPoint != null) {
+                request.pickRay = new Line();
+                if (!this.rayThroughScreenPoint((float) pickPoint.x, (float) (this.getHeight() - pickPoint.y),
+                    request.pickRay)) {
+                    request.pickRay = null;
+                }
+            }
+
+            Viewport vp = request.pickViewport;
+            if (pickViewport.isEmpty()) {
+                pickViewport.set(vp);
+            } else {
+                int x0 = Math.min(pickViewport.x, vp.x);
+                int y0 = Math.min(pickViewport.y, vp.y);
+                int x1 = Math.max(pickViewport.x + pickViewport.width, vp.x + vp.width);
+                int y1 = Math.max(pickViewport.y + pickViewport.height, vp.y + vp.height);
+                pickViewport.set(x0, y0, x1 - x0, y1 - y0);
+            }
+
+            requests.add(request);
+        }
+
+        this.pendingPicks.clear();
+
+        if (emptyRequests != null) {
+            this.postPickCompleted(emptyRequests);
+        }
+
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        // Obtain a frame from the pool and render the frame, accumulating Drawables to process in the OpenGL thread.
+        // The OpenGL thread resolves each request's picked objects, and posts the completed requests to the main
+        // thread.
+        try {
+            Frame frame = Frame.obtain(this.framePool);
+            frame.pickedObjects = new PickedObjectList();
+            frame.pickViewport = pickViewport;
+            frame.pickRequests = requests;
+            frame.pickMode = true;
+            this.renderFrame(frame);
+        } catch (Exception e) {
+            Logger.logMessage(Logger.ERROR, "WorldWindow", "renderPickRequests",
+                "Exception while rendering pick frame in Choreographer callback", e);
+            this.postPickCompleted(requests);
+        }
+    }
+
+    protected void retainPickRequests(List<PickRequest> requests) {
+        // Return the requests of a pick frame that will not be processed to the pending picks, ahead of any picks
+        // requested since the frame was rendered.
+        if (requests != null) {
+            for (int idx = 0, len = requests.size(); idx < len; idx++) {
+                requests.get(idx).reset();
+            }
+            this.pendingPicks.addAll(0, requests);
+        }
+    }
+
+    protected void postPickCompleted(List<PickRequest> requests) {
+        // Complete the requests on the main thread. May be called on any thread.
+        this.mainThreadHandler.sendMessage(
+            Message.obtain(this.mainThreadHandler, MSG_ID_PICK_COMPLETED /*msg.what*/, requests /*msg.obj*/));
+    }
+
+    @SuppressWarnings("unchecked")
+    protected void completePickRequests(Object requests) {
+        List<PickRequest> list = (List<PickRequest>) requests;
+        for (int idx = 0, len = list.size(); idx < len; idx++) {
+            PickRequest request = list.get(idx);
+            try {
+                request.callback.pickCompleted(this, request.pickedObjects);
+            } catch (Exception e) {
+                Logger.logMessage(Logger.ERROR, "WorldWindow", "completePickRequests",
+                    "Exception while completing pick request", e);
+                // Keep going. Complete the remaining requests.
+            }
+        }
+    }
+
     protected void computeViewingTransform(Matrix4 projection, Matrix4 modelview) {
         // Compute the clip plane distances. The near distance is set to a large value that does not clip the globe's
         // surface. The far distance is set to the smallest value that does not clip the atmosphere.
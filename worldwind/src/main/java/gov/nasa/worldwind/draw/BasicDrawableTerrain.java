@@ -11,6 +11,7 @@ import gov.nasa.worldwind.geom.Range;
 import gov.nasa.worldwind.geom.Sector;
 import gov.nasa.worldwind.geom.Vec3;
 import gov.nasa.worldwind.render.BufferObject;
+import gov.nasa.worldwind.render.VertexArrayObject;
 import gov.nasa.worldwind.util.Pool;
 
 public class BasicDrawableTerrain implements DrawableTerrain {
@@ -29,6 +30,8 @@ public class BasicDrawableTerrain implements DrawableTerrain {
 
     public BufferObject elements;
 
+    public VertexArrayObject vertexArray;
+
     private Pool<BasicDrawableTerrain> pool;
 
     protected BasicDrawableTerrain() {
@@ -49,6 +52,7 @@ public class BasicDrawableTerrain implements DrawableTerrain {
         this.vertexPoints = null;
         this.vertexTexCoords = null;
         this.elements = null;
+        this.vertexArray = null;
 
         if (this.pool != null) { // return this instance to the pool
             this.pool.release(this);
@@ -86,11 +90,25 @@ public class BasicDrawableTerrain implements DrawableTerrain {
         return bufferBound;
     }
 
+    @Override
+    public boolean useVertexArray(DrawContext dc) {
+        if (this.vertexPoints == null || this.vertexTexCoords == null || this.elements == null) {
+            return false;
+        }
+
+        VertexArrayObject vertexArray = (this.vertexArray != null) ? this.vertexArray : dc.scratchVertexArray();
+        vertexArray.vertexAttrib(0 /*vertexPoint*/, this.vertexPoints, 3, GLES20.GL_FLOAT, false, 0, 0);
+        vertexArray.vertexAttrib(1 /*vertexTexCoord*/, this.vertexTexCoords, 2, GLES20.GL_FLOAT, false, 0, 0);
+        vertexArray.elementBuffer(this.elements);
+
+        return vertexArray.bindVertexArray(dc, 0 /*layout*/);
+    }
+
     @Override
     public boolean drawLines(DrawContext dc) {
         boolean bufferBound = (this.elements != null && this.elements.bindBuffer(dc));
         if (bufferBound) {
-            GLES20.glDrawElements(GLES20.GL_LINES, this.lineElementRange.length(), GLES20.GL_UNSIGNED_SHORT,
+            dc.drawElements(GLES20.GL_LINES, this.lineElementRange.length(), GLES20.GL_UNSIGNED_SHORT,
                 this.lineElementRange.lower * 2);
         }
 
@@ -101,7 +119,7 @@ public class BasicDrawableTerrain implements DrawableTerrain {
     public boolean drawTriangles(DrawContext dc) {
         boolean bufferBound = (this.elements != null && this.elements.bindBuffer(dc));
         if (bufferBound) {
-            GLES20.glDrawElements(GLES20.GL_TRIANGLE_STRIP, this.triStripElementRange.length(), GLES20.GL_UNSIGNED_SHORT,
+            dc.drawElements(GLES20.GL_TRIANGLE_STRIP, this.triStripElementRange.length(), GLES20.GL_UNSIGNED_SHORT,
                 this.triStripElementRange.lower * 2);
         }
 
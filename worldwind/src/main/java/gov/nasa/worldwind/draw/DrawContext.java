@@ -6,6 +6,7 @@
 package gov.nasa.worldwind.draw;
 
 import android.opengl.GLES20;
+import android.opengl.GLES30;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -13,8 +14,10 @@ import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
+import gov.nasa.worldwind.PickRequest;
 import gov.nasa.worldwind.PickedObjectList;
 import gov.nasa.worldwind.geom.Matrix4;
 import gov.nasa.worldwind.geom.Vec2;
@@ -23,10 +26,41 @@ import gov.nasa.worldwind.geom.Viewport;
 import gov.nasa.worldwind.render.BufferObject;
 import gov.nasa.worldwind.render.Color;
 import gov.nasa.worldwind.render.Framebuffer;
+import gov.nasa.worldwind.render.ProgramBinaryCache;
 import gov.nasa.worldwind.render.Texture;
+import gov.nasa.worldwind.render.VertexArrayObject;
+import gov.nasa.worldwind.util.IntSet;
+import gov.nasa.worldwind.util.Logger;
+import gov.nasa.worldwind.util.LruMemoryCache;
+import gov.nasa.worldwind.util.SectorQuadtree;
 
 public class DrawContext {
 
+    protected static final int CAPABILITY_BLEND = 1;
+
+    protected static final int CAPABILITY_CULL_FACE = 1 << 1;
+
+    protected static final int CAPABILITY_DEPTH_TEST = 1 << 2;
+
+    /**
+     * The OpenGL capabilities enabled by default in World Wind, as configured by the World Window when the OpenGL
+     * context is created.
+     */
+    protected static final int DEFAULT_CAPABILITIES = CAPABILITY_BLEND | CAPABILITY_CULL_FACE | CAPABILITY_DEPTH_TEST;
+
+    /**
+     * The vertex attribute arrays enabled in the default World Wind OpenGL state: only vertexPoint, at location 0.
+     */
+    protected static final int DEFAULT_VERTEX_ATTRIB_ARRAYS = 1;
+
+    protected static final int SURFACE_TILE_CACHE_CAPACITY = 1024 * 1024 * 64;
+
+    /**
+     * The surface tile cache's low water, to which the cache trims its least recently used textures when it's full. A
+     * frame's surface tiles must fit below the low water in order to survive until the next frame.
+     */
+    protected static final int SURFACE_TILE_CACHE_LOW_WATER = 1024 * 1024 * 48;
+
     public Vec3 eyePoint = new Vec3();
 
     public Viewport viewport = new Viewport();
@@ -51,8 +85,24 @@ public class DrawContext {
 
     public Vec2 pickPoint;
 
+    public float[] pickPolygon;
+
+    public List<PickRequest> pickRequests;
+
     public boolean pickMode;
 
+    /**
+     * The cache shader programs load their binaries from, or null if program binaries are not cached. Retained across
+     * frames and OpenGL contexts.
+     */
+    public ProgramBinaryCache programBinaryCache;
+
+    /**
+     * Indicates whether the current OpenGL context supports vertex array objects. When false, {@link
+     * VertexArrayObject} emulates vertex arrays by applying their attributes directly.
+     */
+    public boolean vertexArraysSupported;
+
     private int framebufferId;
 
     private int programId;
@@ -65,16 +115,56 @@ public class DrawContext {
 
     private int elementArrayBufferId;
 
+    private int vertexArrayId;
+
+    private int defaultElementArrayBufferId;
+
+    private int vertexAttribArrayMask = DEFAULT_VERTEX_ATTRIB_ARRAYS;
+
+    private int capabilities = DEFAULT_CAPABILITIES;
+
+    private int appliedCapabilities = DEFAULT_CAPABILITIES;
+
+    private boolean depthMask = true;
+
+    private boolean appliedDepthMask = true;
+
+    private float lineWidth = 1;
+
+    private float appliedLineWidth = 1;
+
+    private int blendSrcFactor = GLES20.GL_ONE;
+
+    private int blendDstFactor = GLES20.GL_ONE_MINUS_SRC_ALPHA;
+
+    private int appliedBlendSrcFactor = GLES20.GL_ONE;
+
+    private int appliedBlendDstFactor = GLES20.GL_ONE_MINUS_SRC_ALPHA;
+
     private Framebuffer surfaceFramebuffer;
 
+    private Framebuffer surfaceTileFramebuffer;
+
+    private LruMemoryCache<Object, Texture> surfaceTileCache;
+
+    private int surfaceTileBytes;
+
     private BufferObject unitSquareBuffer;
 
+    private QuadBatch quadBatch;
+
+    private VertexArrayObject scratchVertexArray;
+
     private ByteBuffer scratchBuffer = ByteBuffer.allocateDirect(4).order(ByteOrder.nativeOrder());
 
     private ArrayList<Object> scratchList = new ArrayList<>();
 
+    private SectorQuadtree<Object> scratchQuadtree = new SectorQuadtree<>();
+
     private byte[] pixelArray = new byte[4];
 
+    private float[] scratchCrossings = new float[8];
+
     public DrawContext() {
     }
 
@@ -91,9 +181,13 @@ public class DrawContext {
         this.pickedObjects = null;
         this.pickViewport = null;
         this.pickPoint = null;
+        this.pickPolygon = null;
+        this.pickRequests = null;
         this.pickMode = false;
         this.scratchBuffer.clear();
         this.scratchList.clear();
+        this.scratchQuadtree.clear();
+        this.surfaceTileBytes = 0;
     }
 
     public void contextLost() {
@@ -103,8 +197,27 @@ public class DrawContext {
         this.textureUnit = GLES20.GL_TEXTURE0;
         this.arrayBufferId = 0;
         this.elementArrayBufferId = 0;
+        this.vertexArrayId = 0;
+        this.defaultElementArrayBufferId = 0;
+        this.vertexAttribArrayMask = DEFAULT_VERTEX_ATTRIB_ARRAYS;
+        this.scratchVertexArray = null; // the vertex arrays are invalid; discard them without releasing them
+        this.capabilities = DEFAULT_CAPABILITIES;
+        this.appliedCapabilities = DEFAULT_CAPABILITIES;
+        this.depthMask = true;
+        this.appliedDepthMask = true;
+        this.lineWidth = 1;
+        this.appliedLineWidth = 1;
+        this.blendSrcFactor = GLES20.GL_ONE;
+        this.blendDstFactor = GLES20.GL_ONE_MINUS_SRC_ALPHA;
+        this.appliedBlendSrcFactor = GLES20.GL_ONE;
+        this.appliedBlendDstFactor = GLES20.GL_ONE_MINUS_SRC_ALPHA;
         this.surfaceFramebuffer = null;
+        this.surfaceTileFramebuffer = null;
+        this.surfaceTileCache = null; // the cached textures are invalid; discard them without releasing them
         this.unitSquareBuffer = null;
+        if (this.quadBatch != null) {
+            this.quadBatch.contextLost();
+        }
         Arrays.fill(this.textureId, 0);
     }
 
@@ -167,6 +280,61 @@ public class DrawContext {
         return (this.surfaceFramebuffer = framebuffer);
     }
 
+    /**
+     * Returns a framebuffer object without attachments, used to render surface shapes into the textures held by the
+     * {@link #surfaceTileCache() surface tile cache}. Callers attach the texture to render into before binding the
+     * framebuffer.
+     *
+     * @return the surface tile framebuffer
+     */
+    public Framebuffer surfaceTileFramebuffer() {
+        if (this.surfaceTileFramebuffer != null) {
+            return this.surfaceTileFramebuffer;
+        }
+
+        return (this.surfaceTileFramebuffer = new Framebuffer());
+    }
+
+    /**
+     * Returns a cache of textures containing surface shapes rasterized for individual terrain tiles. The cache is
+     * associated with the current OpenGL context and must be accessed only from the OpenGL thread. Textures evicted or
+     * removed from the cache are released immediately.
+     *
+     * @return the surface tile cache
+     */
+    public LruMemoryCache<Object, Texture> surfaceTileCache() {
+        if (this.surfaceTileCache != null) {
+            return this.surfaceTileCache;
+        }
+
+        return (this.surfaceTileCache = new LruMemoryCache<Object, Texture>(SURFACE_TILE_CACHE_CAPACITY,
+            SURFACE_TILE_CACHE_LOW_WATER) {
+            @Override
+            protected void entryRemoved(Object key, Texture oldValue, Texture newValue, boolean evicted) {
+                oldValue.release(DrawContext.this);
+            }
+        });
+    }
+
+    /**
+     * Reserves space in the {@link #surfaceTileCache() surface tile cache} for the current frame's surface tile
+     * textures. Reservations accumulate until the frame ends. A reservation that would exceed the space the cache
+     * retains from one frame to the next is refused; the caller should then draw its tiles without the cache, since
+     * cached tiles would evict one another before the next frame could use them.
+     *
+     * @param byteCount the number of bytes to reserve
+     *
+     * @return true if the space is reserved, false if the current frame's tiles do not fit in the cache
+     */
+    public boolean reserveSurfaceTileBytes(int byteCount) {
+        if (this.surfaceTileBytes + byteCount > SURFACE_TILE_CACHE_LOW_WATER) {
+            return false;
+        }
+
+        this.surfaceTileBytes += byteCount;
+        return true;
+    }
+
     /**
      * Returns the name of the OpenGL program object that is currently active.
      *
@@ -274,17 +442,297 @@ public class DrawContext {
      * @param bufferId the name of the OpenGL buffer object to make active
      */
     public void bindBuffer(int target, int bufferId) {
-        if (target == GLES20.GL_ARRAY_BUFFER && this.arrayBufferId != bufferId) {
-            this.arrayBufferId = bufferId;
-            GLES20.glBindBuffer(target, bufferId);
-        } else if (target == GLES20.GL_ELEMENT_ARRAY_BUFFER && this.elementArrayBufferId != bufferId) {
-            this.elementArrayBufferId = bufferId;
-            GLES20.glBindBuffer(target, bufferId);
+        if (target == GLES20.GL_ARRAY_BUFFER) {
+            if (this.arrayBufferId != bufferId) {
+                this.arrayBufferId = bufferId;
+                GLES20.glBindBuffer(target, bufferId);
+            }
+        } else if (target == GLES20.GL_ELEMENT_ARRAY_BUFFER) {
+            if (this.elementArrayBufferId != bufferId) {
+                this.elementArrayBufferId = bufferId;
+                GLES20.glBindBuffer(target, bufferId);
+            }
         } else {
             GLES20.glBindBuffer(target, bufferId);
         }
     }
 
+    /**
+     * Returns the name of the OpenGL vertex array object currently bound. The default is 0, indicating that the
+     * default vertex array object is bound.
+     *
+     * @return the currently bound vertex array object, or 0 if the default vertex array object is bound
+     */
+    public int currentVertexArray() {
+        return this.vertexArrayId;
+    }
+
+    /**
+     * Makes an OpenGL vertex array object active. This has no effect if the specified vertex array object is already
+     * bound. The element array buffer binding is part of the vertex array object's state, so the caller specifies the
+     * element array buffer it last bound while the vertex array object was active. Must be called only when {@link
+     * #vertexArraysSupported} is true; typically called by {@link VertexArrayObject}.
+     *
+     * @param vertexArrayId        the name of the OpenGL vertex array object to make active, which must not be 0
+     * @param elementArrayBufferId the element array buffer bound to the vertex array object
+     */
+    public void bindVertexArray(int vertexArrayId, int elementArrayBufferId) {
+        if (this.vertexArrayId != vertexArrayId) {
+            if (this.vertexArrayId == 0) {
+                this.defaultElementArrayBufferId = this.elementArrayBufferId;
+            }
+            this.vertexArrayId = vertexArrayId;
+            this.elementArrayBufferId = elementArrayBufferId;
+            GLES30.glBindVertexArray(vertexArrayId);
+        }
+    }
+
+    /**
+     * Restores the default World Wind vertex attribute state after drawing with a {@link VertexArrayObject}: makes the
+     * default vertex array object active, and disables the vertex attribute arrays enabled by emulated vertex arrays,
+     * leaving only the vertexPoint attribute enabled.
+     */
+    public void unbindVertexArray() {
+        if (this.vertexArrayId != 0) {
+            this.vertexArrayId = 0;
+            this.elementArrayBufferId = this.defaultElementArrayBufferId;
+            GLES30.glBindVertexArray(0);
+        }
+
+        int disable = this.vertexAttribArrayMask & ~DEFAULT_VERTEX_ATTRIB_ARRAYS;
+        for (int idx = 0; disable != 0; idx++, disable >>>= 1) {
+            if ((disable & 1) != 0) {
+                GLES20.glDisableVertexAttribArray(idx);
+            }
+        }
+        this.vertexAttribArrayMask = DEFAULT_VERTEX_ATTRIB_ARRAYS;
+    }
+
+    /**
+     * Enables vertex attribute arrays in the default vertex array object, in addition to those already enabled.
+     * Enabled arrays are disabled by {@link #unbindVertexArray()}. Used by {@link VertexArrayObject} to emulate vertex
+     * arrays when vertex array objects are not supported.
+     *
+     * @param mask the bitwise OR of (1 << location) for each attribute location to enable
+     */
+    public void enableVertexAttribArrays(int mask) {
+        int enable = mask & ~this.vertexAttribArrayMask;
+        for (int idx = 0; enable != 0; idx++, enable >>>= 1) {
+            if ((enable & 1) != 0) {
+                GLES20.glEnableVertexAttribArray(idx);
+            }
+        }
+        this.vertexAttribArrayMask |= mask;
+    }
+
+    /**
+     * Indicates whether OpenGL blending is enabled for subsequent draw commands.
+     *
+     * @return true if blending is enabled, otherwise false
+     */
+    public boolean isBlendEnabled() {
+        return (this.capabilities & CAPABILITY_BLEND) != 0;
+    }
+
+    /**
+     * Enables or disables OpenGL blending for subsequent draw commands. The default is enabled.
+     *
+     * @param enable true to enable blending, false to disable blending
+     *
+     * @see #applyState()
+     */
+    public void enableBlend(boolean enable) {
+        this.enableCapability(CAPABILITY_BLEND, enable);
+    }
+
+    /**
+     * Specifies the OpenGL blending function for subsequent draw commands. The default is GL_ONE and
+     * GL_ONE_MINUS_SRC_ALPHA, which blends colors with premultiplied alpha.
+     *
+     * @param srcFactor the blending source factor
+     * @param dstFactor the blending destination factor
+     *
+     * @see #applyState()
+     */
+    public void blendFunc(int srcFactor, int dstFactor) {
+        this.blendSrcFactor = srcFactor;
+        this.blendDstFactor = dstFactor;
+    }
+
+    /**
+     * Indicates whether OpenGL triangle backface culling is enabled for subsequent draw commands.
+     *
+     * @return true if backface culling is enabled, otherwise false
+     */
+    public boolean isCullFaceEnabled() {
+        return (this.capabilities & CAPABILITY_CULL_FACE) != 0;
+    }
+
+    /**
+     * Enables or disables OpenGL triangle backface culling for subsequent draw commands. The default is enabled.
+     *
+     * @param enable true to enable backface culling, false to disable backface culling
+     *
+     * @see #applyState()
+     */
+    public void enableCullFace(boolean enable) {
+        this.enableCapability(CAPABILITY_CULL_FACE, enable);
+    }
+
+    /**
+     * Indicates whether OpenGL depth testing is enabled for subsequent draw commands.
+     *
+     * @return true if depth testing is enabled, otherwise false
+     */
+    public boolean isDepthTestEnabled() {
+        return (this.capabilities & CAPABILITY_DEPTH_TEST) != 0;
+    }
+
+    /**
+     * Enables or disables OpenGL depth testing for subsequent draw commands. The default is enabled.
+     *
+     * @param enable true to enable depth testing, false to disable depth testing
+     *
+     * @see #applyState()
+     */
+    public void enableDepthTest(boolean enable) {
+        this.enableCapability(CAPABILITY_DEPTH_TEST, enable);
+    }
+
+    /**
+     * Indicates whether subsequent draw commands write to the OpenGL depth buffer.
+     *
+     * @return true if depth buffer writes are enabled, otherwise false
+     */
+    public boolean isDepthMaskEnabled() {
+        return this.depthMask;
+    }
+
+    /**
+     * Enables or disables writes to the OpenGL depth buffer for subsequent draw commands and clears. The default is
+     * enabled.
+     *
+     * @param enable true to enable depth buffer writes, false to disable depth buffer writes
+     *
+     * @see #applyState()
+     */
+    public void depthMask(boolean enable) {
+        this.depthMask = enable;
+    }
+
+    /**
+     * Returns the OpenGL line width for subsequent draw commands.
+     *
+     * @return the line width in screen pixels
+     */
+    public float currentLineWidth() {
+        return this.lineWidth;
+    }
+
+    /**
+     * Specifies the OpenGL line width for subsequent draw commands. The default is 1.
+     *
+     * @param width the line width in screen pixels
+     *
+     * @see #applyState()
+     */
+    public void lineWidth(float width) {
+        this.lineWidth = width;
+    }
+
+    /**
+     * Applies the OpenGL state specified by this draw context's state methods, such as {@link
+     * #enableDepthTest(boolean)}, to the current OpenGL context. Only state that differs from the OpenGL context's
+     * state is applied.
+     * <p/>
+     * State methods record the requested state without calling OpenGL. The requested state is applied by this method,
+     * which is called automatically by {@link #drawArrays(int, int, int)}, {@link #drawElements(int, int, int, int)}
+     * and {@link #clear(int)}. Drawables typically request the state they need, draw, then request the default World
+     * Wind state. Consecutive drawables needing the same non-default state therefore leave the OpenGL state unchanged
+     * between them. Drawables that issue OpenGL draw commands directly must call this method first.
+     */
+    public void applyState() {
+        int changed = this.capabilities ^ this.appliedCapabilities;
+        if (changed != 0) {
+            this.applyCapability(changed, CAPABILITY_BLEND, GLES20.GL_BLEND);
+            this.applyCapability(changed, CAPABILITY_CULL_FACE, GLES20.GL_CULL_FACE);
+            this.applyCapability(changed, CAPABILITY_DEPTH_TEST, GLES20.GL_DEPTH_TEST);
+            this.appliedCapabilities = this.capabilities;
+        }
+
+        if (this.appliedDepthMask != this.depthMask) {
+            this.appliedDepthMask = this.depthMask;
+            GLES20.glDepthMask(this.depthMask);
+        }
+
+        if (this.appliedLineWidth != this.lineWidth) {
+            this.appliedLineWidth = this.lineWidth;
+            GLES20.glLineWidth(this.lineWidth);
+        }
+
+        if (this.appliedBlendSrcFactor != this.blendSrcFactor || this.appliedBlendDstFactor != this.blendDstFactor) {
+            this.appliedBlendSrcFactor = this.blendSrcFactor;
+            this.appliedBlendDstFactor = this.blendDstFactor;
+            GLES20.glBlendFunc(this.blendSrcFactor, this.blendDstFactor);
+        }
+    }
+
+    /**
+     * Applies the requested OpenGL state, then renders primitives from the currently enabled vertex attribute arrays.
+     * See {@link #applyState()}.
+     *
+     * @param mode  the kind of primitives to render
+     * @param first the starting index in the enabled arrays
+     * @param count the number of indices to render
+     */
+    public void drawArrays(int mode, int first, int count) {
+        this.applyState();
+        GLES20.glDrawArrays(mode, first, count);
+    }
+
+    /**
+     * Applies the requested OpenGL state, then renders primitives from the currently bound element array buffer. See
+     * {@link #applyState()}.
+     *
+     * @param mode   the kind of primitives to render
+     * @param count  the number of elements to render
+     * @param type   the type of the values in the element array buffer
+     * @param offset the byte offset of the first element in the element array buffer
+     */
+    public void drawElements(int mode, int count, int type, int offset) {
+        this.applyState();
+        GLES20.glDrawElements(mode, count, type, offset);
+    }
+
+    /**
+     * Applies the requested OpenGL state, then clears buffers of the currently active framebuffer. See {@link
+     * #applyState()}.
+     *
+     * @param mask the bitwise OR of the buffers to clear
+     */
+    public void clear(int mask) {
+        this.applyState();
+        GLES20.glClear(mask);
+    }
+
+    protected void enableCapability(int capability, boolean enable) {
+        if (enable) {
+            this.capabilities |= capability;
+        } else {
+            this.capabilities &= ~capability;
+        }
+    }
+
+    protected void applyCapability(int changed, int capability, int cap) {
+        if ((changed & capability) != 0) {
+            if ((this.capabilities & capability) != 0) {
+                GLES20.glEnable(cap);
+            } else {
+                GLES20.glDisable(cap);
+            }
+        }
+    }
+
     /**
      * Returns an OpenGL buffer object containing a unit square expressed as four vertices at (0, 1), (0, 0), (1, 1) and
      * (1, 0). Each vertex is stored as two 32-bit floating point coordinates. The four vertices are in the order
@@ -313,6 +761,33 @@ public class DrawContext {
         return (this.unitSquareBuffer = bufferObject);
     }
 
+    /**
+     * Returns a quad batch that draws textured, colored screen quads in as few OpenGL draw calls as possible. The quad
+     * batch is created on first use and cached. Subsequent calls to this method return the cached quad batch.
+     */
+    public QuadBatch quadBatch() {
+        if (this.quadBatch == null) {
+            this.quadBatch = new QuadBatch();
+        }
+
+        return this.quadBatch;
+    }
+
+    /**
+     * Returns a vertex array object for drawables whose vertex attributes have no vertex array object of their own.
+     * The scratch vertex array's layouts are respecified whenever a different drawable binds them, so drawing with it
+     * is comparable in cost to specifying vertex attributes directly.
+     *
+     * @return the draw context's scratch vertex array object
+     */
+    public VertexArrayObject scratchVertexArray() {
+        if (this.scratchVertexArray == null) {
+            this.scratchVertexArray = new VertexArrayObject();
+        }
+
+        return this.scratchVertexArray;
+    }
+
     /**
      * Reads the fragment color at a screen point in the currently active OpenGL frame buffer. The X and Y components
      * indicate OpenGL screen coordinates, which originate in the frame buffer's lower left corner.
@@ -382,6 +857,101 @@ public class DrawContext {
         return resultSet;
     }
 
+    /**
+     * Reads the unique picked object identifiers within a screen region in the currently active OpenGL frame buffer.
+     * The region is a screen rectangle, optionally limited to the pixels whose centers are inside a screen polygon.
+     * The components indicate OpenGL screen coordinates, which originate in the frame buffer's lower left corner.
+     * <p/>
+     * Identifiers are decoded directly from each RGBA 8888 pixel into the result set, without converting pixels to
+     * colors. Pixels indicating the identifier zero, which identifies no object, are ignored.
+     *
+     * @param x       the screen rectangle's X component
+     * @param y       the screen rectangle's Y component
+     * @param width   the screen rectangle's width
+     * @param height  the screen rectangle's height
+     * @param polygon the screen polygon's vertices as consecutive X and Y components, or null to read the entire
+     *                rectangle; the polygon is implicitly closed and its interior is determined by the even-odd rule
+     * @param result  a pre-allocated set in which to accumulate the identifiers
+     *
+     * @return the result argument set to the unique picked object identifiers in the region
+     *
+     * @throws IllegalArgumentException If the result is null
+     */
+    public IntSet readPixelIdentifiers(int x, int y, int width, int height, float[] polygon, IntSet result) {
+        if (result == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "DrawContext", "readPixelIdentifiers", "missingResult"));
+        }
+
+        // Read the fragment pixels as a tightly packed array of RGBA 8888 colors.
+        int rowLength = width * 4;
+        ByteBuffer pixelBuffer = (ByteBuffer) this.scratchBuffer(rowLength * height).clear();
+        GLES20.glReadPixels(x, y, width, height, GLES20.GL_RGBA, GLES20.GL_UNSIGNED_BYTE, pixelBuffer);
+
+        if (this.pixelArray.length < rowLength) {
+            this.pixelArray = new byte[rowLength];
+        }
+
+        byte[] row = this.pixelArray;
+        for (int rowIdx = 0; rowIdx < height; rowIdx++) {
+            // Copy each row of RGBA 8888 colors from the NIO buffer to a heap array in bulk to reduce buffer access
+            // overhead.
+            pixelBuffer.position(rowIdx * rowLength);
+            pixelBuffer.get(row, 0, rowLength);
+
+            if (polygon == null) {
+                decodePixelIdentifiers(row, 0, width, result);
+                continue;
+            }
+
+            // Compute the X coordinates where the polygon's edges cross the horizontal line through the center of
+            // the row's pixels. Pairs of crossings delimit the polygon's interior along the line.
+            float cy = y + rowIdx + 0.5f;
+            int count = this.polygonCrossings(polygon, cy);
+            float[] crossings = this.scratchCrossings;
+            for (int idx = 0; idx + 1 < count; idx += 2) {
+                int col0 = (int) Math.ceil(crossings[idx] - x - 0.5f);
+                int col1 = (int) Math.floor(crossings[idx + 1] - x - 0.5f) + 1;
+                decodePixelIdentifiers(row, Math.max(col0, 0), Math.min(col1, width), result);
+            }
+        }
+
+        return result;
+    }
+
+    protected static void decodePixelIdentifiers(byte[] row, int col0, int col1, IntSet result) {
+        // Convert each RGBA 8888 color to a picked object identifier. Adjacent pixels frequently display the same
+        // object, so identifiers repeated from the previous pixel are skipped.
+        int lastId = 0;
+        for (int col = col0, offset = col0 * 4; col < col1; col++, offset += 4) {
+            int id = ((row[offset] & 0xFF) << 16) | ((row[offset + 1] & 0xFF) << 8) | (row[offset + 2] & 0xFF);
+            if (id != 0 && id != lastId) {
+                result.add(id);
+            }
+            lastId = id;
+        }
+    }
+
+    protected int polygonCrossings(float[] polygon, float cy) {
+        int vertexCount = polygon.length / 2;
+        if (this.scratchCrossings.length < vertexCount) {
+            this.scratchCrossings = new float[vertexCount];
+        }
+
+        float[] crossings = this.scratchCrossings;
+        int count = 0;
+        for (int i = 0, j = vertexCount - 1; i < vertexCount; j = i++) {
+            float xi = polygon[i * 2], yi = polygon[i * 2 + 1];
+            float xj = polygon[j * 2], yj = polygon[j * 2 + 1];
+            if ((yi <= cy) != (yj <= cy)) {
+                crossings[count++] = xi + (cy - yi) * (xj - xi) / (yj - yi);
+            }
+        }
+
+        Arrays.sort(crossings, 0, count);
+        return count;
+    }
+
     /**
      * Returns a scratch NIO buffer suitable for use during drawing. The returned buffer has capacity at least equal to
      * the specified capacity. The buffer is cleared before each frame, otherwise its contents, position, limit and mark
@@ -408,4 +978,14 @@ public class DrawContext {
     public ArrayList<Object> scratchList() {
         return this.scratchList;
     }
+
+    /**
+     * Returns a scratch quadtree suitable for spatially indexing entries during drawing. The quadtree is cleared before
+     * each frame, otherwise its contents are undefined.
+     *
+     * @return the draw context's scratch quadtree
+     */
+    public SectorQuadtree<Object> scratchQuadtree() {
+        return this.scratchQuadtree;
+    }
 }
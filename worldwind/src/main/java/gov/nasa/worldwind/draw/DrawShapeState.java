@@ -5,12 +5,15 @@
 
 package gov.nasa.worldwind.draw;
 
+import android.opengl.GLES20;
+
 import gov.nasa.worldwind.geom.Matrix3;
 import gov.nasa.worldwind.geom.Vec3;
 import gov.nasa.worldwind.render.BasicShaderProgram;
 import gov.nasa.worldwind.render.BufferObject;
 import gov.nasa.worldwind.render.Color;
 import gov.nasa.worldwind.render.Texture;
+import gov.nasa.worldwind.render.VertexArrayObject;
 
 public class DrawShapeState {
 
@@ -22,6 +25,12 @@ public class DrawShapeState {
 
     public BufferObject elementBuffer;
 
+    /**
+     * The vertex array capturing the attribute setup of each primitive, or null to use the draw context's scratch
+     * vertex array. Shapes retain their vertex array across frames in the render resource cache.
+     */
+    public VertexArrayObject vertexArray;
+
     public Vec3 vertexOrigin = new Vec3();
 
     public int vertexStride;
@@ -42,6 +51,8 @@ public class DrawShapeState {
 
     protected VertexAttrib texCoordAttrib = new VertexAttrib();
 
+    protected int vertexOffset;
+
     protected int primCount;
 
     protected DrawElements[] prims = new DrawElements[MAX_DRAW_ELEMENTS];
@@ -56,6 +67,7 @@ public class DrawShapeState {
         this.program = null;
         this.vertexBuffer = null;
         this.elementBuffer = null;
+        this.vertexArray = null;
         this.vertexOrigin.set(0, 0, 0);
         this.vertexStride = 0;
         this.enableCullFace = true;
@@ -67,9 +79,10 @@ public class DrawShapeState {
         this.texCoordMatrix.setToIdentity();
         this.texCoordAttrib.size = 0;
         this.texCoordAttrib.offset = 0;
+        this.vertexOffset = 0;
         this.primCount = 0;
 
-        for (int idx = 0; idx < MAX_DRAW_ELEMENTS; idx++) {
+        for (int idx = 0, len = this.prims.length; idx < len; idx++) {
             this.prims[idx].texture = null;
         }
     }
@@ -95,7 +108,27 @@ public class DrawShapeState {
         this.texCoordAttrib.offset = offset;
     }
 
+    /**
+     * Specifies the offset in bytes of the first vertex used by subsequent primitives. Shapes whose vertices are
+     * divided into several ranges, each addressable by 16-bit elements, use the vertex offset to draw each range's
+     * elements relative to the start of that range. The default is 0.
+     *
+     * @param offset the vertex offset in bytes
+     */
+    public void vertexOffset(int offset) {
+        this.vertexOffset = offset;
+    }
+
     public void drawElements(int mode, int count, int type, int offset) {
+        if (this.primCount == this.prims.length) {
+            DrawElements[] newPrims = new DrawElements[this.prims.length * 2];
+            System.arraycopy(this.prims, 0, newPrims, 0, this.prims.length);
+            for (int idx = this.prims.length; idx < newPrims.length; idx++) {
+                newPrims[idx] = new DrawElements();
+            }
+            this.prims = newPrims;
+        }
+
         DrawElements prim = this.prims[this.primCount++];
         prim.mode = mode;
         prim.count = count;
@@ -107,6 +140,71 @@ public class DrawShapeState {
         prim.texCoordMatrix.set(this.texCoordMatrix);
         prim.texCoordAttrib.size = this.texCoordAttrib.size;
         prim.texCoordAttrib.offset = this.texCoordAttrib.offset;
+        prim.vertexOffset = this.vertexOffset;
+    }
+
+    /**
+     * Binds the vertex array for one of this state's primitives, using the vertex buffer's points as the vertexPoint
+     * attribute at location 0, the primitive's tex coords as the vertexTexCoord attribute at location 1, and the
+     * element buffer. Each primitive is a separate layout of the vertex array, so the attribute setup of every primitive
+     * is retained across frames.
+     *
+     * @param dc      the current draw context
+     * @param primIdx the primitive's index
+     *
+     * @return true if the vertex array is bound, or false if a buffer failed to bind
+     */
+    protected boolean bindVertexArray(DrawContext dc, int primIdx) {
+        if (this.vertexBuffer == null || this.elementBuffer == null) {
+            return false;
+        }
+
+        DrawElements prim = this.prims[primIdx];
+        VertexArrayObject vertexArray = (this.vertexArray != null) ? this.vertexArray : dc.scratchVertexArray();
+        vertexArray.vertexAttrib(0 /*vertexPoint*/, this.vertexBuffer, 3, GLES20.GL_FLOAT, false, this.vertexStride,
+            prim.vertexOffset);
+        vertexArray.vertexAttrib(1 /*vertexTexCoord*/, this.vertexBuffer, prim.texCoordAttrib.size, GLES20.GL_FLOAT,
+            false, this.vertexStride, prim.vertexOffset + prim.texCoordAttrib.offset);
+        vertexArray.elementBuffer(this.elementBuffer);
+
+        return vertexArray.bindVertexArray(dc, primIdx);
+    }
+
+    /**
+     * Indicates whether the shape drawn with this state produces the same result regardless of the order it's drawn
+     * in relative to other shapes. This is the case when the shape is depth tested and every primitive is opaque and
+     * untextured, in which case the depth test alone resolves which shape is visible at each fragment.
+     *
+     * @return true if the shape may be drawn in any order, otherwise false
+     */
+    public boolean isOrderIndependent() {
+        if (!this.enableDepthTest) {
+            return false;
+        }
+
+        for (int idx = 0; idx < this.primCount; idx++) {
+            DrawElements prim = this.prims[idx];
+            if (prim.color.alpha < 1 || prim.texture != null) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns a key identifying the OpenGL state this state's shape is drawn with: its program, its buffers and its
+     * capabilities. Shapes with equal keys are likely to share that state. Keys are not unique.
+     *
+     * @return a key identifying this state's OpenGL state
+     */
+    public int stateKey() {
+        int result = System.identityHashCode(this.program);
+        result = 31 * result + System.identityHashCode(this.vertexBuffer);
+        result = 31 * result + System.identityHashCode(this.elementBuffer);
+        result = 31 * result + (this.enableCullFace ? 1 : 0);
+        result = 31 * result + (this.enableDepthTest ? 1 : 0);
+        return result;
     }
 
     protected static class DrawElements {
@@ -128,6 +226,8 @@ public class DrawShapeState {
         public Matrix3 texCoordMatrix = new Matrix3();
 
         public VertexAttrib texCoordAttrib = new VertexAttrib();
+
+        public int vertexOffset;
     }
 
     protected static class VertexAttrib {
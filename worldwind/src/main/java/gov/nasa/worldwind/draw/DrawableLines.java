@@ -74,12 +74,10 @@ public class DrawableLines implements Drawable {
         this.program.loadModelviewProjection(this.mvpMatrix);
 
         // Disable depth testing if requested.
-        if (!this.enableDepthTest) {
-            GLES20.glDisable(GLES20.GL_DEPTH_TEST);
-        }
+        dc.enableDepthTest(this.enableDepthTest);
 
         // Apply the leader's line width in screen pixels.
-        GLES20.glLineWidth(this.lineWidth);
+        dc.lineWidth(this.lineWidth);
 
         // Use the leader line as the vertex point attribute.
         dc.bindBuffer(GLES20.GL_ARRAY_BUFFER, 0);
@@ -89,12 +87,10 @@ public class DrawableLines implements Drawable {
         GLES20.glVertexAttribPointer(0 /*vertexPoint*/, 3, GLES20.GL_FLOAT, false, 0, buffer);
 
         // Draw the leader line.
-        GLES20.glDrawArrays(GLES20.GL_LINES, 0 /*first*/, (buffer.remaining() / 3) /*count*/);
+        dc.drawArrays(GLES20.GL_LINES, 0 /*first*/, (buffer.remaining() / 3) /*count*/);
 
         // Restore the default World Wind OpenGL state.
-        if (!this.enableDepthTest) {
-            GLES20.glEnable(GLES20.GL_DEPTH_TEST);
-        }
-        GLES20.glLineWidth(1);
+        dc.enableDepthTest(true);
+        dc.lineWidth(1);
     }
 }
@@ -19,7 +19,9 @@ public class DrawableQueue {
     protected int position;
 
     /**
-     * Sorts drawables by ascending group ID, then ascending order, then by ascending ordinal.
+     * Sorts drawables by ascending group ID. Within a group, unordered drawables precede ordered drawables. Unordered
+     * drawables are sorted by ascending state key, then by ascending ordinal. Ordered drawables are sorted by ascending
+     * order, then by ascending ordinal.
      */
     protected Comparator<Entry> sortComparator = new Comparator<Entry>() {
         @Override
@@ -28,6 +30,16 @@ public class DrawableQueue {
                 return -1;
             } else if (lhs.groupId > rhs.groupId) {
                 return 1;
+            } else if (lhs.unordered != rhs.unordered) { // sort unordered drawables first
+                return lhs.unordered ? -1 : 1;
+            } else if (lhs.unordered) {
+                if (lhs.stateKey < rhs.stateKey) { // sort by ascending state key
+                    return -1;
+                } else if (lhs.stateKey > rhs.stateKey) {
+                    return 1;
+                } else { // sort by ascending ordinal
+                    return lhs.ordinal - rhs.ordinal;
+                }
             } else if (lhs.order < rhs.order) { // sort by ascending order
                 return -1;
             } else if (lhs.order > rhs.order) {
@@ -47,19 +59,23 @@ public class DrawableQueue {
 
     public void offerDrawable(Drawable drawable, int groupId, double depth) {
         if (drawable != null) {
-            int capacity = this.entries.length;
-            if (capacity == this.size) {
-                int increment = Math.max(capacity >> 1, MIN_CAPACITY_INCREMENT);
-                Entry[] newEntries = new Entry[capacity + increment];
-                System.arraycopy(this.entries, 0, newEntries, 0, capacity);
-                this.entries = newEntries;
-            }
-
-            if (this.entries[this.size] == null) {
-                this.entries[this.size] = new Entry();
-            }
+            this.nextEntry().set(drawable, groupId, depth, this.size);
+            this.size++;
+        }
+    }
 
-            this.entries[this.size].set(drawable, groupId, depth, this.size);
+    /**
+     * Offers a drawable whose output does not depend on the order it's drawn in relative to the other drawables in its
+     * group, such as an opaque depth tested shape. Unordered drawables are drawn before the group's ordered drawables,
+     * clustered by state key so that drawables sharing OpenGL state are drawn consecutively.
+     *
+     * @param drawable the drawable to offer
+     * @param groupId  the drawable's group ID
+     * @param stateKey a key identifying the drawable's OpenGL state
+     */
+    public void offerUnorderedDrawable(Drawable drawable, int groupId, int stateKey) {
+        if (drawable != null) {
+            this.nextEntry().setUnordered(drawable, groupId, stateKey, this.size);
             this.size++;
         }
     }
@@ -81,6 +97,22 @@ public class DrawableQueue {
         this.position = 0;
     }
 
+    protected Entry nextEntry() {
+        int capacity = this.entries.length;
+        if (capacity == this.size) {
+            int increment = Math.max(capacity >> 1, MIN_CAPACITY_INCREMENT);
+            Entry[] newEntries = new Entry[capacity + increment];
+            System.arraycopy(this.entries, 0, newEntries, 0, capacity);
+            this.entries = newEntries;
+        }
+
+        if (this.entries[this.size] == null) {
+            this.entries[this.size] = new Entry();
+        }
+
+        return this.entries[this.size];
+    }
+
     public void clearDrawables() {
         for (int idx = 0, len = this.size; idx < len; idx++) {
             this.entries[idx].recycle();
@@ -100,11 +132,26 @@ public class DrawableQueue {
 
         public int ordinal;
 
+        public boolean unordered;
+
+        public int stateKey;
+
         public void set(Drawable drawable, int groupId, double order, int ordinal) {
             this.drawable = drawable;
             this.groupId = groupId;
             this.order = order;
             this.ordinal = ordinal;
+            this.unordered = false;
+            this.stateKey = 0;
+        }
+
+        public void setUnordered(Drawable drawable, int groupId, int stateKey, int ordinal) {
+            this.drawable = drawable;
+            this.groupId = groupId;
+            this.order = 0;
+            this.ordinal = ordinal;
+            this.unordered = true;
+            this.stateKey = stateKey;
         }
 
         public void recycle() {
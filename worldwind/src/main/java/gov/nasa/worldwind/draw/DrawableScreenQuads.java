@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.draw;
+
+import gov.nasa.worldwind.PickedObject;
+import gov.nasa.worldwind.geom.Matrix4;
+import gov.nasa.worldwind.render.BasicShaderProgram;
+import gov.nasa.worldwind.render.Color;
+import gov.nasa.worldwind.render.Texture;
+import gov.nasa.worldwind.util.Pool;
+
+/**
+ * Draws many screen quads with a small set of styles in a single drawable. Each style specifies a texture, a color and
+ * a depth test mode, and each quad specifies its style, its screen rectangle and depth, an optional rotation about the
+ * rectangle's center, and its picked object ID. Quads are stored in primitive arrays retained by the pooled drawable,
+ * and are drawn grouped by style with the draw context's {@link QuadBatch}.
+ */
+public class DrawableScreenQuads implements Drawable {
+
+    protected static final int QUAD_STRIDE = 6;
+
+    public BasicShaderProgram program = null;
+
+    protected Texture[] styleTextures = new Texture[4];
+
+    protected Color[] styleColors = new Color[4];
+
+    protected boolean[] styleDepthTest = new boolean[4];
+
+    protected int styleCount;
+
+    protected float[] quads = new float[QUAD_STRIDE * 64];
+
+    protected int[] quadStyles = new int[64];
+
+    protected int[] quadPickIds = new int[64];
+
+    protected int quadCount;
+
+    private int[] styleStart = new int[5];
+
+    private int[] order = new int[64];
+
+    private Color pickColor = new Color();
+
+    private Matrix4 transform = new Matrix4();
+
+    private Pool<DrawableScreenQuads> pool;
+
+    public DrawableScreenQuads() {
+    }
+
+    public static DrawableScreenQuads obtain(Pool<DrawableScreenQuads> pool) {
+        DrawableScreenQuads instance = pool.acquire(); // get an instance from the pool
+        return (instance != null) ? instance.setPool(pool) : new DrawableScreenQuads().setPool(pool);
+    }
+
+    private DrawableScreenQuads setPool(Pool<DrawableScreenQuads> pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    @Override
+    public void recycle() {
+        this.program = null;
+        for (int idx = 0; idx < this.styleCount; idx++) {
+            this.styleTextures[idx] = null;
+        }
+        this.styleCount = 0;
+        this.quadCount = 0;
+
+        if (this.pool != null) { // return this instance to the pool
+            this.pool.release(this);
+            this.pool = null;
+        }
+    }
+
+    public int getQuadCount() {
+        return this.quadCount;
+    }
+
+    /**
+     * Adds a style for subsequent quads.
+     *
+     * @param texture         the style's texture, or null to draw quads with a single color
+     * @param color           the style's color
+     * @param enableDepthTest true to depth test the style's quads, false to draw them on top of the scene
+     *
+     * @return the index of the new style
+     */
+    public int addStyle(Texture texture, Color color, boolean enableDepthTest) {
+        int index = this.styleCount++;
+        if (this.styleTextures.length < this.styleCount) {
+            int capacity = this.styleCount * 2;
+            Texture[] newTextures = new Texture[capacity];
+            Color[] newColors = new Color[capacity];
+            boolean[] newDepthTest = new boolean[capacity];
+            System.arraycopy(this.styleTextures, 0, newTextures, 0, index);
+            System.arraycopy(this.styleColors, 0, newColors, 0, index);
+            System.arraycopy(this.styleDepthTest, 0, newDepthTest, 0, index);
+            this.styleTextures = newTextures;
+            this.styleColors = newColors;
+            this.styleDepthTest = newDepthTest;
+        }
+
+        if (this.styleColors[index] == null) {
+            this.styleColors[index] = new Color();
+        }
+
+        this.styleTextures[index] = texture;
+        this.styleColors[index].set(color);
+        this.styleDepthTest[index] = enableDepthTest;
+
+        return index;
+    }
+
+    /**
+     * Adds a quad in screen coordinates.
+     *
+     * @param style          the index of the quad's style
+     * @param x0             the quad's left screen coordinate
+     * @param y0             the quad's bottom screen coordinate
+     * @param x1             the quad's right screen coordinate
+     * @param y1             the quad's top screen coordinate
+     * @param z              the quad's screen depth in the range [0, 1]
+     * @param pickedObjectId the quad's picked object ID, used to determine the quad's color in pick mode
+     */
+    public void addQuad(int style, float x0, float y0, float x1, float y1, float z, int pickedObjectId) {
+        this.addQuad(style, x0, y0, x1, y1, z, 0, pickedObjectId);
+    }
+
+    /**
+     * Adds a quad in screen coordinates, rotated about the center of its screen rectangle.
+     *
+     * @param style          the index of the quad's style
+     * @param x0             the quad's left screen coordinate before rotation
+     * @param y0             the quad's bottom screen coordinate before rotation
+     * @param x1             the quad's right screen coordinate before rotation
+     * @param y1             the quad's top screen coordinate before rotation
+     * @param z              the quad's screen depth in the range [0, 1]
+     * @param rotation       the quad's counter-clockwise rotation in degrees
+     * @param pickedObjectId the quad's picked object ID, used to determine the quad's color in pick mode
+     */
+    public void addQuad(int style, float x0, float y0, float x1, float y1, float z, float rotation,
+                        int pickedObjectId) {
+        int index = this.quadCount++;
+        if (this.quadStyles.length < this.quadCount) {
+            int capacity = this.quadCount * 2;
+            float[] newQuads = new float[capacity * QUAD_STRIDE];
+            int[] newStyles = new int[capacity];
+            int[] newPickIds = new int[capacity];
+            System.arraycopy(this.quads, 0, newQuads, 0, index * QUAD_STRIDE);
+            System.arraycopy(this.quadStyles, 0, newStyles, 0, index);
+            System.arraycopy(this.quadPickIds, 0, newPickIds, 0, index);
+            this.quads = newQuads;
+            this.quadStyles = newStyles;
+            this.quadPickIds = newPickIds;
+        }
+
+        int offset = index * QUAD_STRIDE;
+        this.quads[offset] = x0;
+        this.quads[offset + 1] = y0;
+        this.quads[offset + 2] = x1;
+        this.quads[offset + 3] = y1;
+        this.quads[offset + 4] = z;
+        this.quads[offset + 5] = rotation;
+        this.quadStyles[index] = style;
+        this.quadPickIds[index] = pickedObjectId;
+    }
+
+    @Override
+    public void draw(DrawContext dc) {
+        if (this.quadCount == 0) {
+            return; // no quads to draw
+        }
+
+        if (this.program == null || !this.program.useProgram(dc)) {
+            return; // program unspecified or failed to build
+        }
+
+        QuadBatch batch = dc.quadBatch();
+        if (!batch.begin(dc, this.program)) {
+            return; // batch buffers failed to bind
+        }
+
+        // Draw the quads grouped by style, so that quads sharing a texture are drawn with as few draw calls as
+        // possible. Styles whose textures are packed into the same atlas page are drawn together by the batch.
+        int[] order = this.sortQuadsByStyle();
+        float[] quads = this.quads;
+        for (int idx = 0; idx < this.quadCount; idx++) {
+            int quad = order[idx];
+            int style = this.quadStyles[quad];
+            Texture texture = this.styleTextures[style];
+            Color color = dc.pickMode ? PickedObject.identifierToUniqueColor(this.quadPickIds[quad], this.pickColor)
+                : this.styleColors[style];
+
+            // Map the quad's corners to the texture's region of its image, which is a sub-region of the OpenGL texture
+            // for textures packed into an atlas.
+            float s0 = 0, t0 = 0, s1 = 1, t1 = 1;
+            if (texture != null) {
+                double[] m = texture.getTexCoordTransform().m;
+                s0 = (float) m[2];
+                t0 = (float) m[5];
+                s1 = (float) (m[0] + m[2]);
+                t1 = (float) (m[4] + m[5]);
+            }
+
+            int offset = quad * QUAD_STRIDE;
+            float x0 = quads[offset], y0 = quads[offset + 1], x1 = quads[offset + 2], y1 = quads[offset + 3];
+            float z = quads[offset + 4], rotation = quads[offset + 5];
+            if (rotation == 0) {
+                batch.addQuad(dc, texture, this.styleDepthTest[style], x0, y0, x1, y1, z, s0, t0, s1, t1, color);
+            } else {
+                // Rotate the quad about its center, transforming the quad's corners relative to its center.
+                float hw = (x1 - x0) * 0.5f, hh = (y1 - y0) * 0.5f;
+                Matrix4 transform = this.transform.setToIdentity();
+                transform.multiplyByTranslation(x0 + hw, y0 + hh, z);
+                transform.multiplyByRotation(0, 0, 1, rotation);
+                batch.addQuad(dc, texture, this.styleDepthTest[style], transform, -hw, -hh, hw, hh, s0, t0, s1, t1,
+                    color);
+            }
+        }
+
+        // Draw the remaining quads and restore the default World Wind OpenGL state.
+        batch.end(dc);
+    }
+
+    protected int[] sortQuadsByStyle() {
+        // Count the quads of each style, then compute the position of each style's first quad.
+        if (this.styleStart.length < this.styleCount + 1) {
+            this.styleStart = new int[this.styleCount + 1];
+        }
+
+        int[] start = this.styleStart;
+        for (int idx = 0; idx <= this.styleCount; idx++) {
+            start[idx] = 0;
+        }
+
+        for (int idx = 0; idx < this.quadCount; idx++) {
+            start[this.quadStyles[idx] + 1]++;
+        }
+
+        for (int idx = 1; idx <= this.styleCount; idx++) {
+            start[idx] += start[idx - 1];
+        }
+
+        // Place each quad after the preceding quads of its style, preserving the order quads were added in.
+        if (this.order.length < this.quadCount) {
+            this.order = new int[this.quadStyles.length];
+        }
+
+        for (int idx = 0; idx < this.quadCount; idx++) {
+            this.order[start[this.quadStyles[idx]]++] = idx;
+        }
+
+        return this.order;
+    }
+}
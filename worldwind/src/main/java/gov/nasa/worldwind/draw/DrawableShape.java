@@ -48,12 +48,8 @@ public class DrawableShape implements Drawable {
             return; // program unspecified or failed to build
         }
 
-        if (this.drawState.vertexBuffer == null || !this.drawState.vertexBuffer.bindBuffer(dc)) {
-            return; // vertex buffer unspecified or failed to bind
-        }
-
-        if (this.drawState.elementBuffer == null || !this.drawState.elementBuffer.bindBuffer(dc)) {
-            return; // element buffer unspecified or failed to bind
+        if (this.drawState.vertexBuffer == null || this.drawState.elementBuffer == null) {
+            return; // vertex buffer or element buffer unspecified
         }
 
         // Use the draw context's pick mode.
@@ -69,26 +65,22 @@ public class DrawableShape implements Drawable {
         this.mvpMatrix.multiplyByTranslation(this.drawState.vertexOrigin.x, this.drawState.vertexOrigin.y, this.drawState.vertexOrigin.z);
         this.drawState.program.loadModelviewProjection(this.mvpMatrix);
 
-        // Disable triangle backface culling if requested.
-        if (!this.drawState.enableCullFace) {
-            GLES20.glDisable(GLES20.GL_CULL_FACE);
-        }
-
-        // Disable depth testing if requested.
-        if (!this.drawState.enableDepthTest) {
-            GLES20.glDisable(GLES20.GL_DEPTH_TEST);
-        }
+        // Disable triangle backface culling and depth testing if requested.
+        dc.enableCullFace(this.drawState.enableCullFace);
+        dc.enableDepthTest(this.drawState.enableDepthTest);
 
         // Make multi-texture unit 0 active.
         dc.activeTextureUnit(GLES20.GL_TEXTURE0);
 
-        // Use the shape's vertex point attribute and vertex texture coordinate attribute.
-        GLES20.glEnableVertexAttribArray(1 /*vertexTexCoord*/);
-        GLES20.glVertexAttribPointer(0 /*vertexPoint*/, 3, GLES20.GL_FLOAT, false, this.drawState.vertexStride, 0 /*offset*/);
-
         // Draw the specified primitives.
         for (int idx = 0; idx < this.drawState.primCount; idx++) {
             DrawShapeState.DrawElements prim = this.drawState.prims[idx];
+
+            // Use the primitive's vertex point attribute and vertex texture coordinate attribute.
+            if (!this.drawState.bindVertexArray(dc, idx)) {
+                break; // vertex buffer or element buffer failed to bind
+            }
+
             this.drawState.program.loadColor(prim.color);
 
             if (prim.texture != null && prim.texture.bindTexture(dc)) {
@@ -98,20 +90,15 @@ public class DrawableShape implements Drawable {
                 this.drawState.program.enableTexture(false);
             }
 
-            GLES20.glVertexAttribPointer(1 /*vertexTexCoord*/, prim.texCoordAttrib.size, GLES20.GL_FLOAT, false, this.drawState.vertexStride, prim.texCoordAttrib.offset);
-            GLES20.glLineWidth(prim.lineWidth);
-            GLES20.glDrawElements(prim.mode, prim.count, prim.type, prim.offset);
+            dc.lineWidth(prim.lineWidth);
+            dc.drawElements(prim.mode, prim.count, prim.type, prim.offset);
         }
 
-        // Restore the default World Wind OpenGL state.
-        if (!this.drawState.enableCullFace) {
-            GLES20.glEnable(GLES20.GL_CULL_FACE);
-        }
-        if (!this.drawState.enableDepthTest) {
-            GLES20.glEnable(GLES20.GL_DEPTH_TEST);
-        }
-        GLES20.glLineWidth(1);
-        GLES20.glEnable(GLES20.GL_CULL_FACE);
-        GLES20.glDisableVertexAttribArray(1 /*vertexTexCoord*/);
+        // Restore the default World Wind OpenGL state. The draw context applies the state lazily, so consecutive shapes
+        // requesting the same state don't change the OpenGL state between them.
+        dc.enableCullFace(true);
+        dc.enableDepthTest(true);
+        dc.lineWidth(1);
+        dc.unbindVertexArray();
     }
 }
@@ -58,9 +58,9 @@ public class DrawableSurfaceColor implements Drawable {
             // Get the drawable terrain associated with the draw context.
             DrawableTerrain terrain = dc.getDrawableTerrain(idx);
 
-            // Use the terrain's vertex point attribute.
-            if (!terrain.useVertexPointAttrib(dc, 0 /*vertexPoint*/)) {
-                continue; // vertex buffer failed to bind
+            // Use the terrain's vertex array, containing its vertex point attribute.
+            if (!terrain.useVertexArray(dc)) {
+                continue; // vertex array failed to bind
             }
 
             // Use the draw context's modelview projection matrix, transformed to terrain local coordinates.
@@ -72,5 +72,8 @@ public class DrawableSurfaceColor implements Drawable {
             // Draw the terrain as triangles.
             terrain.drawTriangles(dc);
         }
+
+        // Restore the default World Wind OpenGL state.
+        dc.unbindVertexArray();
     }
 }
@@ -8,6 +8,8 @@ package gov.nasa.worldwind.draw;
 import android.opengl.GLES20;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 
 import gov.nasa.worldwind.geom.Matrix3;
 import gov.nasa.worldwind.geom.Matrix4;
@@ -16,10 +18,39 @@ import gov.nasa.worldwind.geom.Vec3;
 import gov.nasa.worldwind.render.Color;
 import gov.nasa.worldwind.render.Framebuffer;
 import gov.nasa.worldwind.render.Texture;
+import gov.nasa.worldwind.util.LruMemoryCache;
 import gov.nasa.worldwind.util.Pool;
+import gov.nasa.worldwind.util.SectorQuadtree;
 
 public class DrawableSurfaceShape implements Drawable {
 
+    /**
+     * The width and height of surface tile textures. This is half the resolution of the shared surface framebuffer,
+     * which is redrawn for each terrain tile and never retained. Cached tiles trade that resolution for four times as
+     * many tiles in the surface tile cache.
+     */
+    protected static final int TILE_TEXTURE_SIZE = 512;
+
+    /**
+     * The number of bytes used by a surface tile texture. Framebuffer textures have 32-bit RGBA pixels and no mipmaps.
+     */
+    protected static final int TILE_TEXTURE_BYTE_COUNT = TILE_TEXTURE_SIZE * TILE_TEXTURE_SIZE * 4;
+
+    protected static final int MIN_QUADTREE_SHAPES = 32;
+
+    protected static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    protected static final long FNV_PRIME = 0x100000001b3L;
+
+    protected static final Comparator<Object> batchOrder = new Comparator<Object>() {
+        @Override
+        public int compare(Object lhs, Object rhs) {
+            int lhsIndex = ((DrawableSurfaceShape) lhs).batchIndex;
+            int rhsIndex = ((DrawableSurfaceShape) rhs).batchIndex;
+            return (lhsIndex < rhsIndex) ? -1 : ((lhsIndex == rhsIndex) ? 0 : 1);
+        }
+    };
+
     public DrawShapeState drawState = new DrawShapeState();
 
     public Sector sector = new Sector();
@@ -30,6 +61,16 @@ public class DrawableSurfaceShape implements Drawable {
 
     private Color color = new Color();
 
+    private ArrayList<Object> tileShapes = new ArrayList<>();
+
+    private int batchIndex;
+
+    private TileKey tileKey = new TileKey();
+
+    private boolean incompleteShapes;
+
+    private Texture incompleteTexture;
+
     private Pool<DrawableSurfaceShape> pool;
 
     public DrawableSurfaceShape() {
@@ -63,12 +104,9 @@ public class DrawableSurfaceShape implements Drawable {
         // Make multi-texture unit 0 active.
         dc.activeTextureUnit(GLES20.GL_TEXTURE0);
 
-        // Set up to use vertex tex coord attributes.
-        GLES20.glEnableVertexAttribArray(1 /*vertexTexCoord*/); // only vertexPoint is enabled by default
-
         // Accumulate shapes in the draw context's scratch list.
-        // TODO accumulate in a geospatial quadtree
         ArrayList<Object> scratchList = dc.scratchList();
+        SectorQuadtree<Object> quadtree = null;
 
         try {
             // Add this shape.
@@ -80,36 +118,207 @@ public class DrawableSurfaceShape implements Drawable {
                 scratchList.add(dc.pollDrawable()); // take it off the queue
             }
 
+            // Index large batches of shapes in the draw context's scratch quadtree, so that each terrain visits only
+            // the shapes that can intersect its sector. Each shape records its position in the batch in order to
+            // draw intersecting shapes in the order they were accumulated.
+            if (scratchList.size() >= MIN_QUADTREE_SHAPES) {
+                quadtree = dc.scratchQuadtree();
+                for (int idx = 0, len = scratchList.size(); idx < len; idx++) {
+                    DrawableSurfaceShape shape = (DrawableSurfaceShape) scratchList.get(idx);
+                    shape.batchIndex = idx;
+                    quadtree.insert(shape.sector, shape);
+                }
+            }
+
+            // Draw the shapes into cached tile textures when the terrain tiles displaying shapes fit in the surface tile
+            // cache. Otherwise the tiles would evict one another before the next frame could reuse them, so draw each
+            // tile with the shared surface framebuffer instead. Pick frames always use the shared framebuffer.
+            boolean useTileCache = !dc.pickMode
+                && dc.reserveSurfaceTileBytes(this.countShapeTiles(dc, quadtree) * TILE_TEXTURE_BYTE_COUNT);
+
             // Draw the accumulated shapes on each drawable terrain.
             for (int idx = 0, len = dc.getDrawableTerrainCount(); idx < len; idx++) {
                 // Get the drawable terrain associated with the draw context.
                 DrawableTerrain terrain = dc.getDrawableTerrain(idx);
-                // Draw the accumulated surface shapes to a texture representing the terrain's sector.
-                if (this.drawShapesToTexture(dc, terrain) > 0) {
+                // Collect the accumulated shapes that intersect the terrain's sector.
+                if (this.assembleTileShapes(dc, terrain.getSector(), quadtree) == 0) {
+                    continue; // no shapes intersect the terrain
+                }
+                // Get a texture containing the intersecting surface shapes rasterized for the terrain's sector.
+                Texture texture = useTileCache ?
+                    this.drawShapesToTile(dc, terrain) : this.drawShapesToFramebuffer(dc, terrain);
+                if (texture != null) {
                     // Draw the texture containing the rasterized shapes onto the terrain geometry.
-                    this.drawTextureToTerrain(dc, terrain);
+                    this.drawTextureToTerrain(dc, terrain, texture);
                 }
             }
         } finally {
             // Clear the accumulated shapes.
             scratchList.clear();
+            this.tileShapes.clear();
+            if (quadtree != null) {
+                quadtree.clear();
+            }
             // Restore the default World Wind OpenGL state.
-            GLES20.glDisableVertexAttribArray(1 /*vertexTexCoord*/); // only vertexPoint is enabled by default
+            dc.unbindVertexArray();
         }
     }
 
-    protected int drawShapesToTexture(DrawContext dc, DrawableTerrain terrain) {
-        // Shapes have been accumulated in the draw context's scratch list.
-        ArrayList<Object> scratchList = dc.scratchList();
+    protected int assembleTileShapes(DrawContext dc, Sector terrainSector, SectorQuadtree<Object> quadtree) {
+        ArrayList<Object> tileShapes = this.tileShapes;
+        tileShapes.clear();
+
+        if (quadtree != null) {
+            // Query the quadtree for shapes whose sectors may intersect the terrain, then restore the batch order.
+            quadtree.query(terrainSector, tileShapes);
+            Collections.sort(tileShapes, batchOrder);
+        } else {
+            tileShapes.addAll(dc.scratchList());
+        }
+
+        // Remove shapes that don't intersect the terrain, keeping the remaining shapes in order.
+        int count = 0;
+        for (int idx = 0, len = tileShapes.size(); idx < len; idx++) {
+            DrawableSurfaceShape shape = (DrawableSurfaceShape) tileShapes.get(idx);
+            if (shape.sector.intersects(terrainSector)) {
+                tileShapes.set(count++, shape);
+            }
+        }
+
+        for (int idx = tileShapes.size() - 1; idx >= count; idx--) {
+            tileShapes.remove(idx);
+        }
+
+        return count;
+    }
+
+    protected int countShapeTiles(DrawContext dc, SectorQuadtree<Object> quadtree) {
+        // Count the drawable terrain tiles intersecting at least one accumulated shape.
+        int count = 0;
+        for (int idx = 0, len = dc.getDrawableTerrainCount(); idx < len; idx++) {
+            if (this.assembleTileShapes(dc, dc.getDrawableTerrain(idx).getSector(), quadtree) > 0) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    protected Texture drawShapesToFramebuffer(DrawContext dc, DrawableTerrain terrain) {
+        // Draw the shapes to the draw context's shared surface framebuffer. Pick frames use this framebuffer rather
+        // than the surface tile cache, since the shapes' pick colors are unique to each pick frame. So do frames whose
+        // tiles don't fit in the surface tile cache.
+        Framebuffer framebuffer = dc.surfaceFramebuffer();
+        if (this.drawShapesToTexture(dc, terrain, framebuffer) > 0) {
+            return framebuffer.getAttachedTexture(GLES20.GL_COLOR_ATTACHMENT0);
+        } else {
+            return null; // no shapes intersect the terrain
+        }
+    }
+
+    protected Texture drawShapesToTile(DrawContext dc, DrawableTerrain terrain) {
+        // Identify the terrain tile and the contents of the shapes intersecting it. A cached texture for the same tile
+        // and content signature already contains the shapes rasterized for the tile.
+        Sector terrainSector = terrain.getSector();
+        long signature = this.contentSignature();
+
+        LruMemoryCache<Object, Texture> tileCache = dc.surfaceTileCache();
+        Texture texture = tileCache.get(this.tileKey.set(terrainSector, signature));
+        if (texture != null) {
+            return texture;
+        }
+
+        // The tile is new or a shape within it has changed. Rasterize the shapes into a new texture attached to the
+        // draw context's surface tile framebuffer.
+        texture = new Texture(TILE_TEXTURE_SIZE, TILE_TEXTURE_SIZE, GLES20.GL_RGBA);
+        Framebuffer framebuffer = dc.surfaceTileFramebuffer();
+        if (!framebuffer.attachTexture(dc, texture, GLES20.GL_COLOR_ATTACHMENT0)) {
+            texture.release(dc);
+            return null; // framebuffer failed to attach the texture
+        }
+
+        this.drawShapesToTexture(dc, terrain, framebuffer);
+
+        // Cache the texture when every shape drew completely. Otherwise, keep the texture for this tile's draw call
+        // only; a shape with a vertex buffer or a texture that failed to bind is drawn again on the next frame.
+        if (this.incompleteShapes) {
+            this.incompleteTexture = texture;
+        } else {
+            tileCache.put(new TileKey().set(terrainSector, signature), texture, TILE_TEXTURE_BYTE_COUNT);
+        }
+
+        return texture;
+    }
+
+    protected long contentSignature() {
+        // Shapes intersecting the terrain have been accumulated in the tile shape list.
+        ArrayList<Object> tileShapes = this.tileShapes;
+
+        // Compute a 64-bit FNV-1a hash of the state that affects how each intersecting shape is rasterized. Buffer
+        // objects are assigned a new serial number when their contents change, and shapes replace their buffer objects
+        // when their geometry changes otherwise, so the buffers' serial numbers capture the geometry.
+        long hash = FNV_OFFSET_BASIS;
+
+        for (int idx = 0, len = tileShapes.size(); idx < len; idx++) {
+            DrawableSurfaceShape shape = (DrawableSurfaceShape) tileShapes.get(idx);
+            DrawShapeState state = shape.drawState;
+            hash = mix(hash, (state.vertexBuffer != null) ? state.vertexBuffer.getSerialNumber() : 0);
+            hash = mix(hash, (state.elementBuffer != null) ? state.elementBuffer.getSerialNumber() : 0);
+            hash = mix(hash, state.vertexStride);
+
+            for (int primIdx = 0; primIdx < state.primCount; primIdx++) {
+                DrawShapeState.DrawElements prim = state.prims[primIdx];
+                hash = mix(hash, prim.mode);
+                hash = mix(hash, prim.count);
+                hash = mix(hash, prim.type);
+                hash = mix(hash, prim.offset);
+                hash = mix(hash, prim.vertexOffset);
+                hash = mix(hash, Float.floatToIntBits(prim.color.red));
+                hash = mix(hash, Float.floatToIntBits(prim.color.green));
+                hash = mix(hash, Float.floatToIntBits(prim.color.blue));
+                hash = mix(hash, Float.floatToIntBits(prim.color.alpha));
+                hash = mix(hash, Float.floatToIntBits(prim.lineWidth));
+
+                if (prim.texture != null) {
+                    hash = mix(hash, prim.texture.getSerialNumber());
+                    hash = mix(hash, prim.texCoordAttrib.size);
+                    hash = mix(hash, prim.texCoordAttrib.offset);
+                    for (double m : prim.texCoordMatrix.m) {
+                        hash = mix(hash, Double.doubleToLongBits(m));
+                    }
+                }
+            }
+        }
+
+        return hash;
+    }
+
+    protected static long mix(long hash, long value) {
+        hash = mix(hash, (int) value);
+        return mix(hash, (int) (value >>> 32));
+    }
+
+    protected static long mix(long hash, int value) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            hash ^= (value >>> shift) & 0xFF;
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    protected int drawShapesToTexture(DrawContext dc, DrawableTerrain terrain, Framebuffer framebuffer) {
+        // Shapes intersecting the terrain have been accumulated in the tile shape list.
+        ArrayList<Object> tileShapes = this.tileShapes;
 
         // The terrain's sector defines the geographic region in which to draw.
         Sector terrainSector = terrain.getSector();
 
-        // Keep track of the number of shapes drawn into the texture.
+        // Keep track of the number of shapes drawn into the texture, and whether any shape failed to draw completely.
         int shapeCount = 0;
+        this.incompleteShapes = false;
 
         try {
-            Framebuffer framebuffer = dc.surfaceFramebuffer();
             if (!framebuffer.bindFramebuffer(dc)) {
                 return 0; // framebuffer failed to bind
             }
@@ -117,7 +326,7 @@ public class DrawableSurfaceShape implements Drawable {
             // Clear the framebuffer.
             Texture colorAttachment = framebuffer.getAttachedTexture(GLES20.GL_COLOR_ATTACHMENT0);
             GLES20.glViewport(0, 0, colorAttachment.getWidth(), colorAttachment.getHeight());
-            GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT);
+            dc.clear(GLES20.GL_COLOR_BUFFER_BIT);
 
             // Use the draw context's pick mode.
             this.drawState.program.enablePickMode(dc.pickMode);
@@ -130,28 +339,24 @@ public class DrawableSurfaceShape implements Drawable {
             this.mvpMatrix.multiplyByTranslation(-terrainSector.minLongitude(), -terrainSector.minLatitude(), 0);
             this.drawState.program.loadModelviewProjection(this.mvpMatrix);
 
-            for (int idx = 0, len = scratchList.size(); idx < len; idx++) {
+            for (int idx = 0, len = tileShapes.size(); idx < len; idx++) {
                 // Get the shape.
-                DrawableSurfaceShape shape = (DrawableSurfaceShape) scratchList.get(idx);
-
-                if (!shape.sector.intersects(terrainSector)) {
-                    continue;
-                }
-
-                if (shape.drawState.vertexBuffer == null || !shape.drawState.vertexBuffer.bindBuffer(dc)) {
-                    continue; // vertex buffer unspecified or failed to bind
-                }
+                DrawableSurfaceShape shape = (DrawableSurfaceShape) tileShapes.get(idx);
 
-                if (shape.drawState.elementBuffer == null || !shape.drawState.elementBuffer.bindBuffer(dc)) {
-                    continue; // element buffer unspecified or failed to bind
+                if (shape.drawState.vertexBuffer == null || shape.drawState.elementBuffer == null) {
+                    this.incompleteShapes = true;
+                    continue; // vertex buffer or element buffer unspecified
                 }
 
-                // Use the shape's vertex point attribute.
-                GLES20.glVertexAttribPointer(0 /*vertexPoint*/, 3, GLES20.GL_FLOAT, false, shape.drawState.vertexStride, 0);
-
                 // Draw the specified primitives to the framebuffer texture.
                 for (int primIdx = 0; primIdx < shape.drawState.primCount; primIdx++) {
                     DrawShapeState.DrawElements prim = shape.drawState.prims[primIdx];
+
+                    if (!shape.drawState.bindVertexArray(dc, primIdx)) {
+                        this.incompleteShapes = true;
+                        break; // vertex buffer or element buffer failed to bind
+                    }
+
                     this.drawState.program.loadColor(prim.color);
 
                     if (prim.texture != null && prim.texture.bindTexture(dc)) {
@@ -159,11 +364,11 @@ public class DrawableSurfaceShape implements Drawable {
                         this.drawState.program.enableTexture(true);
                     } else {
                         this.drawState.program.enableTexture(false);
+                        this.incompleteShapes |= (prim.texture != null); // texture specified but failed to bind
                     }
 
-                    GLES20.glVertexAttribPointer(1 /*vertexTexCoord*/, prim.texCoordAttrib.size, GLES20.GL_FLOAT, false, this.drawState.vertexStride, prim.texCoordAttrib.offset);
-                    GLES20.glLineWidth(prim.lineWidth);
-                    GLES20.glDrawElements(prim.mode, prim.count, prim.type, prim.offset);
+                    dc.lineWidth(prim.lineWidth);
+                    dc.drawElements(prim.mode, prim.count, prim.type, prim.offset);
                 }
 
                 // Accumulate the number of shapes drawn into the texture.
@@ -173,25 +378,33 @@ public class DrawableSurfaceShape implements Drawable {
             // Restore the default World Wind OpenGL state.
             dc.bindFramebuffer(0);
             GLES20.glViewport(dc.viewport.x, dc.viewport.y, dc.viewport.width, dc.viewport.height);
-            GLES20.glLineWidth(1);
+            dc.lineWidth(1);
         }
 
         return shapeCount;
     }
 
-    protected void drawTextureToTerrain(DrawContext dc, DrawableTerrain terrain) {
-        if (!terrain.useVertexPointAttrib(dc, 0 /*vertexPoint*/)) {
-            return; // terrain vertex attribute failed to bind
-        }
+    protected void drawTextureToTerrain(DrawContext dc, DrawableTerrain terrain, Texture texture) {
+        try {
+            if (!terrain.useVertexArray(dc)) {
+                return; // terrain vertex array failed to bind
+            }
 
-        if (!terrain.useVertexTexCoordAttrib(dc, 1 /*vertexTexCoord*/)) {
-            return; // terrain vertex attribute failed to bind
-        }
+            if (!texture.bindTexture(dc)) {
+                return; // framebuffer texture failed to bind
+            }
 
-        Texture colorAttachment = dc.surfaceFramebuffer().getAttachedTexture(GLES20.GL_COLOR_ATTACHMENT0);
-        if (!colorAttachment.bindTexture(dc)) {
-            return; // framebuffer texture failed to bind
+            this.drawTextureTriangles(dc, terrain);
+        } finally {
+            // Release a texture that was drawn for this tile only.
+            if (this.incompleteTexture != null) {
+                this.incompleteTexture.release(dc);
+                this.incompleteTexture = null;
+            }
         }
+    }
+
+    protected void drawTextureTriangles(DrawContext dc, DrawableTerrain terrain) {
 
         // Configure the program to draw texture fragments unmodified and aligned with the terrain.
         // TODO consolidate pickMode and enableTexture into a single textureMode
@@ -210,4 +423,57 @@ public class DrawableSurfaceShape implements Drawable {
         // Draw the terrain as triangles.
         terrain.drawTriangles(dc);
     }
+
+    /**
+     * Identifies a surface tile texture by its terrain sector and the content signature of the shapes drawn into it.
+     */
+    protected static class TileKey {
+
+        public double minLatitude;
+
+        public double minLongitude;
+
+        public double maxLatitude;
+
+        public double maxLongitude;
+
+        public long signature;
+
+        public TileKey set(Sector sector, long signature) {
+            this.minLatitude = sector.minLatitude();
+            this.minLongitude = sector.minLongitude();
+            this.maxLatitude = sector.maxLatitude();
+            this.maxLongitude = sector.maxLongitude();
+            this.signature = signature;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == null || this.getClass() != o.getClass()) {
+                return false;
+            }
+
+            TileKey that = (TileKey) o;
+            return this.minLatitude == that.minLatitude
+                && this.minLongitude == that.minLongitude
+                && this.maxLatitude == that.maxLatitude
+                && this.maxLongitude == that.maxLongitude
+                && this.signature == that.signature;
+        }
+
+        @Override
+        public int hashCode() {
+            long temp = Double.doubleToLongBits(this.minLatitude);
+            int result = (int) (temp ^ (temp >>> 32));
+            temp = Double.doubleToLongBits(this.minLongitude);
+            result = 31 * result + (int) (temp ^ (temp >>> 32));
+            temp = Double.doubleToLongBits(this.maxLatitude);
+            result = 31 * result + (int) (temp ^ (temp >>> 32));
+            temp = Double.doubleToLongBits(this.maxLongitude);
+            result = 31 * result + (int) (temp ^ (temp >>> 32));
+            result = 31 * result + (int) (this.signature ^ (this.signature >>> 32));
+            return result;
+        }
+    }
 }
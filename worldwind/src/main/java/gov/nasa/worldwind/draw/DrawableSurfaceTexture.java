@@ -112,9 +112,6 @@ public class DrawableSurfaceTexture implements Drawable, SurfaceTexture {
         this.program.enableTexture(true);
         dc.activeTextureUnit(GLES20.GL_TEXTURE0);
 
-        // Set up to use vertex tex coord attributes.
-        GLES20.glEnableVertexAttribArray(1);
-
         // Surface textures have been accumulated in the draw context's scratch list.
         ArrayList<Object> scratchList = dc.scratchList();
 
@@ -140,10 +137,8 @@ public class DrawableSurfaceTexture implements Drawable, SurfaceTexture {
                     continue; // texture failed to bind
                 }
 
-                // Use the terrain's vertex point attribute and vertex tex coord attribute.
-                if (!usingTerrainAttrs &&
-                    terrain.useVertexPointAttrib(dc, 0 /*vertexPoint*/) &&
-                    terrain.useVertexTexCoordAttrib(dc, 1 /*vertexTexCoord*/)) {
+                // Use the terrain's vertex array, containing its vertex point attribute and vertex tex coord attribute.
+                if (!usingTerrainAttrs && terrain.useVertexArray(dc)) {
                     // Suppress subsequent tile state application until the next terrain.
                     usingTerrainAttrs = true;
                     // Use the draw context's modelview projection matrix, transformed to terrain local coordinates.
@@ -172,7 +167,7 @@ public class DrawableSurfaceTexture implements Drawable, SurfaceTexture {
         }
 
         // Restore the default World Wind OpenGL state.
-        GLES20.glDisableVertexAttribArray(1);
+        dc.unbindVertexArray();
     }
 
     @Override
@@ -18,6 +18,18 @@ public interface DrawableTerrain extends Drawable {
 
     boolean useVertexTexCoordAttrib(DrawContext dc, int attribLocation);
 
+    /**
+     * Binds the terrain's vertex array, which uses the terrain's vertex points as the vertexPoint attribute at location
+     * 0, its vertex tex coords as the vertexTexCoord attribute at location 1, and its elements as the element buffer.
+     * Callers restore the default World Wind OpenGL state by calling {@link DrawContext#unbindVertexArray()} after
+     * drawing.
+     *
+     * @param dc the current draw context
+     *
+     * @return true if the vertex array is bound, or false if one of the terrain's buffers failed to bind
+     */
+    boolean useVertexArray(DrawContext dc);
+
     boolean drawLines(DrawContext dc);
 
     boolean drawTriangles(DrawContext dc);
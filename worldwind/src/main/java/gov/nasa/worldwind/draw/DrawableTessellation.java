@@ -5,8 +5,6 @@
 
 package gov.nasa.worldwind.draw;
 
-import android.opengl.GLES20;
-
 import gov.nasa.worldwind.geom.Matrix4;
 import gov.nasa.worldwind.geom.Vec3;
 import gov.nasa.worldwind.render.BasicShaderProgram;
@@ -71,7 +69,7 @@ public class DrawableTessellation implements Drawable {
         this.program.loadColor(this.color);
 
         // Suppress writes to the OpenGL depth buffer.
-        GLES20.glDepthMask(false);
+        dc.depthMask(false);
 
         // Compute the portion of the modelview projection matrix that remains constant for each tile.
         this.offsetMvpMatrix.set(dc.projection);
@@ -82,9 +80,9 @@ public class DrawableTessellation implements Drawable {
             // Get the drawable terrain associated with the draw context.
             DrawableTerrain terrain = dc.getDrawableTerrain(idx);
 
-            // Use the terrain's vertex point attribute.
-            if (!terrain.useVertexPointAttrib(dc, 0 /*vertexPoint*/)) {
-                continue; // vertex buffer failed to bind
+            // Use the terrain's vertex array, containing its vertex point attribute.
+            if (!terrain.useVertexArray(dc)) {
+                continue; // vertex array failed to bind
             }
 
             // Use the draw context's modelview projection matrix, transformed to terrain local coordinates.
@@ -98,6 +96,7 @@ public class DrawableTessellation implements Drawable {
         }
 
         // Restore default World Wind OpenGL state.
-        GLES20.glDepthMask(true);
+        dc.depthMask(true);
+        dc.unbindVertexArray();
     }
 }
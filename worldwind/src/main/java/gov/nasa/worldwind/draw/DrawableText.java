@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.draw;
+
+import gov.nasa.worldwind.geom.Matrix4;
+import gov.nasa.worldwind.render.Color;
+import gov.nasa.worldwind.render.GlyphRun;
+import gov.nasa.worldwind.render.TextProgram;
+import gov.nasa.worldwind.render.Texture;
+import gov.nasa.worldwind.util.Pool;
+
+/**
+ * Draws a single line of text as a run of glyph quads from a {@link gov.nasa.worldwind.render.GlyphAtlas}. Adjacent
+ * DrawableText instances are drawn together by the draw context's {@link QuadBatch}, so that text sharing an atlas page
+ * and text size is drawn with a single draw call regardless of how many strings it contains.
+ */
+public class DrawableText implements Drawable {
+
+    public TextProgram program = null;
+
+    /**
+     * The transform that maps the glyph run's coordinates to screen coordinates.
+     */
+    public Matrix4 transform = new Matrix4();
+
+    public Color color = new Color();
+
+    public Color outlineColor = new Color(0, 0, 0, 1);
+
+    public float textSize;
+
+    public float outlineWidth;
+
+    public boolean enableDepthTest = true;
+
+    protected float[] quads = new float[GlyphRun.QUAD_STRIDE * 16];
+
+    protected Texture[] pages = new Texture[16];
+
+    protected int quadCount;
+
+    private Pool<DrawableText> pool;
+
+    public DrawableText() {
+    }
+
+    public static DrawableText obtain(Pool<DrawableText> pool) {
+        DrawableText instance = pool.acquire(); // get an instance from the pool
+        return (instance != null) ? instance.setPool(pool) : new DrawableText().setPool(pool);
+    }
+
+    private DrawableText setPool(Pool<DrawableText> pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Copies the glyph quads of a glyph run into this drawable. The run may be modified on the render thread after
+     * this method returns.
+     *
+     * @param run the glyph run to draw
+     */
+    public void setGlyphRun(GlyphRun run) {
+        int count = run.getQuadCount();
+        if (this.pages.length < count) {
+            this.pages = new Texture[count];
+            this.quads = new float[count * GlyphRun.QUAD_STRIDE];
+        }
+
+        System.arraycopy(run.getQuads(), 0, this.quads, 0, count * GlyphRun.QUAD_STRIDE);
+        for (int idx = 0; idx < count; idx++) {
+            this.pages[idx] = run.getPage(idx);
+        }
+
+        this.quadCount = count;
+        this.textSize = run.getTextSize();
+        this.outlineWidth = run.isEnableOutline() ? run.getOutlineWidth() : 0;
+    }
+
+    @Override
+    public void recycle() {
+        for (int idx = 0; idx < this.quadCount; idx++) {
+            this.pages[idx] = null;
+        }
+
+        this.program = null;
+        this.quadCount = 0;
+
+        if (this.pool != null) { // return this instance to the pool
+            this.pool.release(this);
+            this.pool = null;
+        }
+    }
+
+    @Override
+    public void draw(DrawContext dc) {
+        if (this.program == null || !this.program.useProgram(dc)) {
+            return; // program unspecified or failed to build
+        }
+
+        QuadBatch batch = dc.quadBatch();
+        if (!batch.begin(dc, this.program)) {
+            return; // batch buffers failed to bind
+        }
+
+        // Add this DrawableText's glyphs to the batch.
+        this.doDraw(dc, batch, this);
+
+        // Add the glyphs of all DrawableTexts adjacent in the queue that share the same GLSL program. Consecutive glyphs
+        // sharing an atlas page, text size and depth test mode are drawn with a single draw call.
+        Drawable next;
+        while ((next = dc.peekDrawable()) != null && this.canBatchWith(next)) { // check if the drawable at the front of the queue can be batched
+            DrawableText drawable = (DrawableText) dc.pollDrawable(); // take it off the queue
+            this.doDraw(dc, batch, drawable);
+        }
+
+        // Draw the remaining quads and restore the default World Wind OpenGL state.
+        batch.end(dc);
+    }
+
+    protected void doDraw(DrawContext dc, QuadBatch batch, DrawableText drawable) {
+        // The distance field thresholds are program uniforms. Draw the pending glyphs before changing them.
+        if (this.program.isTextSizeChanged(drawable.textSize, drawable.outlineWidth)) {
+            batch.flush(dc);
+            this.program.loadTextSize(drawable.textSize, drawable.outlineWidth);
+        }
+
+        if (!this.program.getOutlineColor().equals(drawable.outlineColor)) {
+            batch.flush(dc);
+            this.program.loadOutlineColor(drawable.outlineColor);
+        }
+
+        float[] quads = drawable.quads;
+        for (int idx = 0, index = 0; idx < drawable.quadCount; idx++, index += GlyphRun.QUAD_STRIDE) {
+            batch.addQuad(dc, drawable.pages[idx], drawable.enableDepthTest, drawable.transform,
+                quads[index], quads[index + 1], quads[index + 2], quads[index + 3],
+                quads[index + 4], quads[index + 5], quads[index + 6], quads[index + 7], drawable.color);
+        }
+    }
+
+    protected boolean canBatchWith(Drawable that) {
+        return this.getClass() == that.getClass() && this.program == ((DrawableText) that).program;
+    }
+}
@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.draw;
+
+import android.opengl.GLES20;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+import gov.nasa.worldwind.geom.Matrix3;
+import gov.nasa.worldwind.geom.Matrix4;
+import gov.nasa.worldwind.render.AtlasTexture;
+import gov.nasa.worldwind.render.BasicShaderProgram;
+import gov.nasa.worldwind.render.BufferObject;
+import gov.nasa.worldwind.render.Color;
+import gov.nasa.worldwind.render.Texture;
+
+/**
+ * Accumulates textured, colored quadrilaterals in screen coordinates and draws them with as few OpenGL draw calls as
+ * possible. Consecutive quads that share a texture, or a {@link gov.nasa.worldwind.render.TextureAtlas} page, and a
+ * depth test mode are collected in a dynamic vertex buffer and drawn with a single call to glDrawElements. Each vertex
+ * carries its own screen point, texture coordinate and color, so quads with different transforms, colors and pick
+ * colors may be drawn in the same batch.
+ * <p/>
+ * QuadBatch is used on the OpenGL thread between calls to begin and end. The draw context provides a QuadBatch
+ * instance via {@link DrawContext#quadBatch()}.
+ */
+public class QuadBatch {
+
+    /**
+     * The maximum number of quads in a single draw call. Quad vertices are addressed by 16-bit element indices.
+     */
+    public static final int MAX_QUADS = 0x10000 / 4;
+
+    /**
+     * The number of 32-bit values in each vertex: screen point X, Y and Z, texture coordinate S and T, and a packed
+     * RGBA 8888 color.
+     */
+    protected static final int VERTEX_STRIDE = 6;
+
+    protected static final int QUAD_STRIDE = VERTEX_STRIDE * 4;
+
+    protected static final int MIN_CAPACITY = 64;
+
+    protected static final Matrix3 IDENTITY_TEX_COORD_MATRIX = new Matrix3();
+
+    protected BasicShaderProgram program;
+
+    protected Texture texture;
+
+    protected boolean enableDepthTest = true;
+
+    protected int[] vertexArray = new int[MIN_CAPACITY * QUAD_STRIDE];
+
+    protected IntBuffer vertexBuffer;
+
+    protected int quadCount;
+
+    protected int[] vertexBufferId = new int[1];
+
+    protected BufferObject elementBuffer;
+
+    protected boolean active;
+
+    private int batchCount;
+
+    public QuadBatch() {
+    }
+
+    /**
+     * Returns the number of draw calls this batch has made since the last call to begin.
+     *
+     * @return the number of batches drawn
+     */
+    public int getBatchCount() {
+        return this.batchCount;
+    }
+
+    /**
+     * Discards OpenGL objects associated with the current OpenGL context. Called by the draw context when the context
+     * is lost.
+     */
+    public void contextLost() {
+        this.vertexBufferId[0] = 0;
+        this.elementBuffer = null;
+        this.active = false;
+        this.program = null;
+        this.texture = null;
+        this.quadCount = 0;
+    }
+
+    /**
+     * Prepares the OpenGL state for drawing quads with the specified program. The program must already be in use.
+     *
+     * @param dc      the current draw context
+     * @param program the basic shader program used to draw the quads
+     *
+     * @return true if the batch is ready to accept quads, false if its OpenGL buffers could not be created
+     */
+    public boolean begin(DrawContext dc, BasicShaderProgram program) {
+        if (this.elementBuffer == null) {
+            this.elementBuffer = this.assembleElementBuffer();
+        }
+
+        if (!this.elementBuffer.bindBuffer(dc)) {
+            return false; // element buffer failed to bind
+        }
+
+        if (this.vertexBufferId[0] == 0) {
+            GLES20.glGenBuffers(1, this.vertexBufferId, 0);
+        }
+
+        this.program = program;
+        this.texture = null;
+        this.enableDepthTest = true;
+        this.quadCount = 0;
+        this.batchCount = 0;
+        this.active = true;
+
+        // Use the draw context's pick mode and per-vertex colors. Vertex points are already in screen coordinates and
+        // vertex tex coords are already transformed by each texture's tex coord transform.
+        program.enablePickMode(dc.pickMode);
+        program.enableVertexColor(true);
+        program.loadModelviewProjection(dc.screenProjection);
+        program.loadTexCoordMatrix(IDENTITY_TEX_COORD_MATRIX);
+
+        // Make multi-texture unit 0 active.
+        dc.activeTextureUnit(GLES20.GL_TEXTURE0);
+
+        // Disable writing to the depth buffer.
+        dc.depthMask(false);
+
+        // Enable the vertex tex coord and vertex color attributes.
+        GLES20.glEnableVertexAttribArray(1 /*vertexTexCoord*/); // only vertexPoint is enabled by default
+        GLES20.glEnableVertexAttribArray(2 /*vertexColor*/);
+
+        return true;
+    }
+
+    /**
+     * Adds a quad defined by a transform that maps the unit square to screen coordinates. The texture's tex coord
+     * transform is applied to the unit square's texture coordinates. This draws the pending batch first when the
+     * texture or the depth test mode differs from the pending batch, or when the pending batch is full.
+     *
+     * @param dc                  the current draw context
+     * @param texture             the quad's texture, or null to draw a quad with a single color
+     * @param enableDepthTest     true to depth test the quad, false to draw it on top of the scene
+     * @param unitSquareTransform the transform that maps the unit square to screen coordinates
+     * @param color               the quad's color
+     */
+    public void addQuad(DrawContext dc, Texture texture, boolean enableDepthTest, Matrix4 unitSquareTransform, Color color) {
+        Matrix3 texCoordMatrix = (texture != null) ? texture.getTexCoordTransform() : IDENTITY_TEX_COORD_MATRIX;
+        int index = this.nextQuad(dc, texture, enableDepthTest);
+        int packedColor = packColor(color);
+        double[] m = unitSquareTransform.m;
+        double[] t = texCoordMatrix.m;
+
+        // Add the unit square's corners in the order upper left (0, 1), lower left (0, 0), upper right (1, 1) and
+        // lower right (1, 0), matching the element indices in assembleElementBuffer.
+        index = this.putVertex(index, m, t, 0, 1, packedColor);
+        index = this.putVertex(index, m, t, 0, 0, packedColor);
+        index = this.putVertex(index, m, t, 1, 1, packedColor);
+        this.putVertex(index, m, t, 1, 0, packedColor);
+    }
+
+    /**
+     * Adds an axis-aligned quad in screen coordinates with explicit texture coordinates. This draws the pending batch
+     * first when the texture or the depth test mode differs from the pending batch, or when the pending batch is full.
+     *
+     * @param dc              the current draw context
+     * @param texture         the quad's texture, or null to draw a quad with a single color
+     * @param enableDepthTest true to depth test the quad, false to draw it on top of the scene
+     * @param x0              the quad's left screen coordinate
+     * @param y0              the quad's bottom screen coordinate
+     * @param x1              the quad's right screen coordinate
+     * @param y1              the quad's top screen coordinate
+     * @param z               the quad's screen depth in the range [0, 1]
+     * @param s0              the texture coordinate at the quad's left edge
+     * @param t0              the texture coordinate at the quad's bottom edge
+     * @param s1              the texture coordinate at the quad's right edge
+     * @param t1              the texture coordinate at the quad's top edge
+     * @param color           the quad's color
+     */
+    public void addQuad(DrawContext dc, Texture texture, boolean enableDepthTest,
+                        float x0, float y0, float x1, float y1, float z,
+                        float s0, float t0, float s1, float t1, Color color) {
+        int index = this.nextQuad(dc, texture, enableDepthTest);
+        int packedColor = packColor(color);
+        int[] array = this.vertexArray;
+        int zBits = Float.floatToRawIntBits(z);
+
+        index = putVertex(array, index, Float.floatToRawIntBits(x0), Float.floatToRawIntBits(y1), zBits,
+            Float.floatToRawIntBits(s0), Float.floatToRawIntBits(t1), packedColor); // upper left
+        index = putVertex(array, index, Float.floatToRawIntBits(x0), Float.floatToRawIntBits(y0), zBits,
+            Float.floatToRawIntBits(s0), Float.floatToRawIntBits(t0), packedColor); // lower left
+        index = putVertex(array, index, Float.floatToRawIntBits(x1), Float.floatToRawIntBits(y1), zBits,
+            Float.floatToRawIntBits(s1), Float.floatToRawIntBits(t1), packedColor); // upper right
+        putVertex(array, index, Float.floatToRawIntBits(x1), Float.floatToRawIntBits(y0), zBits,
+            Float.floatToRawIntBits(s1), Float.floatToRawIntBits(t0), packedColor); // lower right
+    }
+
+    /**
+     * Adds a quad defined by a rectangle with explicit texture coordinates, transformed to screen coordinates by an
+     * affine transform. This draws the pending batch first when the texture or the depth test mode differs from the
+     * pending batch, or when the pending batch is full.
+     *
+     * @param dc              the current draw context
+     * @param texture         the quad's texture, or null to draw a quad with a single color
+     * @param enableDepthTest true to depth test the quad, false to draw it on top of the scene
+     * @param transform       the transform that maps the rectangle to screen coordinates
+     * @param x0              the rectangle's left coordinate
+     * @param y0              the rectangle's bottom coordinate
+     * @param x1              the rectangle's right coordinate
+     * @param y1              the rectangle's top coordinate
+     * @param s0              the texture coordinate at the quad's left edge
+     * @param t0              the texture coordinate at the quad's bottom edge
+     * @param s1              the texture coordinate at the quad's right edge
+     * @param t1              the texture coordinate at the quad's top edge
+     * @param color           the quad's color
+     */
+    public void addQuad(DrawContext dc, Texture texture, boolean enableDepthTest, Matrix4 transform,
+                        float x0, float y0, float x1, float y1,
+                        float s0, float t0, float s1, float t1, Color color) {
+        int index = this.nextQuad(dc, texture, enableDepthTest);
+        int packedColor = packColor(color);
+        double[] m = transform.m;
+
+        index = this.putVertex(index, m, x0, y1, s0, t1, packedColor); // upper left
+        index = this.putVertex(index, m, x0, y0, s0, t0, packedColor); // lower left
+        index = this.putVertex(index, m, x1, y1, s1, t1, packedColor); // upper right
+        this.putVertex(index, m, x1, y0, s1, t0, packedColor); // lower right
+    }
+
+    /**
+     * Draws any pending quads and restores the default World Wind OpenGL state.
+     *
+     * @param dc the current draw context
+     */
+    public void end(DrawContext dc) {
+        if (!this.active) {
+            return;
+        }
+
+        this.flush(dc);
+
+        // Restore the default World Wind OpenGL state.
+        dc.enableDepthTest(true);
+        dc.depthMask(true);
+        GLES20.glDisableVertexAttribArray(1 /*vertexTexCoord*/); // only vertexPoint is enabled by default
+        GLES20.glDisableVertexAttribArray(2 /*vertexColor*/);
+        this.program.enableVertexColor(false);
+
+        this.program = null;
+        this.texture = null;
+        this.enableDepthTest = true;
+        this.active = false;
+    }
+
+    /**
+     * Draws the pending quads with a single draw call.
+     *
+     * @param dc the current draw context
+     */
+    public void flush(DrawContext dc) {
+        if (this.quadCount == 0) {
+            return;
+        }
+
+        // Attempt to bind the batch's texture, configuring the shader program appropriately if there is no texture or
+        // if the texture failed to bind.
+        this.program.enableTexture(this.texture != null && this.texture.bindTexture(dc));
+
+        // Load the pending vertices into the dynamic vertex buffer.
+        int valueCount = this.quadCount * QUAD_STRIDE;
+        IntBuffer buffer = this.vertexBuffer(valueCount);
+        buffer.put(this.vertexArray, 0, valueCount).flip();
+        dc.bindBuffer(GLES20.GL_ARRAY_BUFFER, this.vertexBufferId[0]);
+        GLES20.glBufferData(GLES20.GL_ARRAY_BUFFER, valueCount * 4, buffer, GLES20.GL_STREAM_DRAW);
+
+        // Use the dynamic vertex buffer as the vertex point, vertex tex coord and vertex color attributes.
+        int stride = VERTEX_STRIDE * 4;
+        GLES20.glVertexAttribPointer(0 /*vertexPoint*/, 3, GLES20.GL_FLOAT, false, stride, 0);
+        GLES20.glVertexAttribPointer(1 /*vertexTexCoord*/, 2, GLES20.GL_FLOAT, false, stride, 12);
+        GLES20.glVertexAttribPointer(2 /*vertexColor*/, 4, GLES20.GL_UNSIGNED_BYTE, true, stride, 20);
+
+        // Draw the pending quads as triangles.
+        this.elementBuffer.bindBuffer(dc);
+        dc.drawElements(GLES20.GL_TRIANGLES, this.quadCount * 6, GLES20.GL_UNSIGNED_SHORT, 0);
+
+        this.quadCount = 0;
+        this.batchCount++;
+    }
+
+    protected int nextQuad(DrawContext dc, Texture texture, boolean enableDepthTest) {
+        // Draw the pending quads when the new quad cannot be drawn in the same draw call.
+        if (this.quadCount == MAX_QUADS || (this.quadCount > 0 && bindTarget(this.texture) != bindTarget(texture))) {
+            this.flush(dc);
+        }
+
+        // Change the depth test mode when the new quad uses a different mode. This must follow the flush above.
+        if (this.enableDepthTest != enableDepthTest) {
+            this.flush(dc);
+            dc.enableDepthTest(enableDepthTest);
+            this.enableDepthTest = enableDepthTest;
+        }
+
+        if (this.quadCount == 0) {
+            this.texture = texture; // quads in a batch share the texture object bound by the first quad's texture
+        }
+
+        // Grow the vertex array as necessary to accommodate the new quad.
+        int index = this.quadCount * QUAD_STRIDE;
+        if (this.vertexArray.length < index + QUAD_STRIDE) {
+            int[] newArray = new int[Math.min(this.vertexArray.length * 2, MAX_QUADS * QUAD_STRIDE)];
+            System.arraycopy(this.vertexArray, 0, newArray, 0, index);
+            this.vertexArray = newArray;
+        }
+
+        this.quadCount++;
+        return index;
+    }
+
+    protected static Object bindTarget(Texture texture) {
+        // Textures packed into the same atlas page bind the same OpenGL texture object and may be drawn together.
+        return (texture instanceof AtlasTexture) ? ((AtlasTexture) texture).getPage() : texture;
+    }
+
+    protected int putVertex(int index, double[] m, double[] t, double u, double v, int packedColor) {
+        // Transform the unit square point (u, v) to screen coordinates, and the corresponding texture coordinate by
+        // the texture's tex coord transform. Both transforms are affine.
+        float x = (float) (m[0] * u + m[1] * v + m[3]);
+        float y = (float) (m[4] * u + m[5] * v + m[7]);
+        float z = (float) (m[8] * u + m[9] * v + m[11]);
+        float s = (float) (t[0] * u + t[1] * v + t[2]);
+        float tc = (float) (t[3] * u + t[4] * v + t[5]);
+
+        return putVertex(this.vertexArray, index, Float.floatToRawIntBits(x), Float.floatToRawIntBits(y),
+            Float.floatToRawIntBits(z), Float.floatToRawIntBits(s), Float.floatToRawIntBits(tc), packedColor);
+    }
+
+    protected int putVertex(int index, double[] m, float x, float y, float s, float t, int packedColor) {
+        // Transform the point (x, y) to screen coordinates. The transform is affine.
+        float sx = (float) (m[0] * x + m[1] * y + m[3]);
+        float sy = (float) (m[4] * x + m[5] * y + m[7]);
+        float sz = (float) (m[8] * x + m[9] * y + m[11]);
+
+        return putVertex(this.vertexArray, index, Float.floatToRawIntBits(sx), Float.floatToRawIntBits(sy),
+            Float.floatToRawIntBits(sz), Float.floatToRawIntBits(s), Float.floatToRawIntBits(t), packedColor);
+    }
+
+    protected static int putVertex(int[] array, int index, int x, int y, int z, int s, int t, int packedColor) {
+        array[index++] = x;
+        array[index++] = y;
+        array[index++] = z;
+        array[index++] = s;
+        array[index++] = t;
+        array[index++] = packedColor;
+        return index;
+    }
+
+    protected static int packColor(Color color) {
+        // Pack the color as four unsigned bytes in memory order R, G, B, A with premultiplied alpha, matching the
+        // premultiplied colors loaded by BasicShaderProgram.loadColor.
+        float a = color.alpha;
+        int r = (int) (color.red * a * 0xFF + 0.5f);
+        int g = (int) (color.green * a * 0xFF + 0.5f);
+        int b = (int) (color.blue * a * 0xFF + 0.5f);
+        int alpha = (int) (a * 0xFF + 0.5f);
+
+        if (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN) {
+            return (alpha << 24) | (b << 16) | (g << 8) | r;
+        } else {
+            return (r << 24) | (g << 16) | (b << 8) | alpha;
+        }
+    }
+
+    protected IntBuffer vertexBuffer(int capacity) {
+        if (this.vertexBuffer == null || this.vertexBuffer.capacity() < capacity) {
+            int newCapacity = Math.max(capacity, this.vertexArray.length);
+            this.vertexBuffer = ByteBuffer.allocateDirect(newCapacity * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+
+        this.vertexBuffer.clear();
+        return this.vertexBuffer;
+    }
+
+    protected BufferObject assembleElementBuffer() {
+        // Assemble element indices for two triangles per quad, using the four vertices of each quad in the order upper
+        // left, lower left, upper right and lower right.
+        int size = MAX_QUADS * 6 * 2;
+        ShortBuffer buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder()).asShortBuffer();
+        for (int quad = 0; quad < MAX_QUADS; quad++) {
+            int v = quad * 4;
+            buffer.put((short) v).put((short) (v + 1)).put((short) (v + 2));
+            buffer.put((short) (v + 2)).put((short) (v + 1)).put((short) (v + 3));
+        }
+
+        buffer.rewind();
+        return new BufferObject(GLES20.GL_ELEMENT_ARRAY_BUFFER, size, buffer);
+    }
+}
@@ -80,6 +80,33 @@ public class BoundingBox {
             && this.radius == Math.sqrt(3);
     }
 
+    /**
+     * Returns this bounding box's center point.
+     *
+     * @param result a pre-allocated {@link Vec3} in which to return the center point
+     *
+     * @return the result argument set to this box's center point
+     *
+     * @throws IllegalArgumentException If the result is null
+     */
+    public Vec3 getCenter(Vec3 result) {
+        if (result == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "BoundingBox", "getCenter", "missingResult"));
+        }
+
+        return result.set(this.center);
+    }
+
+    /**
+     * Indicates the radius of this bounding box's bounding sphere: half the length of the box's diagonal.
+     *
+     * @return the bounding sphere's radius
+     */
+    public double getRadius() {
+        return this.radius;
+    }
+
     /**
      * Sets this bounding box to a unit box centered at the Cartesian origin (0, 0, 0).
      *
@@ -170,6 +197,83 @@ public class BoundingBox {
             }
         }
 
+        return this.setToExtremes(rMin, rMax, sMin, sMax, tMin, tMax);
+    }
+
+    /**
+     * Expands this bounding box such that it encloses a specified range of points in addition to the volume it already
+     * encloses. The box's axes are unchanged, which makes this considerably less expensive than computing a new box
+     * with {@link #setToPoints(float[], int, int)}, but the expanded box may enclose the points less tightly.
+     *
+     * @param array  the array of points to consider
+     * @param first  the index of the first array element to consider
+     * @param count  the number of array elements to consider
+     * @param stride the number of coordinates between the first coordinate of adjacent points - must be at least 3
+     *
+     * @return This bounding box expanded to contain the specified range of points.
+     *
+     * @throws IllegalArgumentException If the array is null, if the first index or the count is less than 0, or if
+     *                                  the stride is less than 3
+     */
+    public BoundingBox addPoints(float[] array, int first, int count, int stride) {
+        if (array == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "BoundingBox", "addPoints", "missingArray"));
+        }
+
+        if (first < 0 || count < 0) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "BoundingBox", "addPoints", "invalidCount"));
+        }
+
+        if (stride < 3) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "BoundingBox", "addPoints", "invalidStride"));
+        }
+
+        // Recover the box's unit axes and its current extremes along each axis.
+        double rLen = this.r.magnitude();
+        double sLen = this.s.magnitude();
+        double tLen = this.t.magnitude();
+        this.r.divide(rLen);
+        this.s.divide(sLen);
+        this.t.divide(tLen);
+
+        double rCenter = this.center.dot(this.r);
+        double sCenter = this.center.dot(this.s);
+        double tCenter = this.center.dot(this.t);
+        double rMin = rCenter - 0.5 * rLen;
+        double rMax = rCenter + 0.5 * rLen;
+        double sMin = sCenter - 0.5 * sLen;
+        double sMax = sCenter + 0.5 * sLen;
+        double tMin = tCenter - 0.5 * tLen;
+        double tMax = tCenter + 0.5 * tLen;
+
+        // Extend the extremes along each axis to include the specified points.
+        Vec3 p = new Vec3();
+        for (int idx = first, last = first + count; idx < last; idx += stride) {
+            p.set(array[idx], array[idx + 1], array[idx + 2]);
+
+            double pdr = p.dot(this.r);
+            rMin = Math.min(rMin, pdr);
+            rMax = Math.max(rMax, pdr);
+
+            double pds = p.dot(this.s);
+            sMin = Math.min(sMin, pds);
+            sMax = Math.max(sMax, pds);
+
+            double pdt = p.dot(this.t);
+            tMin = Math.min(tMin, pdt);
+            tMax = Math.max(tMax, pdt);
+        }
+
+        return this.setToExtremes(rMin, rMax, sMin, sMax, tMin, tMax);
+    }
+
+    /**
+     * Sets this bounding box's properties from its unit axes and the extremes along each axis.
+     */
+    protected BoundingBox setToExtremes(double rMin, double rMax, double sMin, double sMax, double tMin, double tMax) {
         // Ensure that the extremes along each axis have nonzero separation.
         if (rMax == rMin)
             rMax = rMin + 1;
@@ -427,16 +531,79 @@ public class BoundingBox {
         return true;
     }
 
+    /**
+     * Culls this bounding box against a subset of a frustum's planes, identified by a bit mask whose bits correspond to
+     * the planes in the order defined by {@link Frustum#ALL_PLANES}. Testing begins with a specified plane, typically
+     * the plane that last rejected this box, since a box rejected in one frame is usually rejected by the same plane in
+     * the next.
+     * <p/>
+     * When this box intersects the frustum, the result is a bit mask of the tested planes that the box straddles.
+     * Planes this box lies entirely inside are omitted, so boxes enclosed by this box, such as a tile's children, need
+     * only be tested against the planes in the result. When a plane rejects this box the result is the bitwise
+     * complement of that plane's index, which is always negative.
+     *
+     * @param frustum    the frustum of interest
+     * @param planeMask  the planes to test
+     * @param firstPlane the index of the plane to test first, in the range [0, 5]
+     *
+     * @return a non-negative mask of the straddled planes, or the complement of the rejecting plane's index
+     *
+     * @throws IllegalArgumentException If the specified frustum is null
+     */
+    public int intersectsFrustum(Frustum frustum, int planeMask, int firstPlane) {
+        if (frustum == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "BoundingBox", "intersectsFrustum", "missingFrustum"));
+        }
+
+        this.endPoint1.set(this.bottomCenter);
+        this.endPoint2.set(this.topCenter);
+
+        Plane[] planes = frustum.planes;
+        int straddled = 0;
+        for (int count = 0, idx = firstPlane; count < planes.length; count++, idx = (idx + 1) % planes.length) {
+            int bit = 1 << idx;
+            if ((planeMask & bit) == 0) {
+                continue; // the plane is excluded, typically because the box is inside its parent's positive halfspace
+            }
+
+            Plane plane = planes[idx];
+            Vec3 n = plane.normal;
+            double effectiveRadius = 0.5 * (Math.abs(this.s.dot(n)) + Math.abs(this.t.dot(n)));
+            double dq1 = plane.dot(this.endPoint1);
+            double dq2 = plane.dot(this.endPoint2);
+            if (dq1 >= effectiveRadius && dq2 >= effectiveRadius) {
+                continue; // the box is entirely in the plane's positive halfspace
+            }
+
+            if (this.intersectsAt(plane, effectiveRadius, dq1, dq2) < 0) {
+                return ~idx; // the box is entirely in the plane's negative halfspace
+            }
+
+            straddled |= bit;
+        }
+
+        return straddled;
+    }
+
     private double intersectsAt(Plane plane) {
         Vec3 n = plane.normal;
         double effectiveRadius = 0.5 * (Math.abs(this.s.dot(n)) + Math.abs(this.t.dot(n)));
 
-        // Test the distance from the first end-point.
+        // Compute the distances from the end-points.
         double dq1 = plane.dot(this.endPoint1);
+        double dq2 = plane.dot(this.endPoint2);
+
+        return this.intersectsAt(plane, effectiveRadius, dq1, dq2);
+    }
+
+    private double intersectsAt(Plane plane, double effectiveRadius, double dq1, double dq2) {
+        Vec3 n = plane.normal;
+
+        // Test the distance from the first end-point.
         boolean bq1 = dq1 <= -effectiveRadius;
 
         // Test the distance from the second end-point.
-        double dq2 = plane.dot(this.endPoint2);
         boolean bq2 = dq2 <= -effectiveRadius;
 
         if (bq1 && bq2) { // endpoints more distant from plane than effective radius; box is on neg. side of plane
@@ -12,6 +12,18 @@ import gov.nasa.worldwind.util.Logger;
  */
 public class Frustum {
 
+    /**
+     * A plane mask identifying all six frustum planes. Plane masks used by {@link BoundingBox#intersectsFrustum(Frustum,
+     * int, int)} have one bit per plane, in the order left, right, top, bottom, near and far from the least significant
+     * bit. The same order identifies planes by index.
+     */
+    public static final int ALL_PLANES = 0x3F;
+
+    /**
+     * The plane mask value indicating that a box is outside the frustum.
+     */
+    public static final int CULLED = -1;
+
     protected final Plane left = new Plane(1, 0, 0, 1);
 
     protected final Plane right = new Plane(-1, 0, 0, 1);
@@ -209,6 +209,60 @@ public class BasicGlobe implements Globe {
             result, stride, pos);
     }
 
+    @Override
+    public float[] geographicToCartesianArray(double[] positions, int positionStride, int positionPos, int count,
+                                              Vec3 origin, float[] result, int stride, int pos) {
+        if (count < 0) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "BasicGlobe", "geographicToCartesianArray", "invalidCount"));
+        }
+
+        if (positionStride < 3 || stride < 3) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "BasicGlobe", "geographicToCartesianArray", "invalidStride"));
+        }
+
+        if (positions == null || (count > 0 && positions.length < positionPos + (count - 1) * positionStride + 3)) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "BasicGlobe", "geographicToCartesianArray", "missingArray"));
+        }
+
+        if (result == null || (count > 0 && result.length < pos + (count - 1) * stride + 3)) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "BasicGlobe", "geographicToCartesianArray", "missingResult"));
+        }
+
+        return this.projection.geographicToCartesianArray(this, positions, positionStride, positionPos, count, origin,
+            null, result, stride, pos);
+    }
+
+    @Override
+    public double[] cartesianToGeographicArray(float[] points, int pointStride, int pointPos, int count, Vec3 origin,
+                                               double[] result, int stride, int pos) {
+        if (count < 0) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "BasicGlobe", "cartesianToGeographicArray", "invalidCount"));
+        }
+
+        if (pointStride < 3 || stride < 3) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "BasicGlobe", "cartesianToGeographicArray", "invalidStride"));
+        }
+
+        if (points == null || (count > 0 && points.length < pointPos + (count - 1) * pointStride + 3)) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "BasicGlobe", "cartesianToGeographicArray", "missingArray"));
+        }
+
+        if (result == null || (count > 0 && result.length < pos + (count - 1) * stride + 3)) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "BasicGlobe", "cartesianToGeographicArray", "missingResult"));
+        }
+
+        return this.projection.cartesianToGeographicArray(this, points, pointStride, pointPos, count, origin, null,
+            result, stride, pos);
+    }
+
     @Override
     public Position cartesianToGeographic(double x, double y, double z, Position result) {
         if (result == null) {
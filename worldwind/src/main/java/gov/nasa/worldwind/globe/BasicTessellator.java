@@ -15,6 +15,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import gov.nasa.worldwind.draw.BasicDrawableTerrain;
+import gov.nasa.worldwind.geom.Frustum;
 import gov.nasa.worldwind.geom.Range;
 import gov.nasa.worldwind.geom.Sector;
 import gov.nasa.worldwind.geom.Vec3;
@@ -116,7 +117,10 @@ public class BasicTessellator implements Tessellator, TileFactory {
 
         // Subdivide the top level tiles until the desired resolution is achieved in each part of the scene.
         for (int idx = 0, len = this.topLevelTiles.size(); idx < len; idx++) {
-            this.addTileOrDescendants(rc, (TerrainTile) this.topLevelTiles.get(idx));
+            TerrainTile tile = (TerrainTile) this.topLevelTiles.get(idx);
+            if (tile.intersectsFrustum(rc, rc.frustum)) { // test the top level tiles against all frustum planes
+                this.addTileOrDescendants(rc, tile);
+            }
         }
 
         // Release references to render resources acquired while assembling tiles.
@@ -132,8 +136,9 @@ public class BasicTessellator implements Tessellator, TileFactory {
     }
 
     protected void addTileOrDescendants(RenderContext rc, TerrainTile tile) {
-        if (!tile.intersectsSector(this.levelSet.sector) || !tile.intersectsFrustum(rc, rc.frustum)) {
-            return; // ignore the tile and its descendants if it's not needed or not visible
+        // The tile has been culled against the frustum, either individually or with its siblings.
+        if (!tile.intersectsSector(this.levelSet.sector)) {
+            return; // ignore the tile and its descendants if it's not needed
         }
 
         if (tile.level.isLastLevel() || !tile.mustSubdivide(rc, this.detailControl)) {
@@ -141,8 +146,15 @@ public class BasicTessellator implements Tessellator, TileFactory {
             return; // use the tile if it does not need to be subdivided
         }
 
-        for (Tile child : tile.subdivideToCache(this, this.tileCache, 4)) { // each tile has a cached size of 1
-            this.addTileOrDescendants(rc, (TerrainTile) child); // recursively process the tile's children
+        // Cull the tile's children in one pass, testing only the frustum planes the tile straddles. Children are
+        // enclosed by the tile, so they're inside the planes the tile is inside.
+        Tile[] children = tile.subdivideToCache(this, this.tileCache, 4); // each tile has a cached size of 1
+        Tile.intersectsFrustum(rc, rc.frustum, children, tile.getFrustumPlaneMask());
+
+        for (Tile child : children) {
+            if (child.getFrustumPlaneMask() != Frustum.CULLED) { // ignore the child and its descendants if not visible
+                this.addTileOrDescendants(rc, (TerrainTile) child); // recursively process the tile's children
+            }
         }
     }
 
@@ -184,6 +196,7 @@ public class BasicTessellator implements Tessellator, TileFactory {
         drawable.vertexPoints = tile.getVertexPointBuffer(rc);
         drawable.vertexTexCoords = this.levelSetVertexTexCoordBuffer;
         drawable.elements = this.levelSetElementBuffer;
+        drawable.vertexArray = tile.getVertexArray(rc);
     }
 
     public boolean mustAssembleTilePoints(RenderContext rc, TerrainTile tile) {
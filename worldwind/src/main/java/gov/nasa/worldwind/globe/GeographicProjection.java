@@ -79,6 +79,56 @@ public interface GeographicProjection {
     float[] geographicToCartesianGrid(Globe globe, Sector sector, int numLat, int numLon, double[] elevations,
                                       Vec3 origin, Vec3 offset, float[] result, int stride, int pos);
 
+    /**
+     * Converts an array of geographic positions to Cartesian coordinates relative to an origin. Positions are read from
+     * the array as consecutive latitude, longitude and altitude values, starting at positionPos and separated by
+     * positionStride. Points are written to the result as consecutive X, Y and Z values, starting at pos and separated
+     * by stride.
+     *
+     * @param globe          the globe this projection is applied to
+     * @param positions      the geographic positions' latitude and longitude in degrees and altitude in meters
+     * @param positionStride the number of array elements between consecutive positions
+     * @param positionPos    the array index of the first position
+     * @param count          the number of positions to convert
+     * @param origin         the Cartesian origin subtracted from each point, or null to indicate no origin
+     * @param offset         an offset to apply to the Cartesian output. Typically only projections that are continuous
+     *                       apply to this offset. Others ignore it. May be null to indicate no offset is applied.
+     * @param result         a pre-allocated array in which to store the computed Cartesian points
+     * @param stride         the number of array elements between consecutive points
+     * @param pos            the array index of the first point
+     *
+     * @return the result argument, set to the computed Cartesian points
+     *
+     * @throws IllegalArgumentException If the globe, positions or result are null, or if either array is too small
+     */
+    float[] geographicToCartesianArray(Globe globe, double[] positions, int positionStride, int positionPos, int count,
+                                       Vec3 origin, Vec3 offset, float[] result, int stride, int pos);
+
+    /**
+     * Converts an array of Cartesian points relative to an origin to geographic positions. This is the inverse of
+     * geographicToCartesianArray. Points are read from the array as consecutive X, Y and Z values, starting at pointPos
+     * and separated by pointStride. Positions are written to the result as consecutive latitude, longitude and altitude
+     * values, starting at pos and separated by stride.
+     *
+     * @param globe       the globe this projection is applied to
+     * @param points      the Cartesian points' X, Y and Z components
+     * @param pointStride the number of array elements between consecutive points
+     * @param pointPos    the array index of the first point
+     * @param count       the number of points to convert
+     * @param origin      the Cartesian origin added to each point, or null to indicate no origin
+     * @param offset      an offset to apply to the Cartesian input. Typically only projections that are continuous
+     *                    apply to this offset. Others ignore it. May be null to indicate no offset is applied.
+     * @param result      a pre-allocated array in which to store the computed geographic positions
+     * @param stride      the number of array elements between consecutive positions
+     * @param pos         the array index of the first position
+     *
+     * @return the result argument, set to the computed geographic positions
+     *
+     * @throws IllegalArgumentException If the globe, points or result are null, or if either array is too small
+     */
+    double[] cartesianToGeographicArray(Globe globe, float[] points, int pointStride, int pointPos, int count,
+                                        Vec3 origin, Vec3 offset, double[] result, int stride, int pos);
+
     /**
      * Converts a Cartesian point to a geographic position.
      *
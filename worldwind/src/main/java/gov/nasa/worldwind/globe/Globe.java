@@ -137,6 +137,51 @@ public interface Globe {
     float[] geographicToCartesianGrid(Sector sector, int numLat, int numLon, double[] elevations, Vec3 origin,
                                           float[] result, int stride, int pos);
 
+    /**
+     * Converts an array of geographic positions to Cartesian coordinates relative to an origin. This globe's projection
+     * specifies the Cartesian coordinate system. Positions are read from the array as consecutive latitude, longitude
+     * and altitude values, starting at positionPos and separated by positionStride. Points are written to the result
+     * as consecutive X, Y and Z values, starting at pos and separated by stride.
+     * <p/>
+     * Converting positions in bulk avoids the per-position overhead of {@link #geographicToCartesian(double, double,
+     * double, Vec3)}, and produces single precision coordinates suitable for a shape's vertex array.
+     *
+     * @param positions      the geographic positions' latitude and longitude in degrees and altitude in meters
+     * @param positionStride the number of array elements between consecutive positions
+     * @param positionPos    the array index of the first position
+     * @param count          the number of positions to convert
+     * @param origin         the Cartesian origin subtracted from each point, or null to indicate no origin
+     * @param result         a pre-allocated array in which to store the computed Cartesian points
+     * @param stride         the number of array elements between consecutive points
+     * @param pos            the array index of the first point
+     *
+     * @return the result argument, set to the computed Cartesian points
+     *
+     * @throws IllegalArgumentException If either array is null or too small, or if either stride is less than three
+     */
+    float[] geographicToCartesianArray(double[] positions, int positionStride, int positionPos, int count, Vec3 origin,
+                                       float[] result, int stride, int pos);
+
+    /**
+     * Converts an array of Cartesian points relative to an origin to geographic positions. This is the inverse of
+     * {@link #geographicToCartesianArray(double[], int, int, int, Vec3, float[], int, int)}.
+     *
+     * @param points      the Cartesian points' X, Y and Z components
+     * @param pointStride the number of array elements between consecutive points
+     * @param pointPos    the array index of the first point
+     * @param count       the number of points to convert
+     * @param origin      the Cartesian origin added to each point, or null to indicate no origin
+     * @param result      a pre-allocated array in which to store the computed geographic positions
+     * @param stride      the number of array elements between consecutive positions
+     * @param pos         the array index of the first position
+     *
+     * @return the result argument, set to the computed geographic positions
+     *
+     * @throws IllegalArgumentException If either array is null or too small, or if either stride is less than three
+     */
+    double[] cartesianToGeographicArray(float[] points, int pointStride, int pointPos, int count, Vec3 origin,
+                                        double[] result, int stride, int pos);
+
     /**
      * Converts a Cartesian point to a geographic position. This globe's projection specifies the Cartesian coordinate
      * system.
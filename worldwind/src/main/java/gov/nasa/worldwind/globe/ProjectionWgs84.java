@@ -22,7 +22,10 @@ import gov.nasa.worldwind.util.Logger;
  */
 public class ProjectionWgs84 implements GeographicProjection {
 
-    private Position scratchPos = new Position();
+    /**
+     * The number of angles computed by recurrence between each exact sine and cosine computed by sinCosSequence.
+     */
+    protected static final int SIN_COS_RESYNC_INTERVAL = 16;
 
     /**
      * Constructs a WGS 84 geographic projection.
@@ -212,49 +215,40 @@ public class ProjectionWgs84 implements GeographicProjection {
         double maxLat = Math.toRadians(sector.maxLatitude());
         double minLon = Math.toRadians(sector.minLongitude());
         double maxLon = Math.toRadians(sector.maxLongitude());
-        double deltaLat = (maxLat - minLat) / (numLat > 1 ? numLat - 1 : 1);
-        double deltaLon = (maxLon - minLon) / (numLon > 1 ? numLon - 1 : 1);
 
         double eqr = globe.getEquatorialRadius();
         double ec2 = globe.getEccentricitySquared();
-        double cosLat, sinLat, rpm;
+        double rpm;
+        double[] cosLat = new double[numLat];
+        double[] sinLat = new double[numLat];
         double[] cosLon = new double[numLon];
         double[] sinLon = new double[numLon];
 
         int latIndex, lonIndex, elevIndex = 0;
-        double lat, lon, elev;
+        double elev;
         double xOffset = (origin != null) ? -origin.x : 0;
         double yOffset = (origin != null) ? -origin.y : 0;
         double zOffset = (origin != null) ? -origin.z : 0;
 
-        // Compute and save values that are a function of each unique longitude value in the specified sector. This
-        // eliminates the need to re-compute these values for each column of constant longitude.
-        for (lonIndex = 0, lon = minLon; lonIndex < numLon; lonIndex++, lon += deltaLon) {
-            if (lonIndex == numLon - 1) {
-                lon = maxLon; // explicitly set the last lon to the max longitude to ensure alignment
-            }
-
-            cosLon[lonIndex] = Math.cos(lon);
-            sinLon[lonIndex] = Math.sin(lon);
-        }
+        // Compute and save the sine and cosine of each unique latitude and longitude value in the specified sector.
+        // This eliminates the need to re-compute these values for each row and column, and computes most of them
+        // without calling the trigonometric functions.
+        sinCosSequence(minLat, maxLat, numLat, sinLat, cosLat);
+        sinCosSequence(minLon, maxLon, numLon, sinLon, cosLon);
 
         // Iterate over the latitude and longitude coordinates in the specified sector, computing the Cartesian
         // point corresponding to each latitude and longitude.
-        for (latIndex = 0, lat = minLat; latIndex < numLat; latIndex++, lat += deltaLat) {
-            if (latIndex == numLat - 1) {
-                lat = maxLat; // explicitly set the last lat to the max latitude to ensure alignment
-            }
-
+        for (latIndex = 0; latIndex < numLat; latIndex++) {
             // Latitude is constant for each row. Values that are a function of latitude can be computed once per row.
-            cosLat = Math.cos(lat);
-            sinLat = Math.sin(lat);
-            rpm = eqr / Math.sqrt(1.0 - ec2 * sinLat * sinLat);
+            double cosLatRow = cosLat[latIndex];
+            double sinLatRow = sinLat[latIndex];
+            rpm = eqr / Math.sqrt(1.0 - ec2 * sinLatRow * sinLatRow);
 
             for (lonIndex = 0; lonIndex < numLon; lonIndex++) {
                 elev = (elevations != null) ? elevations[elevIndex++] : 0;
-                result[pos] = (float) ((elev + rpm) * cosLat * sinLon[lonIndex] + xOffset);
-                result[pos + 1] = (float) ((elev + rpm * (1.0 - ec2)) * sinLat + yOffset);
-                result[pos + 2] = (float) ((elev + rpm) * cosLat * cosLon[lonIndex] + zOffset);
+                result[pos] = (float) ((elev + rpm) * cosLatRow * sinLon[lonIndex] + xOffset);
+                result[pos + 1] = (float) ((elev + rpm * (1.0 - ec2)) * sinLatRow + yOffset);
+                result[pos + 2] = (float) ((elev + rpm) * cosLatRow * cosLon[lonIndex] + zOffset);
                 pos += stride;
             }
         }
@@ -262,6 +256,162 @@ public class ProjectionWgs84 implements GeographicProjection {
         return result;
     }
 
+    /**
+     * Computes the sine and cosine of count evenly spaced angles from minAngle to maxAngle. The last angle is exactly
+     * maxAngle, and a single angle is interpreted as maxAngle.
+     * <p/>
+     * Most values are computed from their predecessor by the angle-addition recurrence sin(a + d) = sin(a)cos(d) +
+     * cos(a)sin(d) and cos(a + d) = cos(a)cos(d) - sin(a)sin(d), which requires no trigonometric function calls. The
+     * recurrence's rounding error grows by roughly one double precision ulp per step, so the values are resynchronized
+     * with exact values every SIN_COS_RESYNC_INTERVAL angles, keeping the error many orders of magnitude below single
+     * precision. A 32x32 grid therefore requires eight sine and cosine pairs rather than 64, and a 3x3 tile sample grid
+     * requires four rather than six.
+     *
+     * @param minAngle the first angle in radians
+     * @param maxAngle the last angle in radians
+     * @param count    the number of angles
+     * @param sin      a pre-allocated array of at least count elements in which to store the sines
+     * @param cos      a pre-allocated array of at least count elements in which to store the cosines
+     */
+    protected static void sinCosSequence(double minAngle, double maxAngle, int count, double[] sin, double[] cos) {
+        int last = count - 1;
+
+        // Three angles are common in tile sample grids. The middle angle bisects the first and last, so its sine and
+        // cosine are the normalized sum of theirs when the angles span less than a half turn.
+        if (count == 3 && Math.abs(maxAngle - minAngle) < Math.PI) {
+            sin[0] = Math.sin(minAngle);
+            cos[0] = Math.cos(minAngle);
+            sin[2] = Math.sin(maxAngle);
+            cos[2] = Math.cos(maxAngle);
+            double sumSin = sin[0] + sin[2];
+            double sumCos = cos[0] + cos[2];
+            double len = Math.sqrt(sumSin * sumSin + sumCos * sumCos);
+            sin[1] = sumSin / len;
+            cos[1] = sumCos / len;
+            return;
+        }
+
+        double delta = (maxAngle - minAngle) / (count > 1 ? last : 1);
+        double sinDelta = (last > 1) ? Math.sin(delta) : 0; // the recurrence is used only between the first and last
+        double cosDelta = (last > 1) ? Math.cos(delta) : 1;
+
+        for (int idx = 0; idx < last; idx++) {
+            if (idx % SIN_COS_RESYNC_INTERVAL == 0) {
+                double angle = minAngle + idx * delta;
+                sin[idx] = Math.sin(angle);
+                cos[idx] = Math.cos(angle);
+            } else {
+                double prevSin = sin[idx - 1];
+                double prevCos = cos[idx - 1];
+                sin[idx] = prevSin * cosDelta + prevCos * sinDelta;
+                cos[idx] = prevCos * cosDelta - prevSin * sinDelta;
+            }
+        }
+
+        // Explicitly compute the last angle from the max angle to ensure alignment with adjacent grids.
+        sin[last] = Math.sin(maxAngle);
+        cos[last] = Math.cos(maxAngle);
+    }
+
+    @Override
+    public float[] geographicToCartesianArray(Globe globe, double[] positions, int positionStride, int positionPos,
+                                              int count, Vec3 origin, Vec3 offset, float[] result, int stride,
+                                              int pos) {
+        if (globe == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ProjectionWgs84", "geographicToCartesianArray", "missingGlobe"));
+        }
+
+        if (count < 0) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ProjectionWgs84", "geographicToCartesianArray", "invalidCount"));
+        }
+
+        if (positionStride < 3 || stride < 3) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ProjectionWgs84", "geographicToCartesianArray", "invalidStride"));
+        }
+
+        if (positions == null || (count > 0 && positions.length < positionPos + (count - 1) * positionStride + 3)) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ProjectionWgs84", "geographicToCartesianArray", "missingArray"));
+        }
+
+        if (result == null || (count > 0 && result.length < pos + (count - 1) * stride + 3)) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ProjectionWgs84", "geographicToCartesianArray", "missingResult"));
+        }
+
+        // Hoist the globe's parameters and the origin out of the loop, leaving a counted loop over primitive arrays
+        // whose body has no calls other than the math intrinsics.
+        double eqr = globe.getEquatorialRadius();
+        double ec2 = globe.getEccentricitySquared();
+        double polarScale = 1.0 - ec2;
+        double xOffset = (origin != null) ? -origin.x : 0;
+        double yOffset = (origin != null) ? -origin.y : 0;
+        double zOffset = (origin != null) ? -origin.z : 0;
+
+        for (int idx = 0, ppos = positionPos; idx < count; idx++, ppos += positionStride, pos += stride) {
+            double radLat = Math.toRadians(positions[ppos]);
+            double radLon = Math.toRadians(positions[ppos + 1]);
+            double alt = positions[ppos + 2];
+            double cosLat = Math.cos(radLat);
+            double sinLat = Math.sin(radLat);
+            double rpm = eqr / Math.sqrt(1.0 - ec2 * sinLat * sinLat);
+            double cosLatRadius = (alt + rpm) * cosLat;
+
+            result[pos] = (float) (cosLatRadius * Math.sin(radLon) + xOffset);
+            result[pos + 1] = (float) ((alt + rpm * polarScale) * sinLat + yOffset);
+            result[pos + 2] = (float) (cosLatRadius * Math.cos(radLon) + zOffset);
+        }
+
+        return result;
+    }
+
+    @Override
+    public double[] cartesianToGeographicArray(Globe globe, float[] points, int pointStride, int pointPos, int count,
+                                               Vec3 origin, Vec3 offset, double[] result, int stride, int pos) {
+        if (globe == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ProjectionWgs84", "cartesianToGeographicArray", "missingGlobe"));
+        }
+
+        if (count < 0) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ProjectionWgs84", "cartesianToGeographicArray", "invalidCount"));
+        }
+
+        if (pointStride < 3 || stride < 3) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ProjectionWgs84", "cartesianToGeographicArray", "invalidStride"));
+        }
+
+        if (points == null || (count > 0 && points.length < pointPos + (count - 1) * pointStride + 3)) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ProjectionWgs84", "cartesianToGeographicArray", "missingArray"));
+        }
+
+        if (result == null || (count > 0 && result.length < pos + (count - 1) * stride + 3)) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ProjectionWgs84", "cartesianToGeographicArray", "missingResult"));
+        }
+
+        double xOrigin = (origin != null) ? origin.x : 0;
+        double yOrigin = (origin != null) ? origin.y : 0;
+        double zOrigin = (origin != null) ? origin.z : 0;
+        Position position = new Position();
+
+        for (int idx = 0, ppos = pointPos; idx < count; idx++, ppos += pointStride, pos += stride) {
+            this.cartesianToGeographic(globe, points[ppos] + xOrigin, points[ppos + 1] + yOrigin,
+                points[ppos + 2] + zOrigin, offset, position);
+            result[pos] = position.latitude;
+            result[pos + 1] = position.longitude;
+            result[pos + 2] = position.altitude;
+        }
+
+        return result;
+    }
+
     @SuppressWarnings({"UnnecessaryLocalVariable", "SuspiciousNameCombination"})
     @Override
     public Position cartesianToGeographic(Globe globe, double x, double y, double z, Vec3 offset, Position result) {
@@ -378,7 +528,9 @@ public class ProjectionWgs84 implements GeographicProjection {
                 Logger.logMessage(Logger.ERROR, "ProjectionWgs84", "cartesianToLocalTransform", "missingResult"));
         }
 
-        Position pos = this.cartesianToGeographic(globe, x, y, z, offset, this.scratchPos);
+        // Use a new position rather than a scratch position, since shape geometry may call this method on several
+        // threads at once.
+        Position pos = this.cartesianToGeographic(globe, x, y, z, offset, new Position());
         double radLat = Math.toRadians(pos.latitude);
         double radLon = Math.toRadians(pos.longitude);
         double cosLat = Math.cos(radLat);
@@ -15,6 +15,7 @@ import gov.nasa.worldwind.geom.Sector;
 import gov.nasa.worldwind.geom.Vec3;
 import gov.nasa.worldwind.render.BufferObject;
 import gov.nasa.worldwind.render.RenderContext;
+import gov.nasa.worldwind.render.VertexArrayObject;
 import gov.nasa.worldwind.util.Level;
 import gov.nasa.worldwind.util.Tile;
 
@@ -29,12 +30,15 @@ public class TerrainTile extends Tile {
 
     protected String vertexPointKey;
 
+    protected String vertexArrayKey;
+
     /**
      * {@inheritDoc}
      */
     public TerrainTile(Sector sector, Level level, int row, int column) {
         super(sector, level, row, column);
         this.vertexPointKey = this.getClass().getName() + ".vertexPoint." + this.tileKey;
+        this.vertexArrayKey = this.getClass().getName() + ".vertexArray." + this.tileKey;
     }
 
     public Vec3 getVertexOrigin() {
@@ -71,4 +75,13 @@ public class TerrainTile extends Tile {
 
         return rc.putBufferObject(this.vertexPointKey, new BufferObject(GLES20.GL_ARRAY_BUFFER, size, buffer));
     }
+
+    public VertexArrayObject getVertexArray(RenderContext rc) {
+        VertexArrayObject vertexArray = rc.getVertexArray(this.vertexArrayKey);
+        if (vertexArray != null) {
+            return vertexArray;
+        }
+
+        return rc.putVertexArray(this.vertexArrayKey, new VertexArrayObject());
+    }
 }
@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.layer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import gov.nasa.worldwind.geom.Location;
+import gov.nasa.worldwind.geom.Position;
+import gov.nasa.worldwind.geom.Sector;
+import gov.nasa.worldwind.globe.Globe;
+import gov.nasa.worldwind.render.RenderContext;
+import gov.nasa.worldwind.render.Renderable;
+import gov.nasa.worldwind.shape.Label;
+import gov.nasa.worldwind.shape.Movable;
+import gov.nasa.worldwind.shape.Placemark;
+import gov.nasa.worldwind.util.Logger;
+import gov.nasa.worldwind.util.SectorQuadtree;
+
+/**
+ * Layer that indexes its renderables geographically and renders only those near the visible terrain. Large collections
+ * of point shapes, such as tens of thousands of placemarks, spend most of each frame computing the Cartesian point and
+ * frustum intersection of shapes that are off screen. IndexedRenderableLayer keeps point shapes in a {@link
+ * SectorQuadtree} keyed by their position, and calls render only on shapes whose position falls within the sector
+ * covered by the current terrain.
+ * <p/>
+ * Placemarks and labels are indexed by their position. All other renderables are rendered every frame, as they are
+ * in RenderableLayer. Subclasses may index additional renderable types by overriding {@link
+ * #computeLocation(Renderable, Location)}. Renderables are rendered in the order they were added to the layer.
+ * <p/>
+ * The index is updated when a renderable is moved with {@link #moveRenderable(Renderable, Globe, Position)}.
+ * Applications that change a renderable's position directly, for example by calling Placemark.setPosition, must
+ * notify the layer with {@link #updateRenderable(Renderable)}. Index updates are incremental and take logarithmic
+ * time.
+ */
+public class IndexedRenderableLayer extends AbstractLayer implements Iterable<Renderable> {
+
+    protected static class Entry {
+
+        protected Renderable renderable;
+
+        protected long ordinal;
+
+        protected SectorQuadtree.Entry<Entry> indexEntry;
+
+        public Entry(Renderable renderable, long ordinal) {
+            this.renderable = renderable;
+            this.ordinal = ordinal;
+        }
+    }
+
+    protected static final Comparator<Entry> ordinalComparator = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry lhs, Entry rhs) {
+            return (lhs.ordinal < rhs.ordinal) ? -1 : ((lhs.ordinal == rhs.ordinal) ? 0 : 1);
+        }
+    };
+
+    /**
+     * The amount by which the visible terrain sector is expanded before searching the index, as a fraction of the
+     * sector's width and height. The margin includes shapes whose position is just off screen but whose screen
+     * extent, such as a placemark's icon, overlaps the viewport.
+     */
+    protected double sectorMargin = 0.1;
+
+    protected Map<Renderable, Entry> entries = new IdentityHashMap<>();
+
+    protected SectorQuadtree<Entry> index = new SectorQuadtree<>();
+
+    protected ArrayList<Entry> unindexedEntries = new ArrayList<>();
+
+    protected long nextOrdinal;
+
+    private ArrayList<Entry> visibleEntries = new ArrayList<>();
+
+    private Location scratchLocation = new Location();
+
+    private Sector scratchSector = new Sector();
+
+    public IndexedRenderableLayer() {
+    }
+
+    public IndexedRenderableLayer(String displayName) {
+        super(displayName);
+    }
+
+    public IndexedRenderableLayer(Iterable<? extends Renderable> renderables) {
+        if (renderables == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "IndexedRenderableLayer", "constructor", "missingList"));
+        }
+
+        this.addAllRenderables(renderables);
+    }
+
+    public int count() {
+        return this.entries.size();
+    }
+
+    public boolean containsRenderable(Renderable renderable) {
+        return renderable != null && this.entries.containsKey(renderable);
+    }
+
+    /**
+     * Adds a renderable to this layer. This has no effect if the renderable is already in the layer.
+     *
+     * @param renderable the renderable to add
+     *
+     * @return true if the renderable was added, false if it was already in the layer
+     *
+     * @throws IllegalArgumentException If the renderable is null
+     */
+    public boolean addRenderable(Renderable renderable) {
+        if (renderable == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "IndexedRenderableLayer", "addRenderable", "missingRenderable"));
+        }
+
+        if (this.entries.containsKey(renderable)) {
+            return false;
+        }
+
+        Entry entry = new Entry(renderable, this.nextOrdinal++);
+        this.entries.put(renderable, entry);
+        this.indexEntry(entry);
+
+        return true;
+    }
+
+    public void addAllRenderables(Iterable<? extends Renderable> iterable) {
+        if (iterable == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "IndexedRenderableLayer", "addAllRenderables", "missingIterable"));
+        }
+
+        for (Renderable renderable : iterable) {
+            if (renderable == null) {
+                throw new IllegalArgumentException(
+                    Logger.logMessage(Logger.ERROR, "IndexedRenderableLayer", "addAllRenderables", "missingRenderable"));
+            }
+
+            this.addRenderable(renderable);
+        }
+    }
+
+    public boolean removeRenderable(Renderable renderable) {
+        if (renderable == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "IndexedRenderableLayer", "removeRenderable", "missingRenderable"));
+        }
+
+        Entry entry = this.entries.remove(renderable);
+        if (entry == null) {
+            return false;
+        }
+
+        this.unindexEntry(entry);
+        return true;
+    }
+
+    public boolean removeAllRenderables(Iterable<? extends Renderable> renderables) {
+        if (renderables == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "IndexedRenderableLayer", "removeAllRenderables", "missingList"));
+        }
+
+        boolean removed = false;
+
+        for (Renderable renderable : renderables) {
+            if (renderable == null) {
+                throw new IllegalArgumentException(
+                    Logger.logMessage(Logger.ERROR, "IndexedRenderableLayer", "removeAllRenderables", "missingRenderable"));
+            }
+
+            removed |= this.removeRenderable(renderable);
+        }
+
+        return removed;
+    }
+
+    public void clearRenderables() {
+        this.entries.clear();
+        this.index.clear();
+        this.unindexedEntries.clear();
+    }
+
+    /**
+     * Moves a renderable to a new position and updates its location in this layer's index. The renderable must
+     * implement {@link Movable}.
+     *
+     * @param renderable the renderable to move
+     * @param globe      the globe on which to move the renderable
+     * @param position   the renderable's new reference position
+     *
+     * @throws IllegalArgumentException If any argument is null, or if the renderable is not Movable
+     */
+    public void moveRenderable(Renderable renderable, Globe globe, Position position) {
+        if (!(renderable instanceof Movable)) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "IndexedRenderableLayer", "moveRenderable", "missingRenderable"));
+        }
+
+        if (globe == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "IndexedRenderableLayer", "moveRenderable", "missingGlobe"));
+        }
+
+        if (position == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "IndexedRenderableLayer", "moveRenderable", "missingPosition"));
+        }
+
+        ((Movable) renderable).moveTo(globe, position);
+        this.updateRenderable(renderable);
+    }
+
+    /**
+     * Updates a renderable's location in this layer's index after its position has changed. This has no effect if the
+     * renderable is not in the layer.
+     *
+     * @param renderable the renderable whose position has changed
+     *
+     * @throws IllegalArgumentException If the renderable is null
+     */
+    public void updateRenderable(Renderable renderable) {
+        if (renderable == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "IndexedRenderableLayer", "updateRenderable", "missingRenderable"));
+        }
+
+        Entry entry = this.entries.get(renderable);
+        if (entry == null) {
+            return;
+        }
+
+        Location location = this.scratchLocation;
+        if (entry.indexEntry != null && this.computeLocation(renderable, location)) {
+            this.index.update(entry.indexEntry, location.latitude, location.longitude); // move the entry within the index
+        } else {
+            this.unindexEntry(entry);
+            this.indexEntry(entry);
+        }
+    }
+
+    @Override
+    public Iterator<Renderable> iterator() {
+        ArrayList<Entry> list = new ArrayList<>(this.entries.values());
+        Collections.sort(list, ordinalComparator);
+
+        ArrayList<Renderable> renderables = new ArrayList<>(list.size());
+        for (int idx = 0, len = list.size(); idx < len; idx++) {
+            renderables.add(list.get(idx).renderable);
+        }
+
+        return Collections.unmodifiableList(renderables).iterator();
+    }
+
+    /**
+     * Computes the geographic location used to index a renderable. Renderables for which this returns false are not
+     * indexed and are rendered every frame.
+     *
+     * @param renderable the renderable to compute a location for
+     * @param result     a pre-allocated location in which to return the computed value
+     *
+     * @return true if the renderable should be indexed by the result location, false otherwise
+     */
+    protected boolean computeLocation(Renderable renderable, Location result) {
+        Position position = null;
+        if (renderable instanceof Placemark) {
+            position = ((Placemark) renderable).getPosition();
+        } else if (renderable instanceof Label) {
+            position = ((Label) renderable).getPosition();
+        }
+
+        if (position == null || Double.isNaN(position.latitude) || Double.isNaN(position.longitude)) {
+            return false;
+        }
+
+        result.set(position.latitude, position.longitude);
+        return true;
+    }
+
+    protected void indexEntry(Entry entry) {
+        Location location = this.scratchLocation;
+        if (this.computeLocation(entry.renderable, location)) {
+            entry.indexEntry = this.index.insert(location.latitude, location.longitude, entry);
+        } else {
+            this.unindexedEntries.add(entry);
+        }
+    }
+
+    protected void unindexEntry(Entry entry) {
+        if (entry.indexEntry != null) {
+            this.index.remove(entry.indexEntry);
+            entry.indexEntry = null;
+        } else {
+            this.unindexedEntries.remove(entry);
+        }
+    }
+
+    @Override
+    protected void doRender(RenderContext rc) {
+        ArrayList<Entry> visible = this.collectVisibleEntries(rc, this.visibleEntries);
+
+        for (int idx = 0, len = visible.size(); idx < len; idx++) {
+            this.renderEntry(rc, visible.get(idx));
+        }
+
+        visible.clear();
+    }
+
+    /**
+     * Collects the entries whose renderables may be visible in the current frame, in the order they were added to the
+     * layer. This includes all unindexed entries.
+     *
+     * @param rc     the current render context
+     * @param result a list in which to collect the entries
+     *
+     * @return the result list
+     */
+    protected ArrayList<Entry> collectVisibleEntries(RenderContext rc, ArrayList<Entry> result) {
+        // Search the index for renderables near the visible terrain. Collect all renderables when the visible sector
+        // is unknown.
+        Sector sector = this.visibleSector(rc, this.scratchSector);
+        if (sector != null) {
+            result.addAll(this.unindexedEntries);
+            this.index.query(sector, result);
+        } else {
+            result.addAll(this.entries.values());
+        }
+
+        Collections.sort(result, ordinalComparator);
+        return result;
+    }
+
+    protected void renderEntry(RenderContext rc, Entry entry) {
+        Renderable renderable = entry.renderable;
+        try {
+            renderable.render(rc);
+        } catch (Exception e) {
+            Logger.logMessage(Logger.ERROR, "IndexedRenderableLayer", "renderEntry",
+                "Exception while rendering shape \'" + renderable.getDisplayName() + "\'", e);
+            // Keep going. Draw the remaining renderables.
+        }
+    }
+
+    protected Sector visibleSector(RenderContext rc, Sector result) {
+        Sector terrainSector = (rc.terrain != null) ? rc.terrain.getSector() : null;
+        if (terrainSector == null || terrainSector.isEmpty()) {
+            return null;
+        }
+
+        double latMargin = terrainSector.deltaLatitude() * this.sectorMargin;
+        double lonMargin = terrainSector.deltaLongitude() * this.sectorMargin;
+        double minLat = Math.max(-90, terrainSector.minLatitude() - latMargin);
+        double maxLat = Math.min(90, terrainSector.maxLatitude() + latMargin);
+        double minLon = Math.max(-180, terrainSector.minLongitude() - lonMargin);
+        double maxLon = Math.min(180, terrainSector.maxLongitude() + lonMargin);
+
+        return result.set(minLat, minLon, maxLat - minLat, maxLon - minLon);
+    }
+}
@@ -0,0 +1,425 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.layer;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+import gov.nasa.worldwind.ScreenPickIndex;
+import gov.nasa.worldwind.WorldWind;
+import gov.nasa.worldwind.geom.Position;
+import gov.nasa.worldwind.render.ImageSource;
+import gov.nasa.worldwind.render.RenderContext;
+import gov.nasa.worldwind.render.Renderable;
+import gov.nasa.worldwind.shape.Placemark;
+import gov.nasa.worldwind.shape.PlacemarkAttributes;
+import gov.nasa.worldwind.util.Logger;
+
+/**
+ * Layer that displays groups of nearby placemarks as a single aggregate placemark. Placemarks within a screen distance
+ * of one another are drawn as one cluster placemark labeled with the number of placemarks it represents, avoiding the
+ * per-placemark render and draw cost of overlapping icons nobody can read.
+ * <p/>
+ * Each frame, the placemarks near the visible terrain are grouped in a hierarchical geographic grid whose cell size is
+ * approximately {@link #getClusterSize()} pixels at the camera's altitude. Grid cells are anchored to the globe and
+ * their size changes only in powers of two, so clusters remain stable as the camera pans. Grouping sorts one 64-bit key
+ * per visible placemark and allocates no memory per placemark.
+ * <p/>
+ * As the camera zooms in, grid cells shrink and clusters separate into individual placemarks, which are rendered and
+ * picked as they are in a RenderableLayer. Picking a cluster placemark returns its {@link Cluster}, which lists the
+ * placemarks it represents; applications typically respond by zooming to the cluster's members. Renderables other than
+ * placemarks are never clustered.
+ * <p/>
+ * Placemarks are indexed geographically as in {@link IndexedRenderableLayer}. Applications that change a placemark's
+ * position directly must notify the layer with {@link #updateRenderable(Renderable)}.
+ */
+public class PlacemarkClusterLayer extends IndexedRenderableLayer {
+
+    /**
+     * A group of placemarks drawn as a single aggregate placemark. Clusters describe the frame in which they were
+     * rendered or picked.
+     */
+    public static class Cluster implements ScreenPickIndex.FramePickDelegate {
+
+        protected Position position = new Position();
+
+        protected ArrayList<Placemark> members = new ArrayList<>();
+
+        protected Placemark placemark;
+
+        public Cluster() {
+        }
+
+        /**
+         * Returns the cluster's position, the geographic centroid of its members.
+         *
+         * @return the cluster's position
+         */
+        public Position getPosition() {
+            return this.position;
+        }
+
+        /**
+         * Returns the number of placemarks in the cluster.
+         *
+         * @return the member count
+         */
+        public int count() {
+            return this.members.size();
+        }
+
+        /**
+         * Returns the placemarks in the cluster.
+         *
+         * @return an unmodifiable list of the cluster's members
+         */
+        public List<Placemark> getMembers() {
+            return Collections.unmodifiableList(this.members);
+        }
+
+        /**
+         * Returns a copy of this cluster. Clusters displayed by the layer are reused from frame to frame, so clusters
+         * picked from the screen pick index are copied before they're returned to the application.
+         *
+         * @return a new cluster with this cluster's position and members
+         */
+        @Override
+        public Object copyPickDelegate() {
+            Cluster copy = new Cluster();
+            copy.position.set(this.position);
+            copy.members.addAll(this.members);
+            copy.placemark = this.placemark;
+            return copy;
+        }
+    }
+
+    /**
+     * Bitmap factory that draws a cluster icon: a filled circle displaying a count.
+     */
+    protected static class ClusterIconFactory implements ImageSource.BitmapFactory {
+
+        protected String text;
+
+        public ClusterIconFactory(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public Bitmap createBitmap() {
+            Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            paint.setTextSize(28);
+            paint.setTextAlign(Paint.Align.CENTER);
+
+            int size = (int) Math.ceil(Math.max(48, paint.measureText(this.text) + 20));
+            float center = size * 0.5f;
+            Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+            Canvas canvas = new Canvas(bitmap);
+
+            paint.setColor(0xFFFFFFFF);
+            canvas.drawCircle(center, center, center, paint);
+            paint.setColor(0xFF1565C0);
+            canvas.drawCircle(center, center, center - 3, paint);
+            paint.setColor(0xFFFFFFFF);
+            canvas.drawText(this.text, center, center - (paint.ascent() + paint.descent()) * 0.5f, paint);
+
+            return bitmap;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (o == null || this.getClass() != o.getClass()) {
+                return false;
+            }
+
+            return this.text.equals(((ClusterIconFactory) o).text);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.text.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "ClusterIcon " + this.text;
+        }
+    }
+
+    /**
+     * The finest grid level. Cells at this level are approximately 40 meters wide at the equator; placemarks are not
+     * clustered when the camera is close enough to require finer cells.
+     */
+    protected static final int MAX_LEVEL = 20;
+
+    protected static final int INDEX_BITS = 22;
+
+    protected static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+    protected double clusterSize = 64;
+
+    protected int minClusterCount = 2;
+
+    protected ArrayList<Cluster> clusters = new ArrayList<>();
+
+    protected int clusterCount;
+
+    protected HashMap<String, ImageSource> iconSources = new HashMap<>();
+
+    private ArrayList<Entry> visibleEntries = new ArrayList<>();
+
+    private ArrayList<Placemark> visiblePlacemarks = new ArrayList<>();
+
+    private long[] cellKeys = new long[0];
+
+    public PlacemarkClusterLayer() {
+    }
+
+    public PlacemarkClusterLayer(String displayName) {
+        super(displayName);
+    }
+
+    public PlacemarkClusterLayer(Iterable<? extends Renderable> renderables) {
+        super(renderables);
+    }
+
+    /**
+     * Returns the approximate screen size of a cluster in pixels. Placemarks closer than this on screen are likely to
+     * be grouped into the same cluster.
+     *
+     * @return the cluster size in pixels
+     */
+    public double getClusterSize() {
+        return this.clusterSize;
+    }
+
+    /**
+     * Sets the approximate screen size of a cluster in pixels.
+     *
+     * @param clusterSize the cluster size in pixels
+     *
+     * @throws IllegalArgumentException If the cluster size is not positive
+     */
+    public void setClusterSize(double clusterSize) {
+        if (clusterSize <= 0) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "PlacemarkClusterLayer", "setClusterSize", "invalidSize"));
+        }
+
+        this.clusterSize = clusterSize;
+    }
+
+    /**
+     * Returns the minimum number of placemarks drawn as a cluster. Groups with fewer placemarks are drawn individually.
+     *
+     * @return the minimum cluster member count
+     */
+    public int getMinClusterCount() {
+        return this.minClusterCount;
+    }
+
+    /**
+     * Sets the minimum number of placemarks drawn as a cluster.
+     *
+     * @param minClusterCount the minimum cluster member count, at least 2
+     *
+     * @throws IllegalArgumentException If the count is less than 2
+     */
+    public void setMinClusterCount(int minClusterCount) {
+        if (minClusterCount < 2) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "PlacemarkClusterLayer", "setMinClusterCount", "invalidCount"));
+        }
+
+        this.minClusterCount = minClusterCount;
+    }
+
+    @Override
+    protected void doRender(RenderContext rc) {
+        ArrayList<Entry> visible = this.collectVisibleEntries(rc, this.visibleEntries);
+        ArrayList<Placemark> placemarks = this.visiblePlacemarks;
+
+        // Render renderables that are not placemarks, and collect the placemarks for clustering.
+        for (int idx = 0, len = visible.size(); idx < len; idx++) {
+            Entry entry = visible.get(idx);
+            if (entry.indexEntry != null && entry.renderable instanceof Placemark) {
+                placemarks.add((Placemark) entry.renderable);
+            } else {
+                this.renderEntry(rc, entry);
+            }
+        }
+
+        // Render the placemarks individually when the grid is finer than its finest level, or when there are too many
+        // placemarks to encode in a cell key.
+        int level = this.clusterLevel(rc);
+        if (level > MAX_LEVEL || placemarks.size() > INDEX_MASK) {
+            for (int idx = 0, len = placemarks.size(); idx < len; idx++) {
+                this.renderPlacemark(rc, placemarks.get(idx));
+            }
+        } else {
+            this.renderClusters(rc, placemarks, level);
+        }
+
+        visible.clear();
+        placemarks.clear();
+    }
+
+    /**
+     * Computes the grid level whose cells are approximately the cluster size on screen at the camera's altitude. Cells
+     * at level N are 360 / 2^N degrees wide.
+     *
+     * @param rc the current render context
+     *
+     * @return the grid level, which exceeds MAX_LEVEL when clustering is unnecessary
+     */
+    protected int clusterLevel(RenderContext rc) {
+        double distance = Math.max(rc.camera.altitude, 1);
+        double cellMeters = rc.pixelSizeAtDistance(distance) * this.clusterSize;
+        double cellDegrees = Math.toDegrees(cellMeters / rc.globe.getEquatorialRadius());
+        int level = (int) Math.ceil(Math.log(360 / cellDegrees) / Math.log(2));
+
+        return Math.max(level, 1);
+    }
+
+    protected void renderClusters(RenderContext rc, ArrayList<Placemark> placemarks, int level) {
+        // Compute a key for each placemark that combines its grid cell with its index in the list, then sort the keys
+        // to group placemarks by cell.
+        int count = placemarks.size();
+        if (this.cellKeys.length < count) {
+            this.cellKeys = new long[count + (count >> 1)];
+        }
+
+        long[] keys = this.cellKeys;
+        double cellDegrees = 360.0 / (1L << level);
+        long maxRow = (1L << (level - 1)) - 1;
+        long maxCol = (1L << level) - 1;
+        for (int idx = 0; idx < count; idx++) {
+            Position position = placemarks.get(idx).getPosition();
+            long row = Math.min((long) ((position.latitude + 90) / cellDegrees), maxRow);
+            long col = Math.min((long) ((position.longitude + 180) / cellDegrees), maxCol);
+            keys[idx] = (((row << MAX_LEVEL) | col) << INDEX_BITS) | idx;
+        }
+
+        Arrays.sort(keys, 0, count);
+
+        // Render each group of placemarks sharing a cell, either as a cluster or individually.
+        this.clusterCount = 0;
+        for (int start = 0; start < count; ) {
+            long cell = keys[start] >>> INDEX_BITS;
+            int end = start + 1;
+            while (end < count && (keys[end] >>> INDEX_BITS) == cell) {
+                end++;
+            }
+
+            if (end - start >= this.minClusterCount) {
+                this.renderCluster(rc, placemarks, keys, start, end);
+            } else {
+                for (int idx = start; idx < end; idx++) {
+                    this.renderPlacemark(rc, placemarks.get((int) (keys[idx] & INDEX_MASK)));
+                }
+            }
+
+            start = end;
+        }
+    }
+
+    protected void renderCluster(RenderContext rc, ArrayList<Placemark> placemarks, long[] keys, int start, int end) {
+        Cluster cluster = this.nextCluster(rc);
+        cluster.members.clear();
+
+        double latSum = 0;
+        double lonSum = 0;
+        for (int idx = start; idx < end; idx++) {
+            Placemark placemark = placemarks.get((int) (keys[idx] & INDEX_MASK));
+            Position position = placemark.getPosition();
+            latSum += position.latitude;
+            lonSum += position.longitude;
+            cluster.members.add(placemark);
+        }
+
+        int memberCount = end - start;
+        cluster.position.set(latSum / memberCount, lonSum / memberCount, 0);
+
+        Placemark placemark = cluster.placemark;
+        placemark.setPosition(cluster.position);
+        placemark.getAttributes().setImageSource(this.iconSource(memberCount));
+        placemark.setPickDelegate(cluster);
+        this.renderPlacemark(rc, placemark);
+    }
+
+    protected Cluster nextCluster(RenderContext rc) {
+        // Reuse cluster placemarks from frame to frame. Picked clusters are returned to the application, so a new
+        // cluster object is used for each cluster in pick mode. Clusters picked from the screen pick index are copied
+        // when the pick is answered.
+        Cluster cluster;
+        if (this.clusterCount < this.clusters.size()) {
+            cluster = this.clusters.get(this.clusterCount);
+        } else {
+            cluster = new Cluster();
+            cluster.placemark = this.createClusterPlacemark();
+            this.clusters.add(cluster);
+        }
+
+        this.clusterCount++;
+
+        if (rc.pickMode) {
+            Cluster picked = new Cluster();
+            picked.placemark = cluster.placemark;
+            return picked;
+        }
+
+        return cluster;
+    }
+
+    protected Placemark createClusterPlacemark() {
+        PlacemarkAttributes attributes = new PlacemarkAttributes();
+        Placemark placemark = new Placemark(new Position(), attributes);
+        placemark.setAltitudeMode(WorldWind.CLAMP_TO_GROUND);
+        placemark.setEyeDistanceScaling(false);
+        return placemark;
+    }
+
+    protected ImageSource iconSource(int count) {
+        // Label counts of 100 or more coarsely to limit the number of distinct cluster icons.
+        String text;
+        if (count < 100) {
+            text = Integer.toString(count);
+        } else if (count < 1000) {
+            text = (count / 100 * 100) + "+";
+        } else {
+            text = String.format(Locale.US, "%dk+", count / 1000);
+        }
+
+        ImageSource imageSource = this.iconSources.get(text);
+        if (imageSource == null) {
+            imageSource = ImageSource.fromBitmapFactory(new ClusterIconFactory(text));
+            this.iconSources.put(text, imageSource);
+        }
+
+        return imageSource;
+    }
+
+    protected void renderPlacemark(RenderContext rc, Placemark placemark) {
+        try {
+            placemark.render(rc);
+        } catch (Exception e) {
+            Logger.logMessage(Logger.ERROR, "PlacemarkClusterLayer", "renderPlacemark",
+                "Exception while rendering shape \'" + placemark.getDisplayName() + "\'", e);
+            // Keep going. Draw the remaining renderables.
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.render;
+
+import android.opengl.GLES20;
+
+import gov.nasa.worldwind.draw.DrawContext;
+
+/**
+ * Texture occupying a sub-rectangle of a shared {@link TextureAtlas} page. AtlasTexture has the dimensions of its
+ * source image, and its tex coord transform maps the unit square to the image's region within the atlas page. Binding
+ * an AtlasTexture binds the page's OpenGL texture object, which allows textures sharing a page to be drawn without
+ * intermediate texture binds.
+ * <p/>
+ * Releasing an AtlasTexture returns its region to the atlas page, making that space available for other images.
+ */
+public class AtlasTexture extends Texture {
+
+    protected TextureAtlas atlas;
+
+    protected TextureAtlas.Page page;
+
+    protected Object key;
+
+    protected int generation;
+
+    protected int regionX;
+
+    protected int regionY;
+
+    protected int regionWidth;
+
+    protected int regionHeight;
+
+    protected AtlasTexture(TextureAtlas atlas, TextureAtlas.Page page, Object key, int x, int y, int width, int height) {
+        super(width, height, GLES20.GL_RGBA);
+        this.atlas = atlas;
+        this.page = page;
+        this.key = key;
+        this.generation = page.generation;
+        this.regionX = x;
+        this.regionY = y;
+        this.regionWidth = width + TextureAtlas.PADDING * 2;
+        this.regionHeight = height + TextureAtlas.PADDING * 2;
+        this.textureByteCount = this.regionWidth * this.regionHeight * 4; // only the region's texels are used
+
+        // Map the unit square to the image's texels in the atlas page. The image is stored with its first row at the
+        // region's lowest T coordinate, so the transform includes a vertical flip analogous to Texture(Bitmap).
+        double pageWidth = page.getWidth();
+        double pageHeight = page.getHeight();
+        int imageX = x + TextureAtlas.PADDING;
+        int imageY = y + TextureAtlas.PADDING;
+        this.texCoordTransform.set(
+            width / pageWidth, 0, imageX / pageWidth,
+            0, -height / pageHeight, (imageY + height) / pageHeight,
+            0, 0, 1);
+    }
+
+    /**
+     * Returns the atlas page texture containing this texture's region. Textures returning the same page may be drawn
+     * with a single texture bind.
+     *
+     * @return the atlas page texture
+     */
+    public Texture getPage() {
+        return this.page;
+    }
+
+    /**
+     * Indicates whether this texture's region is still allocated in its atlas page. A texture becomes invalid when its
+     * page is repacked to make room for other images.
+     *
+     * @return true if the texture's region is valid, false otherwise
+     */
+    public boolean isValid() {
+        return this.page.generation == this.generation;
+    }
+
+    @Override
+    public int getTextureName(DrawContext dc) {
+        return this.page.getTextureName(dc);
+    }
+
+    @Override
+    public boolean bindTexture(DrawContext dc) {
+        return this.page.bindTexture(dc);
+    }
+
+    @Override
+    public void release(DrawContext dc) {
+        this.atlas.releaseRegion(dc, this);
+    }
+
+    @Override
+    public String toString() {
+        return "AtlasTexture{key=" + this.key + ", region=" + this.regionX + "," + this.regionY + "," +
+            this.regionWidth + "," + this.regionHeight + "}";
+    }
+}
@@ -23,6 +23,8 @@ public class BasicShaderProgram extends ShaderProgram {
 
     protected boolean enableTexture;
 
+    protected boolean enableVertexColor;
+
     protected Matrix4 mvpMatrix = new Matrix4();
 
     protected Matrix3 texCoordMatrix = new Matrix3();
@@ -33,6 +35,8 @@ public class BasicShaderProgram extends ShaderProgram {
 
     protected int enableTextureId;
 
+    protected int enableVertexColorId;
+
     protected int mvpMatrixId;
 
     protected int texCoordMatrixId;
@@ -43,12 +47,15 @@ public class BasicShaderProgram extends ShaderProgram {
 
     private float[] array = new float[16];
 
+    protected BasicShaderProgram() {
+    }
+
     public BasicShaderProgram(Resources resources) {
         try {
             String vs = WWUtil.readResourceAsText(resources, R.raw.gov_nasa_worldwind_basicprogram_vert);
             String fs = WWUtil.readResourceAsText(resources, R.raw.gov_nasa_worldwind_basicprogram_frag);
             this.setProgramSources(vs, fs);
-            this.setAttribBindings("vertexPoint", "vertexTexCoord");
+            this.setAttribBindings("vertexPoint", "vertexTexCoord", "vertexColor");
         } catch (Exception logged) {
             Logger.logMessage(Logger.ERROR, "BasicShaderProgram", "constructor", "errorReadingProgramSource", logged);
         }
@@ -61,6 +68,9 @@ public class BasicShaderProgram extends ShaderProgram {
         this.enableTextureId = GLES20.glGetUniformLocation(this.programId, "enableTexture");
         GLES20.glUniform1i(this.enableTextureId, this.enableTexture ? 1 : 0);
 
+        this.enableVertexColorId = GLES20.glGetUniformLocation(this.programId, "enableVertexColor");
+        GLES20.glUniform1i(this.enableVertexColorId, this.enableVertexColor ? 1 : 0);
+
         this.mvpMatrixId = GLES20.glGetUniformLocation(this.programId, "mvpMatrix");
         this.mvpMatrix.transposeToArray(this.array, 0); // 4 x 4 identity matrix
         GLES20.glUniformMatrix4fv(this.mvpMatrixId, 1, false, this.array, 0);
@@ -91,6 +101,19 @@ public class BasicShaderProgram extends ShaderProgram {
         }
     }
 
+    /**
+     * Specifies whether the program uses the per-vertex color attribute 'vertexColor' rather than the color specified by
+     * loadColor. Per-vertex colors must be RGBA colors with premultiplied alpha.
+     *
+     * @param enable true to use per-vertex colors, false to use the uniform color
+     */
+    public void enableVertexColor(boolean enable) {
+        if (this.enableVertexColor != enable) {
+            this.enableVertexColor = enable;
+            GLES20.glUniform1i(this.enableVertexColorId, enable ? 1 : 0);
+        }
+    }
+
     public void loadModelviewProjection(Matrix4 matrix) {
         // Don't bother testing whether mvpMatrix has changed, the common case is to load a different matrix.
         matrix.transposeToArray(this.array, 0);
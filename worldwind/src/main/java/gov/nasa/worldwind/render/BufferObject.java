@@ -8,12 +8,15 @@ package gov.nasa.worldwind.render;
 import android.opengl.GLES20;
 
 import java.nio.Buffer;
+import java.util.concurrent.atomic.AtomicLong;
 
 import gov.nasa.worldwind.draw.DrawContext;
 import gov.nasa.worldwind.util.Logger;
 
 public class BufferObject implements RenderResource {
 
+    protected static final AtomicLong serialNumbers = new AtomicLong();
+
     protected int[] bufferId = new int[1];
 
     protected int bufferTarget;
@@ -24,6 +27,8 @@ public class BufferObject implements RenderResource {
 
     protected Buffer buffer;
 
+    protected long serialNumber = serialNumbers.incrementAndGet();
+
     public BufferObject(int target, int size, Buffer buffer) {
         this.bufferTarget = target;
         this.bufferLength = (buffer != null) ? buffer.remaining() : 0;
@@ -43,6 +48,26 @@ public class BufferObject implements RenderResource {
         return this.bufferByteCount;
     }
 
+    /**
+     * Returns a number that identifies this buffer object's contents. Each buffer object is assigned a unique serial
+     * number when it's constructed, and buffer objects whose contents change after construction are assigned a new
+     * serial number with each change. Unlike an object's identity hash code, serial numbers are never reused.
+     *
+     * @return the buffer object's serial number
+     */
+    public long getSerialNumber() {
+        return this.serialNumber;
+    }
+
+    /**
+     * Returns the OpenGL buffer object ID, or 0 if the OpenGL buffer object has not been created or failed to load.
+     *
+     * @return the OpenGL buffer object ID
+     */
+    public int getBufferId() {
+        return this.bufferId[0];
+    }
+
     @Override
     public void release(DrawContext dc) {
         this.deleteBufferObject(dc);
@@ -50,15 +75,28 @@ public class BufferObject implements RenderResource {
     }
 
     public boolean bindBuffer(DrawContext dc) {
+        if (this.prepareBuffer(dc)) {
+            dc.bindBuffer(this.bufferTarget, this.bufferId[0]);
+        }
+
+        return this.bufferId[0] != 0;
+    }
+
+    /**
+     * Loads this buffer's pending data into the OpenGL buffer object, creating the OpenGL buffer object if necessary,
+     * without changing the current buffer binding. Vertex array objects use this to bring their buffers up to date
+     * without binding them.
+     *
+     * @param dc the current draw context
+     *
+     * @return true if the OpenGL buffer object exists, otherwise false
+     */
+    public boolean prepareBuffer(DrawContext dc) {
         if (this.buffer != null) {
             this.loadBuffer(dc);
             this.buffer = null;
         }
 
-        if (this.bufferId[0] != 0) {
-            dc.bindBuffer(this.bufferTarget, this.bufferId[0]);
-        }
-
         return this.bufferId[0] != 0;
     }
 
@@ -97,6 +135,10 @@ public class BufferObject implements RenderResource {
 
     protected void deleteBufferObject(DrawContext dc) {
         if (this.bufferId[0] != 0) {
+            // Deleting a bound buffer object reverts its target to buffer 0; keep the draw context's binding in sync.
+            if (dc.currentBuffer(this.bufferTarget) == this.bufferId[0]) {
+                dc.bindBuffer(this.bufferTarget, 0);
+            }
             GLES20.glDeleteBuffers(1, this.bufferId, 0);
             this.bufferId[0] = 0;
         }
@@ -0,0 +1,536 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.render;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import gov.nasa.worldwind.draw.Drawable;
+import gov.nasa.worldwind.geom.Viewport;
+import gov.nasa.worldwind.util.Logger;
+
+/**
+ * Suppresses screen drawables that overlap drawables of higher priority. Shapes such as {@link
+ * gov.nasa.worldwind.shape.Label} and {@link gov.nasa.worldwind.shape.Placemark} offer their screen drawables to the
+ * declutterer along with their screen bounds, rather than offering them directly to the drawable queue. After all
+ * layers have rendered, the declutterer places the candidates in priority order, and offers the placed candidates to
+ * the drawable queue.
+ * <p/>
+ * Candidates are ordered by descending declutter priority, then by ascending camera distance. Candidates placed on the
+ * previous frame are placed before other candidates of the same priority, and candidates that were not placed must
+ * clear the placed candidates by a margin, which keeps decluttering stable as the camera moves. Candidates fade in
+ * when placed and fade out when suppressed.
+ * <p/>
+ * Placement is linear in the number of candidates: candidates are ordered with a radix sort, and overlap is tested
+ * against the placed candidates in a screen-space occupancy grid. In picking mode, candidates are offered only if they
+ * were placed on the previous frame, and the fade state is left unchanged.
+ */
+public class Declutterer {
+
+    /**
+     * The width and height of occupancy grid cells, in screen pixels.
+     */
+    protected static final int CELL_SIZE = 64;
+
+    protected static final long DEFAULT_FADE_DURATION = 250;
+
+    protected static final int DEFAULT_HYSTERESIS_MARGIN = 4;
+
+    protected long fadeDuration = DEFAULT_FADE_DURATION;
+
+    protected int hysteresisMargin = DEFAULT_HYSTERESIS_MARGIN;
+
+    protected int count;
+
+    protected Object[] keys = new Object[32];
+
+    protected Drawable[] drawables = new Drawable[32];
+
+    protected Color[] colors = new Color[32];
+
+    protected Color[] outlineColors = new Color[32];
+
+    protected int[] bounds = new int[32 * 4];
+
+    protected boolean[] hasBounds = new boolean[32];
+
+    protected double[] priorities = new double[32];
+
+    protected double[] cameraDistances = new double[32];
+
+    protected int[] order = new int[32];
+
+    protected int[] scratchOrder = new int[32];
+
+    protected int[] sortKeys = new int[32];
+
+    protected int[] digitCounts = new int[256];
+
+    protected int[] cellHeads = new int[0];
+
+    protected int[] nodeNext = new int[32];
+
+    protected int[] nodeCandidate = new int[32];
+
+    protected int nodeCount;
+
+    protected Map<Object, State> states = new IdentityHashMap<>();
+
+    protected int frameStamp;
+
+    protected long lastFrameTime;
+
+    public Declutterer() {
+    }
+
+    /**
+     * Indicates the time over which candidates fade in and fade out, in milliseconds.
+     *
+     * @return the fade duration in milliseconds
+     */
+    public long getFadeDuration() {
+        return this.fadeDuration;
+    }
+
+    /**
+     * Sets the time over which candidates fade in and fade out, in milliseconds. A duration of zero shows and hides
+     * candidates immediately.
+     *
+     * @param duration the fade duration in milliseconds
+     *
+     * @throws IllegalArgumentException If the duration is negative
+     */
+    public void setFadeDuration(long duration) {
+        if (duration < 0) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "Declutterer", "setFadeDuration", "invalidDuration"));
+        }
+
+        this.fadeDuration = duration;
+    }
+
+    /**
+     * Indicates the distance in screen pixels by which candidates that were not placed on the previous frame must clear
+     * placed candidates.
+     *
+     * @return the hysteresis margin in pixels
+     */
+    public int getHysteresisMargin() {
+        return this.hysteresisMargin;
+    }
+
+    /**
+     * Sets the distance in screen pixels by which candidates that were not placed on the previous frame must clear
+     * placed candidates.
+     *
+     * @param margin the hysteresis margin in pixels
+     */
+    public void setHysteresisMargin(int margin) {
+        this.hysteresisMargin = margin;
+    }
+
+    /**
+     * Returns the number of drawables offered to the declutterer since the last call to declutter.
+     *
+     * @return the drawable count
+     */
+    public int count() {
+        return this.count;
+    }
+
+    /**
+     * Indicates whether the drawable a key offered with screen bounds was placed by the most recent call to declutter
+     * outside of picking mode.
+     *
+     * @param key the object that offered the drawable
+     *
+     * @return true if the key's drawable was placed, false if it was suppressed or the key offered no drawable
+     */
+    public boolean isPlaced(Object key) {
+        State state = this.states.get(key);
+        return state != null && state.placed && state.frameStamp == this.frameStamp;
+    }
+
+    /**
+     * Offers a screen drawable whose placement is decided by the declutterer. A key may offer at most one drawable with
+     * screen bounds per frame.
+     *
+     * @param key            the object offering the drawable, typically a renderable, used to track the drawable's
+     *                       placement across frames
+     * @param drawable       the drawable
+     * @param color          the drawable's color, whose alpha is modulated as the drawable fades in and out
+     * @param outlineColor   the drawable's outline color, whose alpha is modulated along with the drawable's color, or
+     *                       null if the drawable has no outline
+     * @param screenBounds   the drawable's screen bounds
+     * @param priority       the drawable's declutter priority; higher priorities are placed first
+     * @param cameraDistance the distance from the camera to the drawable, in meters
+     */
+    public void offerDrawable(Object key, Drawable drawable, Color color, Color outlineColor, Viewport screenBounds,
+                              double priority, double cameraDistance) {
+        int index = this.addCandidate(key, drawable, color, cameraDistance);
+        this.outlineColors[index] = outlineColor;
+        int b = index * 4;
+        this.bounds[b] = screenBounds.x;
+        this.bounds[b + 1] = screenBounds.y;
+        this.bounds[b + 2] = screenBounds.x + screenBounds.width;
+        this.bounds[b + 3] = screenBounds.y + screenBounds.height;
+        this.hasBounds[index] = true;
+        this.priorities[index] = priority;
+    }
+
+    /**
+     * Offers a drawable attached to the drawable a key offers with {@link #offerDrawable(Object, Drawable, Color,
+     * Color, Viewport, double, double)}, such as a placemark's leader line. Attached drawables are shown and faded together
+     * with their key's drawable, and are offered unconditionally when their key offers no drawable with screen bounds.
+     *
+     * @param key            the object offering the drawable
+     * @param drawable       the drawable
+     * @param color          the drawable's color, whose alpha is modulated as the drawable fades in and out
+     * @param cameraDistance the distance from the camera to the drawable, in meters
+     */
+    public void offerAttachedDrawable(Object key, Drawable drawable, Color color, double cameraDistance) {
+        int index = this.addCandidate(key, drawable, color, cameraDistance);
+        this.outlineColors[index] = null;
+        this.hasBounds[index] = false;
+    }
+
+    /**
+     * Places the drawables offered during the current frame, offers the placed drawables to the render context's
+     * drawable queue, and recycles the suppressed drawables.
+     *
+     * @param rc the current render context
+     *
+     * @return true if any drawable is fading in or out and another frame is required, false otherwise
+     */
+    public boolean declutter(RenderContext rc) {
+        if (this.count == 0 && this.states.isEmpty()) {
+            return false;
+        }
+
+        boolean fading = false;
+        if (rc.pickMode) {
+            this.offerPickDrawables(rc);
+        } else {
+            long now = System.currentTimeMillis();
+            long elapsed = (this.lastFrameTime != 0) ? (now - this.lastFrameTime) : 0;
+            this.lastFrameTime = now;
+            this.frameStamp++;
+            this.placeCandidates(rc);
+            fading = this.offerDrawables(rc, elapsed);
+            this.purgeStates();
+        }
+
+        this.clearCandidates();
+        return fading;
+    }
+
+    /**
+     * Recycles any drawables offered since the last call to declutter.
+     */
+    public void reset() {
+        for (int idx = 0; idx < this.count; idx++) {
+            this.drawables[idx].recycle();
+        }
+
+        this.clearCandidates();
+    }
+
+    protected int addCandidate(Object key, Drawable drawable, Color color, double cameraDistance) {
+        if (this.keys.length == this.count) {
+            this.growCandidates(this.count * 2);
+        }
+
+        int index = this.count++;
+        this.keys[index] = key;
+        this.drawables[index] = drawable;
+        this.colors[index] = color;
+        this.cameraDistances[index] = cameraDistance;
+        return index;
+    }
+
+    protected void growCandidates(int capacity) {
+        Object[] newKeys = new Object[capacity];
+        System.arraycopy(this.keys, 0, newKeys, 0, this.count);
+        this.keys = newKeys;
+
+        Drawable[] newDrawables = new Drawable[capacity];
+        System.arraycopy(this.drawables, 0, newDrawables, 0, this.count);
+        this.drawables = newDrawables;
+
+        Color[] newColors = new Color[capacity];
+        System.arraycopy(this.colors, 0, newColors, 0, this.count);
+        this.colors = newColors;
+
+        Color[] newOutlineColors = new Color[capacity];
+        System.arraycopy(this.outlineColors, 0, newOutlineColors, 0, this.count);
+        this.outlineColors = newOutlineColors;
+
+        int[] newBounds = new int[capacity * 4];
+        System.arraycopy(this.bounds, 0, newBounds, 0, this.count * 4);
+        this.bounds = newBounds;
+
+        boolean[] newHasBounds = new boolean[capacity];
+        System.arraycopy(this.hasBounds, 0, newHasBounds, 0, this.count);
+        this.hasBounds = newHasBounds;
+
+        double[] newPriorities = new double[capacity];
+        System.arraycopy(this.priorities, 0, newPriorities, 0, this.count);
+        this.priorities = newPriorities;
+
+        double[] newDistances = new double[capacity];
+        System.arraycopy(this.cameraDistances, 0, newDistances, 0, this.count);
+        this.cameraDistances = newDistances;
+
+        this.order = new int[capacity];
+        this.scratchOrder = new int[capacity];
+        this.sortKeys = new int[capacity];
+    }
+
+    protected void clearCandidates() {
+        for (int idx = 0; idx < this.count; idx++) {
+            this.keys[idx] = null;
+            this.drawables[idx] = null;
+            this.colors[idx] = null;
+            this.outlineColors[idx] = null;
+        }
+
+        this.count = 0;
+    }
+
+    protected void placeCandidates(RenderContext rc) {
+        // Collect the candidates with screen bounds.
+        int placeCount = 0;
+        for (int idx = 0; idx < this.count; idx++) {
+            if (this.hasBounds[idx]) {
+                this.order[placeCount++] = idx;
+            }
+        }
+
+        // Order the candidates by descending priority, then by placement on the previous frame, then by ascending
+        // camera distance. Each key is sorted with a stable radix sort, from the least significant key to the most
+        // significant key.
+        for (int idx = 0; idx < placeCount; idx++) {
+            int candidate = this.order[idx];
+            this.sortKeys[candidate] = sortableBits((float) this.cameraDistances[candidate]);
+        }
+        this.radixSort(placeCount, 32);
+
+        for (int idx = 0; idx < placeCount; idx++) {
+            int candidate = this.order[idx];
+            State state = this.states.get(this.keys[candidate]);
+            this.sortKeys[candidate] = (state != null && state.placed) ? 0 : 1;
+        }
+        this.radixSort(placeCount, 8);
+
+        for (int idx = 0; idx < placeCount; idx++) {
+            int candidate = this.order[idx];
+            this.sortKeys[candidate] = sortableBits((float) -this.priorities[candidate]);
+        }
+        this.radixSort(placeCount, 32);
+
+        // Place the candidates in order, suppressing candidates that overlap a placed candidate.
+        this.resetGrid(rc.viewport);
+        for (int idx = 0; idx < placeCount; idx++) {
+            int candidate = this.order[idx];
+            Object key = this.keys[candidate];
+            State state = this.states.get(key);
+            if (state == null) {
+                state = new State();
+                this.states.put(key, state);
+            } else if (state.frameStamp == this.frameStamp) {
+                continue; // the key has already offered a drawable with bounds this frame
+            }
+
+            int margin = state.placed ? 0 : this.hysteresisMargin;
+            state.placed = !this.overlapsGrid(rc.viewport, candidate, margin);
+            state.frameStamp = this.frameStamp;
+
+            if (state.placed) {
+                this.addToGrid(rc.viewport, candidate);
+            }
+        }
+    }
+
+    protected boolean offerDrawables(RenderContext rc, long elapsed) {
+        float fadeStep = (this.fadeDuration > 0) ? elapsed / (float) this.fadeDuration : 1;
+        boolean fading = false;
+
+        // Advance the fade state of each key offering a drawable with bounds.
+        for (int idx = 0; idx < this.count; idx++) {
+            if (this.hasBounds[idx]) {
+                State state = this.states.get(this.keys[idx]);
+                if (state != null && state.fadeStamp != this.frameStamp) {
+                    state.fadeStamp = this.frameStamp;
+                    state.opacity = state.placed ? Math.min(1, state.opacity + fadeStep) : Math.max(0, state.opacity - fadeStep);
+                    fading |= state.placed ? (state.opacity < 1) : (state.opacity > 0);
+                }
+            }
+        }
+
+        // Offer drawables that are placed or fading out, and recycle the rest. Attached drawables whose key offered no
+        // drawable with bounds this frame are offered unconditionally.
+        for (int idx = 0; idx < this.count; idx++) {
+            State state = this.states.get(this.keys[idx]);
+            float opacity = (state != null && state.frameStamp == this.frameStamp) ? state.opacity : 1;
+            if (opacity > 0) {
+                this.colors[idx].alpha *= opacity;
+                if (this.outlineColors[idx] != null) {
+                    this.outlineColors[idx].alpha *= opacity;
+                }
+                rc.offerShapeDrawable(this.drawables[idx], this.cameraDistances[idx]);
+            } else {
+                this.drawables[idx].recycle();
+            }
+        }
+
+        return fading;
+    }
+
+    protected void offerPickDrawables(RenderContext rc) {
+        // Offer drawables that were placed on the previous frame, and attached drawables whose key did not offer a
+        // drawable with bounds on the previous frame.
+        for (int idx = 0; idx < this.count; idx++) {
+            State state = this.states.get(this.keys[idx]);
+            boolean visible = (state != null && state.frameStamp == this.frameStamp) ? state.placed : !this.hasBounds[idx];
+            if (visible) {
+                rc.offerShapeDrawable(this.drawables[idx], this.cameraDistances[idx]);
+            } else {
+                this.drawables[idx].recycle();
+            }
+        }
+    }
+
+    protected void purgeStates() {
+        // Discard the state of keys that offered no drawable with bounds this frame. Keys returning to the screen fade
+        // in again.
+        Iterator<State> iter = this.states.values().iterator();
+        while (iter.hasNext()) {
+            if (iter.next().frameStamp != this.frameStamp) {
+                iter.remove();
+            }
+        }
+    }
+
+    protected void radixSort(int length, int bits) {
+        // Sort the candidate indices in the order array by their unsigned sort keys, eight bits at a time. The sort is
+        // stable, and skips digits shared by every key.
+        int[] counts = this.digitCounts;
+        for (int shift = 0; shift < bits; shift += 8) {
+            for (int d = 0; d < 256; d++) {
+                counts[d] = 0;
+            }
+
+            for (int idx = 0; idx < length; idx++) {
+                counts[(this.sortKeys[this.order[idx]] >>> shift) & 0xFF]++;
+            }
+
+            if (length == 0 || counts[(this.sortKeys[this.order[0]] >>> shift) & 0xFF] == length) {
+                continue; // every key has the same digit
+            }
+
+            for (int d = 0, sum = 0; d < 256; d++) {
+                int c = counts[d];
+                counts[d] = sum;
+                sum += c;
+            }
+
+            for (int idx = 0; idx < length; idx++) {
+                int candidate = this.order[idx];
+                this.scratchOrder[counts[(this.sortKeys[candidate] >>> shift) & 0xFF]++] = candidate;
+            }
+
+            int[] swap = this.order;
+            this.order = this.scratchOrder;
+            this.scratchOrder = swap;
+        }
+    }
+
+    protected static int sortableBits(float value) {
+        // Map the float's bits to an int whose unsigned order matches the float's order.
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) | 0x80000000);
+    }
+
+    protected void resetGrid(Viewport viewport) {
+        int cols = Math.max(1, (viewport.width + CELL_SIZE - 1) / CELL_SIZE);
+        int rows = Math.max(1, (viewport.height + CELL_SIZE - 1) / CELL_SIZE);
+        if (this.cellHeads.length < cols * rows) {
+            this.cellHeads = new int[cols * rows];
+        }
+
+        for (int idx = 0, len = cols * rows; idx < len; idx++) {
+            this.cellHeads[idx] = -1;
+        }
+
+        this.nodeCount = 0;
+    }
+
+    protected boolean overlapsGrid(Viewport viewport, int candidate, int margin) {
+        int b = candidate * 4;
+        int xmin = this.bounds[b] - margin, ymin = this.bounds[b + 1] - margin;
+        int xmax = this.bounds[b + 2] + margin, ymax = this.bounds[b + 3] + margin;
+        int cols = Math.max(1, (viewport.width + CELL_SIZE - 1) / CELL_SIZE);
+        int rows = Math.max(1, (viewport.height + CELL_SIZE - 1) / CELL_SIZE);
+        int col0 = clamp((xmin - viewport.x) / CELL_SIZE, cols), col1 = clamp((xmax - viewport.x) / CELL_SIZE, cols);
+        int row0 = clamp((ymin - viewport.y) / CELL_SIZE, rows), row1 = clamp((ymax - viewport.y) / CELL_SIZE, rows);
+
+        for (int row = row0; row <= row1; row++) {
+            for (int col = col0; col <= col1; col++) {
+                for (int node = this.cellHeads[row * cols + col]; node != -1; node = this.nodeNext[node]) {
+                    int o = this.nodeCandidate[node] * 4;
+                    if (xmin < this.bounds[o + 2] && xmax > this.bounds[o] && ymin < this.bounds[o + 3] && ymax > this.bounds[o + 1]) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    protected void addToGrid(Viewport viewport, int candidate) {
+        int b = candidate * 4;
+        int cols = Math.max(1, (viewport.width + CELL_SIZE - 1) / CELL_SIZE);
+        int rows = Math.max(1, (viewport.height + CELL_SIZE - 1) / CELL_SIZE);
+        int col0 = clamp((this.bounds[b] - viewport.x) / CELL_SIZE, cols), col1 = clamp((this.bounds[b + 2] - viewport.x) / CELL_SIZE, cols);
+        int row0 = clamp((this.bounds[b + 1] - viewport.y) / CELL_SIZE, rows), row1 = clamp((this.bounds[b + 3] - viewport.y) / CELL_SIZE, rows);
+
+        for (int row = row0; row <= row1; row++) {
+            for (int col = col0; col <= col1; col++) {
+                if (this.nodeNext.length == this.nodeCount) {
+                    int[] newNext = new int[this.nodeCount * 2];
+                    System.arraycopy(this.nodeNext, 0, newNext, 0, this.nodeCount);
+                    this.nodeNext = newNext;
+                    int[] newCandidate = new int[this.nodeCount * 2];
+                    System.arraycopy(this.nodeCandidate, 0, newCandidate, 0, this.nodeCount);
+                    this.nodeCandidate = newCandidate;
+                }
+
+                int cell = row * cols + col;
+                int node = this.nodeCount++;
+                this.nodeCandidate[node] = candidate;
+                this.nodeNext[node] = this.cellHeads[cell];
+                this.cellHeads[cell] = node;
+            }
+        }
+    }
+
+    protected static int clamp(int value, int count) {
+        return (value < 0) ? 0 : ((value >= count) ? count - 1 : value);
+    }
+
+    protected static class State {
+
+        protected boolean placed;
+
+        protected float opacity;
+
+        protected int frameStamp;
+
+        protected int fadeStamp;
+    }
+}
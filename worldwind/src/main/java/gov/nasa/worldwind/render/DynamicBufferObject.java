@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.render;
+
+import android.opengl.GLES20;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import gov.nasa.worldwind.draw.DrawContext;
+import gov.nasa.worldwind.util.Logger;
+
+/**
+ * OpenGL buffer object with a fixed capacity whose contents are written in ranges. Ranges written on the render thread
+ * are staged until the buffer is next bound on the OpenGL thread, then loaded with glBufferSubData. This enables
+ * shapes whose geometry grows over time to load only the new portion of their geometry, rather than the entire buffer.
+ * <p/>
+ * Writes must not modify a range that a drawable may be drawing; DynamicBufferObject is intended for writing ranges
+ * beyond the data referenced by any drawable, such as newly appended vertices and elements.
+ */
+public class DynamicBufferObject extends BufferObject {
+
+    protected static final int MAX_RETAINED_STAGING_SIZE = 1 << 16;
+
+    protected ByteBuffer stagingBuffer;
+
+    protected int[] stagingRanges = new int[3 * 4];
+
+    protected int stagingRangeCount;
+
+    protected boolean bufferAllocated;
+
+    /**
+     * Constructs a dynamic buffer object with the specified target and capacity.
+     *
+     * @param target   the OpenGL buffer target, such as GL_ARRAY_BUFFER or GL_ELEMENT_ARRAY_BUFFER
+     * @param capacity the buffer's capacity in bytes
+     *
+     * @throws IllegalArgumentException If the capacity is less than 1
+     */
+    public DynamicBufferObject(int target, int capacity) {
+        super(target, capacity, null);
+
+        if (capacity < 1) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "DynamicBufferObject", "constructor", "invalidCapacity"));
+        }
+    }
+
+    /**
+     * Stages a range of floats to be written to this buffer at the specified byte offset.
+     *
+     * @param byteOffset the offset in bytes at which to write the values
+     * @param array      the array containing the values
+     * @param index      the index of the first value to write
+     * @param count      the number of values to write
+     *
+     * @throws IllegalArgumentException If the range exceeds this buffer's capacity
+     */
+    public synchronized void putFloats(int byteOffset, float[] array, int index, int count) {
+        ByteBuffer staging = this.stageRange(byteOffset, count * 4, "putFloats");
+        if (staging == null) {
+            return; // nothing to write
+        }
+
+        staging.asFloatBuffer().put(array, index, count);
+        staging.position(staging.position() + count * 4);
+    }
+
+    /**
+     * Stages a range of shorts to be written to this buffer at the specified byte offset.
+     *
+     * @param byteOffset the offset in bytes at which to write the values
+     * @param array      the array containing the values
+     * @param index      the index of the first value to write
+     * @param count      the number of values to write
+     *
+     * @throws IllegalArgumentException If the range exceeds this buffer's capacity
+     */
+    public synchronized void putShorts(int byteOffset, short[] array, int index, int count) {
+        ByteBuffer staging = this.stageRange(byteOffset, count * 2, "putShorts");
+        if (staging == null) {
+            return; // nothing to write
+        }
+
+        staging.asShortBuffer().put(array, index, count);
+        staging.position(staging.position() + count * 2);
+    }
+
+    /**
+     * Stages a range of ints to be written to this buffer at the specified byte offset.
+     *
+     * @param byteOffset the offset in bytes at which to write the values
+     * @param array      the array containing the values
+     * @param index      the index of the first value to write
+     * @param count      the number of values to write
+     *
+     * @throws IllegalArgumentException If the range exceeds this buffer's capacity
+     */
+    public synchronized void putInts(int byteOffset, int[] array, int index, int count) {
+        ByteBuffer staging = this.stageRange(byteOffset, count * 4, "putInts");
+        if (staging == null) {
+            return; // nothing to write
+        }
+
+        staging.asIntBuffer().put(array, index, count);
+        staging.position(staging.position() + count * 4);
+    }
+
+    /**
+     * Stages a range of ints to be written to this buffer as shorts at the specified byte offset. Each value is
+     * truncated to its low 16 bits, which preserves unsigned values up to 65535.
+     *
+     * @param byteOffset the offset in bytes at which to write the values
+     * @param array      the array containing the values
+     * @param index      the index of the first value to write
+     * @param count      the number of values to write
+     *
+     * @throws IllegalArgumentException If the range exceeds this buffer's capacity
+     */
+    public synchronized void putShorts(int byteOffset, int[] array, int index, int count) {
+        ByteBuffer staging = this.stageRange(byteOffset, count * 2, "putShorts");
+        if (staging == null) {
+            return; // nothing to write
+        }
+
+        for (int idx = index, len = index + count; idx < len; idx++) {
+            staging.putShort((short) array[idx]);
+        }
+    }
+
+    @Override
+    public synchronized void release(DrawContext dc) {
+        this.deleteBufferObject(dc);
+        this.bufferAllocated = false;
+        this.stagingBuffer = null;
+        this.stagingRangeCount = 0;
+    }
+
+    @Override
+    public synchronized boolean bindBuffer(DrawContext dc) {
+        return super.bindBuffer(dc);
+    }
+
+    @Override
+    public synchronized boolean prepareBuffer(DrawContext dc) {
+        if (this.stagingRangeCount > 0 || !this.bufferAllocated) {
+            this.loadBuffer(dc);
+        }
+
+        return this.bufferId[0] != 0;
+    }
+
+    @Override
+    protected void deleteBufferObject(DrawContext dc) {
+        super.deleteBufferObject(dc);
+        this.bufferAllocated = false;
+    }
+
+    @Override
+    protected void loadBufferObjectData(DrawContext dc) {
+        // Allocate the buffer object's storage the first time it's loaded. Its contents are loaded from the staged
+        // ranges below.
+        if (!this.bufferAllocated) {
+            GLES20.glBufferData(this.bufferTarget, this.bufferByteCount, null, GLES20.GL_DYNAMIC_DRAW);
+            this.bufferAllocated = true;
+        }
+
+        // Load each staged range into the buffer object.
+        ByteBuffer staging = this.stagingBuffer;
+        for (int idx = 0, len = this.stagingRangeCount * 3; idx < len; idx += 3) {
+            int byteOffset = this.stagingRanges[idx];
+            int position = this.stagingRanges[idx + 1];
+            int size = this.stagingRanges[idx + 2];
+            ByteBuffer range = staging.duplicate();
+            range.limit(position + size).position(position);
+            GLES20.glBufferSubData(this.bufferTarget, byteOffset, size, range);
+        }
+
+        // Release large staging buffers once their contents are loaded, keeping small buffers for subsequent writes.
+        this.stagingRangeCount = 0;
+        if (staging != null && staging.capacity() > MAX_RETAINED_STAGING_SIZE) {
+            this.stagingBuffer = null;
+        } else if (staging != null) {
+            staging.clear();
+        }
+    }
+
+    protected ByteBuffer stageRange(int byteOffset, int size, String methodName) {
+        if (byteOffset < 0 || size < 0 || byteOffset + size > this.bufferByteCount) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "DynamicBufferObject", methodName, "invalidRange"));
+        }
+
+        if (size == 0) {
+            return null; // nothing to stage
+        }
+
+        // Identify the buffer's new contents.
+        this.serialNumber = serialNumbers.incrementAndGet();
+
+        // Grow the staging buffer to accommodate the range, retaining any ranges staged since the buffer was last
+        // loaded.
+        ByteBuffer staging = this.stagingBuffer;
+        if (staging == null || staging.remaining() < size) {
+            int used = (staging != null) ? staging.position() : 0;
+            int capacity = Math.max(used + size, used * 2);
+            ByteBuffer newStaging = ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+            if (staging != null) {
+                staging.flip();
+                newStaging.put(staging);
+            }
+            this.stagingBuffer = staging = newStaging;
+        }
+
+        // Record the range's destination offset, its position in the staging buffer, and its size.
+        if (this.stagingRanges.length == this.stagingRangeCount * 3) {
+            int[] newRanges = new int[this.stagingRanges.length * 2];
+            System.arraycopy(this.stagingRanges, 0, newRanges, 0, this.stagingRanges.length);
+            this.stagingRanges = newRanges;
+        }
+
+        int index = this.stagingRangeCount++ * 3;
+        this.stagingRanges[index] = byteOffset;
+        this.stagingRanges[index + 1] = staging.position();
+        this.stagingRanges[index + 2] = size;
+
+        return staging;
+    }
+}
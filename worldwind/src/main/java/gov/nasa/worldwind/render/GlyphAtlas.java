@@ -0,0 +1,633 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.render;
+
+import android.graphics.Typeface;
+import android.opengl.GLES20;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import gov.nasa.worldwind.WorldWind;
+import gov.nasa.worldwind.draw.DrawContext;
+import gov.nasa.worldwind.shape.TextAttributes;
+import gov.nasa.worldwind.util.Logger;
+import gov.nasa.worldwind.util.Retriever;
+
+/**
+ * Rasterizes text glyphs into shared single-channel OpenGL texture pages, and lays out strings as runs of glyph quads
+ * addressing those pages. Each glyph is rasterized once per typeface at a fixed base size and stored as a signed
+ * distance field, so that the same glyph image draws text of any size, with or without an outline, without resampling
+ * artifacts. Strings therefore share a handful of texture pages rather than each allocating a texture of its own.
+ * <p/>
+ * Distance field texels hold 0.5 at the glyph's edge, increasing toward 1.0 inside the glyph and decreasing toward 0.0
+ * outside the glyph, over a distance of {@link #SPREAD} base size pixels. Text is drawn with {@link TextProgram}, which
+ * thresholds the distance field to produce antialiased glyph edges and outlines.
+ * <p/>
+ * Glyphs are rasterized on separate threads by a {@link GlyphRetriever}, so that text containing new glyphs does not
+ * stall the render thread. Text is laid out only when all of its glyphs are in the atlas; until then its glyph run is
+ * incomplete and the text is not displayed. Rasterized glyphs are adopted by the atlas on the render thread at the
+ * beginning of each frame, up to a fixed number of glyphs per frame, and are uploaded to their page on the OpenGL
+ * thread the next time the page is bound. When every page is full the atlas discards its glyphs and starts again;
+ * glyph runs created before that point are recognized by their generation and laid out again.
+ */
+public class GlyphAtlas implements Retriever.Callback<GlyphAtlas.GlyphKey, Void, GlyphAtlas.Glyph> {
+
+    /**
+     * The text size in pixels at which glyphs are rasterized.
+     */
+    public static final int BASE_SIZE = 32;
+
+    /**
+     * The distance in base size pixels over which the distance field spans from the glyph's edge to 0.0 or 1.0.
+     * Outlines wider than this distance are clamped to it.
+     */
+    public static final int SPREAD = 6;
+
+    /**
+     * The number of texels between glyph regions in a page.
+     */
+    protected static final int PADDING = 1;
+
+    /**
+     * The default maximum number of rasterized glyphs adopted by the atlas in a single frame.
+     */
+    protected static final int DEFAULT_MAX_ADOPTED_GLYPHS = 16;
+
+    /**
+     * The maximum number of glyphs rasterized simultaneously.
+     */
+    protected static final int MAX_SIMULTANEOUS_RETRIEVALS = 4;
+
+    protected int pageWidth;
+
+    protected int pageHeight;
+
+    protected int maxPages;
+
+    protected List<Page> pages = new ArrayList<>();
+
+    protected Map<GlyphKey, Glyph> glyphs = new HashMap<>();
+
+    protected GlyphKey scratchKey = new GlyphKey();
+
+    protected int generation;
+
+    protected Retriever<GlyphKey, Void, Glyph> glyphRetriever = new GlyphRetriever(MAX_SIMULTANEOUS_RETRIEVALS);
+
+    protected Queue<Glyph> rasterizedGlyphs = new ConcurrentLinkedQueue<>();
+
+    protected int maxAdoptedGlyphs = DEFAULT_MAX_ADOPTED_GLYPHS;
+
+    protected List<Glyph> scratchGlyphs = new ArrayList<>();
+
+    protected int[] scratchRegion = new int[2];
+
+    /**
+     * Constructs a glyph atlas with pages of the specified dimensions.
+     *
+     * @param pageWidth  the width of each page in texels
+     * @param pageHeight the height of each page in texels
+     * @param maxPages   the maximum number of pages
+     *
+     * @throws IllegalArgumentException If any dimension or the page count is not positive
+     */
+    public GlyphAtlas(int pageWidth, int pageHeight, int maxPages) {
+        if (pageWidth <= 0 || pageHeight <= 0) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "GlyphAtlas", "constructor", "invalidWidthOrHeight"));
+        }
+
+        if (maxPages <= 0) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "GlyphAtlas", "constructor", "invalidCount"));
+        }
+
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        this.maxPages = maxPages;
+    }
+
+    /**
+     * Returns the atlas generation, which is incremented each time the atlas discards its glyphs.
+     *
+     * @return the atlas generation
+     */
+    public synchronized int getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Returns the number of atlas pages.
+     *
+     * @return the page count
+     */
+    public synchronized int getPageCount() {
+        return this.pages.size();
+    }
+
+    /**
+     * Indicates the maximum number of rasterized glyphs adopted by the atlas in a single frame.
+     *
+     * @return the maximum number of glyphs adopted per frame
+     */
+    public synchronized int getMaxAdoptedGlyphs() {
+        return this.maxAdoptedGlyphs;
+    }
+
+    /**
+     * Sets the maximum number of rasterized glyphs adopted by the atlas in a single frame. Lower values spread the cost
+     * of displaying new text across more frames.
+     *
+     * @param count the maximum number of glyphs adopted per frame
+     *
+     * @throws IllegalArgumentException If the count is not positive
+     */
+    public synchronized void setMaxAdoptedGlyphs(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "GlyphAtlas", "setMaxAdoptedGlyphs", "invalidCount"));
+        }
+
+        this.maxAdoptedGlyphs = count;
+    }
+
+    /**
+     * Indicates whether a glyph run displays the specified text and attributes using this atlas' current glyphs.
+     *
+     * @param run        the glyph run to test
+     * @param text       the text the run must display
+     * @param attributes the attributes the run must display
+     *
+     * @return true if the run is current, false if it must be laid out again
+     */
+    public synchronized boolean isCurrent(GlyphRun run, String text, TextAttributes attributes) {
+        return run.complete && run.generation == this.generation && run.matches(text, attributes);
+    }
+
+    /**
+     * Lays out a single line of text as a run of glyph quads. Glyphs not already in the atlas are rasterized on a
+     * separate thread, in which case the returned run is incomplete and displays nothing. The text must be laid out
+     * again on a subsequent frame once its glyphs are adopted by the atlas.
+     *
+     * @param text       the text to lay out
+     * @param attributes the attributes indicating the text size, typeface and outline
+     * @param result     a pre-allocated GlyphRun in which to return the layout
+     *
+     * @return the result argument set to the text's layout
+     *
+     * @throws IllegalArgumentException If any argument is null
+     */
+    public synchronized GlyphRun layoutText(String text, TextAttributes attributes, GlyphRun result) {
+        if (text == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "GlyphAtlas", "layoutText", "missingText"));
+        }
+
+        if (attributes == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "GlyphAtlas", "layoutText", "missingAttributes"));
+        }
+
+        if (result == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "GlyphAtlas", "layoutText", "missingResult"));
+        }
+
+        // Look up the text's glyphs, requesting any glyphs not in the atlas. The run remains incomplete until every
+        // glyph has been rasterized and adopted.
+        List<Glyph> glyphs = this.scratchGlyphs;
+        boolean complete = this.lookupGlyphs(text, attributes.getTypeface(), glyphs);
+        result.set(text, attributes, this.generation);
+        if (!complete) {
+            glyphs.clear();
+            return result;
+        }
+
+        float scale = attributes.getTextSize() / BASE_SIZE;
+        float penX = 0;
+
+        for (int idx = 0, len = glyphs.size(); idx < len; idx++) {
+            Glyph glyph = glyphs.get(idx);
+            if (glyph.page != null) {
+                float x0 = penX + glyph.left * scale;
+                float y0 = glyph.bottom * scale;
+                result.addQuad(glyph.page, x0, y0, x0 + glyph.width * scale, y0 + glyph.height * scale,
+                    glyph.s0, glyph.t0, glyph.s1, glyph.t1);
+            }
+            penX += glyph.advance * scale;
+        }
+
+        // Pad the text's bounds by one pixel and half the outline width, matching the bounds of TextRenderer's text
+        // images, then translate the quads such that the bounds' lower left corner is the run's origin.
+        float padding = 1 + (attributes.isEnableOutline() ? (float) Math.ceil(attributes.getOutlineWidth() * 0.5f) : 0);
+        result.finish(padding);
+        glyphs.clear();
+
+        return result;
+    }
+
+    /**
+     * Discards all pages and glyphs. Called when the OpenGL context is lost, at which point the pages' OpenGL texture
+     * objects are no longer valid.
+     */
+    public synchronized void clear() {
+        this.discardGlyphs();
+        this.pages.clear();
+    }
+
+    protected void discardGlyphs() {
+        for (Page page : this.pages) {
+            page.discard();
+        }
+
+        this.glyphs.clear();
+        this.generation++;
+    }
+
+    /**
+     * Adopts glyphs rasterized since the previous frame, packing up to the maximum number of glyphs per frame into the
+     * atlas pages. Called on the render thread at the beginning of each frame.
+     *
+     * @return true if rasterized glyphs remain to be adopted on a subsequent frame, false otherwise
+     */
+    public synchronized boolean adoptGlyphs() {
+        Glyph glyph;
+        int count = 0;
+        while (count < this.maxAdoptedGlyphs && (glyph = this.rasterizedGlyphs.poll()) != null) {
+            if (!this.glyphs.containsKey(glyph.key)) {
+                this.packGlyph(glyph);
+                this.glyphs.put(glyph.key, glyph);
+                count++;
+            }
+        }
+
+        return !this.rasterizedGlyphs.isEmpty();
+    }
+
+    @Override
+    public void retrievalSucceeded(Retriever<GlyphKey, Void, Glyph> retriever, GlyphKey key, Void options, Glyph value) {
+        this.rasterizedGlyphs.offer(value);
+        WorldWind.requestRedraw();
+    }
+
+    @Override
+    public void retrievalFailed(Retriever<GlyphKey, Void, Glyph> retriever, GlyphKey key, Throwable ex) {
+        Logger.log(Logger.ERROR, "Glyph rasterization failed \'" + key + "\'", ex);
+
+        // Adopt a glyph without an image, which allows text containing the glyph to be displayed without it.
+        Glyph glyph = new Glyph();
+        glyph.key = key;
+        this.rasterizedGlyphs.offer(glyph);
+        WorldWind.requestRedraw();
+    }
+
+    @Override
+    public void retrievalRejected(Retriever<GlyphKey, Void, Glyph> retriever, GlyphKey key) {
+        if (Logger.isLoggable(Logger.DEBUG)) {
+            Logger.log(Logger.DEBUG, "Glyph rasterization rejected \'" + key + "\'");
+        }
+    }
+
+    protected boolean lookupGlyphs(String text, Typeface typeface, List<Glyph> result) {
+        boolean complete = true;
+        for (int idx = 0, len = text.length(); idx < len; idx++) {
+            Glyph glyph = this.glyphs.get(this.scratchKey.set(typeface, text.charAt(idx)));
+            if (glyph != null) {
+                result.add(glyph);
+            } else {
+                // Rasterize the glyph on a separate thread. Requests for glyphs already being rasterized are rejected.
+                this.glyphRetriever.retrieve(new GlyphKey().set(typeface, text.charAt(idx)), null, this);
+                complete = false;
+            }
+        }
+
+        return complete;
+    }
+
+    protected void packGlyph(Glyph glyph) {
+        if (glyph.image == null) {
+            return; // whitespace and other glyphs without an image only advance the pen
+        }
+
+        // Pack the distance field into a page, discarding every glyph when the pages are full.
+        int width = (int) glyph.width;
+        int height = (int) glyph.height;
+        Page page = this.allocateRegion(width + PADDING, height + PADDING, this.scratchRegion);
+        if (page == null) {
+            this.discardGlyphs(); // keep the pages and their OpenGL textures
+            page = this.allocateRegion(width + PADDING, height + PADDING, this.scratchRegion);
+            if (page == null) {
+                glyph.image = null;
+                return; // the glyph is larger than a page
+            }
+        }
+
+        int x = this.scratchRegion[0];
+        int y = this.scratchRegion[1];
+        page.addImage(x, y, width, height, glyph.image);
+
+        // The first row of the distance field is the glyph's top row, and is loaded into the page's lowest T
+        // coordinate.
+        glyph.page = page;
+        glyph.image = null;
+        glyph.s0 = x / (float) this.pageWidth;
+        glyph.t0 = (y + height) / (float) this.pageHeight;
+        glyph.s1 = (x + width) / (float) this.pageWidth;
+        glyph.t1 = y / (float) this.pageHeight;
+    }
+
+    protected Page allocateRegion(int width, int height, int[] result) {
+        for (int idx = 0, len = this.pages.size(); idx < len; idx++) {
+            Page page = this.pages.get(idx);
+            if (page.allocate(width, height, result)) {
+                return page;
+            }
+        }
+
+        if (this.pages.size() < this.maxPages) {
+            Page page = new Page(this.pageWidth, this.pageHeight);
+            this.pages.add(page);
+            if (page.allocate(width, height, result)) {
+                return page;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Computes a signed distance field from an 8-bit coverage image. Texels with coverage of at least one half are
+     * considered inside the shape. Each result texel encodes the Euclidean distance from the texel to the shape's edge,
+     * mapped from the range [-spread, spread] to [0, 255] such that the edge is at 128.
+     *
+     * @param coverage the coverage image, in row-major order
+     * @param width    the image width
+     * @param height   the image height
+     * @param spread   the distance mapped to the full range of the distance field
+     * @param result   an array in which to return the distance field, in row-major order
+     */
+    protected static void computeDistanceField(byte[] coverage, int width, int height, int spread, byte[] result) {
+        int count = width * height;
+        float[] inside = new float[count]; // squared distance from inside texels to the nearest outside texel
+        float[] outside = new float[count]; // squared distance from outside texels to the nearest inside texel
+
+        for (int idx = 0; idx < count; idx++) {
+            boolean in = (coverage[idx] & 0xFF) >= 0x80;
+            inside[idx] = in ? Float.MAX_VALUE : 0;
+            outside[idx] = in ? 0 : Float.MAX_VALUE;
+        }
+
+        distanceTransform(inside, width, height);
+        distanceTransform(outside, width, height);
+
+        // Combine the two distance fields, placing the edge halfway between adjacent inside and outside texels.
+        float scale = 0.5f / spread;
+        for (int idx = 0; idx < count; idx++) {
+            float distance = (inside[idx] > 0) ? (float) Math.sqrt(inside[idx]) - 0.5f : 0.5f - (float) Math.sqrt(outside[idx]);
+            float value = 0.5f + distance * scale;
+            result[idx] = (byte) Math.round(Math.max(0, Math.min(1, value)) * 0xFF);
+        }
+    }
+
+    protected static void distanceTransform(float[] grid, int width, int height) {
+        // Compute the exact squared Euclidean distance transform in two passes of the one dimensional transform
+        // described by Felzenszwalb and Huttenlocher, first along each column and then along each row.
+        int n = Math.max(width, height);
+        float[] f = new float[n];
+        float[] d = new float[n];
+        float[] z = new float[n + 1];
+        int[] v = new int[n];
+
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                f[y] = grid[y * width + x];
+            }
+            distanceTransform1d(f, height, d, v, z);
+            for (int y = 0; y < height; y++) {
+                grid[y * width + x] = d[y];
+            }
+        }
+
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(grid, y * width, f, 0, width);
+            distanceTransform1d(f, width, d, v, z);
+            System.arraycopy(d, 0, grid, y * width, width);
+        }
+    }
+
+    protected static void distanceTransform1d(float[] f, int n, float[] d, int[] v, float[] z) {
+        // Compute the lower envelope of the parabolas rooted at each sample, skipping samples at infinity.
+        int k = -1;
+        for (int q = 0; q < n; q++) {
+            if (f[q] == Float.MAX_VALUE) {
+                continue;
+            }
+
+            float s = 0;
+            while (k >= 0) {
+                s = ((f[q] + q * q) - (f[v[k]] + v[k] * v[k])) / (2 * q - 2 * v[k]);
+                if (s > z[k]) {
+                    break;
+                }
+                k--;
+            }
+
+            k++;
+            v[k] = q;
+            z[k] = (k == 0) ? -Float.MAX_VALUE : s;
+            z[k + 1] = Float.MAX_VALUE;
+        }
+
+        if (k < 0) { // no finite samples
+            for (int q = 0; q < n; q++) {
+                d[q] = Float.MAX_VALUE;
+            }
+            return;
+        }
+
+        // Evaluate the lower envelope at each sample.
+        int j = 0;
+        for (int q = 0; q < n; q++) {
+            while (z[j + 1] < q) {
+                j++;
+            }
+            float dq = q - v[j];
+            d[q] = dq * dq + f[v[j]];
+        }
+    }
+
+    /**
+     * Glyph image and metrics. Metrics are in pixels at the atlas base size, relative to the pen position on the
+     * baseline with Y pointing up. A glyph's distance field image is held until the glyph is packed into a page.
+     */
+    public static class Glyph {
+
+        protected GlyphKey key;
+
+        protected byte[] image;
+
+        protected Page page;
+
+        protected float advance;
+
+        protected float left;
+
+        protected float bottom;
+
+        protected float width;
+
+        protected float height;
+
+        protected float s0;
+
+        protected float t0;
+
+        protected float s1;
+
+        protected float t1;
+    }
+
+    /**
+     * Identifies a glyph by its typeface and character.
+     */
+    public static class GlyphKey {
+
+        protected Typeface typeface;
+
+        protected char character;
+
+        public GlyphKey set(Typeface typeface, char character) {
+            this.typeface = typeface;
+            this.character = character;
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || this.getClass() != o.getClass()) {
+                return false;
+            }
+
+            GlyphKey that = (GlyphKey) o;
+            return this.character == that.character
+                && ((this.typeface == null) ? (that.typeface == null) : this.typeface.equals(that.typeface));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (this.typeface != null) ? this.typeface.hashCode() : 0;
+            result = 31 * result + (int) this.character;
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "GlyphKey{typeface=" + this.typeface + ", character=" + this.character + "}";
+        }
+    }
+
+    /**
+     * OpenGL texture page containing glyph distance fields packed into horizontal shelves. Page allocation is guarded
+     * by the owning atlas.
+     */
+    protected static class Page extends Texture {
+
+        protected List<TextureAtlas.Shelf> shelves = new ArrayList<>();
+
+        protected int nextShelfY;
+
+        protected final List<Object> pendingImages = new ArrayList<>();
+
+        public Page(int width, int height) {
+            super(width, height, GLES20.GL_ALPHA);
+        }
+
+        public boolean allocate(int width, int height, int[] result) {
+            if (width > this.textureWidth || height > this.textureHeight) {
+                return false;
+            }
+
+            // Glyph regions are never freed, so use the first shelf that fits the region without wasting more than a
+            // quarter of its height.
+            TextureAtlas.Shelf fit = null;
+            for (int idx = 0, len = this.shelves.size(); idx < len; idx++) {
+                TextureAtlas.Shelf shelf = this.shelves.get(idx);
+                if (shelf.height >= height && shelf.height <= height + (height >> 2) + 2 && shelf.canFit(width, this.textureWidth)) {
+                    fit = shelf;
+                    break;
+                }
+            }
+
+            if (fit == null) {
+                int shelfHeight = (height + 3) & ~3;
+                if (this.nextShelfY + shelfHeight > this.textureHeight) {
+                    return false;
+                }
+
+                fit = new TextureAtlas.Shelf(this.nextShelfY, shelfHeight);
+                this.shelves.add(fit);
+                this.nextShelfY += shelfHeight;
+            }
+
+            result[0] = fit.allocate(width, this.textureWidth);
+            result[1] = fit.y;
+            return true;
+        }
+
+        public void discard() {
+            this.shelves.clear();
+            this.nextShelfY = 0;
+
+            synchronized (this.pendingImages) {
+                this.pendingImages.clear();
+            }
+        }
+
+        public void addImage(int x, int y, int width, int height, byte[] pixels) {
+            synchronized (this.pendingImages) {
+                this.pendingImages.add(new int[]{x, y, width, height});
+                this.pendingImages.add(pixels);
+            }
+        }
+
+        @Override
+        public boolean bindTexture(DrawContext dc) {
+            if (!super.bindTexture(dc)) {
+                return false;
+            }
+
+            // Upload glyphs rasterized since the page was last bound. The page's texture is bound to the active texture
+            // unit by the call above. Distance field rows are tightly packed.
+            synchronized (this.pendingImages) {
+                if (this.pendingImages.isEmpty()) {
+                    return true;
+                }
+
+                GLES20.glPixelStorei(GLES20.GL_UNPACK_ALIGNMENT, 1);
+                for (int idx = 0, len = this.pendingImages.size(); idx < len; idx += 2) {
+                    int[] region = (int[]) this.pendingImages.get(idx);
+                    byte[] pixels = (byte[]) this.pendingImages.get(idx + 1);
+                    GLES20.glTexSubImage2D(GLES20.GL_TEXTURE_2D, 0 /*level*/, region[0], region[1], region[2], region[3],
+                        GLES20.GL_ALPHA, GLES20.GL_UNSIGNED_BYTE, ByteBuffer.wrap(pixels));
+                }
+                GLES20.glPixelStorei(GLES20.GL_UNPACK_ALIGNMENT, 4); // restore the default alignment
+
+                this.pendingImages.clear();
+            }
+
+            return true;
+        }
+    }
+}
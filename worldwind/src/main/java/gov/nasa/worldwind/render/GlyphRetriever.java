@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.render;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import gov.nasa.worldwind.util.Retriever;
+
+/**
+ * Rasterizes text glyphs on separate threads on behalf of a {@link GlyphAtlas}. Each glyph is drawn at the atlas base
+ * size and converted to a signed distance field, which the atlas packs into one of its pages on the render thread.
+ */
+public class GlyphRetriever extends Retriever<GlyphAtlas.GlyphKey, Void, GlyphAtlas.Glyph> {
+
+    public GlyphRetriever(int maxSimultaneousRetrievals) {
+        super(maxSimultaneousRetrievals);
+    }
+
+    @Override
+    protected void retrieveAsync(GlyphAtlas.GlyphKey key, Void options,
+                                 Callback<GlyphAtlas.GlyphKey, Void, GlyphAtlas.Glyph> callback) {
+        try {
+            GlyphAtlas.Glyph glyph = this.rasterizeGlyph(key);
+            callback.retrievalSucceeded(this, key, options, glyph);
+        } catch (Throwable logged) {
+            callback.retrievalFailed(this, key, logged); // failed with exception
+        }
+    }
+
+    protected GlyphAtlas.Glyph rasterizeGlyph(GlyphAtlas.GlyphKey key) {
+        String str = String.valueOf(key.character);
+        GlyphAtlas.Glyph glyph = new GlyphAtlas.Glyph();
+        glyph.key = key;
+
+        // Use a new paint and canvas for each glyph, since glyphs may be rasterized on several threads at once.
+        Paint paint = new Paint();
+        paint.setAntiAlias(true);
+        paint.setTextAlign(Paint.Align.LEFT);
+        paint.setTextSize(GlyphAtlas.BASE_SIZE);
+        paint.setTypeface(key.typeface);
+
+        Rect bounds = new Rect();
+        paint.getTextBounds(str, 0, 1, bounds);
+        glyph.advance = paint.measureText(str);
+
+        if (bounds.isEmpty()) {
+            return glyph; // whitespace and other glyphs without an image only advance the pen
+        }
+
+        // Draw the glyph in white on a transparent bitmap, leaving room for the distance field's spread on each side.
+        int spread = GlyphAtlas.SPREAD;
+        int width = bounds.width() + spread * 2;
+        int height = bounds.height() + spread * 2;
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ALPHA_8);
+        Canvas canvas = new Canvas(bitmap);
+        canvas.drawText(str, 0, 1, spread - bounds.left, spread - bounds.top, paint);
+
+        // Compute the glyph's distance field from its coverage.
+        int count = width * height;
+        int[] pixels = new int[count];
+        bitmap.getPixels(pixels, 0, width, 0, 0, width, height);
+        bitmap.recycle();
+
+        byte[] coverage = new byte[count];
+        for (int idx = 0; idx < count; idx++) {
+            coverage[idx] = (byte) (pixels[idx] >>> 24);
+        }
+
+        glyph.image = new byte[count];
+        GlyphAtlas.computeDistanceField(coverage, width, height, spread, glyph.image);
+
+        // Glyph metrics are in base size pixels relative to the pen position on the baseline, with Y pointing up.
+        glyph.left = bounds.left - spread;
+        glyph.bottom = -bounds.bottom - spread;
+        glyph.width = width;
+        glyph.height = height;
+
+        return glyph;
+    }
+}
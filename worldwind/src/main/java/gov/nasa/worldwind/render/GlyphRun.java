@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.render;
+
+import android.graphics.Typeface;
+
+import gov.nasa.worldwind.shape.TextAttributes;
+
+/**
+ * Single line of text laid out as a run of glyph quads by a {@link GlyphAtlas}. Each quad is stored as its screen
+ * rectangle in pixels relative to the run's origin, followed by the texture coordinates of the glyph's distance field
+ * in an atlas page. The run's origin is the lower left corner of the text's bounds, and its width and height match the
+ * dimensions of the equivalent image drawn by {@link TextRenderer}.
+ */
+public class GlyphRun {
+
+    /**
+     * The number of values in each quad: screen coordinates x0, y0, x1 and y1, and texture coordinates s0, t0, s1 and
+     * t1.
+     */
+    public static final int QUAD_STRIDE = 8;
+
+    protected String text;
+
+    protected float textSize;
+
+    protected Typeface typeface;
+
+    protected boolean enableOutline;
+
+    protected float outlineWidth;
+
+    protected int generation = -1;
+
+    protected boolean complete;
+
+    protected float[] quads = new float[QUAD_STRIDE * 16];
+
+    protected Texture[] pages = new Texture[16];
+
+    protected int quadCount;
+
+    protected float width;
+
+    protected float height;
+
+    public GlyphRun() {
+    }
+
+    /**
+     * Indicates whether the run contains all of its text's glyphs. Runs are incomplete while any of their glyphs are
+     * being rasterized, in which case they contain no glyph quads.
+     *
+     * @return true if the run is complete, false otherwise
+     */
+    public boolean isComplete() {
+        return this.complete;
+    }
+
+    /**
+     * Returns the number of glyph quads in this run.
+     *
+     * @return the quad count
+     */
+    public int getQuadCount() {
+        return this.quadCount;
+    }
+
+    /**
+     * Returns the glyph quads in this run, {@link #QUAD_STRIDE} values per quad. The array may be larger than the quad
+     * count indicates.
+     *
+     * @return the quad array
+     */
+    public float[] getQuads() {
+        return this.quads;
+    }
+
+    /**
+     * Returns the atlas page addressed by a glyph quad.
+     *
+     * @param index the quad's index
+     *
+     * @return the quad's page texture
+     */
+    public Texture getPage(int index) {
+        return this.pages[index];
+    }
+
+    /**
+     * Returns the width of the text's bounds in pixels.
+     *
+     * @return the run's width
+     */
+    public float getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Returns the height of the text's bounds in pixels.
+     *
+     * @return the run's height
+     */
+    public float getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Returns the text size the run was laid out with.
+     *
+     * @return the text size in pixels
+     */
+    public float getTextSize() {
+        return this.textSize;
+    }
+
+    /**
+     * Indicates whether the run was laid out with an outline.
+     *
+     * @return true if the run displays an outline, false otherwise
+     */
+    public boolean isEnableOutline() {
+        return this.enableOutline;
+    }
+
+    /**
+     * Returns the outline width the run was laid out with.
+     *
+     * @return the outline width in pixels
+     */
+    public float getOutlineWidth() {
+        return this.outlineWidth;
+    }
+
+    protected boolean matches(String text, TextAttributes attributes) {
+        return text != null && text.equals(this.text)
+            && this.textSize == attributes.getTextSize()
+            && this.typeface == attributes.getTypeface()
+            && this.enableOutline == attributes.isEnableOutline()
+            && this.outlineWidth == attributes.getOutlineWidth();
+    }
+
+    protected void set(String text, TextAttributes attributes, int generation) {
+        this.text = text;
+        this.textSize = attributes.getTextSize();
+        this.typeface = attributes.getTypeface();
+        this.enableOutline = attributes.isEnableOutline();
+        this.outlineWidth = attributes.getOutlineWidth();
+        this.generation = generation;
+        this.complete = false;
+
+        for (int idx = 0; idx < this.quadCount; idx++) {
+            this.pages[idx] = null;
+        }
+
+        this.quadCount = 0;
+        this.width = 0;
+        this.height = 0;
+    }
+
+    protected void addQuad(Texture page, float x0, float y0, float x1, float y1, float s0, float t0, float s1, float t1) {
+        if (this.pages.length == this.quadCount) {
+            Texture[] newPages = new Texture[this.quadCount * 2];
+            System.arraycopy(this.pages, 0, newPages, 0, this.quadCount);
+            this.pages = newPages;
+
+            float[] newQuads = new float[this.quadCount * 2 * QUAD_STRIDE];
+            System.arraycopy(this.quads, 0, newQuads, 0, this.quadCount * QUAD_STRIDE);
+            this.quads = newQuads;
+        }
+
+        int index = this.quadCount * QUAD_STRIDE;
+        this.quads[index++] = x0;
+        this.quads[index++] = y0;
+        this.quads[index++] = x1;
+        this.quads[index++] = y1;
+        this.quads[index++] = s0;
+        this.quads[index++] = t0;
+        this.quads[index++] = s1;
+        this.quads[index] = t1;
+        this.pages[this.quadCount++] = page;
+    }
+
+    protected void finish(float padding) {
+        this.complete = true;
+
+        if (this.quadCount == 0) {
+            this.width = padding * 2;
+            this.height = padding * 2;
+            return;
+        }
+
+        // Compute the bounds of the glyphs' ink, excluding the distance field's spread around each glyph.
+        float spread = GlyphAtlas.SPREAD * this.textSize / GlyphAtlas.BASE_SIZE;
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int idx = 0, len = this.quadCount * QUAD_STRIDE; idx < len; idx += QUAD_STRIDE) {
+            minX = Math.min(minX, this.quads[idx] + spread);
+            minY = Math.min(minY, this.quads[idx + 1] + spread);
+            maxX = Math.max(maxX, this.quads[idx + 2] - spread);
+            maxY = Math.max(maxY, this.quads[idx + 3] - spread);
+        }
+
+        // Translate the quads such that the padded bounds' lower left corner is at the origin.
+        float tx = padding - minX;
+        float ty = padding - minY;
+        for (int idx = 0, len = this.quadCount * QUAD_STRIDE; idx < len; idx += QUAD_STRIDE) {
+            this.quads[idx] += tx;
+            this.quads[idx + 1] += ty;
+            this.quads[idx + 2] += tx;
+            this.quads[idx + 3] += ty;
+        }
+
+        this.width = (maxX - minX) + padding * 2;
+        this.height = (maxY - minY) + padding * 2;
+    }
+}
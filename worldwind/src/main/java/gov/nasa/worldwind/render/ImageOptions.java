@@ -15,8 +15,10 @@ public class ImageOptions {
     /**
      * Indicates the in-memory configuration for images displayed by World Wind components. By default, images are
      * represented in the 32-bit RGBA_8888 configuration, the highest quality available. Components that do not require
-     * an alpha channel and want to conserve memory may use the 16-bit RGBA_565 configuration. Accepted values are
-     * {@link WorldWind#RGBA_8888} and {@link WorldWind#RGB_565}.
+     * an alpha channel and want to conserve memory may use the 16-bit RGBA_565 configuration. Components that display
+     * a mix of opaque and transparent images may use RGB_565_IF_OPAQUE, which chooses the 16-bit configuration for
+     * each image that has no alpha content. Accepted values are {@link WorldWind#RGBA_8888}, {@link WorldWind#RGB_565}
+     * and {@link WorldWind#RGB_565_IF_OPAQUE}.
      */
     @WorldWind.ImageConfig
     public int imageConfig = WorldWind.RGBA_8888;
@@ -45,8 +47,8 @@ public class ImageOptions {
     /**
      * Constructs an image options with an image configuration.
      *
-     * @param imageConfig the image configuration to use. Accepted values are {@link WorldWind#RGBA_8888} and {@link
-     *                    WorldWind#RGB_565}.
+     * @param imageConfig the image configuration to use. Accepted values are {@link WorldWind#RGBA_8888}, {@link
+     *                    WorldWind#RGB_565} and {@link WorldWind#RGB_565_IF_OPAQUE}.
      */
     public ImageOptions(@WorldWind.ImageConfig int imageConfig) {
         this.imageConfig = imageConfig;
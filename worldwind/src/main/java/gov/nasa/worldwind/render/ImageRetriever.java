@@ -22,6 +22,8 @@ import gov.nasa.worldwind.util.WWUtil;
 
 public class ImageRetriever extends Retriever<ImageSource, ImageOptions, Bitmap> {
 
+    protected static final String JPEG_MIME_TYPE = "image/jpeg";
+
     protected Resources resources;
 
     public ImageRetriever(int maxSimultaneousRetrievals) {
@@ -60,7 +62,8 @@ public class ImageRetriever extends Retriever<ImageSource, ImageOptions, Bitmap>
         }
 
         if (imageSource.isBitmapFactory()) {
-            return imageSource.asBitmapFactory().createBitmap();
+            Bitmap bitmap = imageSource.asBitmapFactory().createBitmap();
+            return this.isOpaqueConfigRequested(imageOptions) ? this.convertOpaqueBitmap(bitmap) : bitmap;
         }
 
         if (imageSource.isResource()) {
@@ -79,12 +82,32 @@ public class ImageRetriever extends Retriever<ImageSource, ImageOptions, Bitmap>
     }
 
     protected Bitmap decodeResource(int id, ImageOptions imageOptions) {
+        if (this.resources == null) {
+            return null;
+        }
+
         BitmapFactory.Options factoryOptions = this.bitmapFactoryOptions(imageOptions);
-        return (this.resources != null) ? BitmapFactory.decodeResource(this.resources, id, factoryOptions) : null;
+        if (this.isOpaqueConfigRequested(imageOptions)) {
+            // Read the image header to determine the source format before choosing the image's in-memory configuration.
+            factoryOptions.inJustDecodeBounds = true;
+            BitmapFactory.decodeResource(this.resources, id, factoryOptions);
+            this.chooseOpaqueConfig(factoryOptions);
+            return this.convertOpaqueBitmap(BitmapFactory.decodeResource(this.resources, id, factoryOptions));
+        }
+
+        return BitmapFactory.decodeResource(this.resources, id, factoryOptions);
     }
 
     protected Bitmap decodeFilePath(String pathName, ImageOptions imageOptions) {
         BitmapFactory.Options factoryOptions = this.bitmapFactoryOptions(imageOptions);
+        if (this.isOpaqueConfigRequested(imageOptions)) {
+            // Read the image header to determine the source format before choosing the image's in-memory configuration.
+            factoryOptions.inJustDecodeBounds = true;
+            BitmapFactory.decodeFile(pathName, factoryOptions);
+            this.chooseOpaqueConfig(factoryOptions);
+            return this.convertOpaqueBitmap(BitmapFactory.decodeFile(pathName, factoryOptions));
+        }
+
         return BitmapFactory.decodeFile(pathName, factoryOptions);
     }
 
@@ -102,6 +125,16 @@ public class ImageRetriever extends Retriever<ImageSource, ImageOptions, Bitmap>
             stream = new BufferedInputStream(conn.getInputStream());
 
             BitmapFactory.Options factoryOptions = this.bitmapFactoryOptions(imageOptions);
+            if (this.isOpaqueConfigRequested(imageOptions)) {
+                // Read the encoded image into memory in order to decode it twice: first its header to determine the
+                // source format, then the image itself in the configuration chosen for that format.
+                byte[] data = WWUtil.readStreamAsBytes(stream);
+                factoryOptions.inJustDecodeBounds = true;
+                BitmapFactory.decodeByteArray(data, 0, data.length, factoryOptions);
+                this.chooseOpaqueConfig(factoryOptions);
+                return this.convertOpaqueBitmap(BitmapFactory.decodeByteArray(data, 0, data.length, factoryOptions));
+            }
+
             return BitmapFactory.decodeStream(stream, null, factoryOptions);
         } finally {
             WWUtil.closeSilently(stream);
@@ -125,9 +158,67 @@ public class ImageRetriever extends Retriever<ImageSource, ImageOptions, Bitmap>
                 case WorldWind.RGB_565:
                     factoryOptions.inPreferredConfig = Bitmap.Config.RGB_565;
                     break;
+                case WorldWind.RGB_565_IF_OPAQUE:
+                    factoryOptions.inPreferredConfig = Bitmap.Config.ARGB_8888; // chosen per image; see chooseOpaqueConfig
+                    break;
             }
         }
 
         return factoryOptions;
     }
+
+    protected boolean isOpaqueConfigRequested(ImageOptions imageOptions) {
+        return imageOptions != null && imageOptions.imageConfig == WorldWind.RGB_565_IF_OPAQUE;
+    }
+
+    protected void chooseOpaqueConfig(BitmapFactory.Options factoryOptions) {
+        // JPEG images have no alpha channel and can be decoded directly in the 16-bit RGB_565 configuration. Other
+        // formats may have an alpha channel, so they're decoded in the 32-bit configuration and examined after
+        // decoding. See convertOpaqueBitmap.
+        if (JPEG_MIME_TYPE.equalsIgnoreCase(factoryOptions.outMimeType)) {
+            factoryOptions.inPreferredConfig = Bitmap.Config.RGB_565;
+        } else {
+            factoryOptions.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        }
+
+        factoryOptions.inJustDecodeBounds = false;
+    }
+
+    protected Bitmap convertOpaqueBitmap(Bitmap bitmap) {
+        if (bitmap == null || bitmap.getConfig() != Bitmap.Config.ARGB_8888 || !isOpaque(bitmap)) {
+            return bitmap; // bitmap is already 16-bit, or has alpha content that must be preserved
+        }
+
+        // Convert the opaque bitmap to the 16-bit RGB_565 configuration, halving its memory. The original bitmap is
+        // owned by this retriever, and is recycled immediately.
+        Bitmap opaqueBitmap = bitmap.copy(Bitmap.Config.RGB_565, false /*isMutable*/);
+        if (opaqueBitmap == null) {
+            return bitmap; // conversion failed; use the 32-bit bitmap
+        }
+
+        bitmap.recycle();
+        return opaqueBitmap;
+    }
+
+    protected static boolean isOpaque(Bitmap bitmap) {
+        if (!bitmap.hasAlpha()) {
+            return true; // the decoder determined that the bitmap has no alpha channel
+        }
+
+        // Examine the bitmap's actual alpha content, one row at a time. PNG images commonly have an alpha channel even
+        // when every pixel is opaque.
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            bitmap.getPixels(row, 0 /*offset*/, width /*stride*/, 0 /*x*/, y, width, 1 /*height*/);
+            for (int x = 0; x < width; x++) {
+                if ((row[x] >>> 24) != 0xFF) {
+                    return false; // found a transparent or translucent pixel
+                }
+            }
+        }
+
+        return true;
+    }
 }
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.render;
+
+import android.opengl.GLES20;
+import android.opengl.GLES30;
+import android.os.Build;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import gov.nasa.worldwind.util.Logger;
+import gov.nasa.worldwind.util.WWUtil;
+
+/**
+ * Persists linked shader program binaries in a directory, enabling {@link ShaderProgram} to skip compiling and linking
+ * GLSL source after the first time a program is built, including after the OpenGL context is lost. Program binaries
+ * are keyed by a hash of the program's sources and attribute bindings and the OpenGL driver's vendor, renderer and
+ * version strings, so binaries produced by another driver or an updated driver are never used. Binaries rejected by the
+ * driver are deleted, and the program is built from source.
+ * <p/>
+ * Program binaries are retrieved and loaded with the OpenGL ES 3.0 program binary functions, which Android exposes on
+ * API level 18 and later. The OES_get_program_binary extension has no Java binding, so the cache is disabled when the
+ * OpenGL context's version is lower than 3.0 or the driver supports no binary formats. All methods except the
+ * constructor must be called on the OpenGL thread.
+ */
+public class ProgramBinaryCache {
+
+    protected static final int FILE_MAGIC = 0x57575042; // "WWPB"
+
+    protected File directory;
+
+    protected boolean supported;
+
+    protected String driverKey;
+
+    /**
+     * Constructs a program binary cache that stores program binaries in a specified directory. The directory is created
+     * when the first program binary is stored.
+     *
+     * @param directory the directory to store program binaries in, typically in the application's cache directory
+     *
+     * @throws IllegalArgumentException If the directory is null
+     */
+    public ProgramBinaryCache(File directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ProgramBinaryCache", "constructor", "missingDirectory"));
+        }
+
+        this.directory = directory;
+    }
+
+    public File getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * Indicates whether the current OpenGL context supports program binaries. Always false before {@link
+     * #contextCreated()} is called.
+     *
+     * @return true if program binaries are loaded and stored, otherwise false
+     */
+    public boolean isSupported() {
+        return this.supported;
+    }
+
+    /**
+     * Determines whether a newly created OpenGL context supports program binaries, and identifies the OpenGL driver
+     * that subsequent program binaries are specific to.
+     */
+    public void contextCreated() {
+        String vendor = GLES20.glGetString(GLES20.GL_VENDOR);
+        String renderer = GLES20.glGetString(GLES20.GL_RENDERER);
+        String version = GLES20.glGetString(GLES20.GL_VERSION);
+        this.driverKey = vendor + "\n" + renderer + "\n" + version;
+        this.supported = false;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2
+            && version != null && version.startsWith("OpenGL ES ") && !version.startsWith("OpenGL ES 2")) {
+            int[] formatCount = new int[1];
+            GLES20.glGetIntegerv(GLES30.GL_NUM_PROGRAM_BINARY_FORMATS, formatCount, 0);
+            this.supported = formatCount[0] > 0;
+        }
+    }
+
+    /**
+     * Creates a program object from the stored binary of a program, if one exists and the driver accepts it.
+     *
+     * @param programSources the program's GLSL sources
+     * @param attribBindings the program's attribute bindings, may be null
+     *
+     * @return the linked OpenGL program object, or 0 if the program must be built from source
+     */
+    public int loadProgram(String[] programSources, String[] attribBindings) {
+        if (!this.supported) {
+            return 0;
+        }
+
+        File file = this.programFile(programSources, attribBindings);
+        if (file == null || !file.isFile()) {
+            return 0;
+        }
+
+        int format;
+        byte[] bytes;
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new FileInputStream(file));
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Unrecognized program binary file");
+            }
+            format = in.readInt();
+            bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+        } catch (IOException e) {
+            Logger.logMessage(Logger.WARN, "ProgramBinaryCache", "loadProgram", "Error reading program binary", e);
+            file.delete();
+            return 0;
+        } finally {
+            WWUtil.closeSilently(in);
+        }
+
+        ByteBuffer binary = ByteBuffer.allocateDirect(bytes.length).order(ByteOrder.nativeOrder());
+        binary.put(bytes).rewind();
+
+        int program = GLES20.glCreateProgram();
+        GLES30.glProgramBinary(program, format, binary, bytes.length);
+
+        // The driver rejects binaries it cannot use, for example after a driver update that retains the driver's
+        // version string. Delete rejected binaries and let the caller build the program from source.
+        int[] status = new int[1];
+        GLES20.glGetProgramiv(program, GLES20.GL_LINK_STATUS, status, 0);
+        if (status[0] != GLES20.GL_TRUE) {
+            GLES20.glGetError(); // clear any error generated by an unsupported binary format
+            GLES20.glDeleteProgram(program);
+            file.delete();
+            return 0;
+        }
+
+        return program;
+    }
+
+    /**
+     * Prepares a program object that will be built from source for storage in this cache. Must be called before the
+     * program is linked.
+     *
+     * @param program the OpenGL program object
+     */
+    public void prepareProgram(int program) {
+        if (this.supported) {
+            GLES30.glProgramParameteri(program, GLES30.GL_PROGRAM_BINARY_RETRIEVABLE_HINT, GLES20.GL_TRUE);
+        }
+    }
+
+    /**
+     * Stores the binary of a program object that was successfully linked from source.
+     *
+     * @param program        the linked OpenGL program object
+     * @param programSources the program's GLSL sources
+     * @param attribBindings the program's attribute bindings, may be null
+     */
+    public void storeProgram(int program, String[] programSources, String[] attribBindings) {
+        if (!this.supported) {
+            return;
+        }
+
+        int[] params = new int[2];
+        GLES20.glGetProgramiv(program, GLES30.GL_PROGRAM_BINARY_LENGTH, params, 0);
+        int length = params[0];
+        if (length <= 0) {
+            return; // the driver cannot retrieve the program's binary
+        }
+
+        ByteBuffer binary = ByteBuffer.allocateDirect(length).order(ByteOrder.nativeOrder());
+        GLES30.glGetProgramBinary(program, length, params, 0, params, 1, binary);
+        length = params[0];
+        int format = params[1];
+        if (length <= 0) {
+            return;
+        }
+
+        byte[] bytes = new byte[length];
+        binary.get(bytes, 0, length);
+
+        File file = this.programFile(programSources, attribBindings);
+        if (file == null || (!this.directory.isDirectory() && !this.directory.mkdirs())) {
+            return;
+        }
+
+        // Write the binary to a temporary file and rename it, so that a partially written binary is never loaded.
+        File tempFile = new File(this.directory, file.getName() + ".tmp");
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new FileOutputStream(tempFile));
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(format);
+            out.writeInt(length);
+            out.write(bytes);
+            out.close();
+            out = null;
+
+            if (!tempFile.renameTo(file)) {
+                tempFile.delete();
+            }
+        } catch (IOException e) {
+            Logger.logMessage(Logger.WARN, "ProgramBinaryCache", "storeProgram", "Error writing program binary", e);
+            tempFile.delete();
+        } finally {
+            WWUtil.closeSilently(out);
+        }
+    }
+
+    /**
+     * Deletes all program binaries stored in this cache.
+     */
+    public void clear() {
+        File[] files = this.directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    protected File programFile(String[] programSources, String[] attribBindings) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(this.driverKey.getBytes("UTF-8"));
+            for (String source : programSources) {
+                digest.update((byte) 0);
+                digest.update(String.valueOf(source).getBytes("UTF-8"));
+            }
+
+            if (attribBindings != null) {
+                for (String binding : attribBindings) {
+                    digest.update((byte) 0);
+                    digest.update(String.valueOf(binding).getBytes("UTF-8"));
+                }
+            }
+
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest()) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+
+            return new File(this.directory, sb.append(".bin").toString());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            Logger.logMessage(Logger.WARN, "ProgramBinaryCache", "programFile", "Error hashing program sources", e);
+            return null;
+        }
+    }
+}
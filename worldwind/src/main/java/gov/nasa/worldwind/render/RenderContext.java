@@ -9,10 +9,13 @@ import android.content.res.Resources;
 import android.graphics.Typeface;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import gov.nasa.worldwind.PickRequest;
 import gov.nasa.worldwind.PickedObject;
 import gov.nasa.worldwind.PickedObjectList;
+import gov.nasa.worldwind.ScreenPickIndex;
 import gov.nasa.worldwind.WorldWind;
 import gov.nasa.worldwind.draw.Drawable;
 import gov.nasa.worldwind.draw.DrawableList;
@@ -84,8 +87,18 @@ public class RenderContext {
 
     public Line pickRay;
 
+    public List<PickRequest> pickRequests;
+
     public boolean pickMode;
 
+    /**
+     * The index in which renderables record their pickable geometry, or null if the current frame is not recorded for
+     * picking on the CPU.
+     */
+    public ScreenPickIndex pickIndex;
+
+    public boolean elementIndexUint;
+
     private int pickedObjectId;
 
     private boolean redrawRequested;
@@ -100,6 +113,8 @@ public class RenderContext {
 
     private Map<Object, Pool<?>> drawablePools = new HashMap<>();
 
+    private Declutterer declutterer = new Declutterer();
+
     private Map<Object, Object> userProperties = new HashMap<>();
 
     public RenderContext() {
@@ -128,11 +143,15 @@ public class RenderContext {
         this.pickViewport = null;
         this.pickPoint = null;
         this.pickRay = null;
+        this.pickRequests = null;
         this.pickMode = false;
+        this.pickIndex = null;
+        this.elementIndexUint = false;
         this.pickedObjectId = 0;
         this.redrawRequested = false;
         this.pixelSizeFactor = 0;
         this.userProperties.clear();
+        this.declutterer.reset();
     }
 
     public boolean isRedrawRequested() {
@@ -414,6 +433,16 @@ public class RenderContext {
         return buffer;
     }
 
+    public VertexArrayObject getVertexArray(Object key) {
+        return (VertexArrayObject) this.renderResourceCache.get(key);
+    }
+
+    public VertexArrayObject putVertexArray(Object key, VertexArrayObject vertexArray) {
+        // Vertex arrays hold no data of their own; count each as a single byte so they age out with their buffers.
+        this.renderResourceCache.put(key, vertexArray, (vertexArray != null) ? 1 : 0);
+        return vertexArray;
+    }
+
     public Texture getText(String text, TextAttributes attributes) {
         TextCacheKey key = this.scratchTextCacheKey.set(text, attributes);
         return (Texture) this.renderResourceCache.get(key);
@@ -435,6 +464,15 @@ public class RenderContext {
         return texture;
     }
 
+    /**
+     * Returns the glyph atlas used to lay out and draw text as runs of glyph quads.
+     *
+     * @return the render resource cache's glyph atlas
+     */
+    public GlyphAtlas getGlyphAtlas() {
+        return this.renderResourceCache.getGlyphAtlas();
+    }
+
     public void offerDrawable(Drawable drawable, int groupId, double order) {
         if (this.drawableQueue != null) {
             this.drawableQueue.offerDrawable(drawable, groupId, order);
@@ -453,6 +491,71 @@ public class RenderContext {
         }
     }
 
+    /**
+     * Offers a shape drawable whose output does not depend on its distance to the viewer, such as an opaque depth
+     * tested shape. Opaque shape drawables are drawn before the other shape drawables, clustered by state key so that
+     * shapes sharing a program, vertex and element buffers, and face culling and depth test capabilities are drawn
+     * consecutively. Textured shapes are not order independent and should be offered with {@link
+     * #offerShapeDrawable(Drawable, double)} instead.
+     *
+     * @param drawable the drawable to offer
+     * @param stateKey a key identifying the drawable's OpenGL state
+     */
+    public void offerOpaqueShapeDrawable(Drawable drawable, int stateKey) {
+        if (this.drawableQueue != null) {
+            this.drawableQueue.offerUnorderedDrawable(drawable, WorldWind.SHAPE_DRAWABLE, stateKey);
+        }
+    }
+
+    /**
+     * Offers a screen drawable whose display is decided by this render context's declutterer. The drawable is offered
+     * to the drawable queue when {@link #declutterDrawables()} is called, unless it overlaps a drawable of higher
+     * priority.
+     *
+     * @param key            the object offering the drawable, used to track the drawable's placement across frames
+     * @param drawable       the drawable
+     * @param color          the drawable's color, whose alpha is modulated as the drawable fades in and out
+     * @param outlineColor   the drawable's outline color, or null if the drawable has no outline
+     * @param screenBounds   the drawable's screen bounds
+     * @param priority       the drawable's declutter priority; higher priorities are displayed first
+     * @param cameraDistance the distance from the camera to the drawable, in meters
+     */
+    public void offerDeclutterDrawable(Object key, Drawable drawable, Color color, Color outlineColor,
+                                       Viewport screenBounds, double priority, double cameraDistance) {
+        if (this.drawableQueue != null) {
+            this.declutterer.offerDrawable(key, drawable, color, outlineColor, screenBounds, priority, cameraDistance);
+        }
+    }
+
+    /**
+     * Offers a drawable displayed together with the drawable a key offers to this render context's declutterer, such
+     * as a placemark's leader line.
+     *
+     * @param key            the object offering the drawable
+     * @param drawable       the drawable
+     * @param color          the drawable's color, whose alpha is modulated as the drawable fades in and out
+     * @param cameraDistance the distance from the camera to the drawable, in meters
+     */
+    public void offerDeclutterAttachment(Object key, Drawable drawable, Color color, double cameraDistance) {
+        if (this.drawableQueue != null) {
+            this.declutterer.offerAttachedDrawable(key, drawable, color, cameraDistance);
+        }
+    }
+
+    /**
+     * Offers the drawables displayed by this render context's declutterer to the drawable queue. Requests a redraw
+     * while any decluttered drawable is fading in or out.
+     */
+    public void declutterDrawables() {
+        if (this.declutterer.declutter(this)) {
+            this.requestRedraw();
+        }
+    }
+
+    public Declutterer getDeclutterer() {
+        return this.declutterer;
+    }
+
     public void offerDrawableTerrain(DrawableTerrain drawable) {
         if (this.drawableTerrain != null) {
             this.drawableTerrain.offerDrawable(drawable);
@@ -466,7 +569,9 @@ public class RenderContext {
     }
 
     public int drawableCount() {
-        return (this.drawableQueue != null) ? this.drawableQueue.count() : 0;
+        // Include the drawables pending in the declutterer, which are offered to the drawable queue once all layers
+        // have rendered.
+        return (this.drawableQueue != null) ? this.drawableQueue.count() + this.declutterer.count() : 0;
     }
 
     @SuppressWarnings("unchecked")
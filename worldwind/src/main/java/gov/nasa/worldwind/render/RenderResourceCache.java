@@ -40,12 +40,26 @@ public class RenderResourceCache extends LruMemoryCache<Object, RenderResource>
 
     protected LruMemoryCache<ImageSource, Bitmap> imageRetrieverCache;
 
+    protected TextureAtlas textureAtlas;
+
+    protected GlyphAtlas glyphAtlas;
+
     protected static final int STALE_RETRIEVAL_AGE = 3000;
 
     protected static final int TRIM_STALE_RETRIEVALS = 1;
 
     protected static final int TRIM_STALE_RETRIEVALS_DELAY = 6000;
 
+    protected static final int ATLAS_PAGE_SIZE = 1024;
+
+    protected static final int ATLAS_MAX_PAGES = 4;
+
+    protected static final int ATLAS_MAX_IMAGE_SIZE = 128;
+
+    protected static final int GLYPH_ATLAS_PAGE_SIZE = 1024;
+
+    protected static final int GLYPH_ATLAS_MAX_PAGES = 2;
+
     public RenderResourceCache(int capacity) {
         super(capacity);
         this.init();
@@ -62,6 +76,9 @@ public class RenderResourceCache extends LruMemoryCache<Object, RenderResource>
         this.imageRetriever = new ImageRetriever(2);
         this.urlImageRetriever = new ImageRetriever(8);
         this.imageRetrieverCache = new SynchronizedMemoryCache<>(this.getCapacity() / 8);
+        this.textureAtlas = new TextureAtlas(this, ATLAS_PAGE_SIZE, ATLAS_PAGE_SIZE, ATLAS_MAX_PAGES,
+            ATLAS_MAX_IMAGE_SIZE, ATLAS_MAX_IMAGE_SIZE);
+        this.glyphAtlas = new GlyphAtlas(GLYPH_ATLAS_PAGE_SIZE, GLYPH_ATLAS_PAGE_SIZE, GLYPH_ATLAS_MAX_PAGES);
 
         Logger.log(Logger.INFO, String.format(Locale.US, "RenderResourceCache initialized  %,.0f KB  (%,.0f KB retrieval cache)",
             this.getCapacity() / 1024.0, this.imageRetrieverCache.getCapacity() / 1024.0));
@@ -97,11 +114,17 @@ public class RenderResourceCache extends LruMemoryCache<Object, RenderResource>
         ((ImageRetriever) this.imageRetriever).setResources(res);
     }
 
+    public GlyphAtlas getGlyphAtlas() {
+        return this.glyphAtlas;
+    }
+
     public void clear() { // TODO rename as contextLost to clarify this method's purpose for RenderResourceCache
         this.handler.removeMessages(TRIM_STALE_RETRIEVALS);
         this.entries.clear(); // the cache entries are invalid; clear but don't call entryRemoved
         this.evictionQueue.clear(); // the eviction queue no longer needs to be processed
         this.imageRetrieverCache.clear(); // the retrieval queue should be cleared to make room
+        this.textureAtlas.clear(); // the atlas pages are invalid
+        this.glyphAtlas.clear(); // the glyph atlas pages are invalid
         this.usedCapacity = 0;
     }
 
@@ -162,6 +185,13 @@ public class RenderResourceCache extends LruMemoryCache<Object, RenderResource>
     }
 
     protected Texture createTexture(ImageSource imageSource, ImageOptions options, Bitmap bitmap) {
+        // Pack small images into a shared texture atlas page, allowing drawables using different images on the same
+        // page to be drawn without intermediate texture binds.
+        Texture atlasTexture = this.textureAtlas.createTexture(imageSource, options, bitmap);
+        if (atlasTexture != null) {
+            return atlasTexture;
+        }
+
         Texture texture = new Texture(bitmap);
 
         if (options != null && options.resamplingMode == WorldWind.NEAREST_NEIGHBOR) {
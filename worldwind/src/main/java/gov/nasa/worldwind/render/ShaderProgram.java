@@ -111,6 +111,17 @@ public class ShaderProgram implements RenderResource {
     }
 
     protected void buildProgram(DrawContext dc, String[] programSource, String[] attribBindings) {
+        // Load the program's binary from the draw context's program binary cache when possible, avoiding the cost of
+        // compiling and linking the program's sources.
+        ProgramBinaryCache binaryCache = dc.programBinaryCache;
+        if (binaryCache != null) {
+            int program = binaryCache.loadProgram(programSource, attribBindings);
+            if (program != 0) {
+                this.programId = program;
+                return;
+            }
+        }
+
         int[] status = new int[1];
 
         int vs = GLES20.glCreateShader(GLES20.GL_VERTEX_SHADER);
@@ -150,6 +161,10 @@ public class ShaderProgram implements RenderResource {
             }
         }
 
+        if (binaryCache != null) {
+            binaryCache.prepareProgram(program);
+        }
+
         GLES20.glLinkProgram(program);
         GLES20.glGetProgramiv(program, GLES20.GL_LINK_STATUS, status, 0);
 
@@ -166,6 +181,10 @@ public class ShaderProgram implements RenderResource {
         this.programId = program;
         this.shaderId[0] = vs;
         this.shaderId[1] = fs;
+
+        if (binaryCache != null) {
+            binaryCache.storeProgram(program, programSource, attribBindings);
+        }
     }
 
     protected void initProgram(DrawContext dc) {
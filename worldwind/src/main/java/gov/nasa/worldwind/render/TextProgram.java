@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.render;
+
+import android.content.res.Resources;
+import android.opengl.GLES20;
+
+import gov.nasa.worldwind.R;
+import gov.nasa.worldwind.draw.DrawContext;
+import gov.nasa.worldwind.util.Logger;
+import gov.nasa.worldwind.util.WWUtil;
+
+/**
+ * GLSL program that draws text from the signed distance field glyphs of a {@link GlyphAtlas}. TextProgram extends the
+ * basic program's vertex processing and per-vertex colors, and thresholds each glyph's distance field to produce an
+ * antialiased glyph edge surrounded by an optional outline.
+ */
+public class TextProgram extends BasicShaderProgram {
+
+    public static final Object KEY = TextProgram.class;
+
+    protected float outlineEdge = 0.5f;
+
+    protected float edgeSmoothing;
+
+    protected Color outlineColor = new Color(0, 0, 0, 1);
+
+    protected int outlineEdgeId;
+
+    protected int edgeSmoothingId;
+
+    protected int outlineColorId;
+
+    public TextProgram(Resources resources) {
+        try {
+            String vs = WWUtil.readResourceAsText(resources, R.raw.gov_nasa_worldwind_basicprogram_vert);
+            String fs = WWUtil.readResourceAsText(resources, R.raw.gov_nasa_worldwind_textprogram_frag);
+            this.setProgramSources(vs, fs);
+            this.setAttribBindings("vertexPoint", "vertexTexCoord", "vertexColor");
+        } catch (Exception logged) {
+            Logger.logMessage(Logger.ERROR, "TextProgram", "constructor", "errorReadingProgramSource", logged);
+        }
+    }
+
+    @Override
+    protected void initProgram(DrawContext dc) {
+        super.initProgram(dc);
+
+        this.outlineEdgeId = GLES20.glGetUniformLocation(this.programId, "outlineEdge");
+        GLES20.glUniform1f(this.outlineEdgeId, this.outlineEdge);
+
+        this.edgeSmoothingId = GLES20.glGetUniformLocation(this.programId, "edgeSmoothing");
+        GLES20.glUniform1f(this.edgeSmoothingId, this.edgeSmoothing);
+
+        this.outlineColorId = GLES20.glGetUniformLocation(this.programId, "outlineColor");
+        float alpha = this.outlineColor.alpha;
+        GLES20.glUniform4f(this.outlineColorId, this.outlineColor.red * alpha, this.outlineColor.green * alpha,
+            this.outlineColor.blue * alpha, alpha);
+    }
+
+    /**
+     * Indicates whether the distance field thresholds for the specified text size and outline differ from the
+     * thresholds currently loaded.
+     *
+     * @param textSize     the text size in pixels
+     * @param outlineWidth the outline width in pixels, or zero to draw text without an outline
+     *
+     * @return true if loadTextSize would change the program's thresholds, false otherwise
+     */
+    public boolean isTextSizeChanged(float textSize, float outlineWidth) {
+        return this.edgeSmoothing != computeEdgeSmoothing(textSize)
+            || this.outlineEdge != computeOutlineEdge(textSize, outlineWidth);
+    }
+
+    /**
+     * Loads the distance field thresholds appropriate for text of the specified size and outline width, drawn at one
+     * screen pixel per text pixel.
+     *
+     * @param textSize     the text size in pixels
+     * @param outlineWidth the outline width in pixels, or zero to draw text without an outline
+     */
+    public void loadTextSize(float textSize, float outlineWidth) {
+        float edgeSmoothing = computeEdgeSmoothing(textSize);
+        if (this.edgeSmoothing != edgeSmoothing) {
+            this.edgeSmoothing = edgeSmoothing;
+            GLES20.glUniform1f(this.edgeSmoothingId, edgeSmoothing);
+        }
+
+        float outlineEdge = computeOutlineEdge(textSize, outlineWidth);
+        if (this.outlineEdge != outlineEdge) {
+            this.outlineEdge = outlineEdge;
+            GLES20.glUniform1f(this.outlineEdgeId, outlineEdge);
+        }
+    }
+
+    public Color getOutlineColor() {
+        return this.outlineColor;
+    }
+
+    public void loadOutlineColor(Color color) {
+        if (!this.outlineColor.equals(color)) {
+            this.outlineColor.set(color);
+            float alpha = color.alpha;
+            GLES20.glUniform4f(this.outlineColorId, color.red * alpha, color.green * alpha, color.blue * alpha, alpha);
+        }
+    }
+
+    protected static float computeEdgeSmoothing(float textSize) {
+        // Smooth the glyph's edge over one screen pixel, expressed in distance field units. One screen pixel spans
+        // BASE_SIZE / textSize distance field texels, and the distance field spans 0.5 over SPREAD texels.
+        float texelsPerPixel = GlyphAtlas.BASE_SIZE / Math.max(textSize, 1);
+        return 0.25f * texelsPerPixel / GlyphAtlas.SPREAD;
+    }
+
+    protected static float computeOutlineEdge(float textSize, float outlineWidth) {
+        // The outline extends half its width beyond the glyph's edge, matching a stroke centered on the edge. Keep the
+        // outline's edge within the distance field's spread.
+        float texelsPerPixel = GlyphAtlas.BASE_SIZE / Math.max(textSize, 1);
+        float outlineDistance = 0.5f * outlineWidth * texelsPerPixel * 0.5f / GlyphAtlas.SPREAD;
+        return Math.max(0.5f - outlineDistance, computeEdgeSmoothing(textSize));
+    }
+}
@@ -10,6 +10,8 @@ import android.opengl.GLES20;
 import android.opengl.GLUtils;
 import android.util.SparseIntArray;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import gov.nasa.worldwind.draw.DrawContext;
 import gov.nasa.worldwind.geom.Matrix3;
 import gov.nasa.worldwind.util.Logger;
@@ -19,6 +21,8 @@ public class Texture implements RenderResource {
 
     protected static final int[] UNINITIALIZED_NAME = new int[1];
 
+    protected static final AtomicLong serialNumbers = new AtomicLong();
+
     protected int[] textureName = UNINITIALIZED_NAME;
 
     protected int textureWidth;
@@ -27,6 +31,8 @@ public class Texture implements RenderResource {
 
     protected int textureFormat;
 
+    protected int textureType;
+
     protected int textureByteCount;
 
     protected Matrix3 texCoordTransform = new Matrix3();
@@ -37,6 +43,8 @@ public class Texture implements RenderResource {
 
     protected boolean imageHasMipMap; /*TODO consider using Bitmap.hasMipMap*/
 
+    protected long serialNumber = serialNumbers.incrementAndGet();
+
     private boolean pickMode;
 
     public Texture(Bitmap bitmap) {
@@ -53,12 +61,17 @@ public class Texture implements RenderResource {
         this.textureWidth = width;
         this.textureHeight = height;
         this.textureFormat = format;
+        this.textureType = type;
         this.textureByteCount = estimateByteCount(width, height, format, type);
         this.texCoordTransform.setToVerticalFlip();
         this.imageBitmap = bitmap;
     }
 
     public Texture(int width, int height, int format) {
+        this(width, height, format, GLES20.GL_UNSIGNED_BYTE);
+    }
+
+    public Texture(int width, int height, int format, int type) {
         if (width < 0 || height < 0) {
             throw new IllegalArgumentException(
                 Logger.logMessage(Logger.ERROR, "Texture", "constructor", "invalidWidthOrHeight"));
@@ -67,7 +80,8 @@ public class Texture implements RenderResource {
         this.textureWidth = width;
         this.textureHeight = height;
         this.textureFormat = format;
-        this.textureByteCount = estimateByteCount(width, height, format, GLES20.GL_UNSIGNED_BYTE);
+        this.textureType = type;
+        this.textureByteCount = estimateByteCount(width, height, format, type);
         this.texCoordTransform.setToIdentity();
     }
 
@@ -83,6 +97,16 @@ public class Texture implements RenderResource {
         return this.textureByteCount;
     }
 
+    /**
+     * Returns a number that uniquely identifies this texture, assigned when the texture is constructed. Unlike an
+     * object's identity hash code, serial numbers are never reused.
+     *
+     * @return the texture's serial number
+     */
+    public long getSerialNumber() {
+        return this.serialNumber;
+    }
+
     public Matrix3 getTexCoordTransform() {
         return this.texCoordTransform;
     }
@@ -168,13 +192,15 @@ public class Texture implements RenderResource {
         // Allocate texture memory for the OpenGL texture 2D object. The texture memory is initialized with 0.
         GLES20.glTexImage2D(GLES20.GL_TEXTURE_2D, 0 /*level*/,
             this.textureFormat, this.textureWidth, this.textureHeight, 0 /*border*/,
-            this.textureFormat, GLES20.GL_UNSIGNED_BYTE, null /*pixels*/);
+            this.textureFormat, this.textureType, null /*pixels*/);
     }
 
     protected void loadTexImage(DrawContext dc, Bitmap bitmap) {
         try {
-            // Specify the OpenGL texture 2D object's base image data (level 0).
-            GLUtils.texImage2D(GLES20.GL_TEXTURE_2D, 0 /*level*/, bitmap, 0 /*border*/);
+            // Specify the OpenGL texture 2D object's base image data (level 0). Use the internal format and type that
+            // match the bitmap's configuration, for example GL_RGB and GL_UNSIGNED_SHORT_5_6_5 for 16-bit opaque
+            // bitmaps, in order to avoid expanding the bitmap to 32 bits per pixel in texture memory.
+            GLUtils.texImage2D(GLES20.GL_TEXTURE_2D, 0 /*level*/, this.textureFormat, bitmap, this.textureType, 0 /*border*/);
 
             // If the bitmap has power-of-two dimensions, generate the texture object's image data for image levels 1
             // through level N, and configure the texture object's filtering modes to use those image levels.
@@ -0,0 +1,530 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.render;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.opengl.GLES20;
+import android.opengl.GLUtils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import gov.nasa.worldwind.WorldWind;
+import gov.nasa.worldwind.draw.DrawContext;
+import gov.nasa.worldwind.util.Logger;
+import gov.nasa.worldwind.util.LruMemoryCache;
+
+/**
+ * Packs small images into shared OpenGL texture pages. Each image becomes an {@link AtlasTexture} whose tex coord
+ * transform addresses the image's sub-rectangle within a page, so that drawables sharing a page can be drawn with a
+ * single texture bind. Scenes displaying many distinct icons, such as placemarks with unique symbols, otherwise
+ * allocate one small OpenGL texture per icon.
+ * <p/>
+ * Images are packed into horizontal shelves. Regions released when their textures are evicted from the render resource
+ * cache are reused by images that fit within them, and shelves are reclaimed when they become empty. When every page
+ * is full, the atlas repacks the least recently drawn page by evicting the textures it contains from the render
+ * resource cache; images still in use are then retrieved again and packed compactly on subsequent frames.
+ * <p/>
+ * Regions are allocated on the render thread and released on the OpenGL thread. Image data is uploaded to the page
+ * texture on the OpenGL thread the next time the page is bound.
+ */
+public class TextureAtlas {
+
+    /**
+     * The number of texels surrounding each image in its region. The padding holds copies of the image's edge texels,
+     * which prevents neighboring images from bleeding into one another with linear filtering.
+     */
+    protected static final int PADDING = 1;
+
+    /**
+     * The minimum age of a page's most recent texture bind before the page may be repacked. Pages drawn more
+     * recently than this are considered in use.
+     */
+    protected static final long REPACK_MIN_AGE = 2000;
+
+    protected LruMemoryCache<Object, RenderResource> cache;
+
+    protected int pageWidth;
+
+    protected int pageHeight;
+
+    protected int maxPages;
+
+    protected int maxImageWidth;
+
+    protected int maxImageHeight;
+
+    protected List<Page> pages = new ArrayList<>();
+
+    protected Canvas canvas = new Canvas();
+
+    protected Rect srcRect = new Rect();
+
+    protected Rect dstRect = new Rect();
+
+    /**
+     * Constructs a texture atlas that packs images into pages of the specified dimensions.
+     *
+     * @param cache          the render resource cache holding the atlas textures
+     * @param pageWidth      the width of each page in texels
+     * @param pageHeight     the height of each page in texels
+     * @param maxPages       the maximum number of pages
+     * @param maxImageWidth  the width of the widest image accepted by the atlas
+     * @param maxImageHeight the height of the tallest image accepted by the atlas
+     *
+     * @throws IllegalArgumentException If the cache is null, or if any dimension or the page count is not positive
+     */
+    public TextureAtlas(LruMemoryCache<Object, RenderResource> cache, int pageWidth, int pageHeight, int maxPages,
+                        int maxImageWidth, int maxImageHeight) {
+        if (cache == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "TextureAtlas", "constructor", "missingCache"));
+        }
+
+        if (pageWidth <= 0 || pageHeight <= 0 || maxImageWidth <= 0 || maxImageHeight <= 0) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "TextureAtlas", "constructor", "invalidWidthOrHeight"));
+        }
+
+        if (maxPages <= 0) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "TextureAtlas", "constructor", "invalidCount"));
+        }
+
+        this.cache = cache;
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        this.maxPages = maxPages;
+        this.maxImageWidth = Math.min(maxImageWidth, pageWidth - PADDING * 2);
+        this.maxImageHeight = Math.min(maxImageHeight, pageHeight - PADDING * 2);
+    }
+
+    /**
+     * Indicates whether this atlas accepts images with the specified options and dimensions. The atlas accepts images
+     * no larger than its maximum image size whose options are compatible with a shared page: 32-bit RGBA pixels,
+     * bilinear resampling and edge clamping.
+     *
+     * @param options the image options, may be null
+     * @param width   the image width
+     * @param height  the image height
+     *
+     * @return true if the atlas accepts the image, false otherwise
+     */
+    public boolean isCompatible(ImageOptions options, int width, int height) {
+        if (width <= 0 || height <= 0 || width > this.maxImageWidth || height > this.maxImageHeight) {
+            return false;
+        }
+
+        return options == null || (options.imageConfig == WorldWind.RGBA_8888 &&
+            options.resamplingMode == WorldWind.BILINEAR && options.wrapMode == WorldWind.CLAMP);
+    }
+
+    /**
+     * Packs a bitmap into an atlas page, returning a texture that addresses the bitmap's region in the page. This
+     * returns null when the bitmap is not compatible with the atlas, or when every page is full and no page can be
+     * repacked. The bitmap is copied and may be recycled by the caller after this method returns.
+     *
+     * @param key     the render resource cache key associated with the bitmap
+     * @param options the image options, may be null
+     * @param bitmap  the bitmap to pack
+     *
+     * @return the atlas texture, or null if the bitmap could not be packed
+     */
+    public synchronized AtlasTexture createTexture(Object key, ImageOptions options, Bitmap bitmap) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        if (!this.isCompatible(options, width, height)) {
+            return null;
+        }
+
+        int regionWidth = width + PADDING * 2;
+        int regionHeight = height + PADDING * 2;
+        int[] result = new int[2];
+
+        // Look for space in an existing page, then add a new page if possible.
+        Page page = this.allocateRegion(regionWidth, regionHeight, result);
+
+        // Repack the least recently drawn page when every page is full.
+        if (page == null) {
+            page = this.repackColdPage();
+            if (page == null || !page.allocate(regionWidth, regionHeight, result)) {
+                return null;
+            }
+        }
+
+        AtlasTexture texture = new AtlasTexture(this, page, key, result[0], result[1], width, height);
+        page.addImage(texture, this.padBitmap(bitmap));
+        return texture;
+    }
+
+    /**
+     * Returns a texture's region to its page. Called on the OpenGL thread when the texture is released by the render
+     * resource cache. Pages left empty are deleted, except for the first page.
+     *
+     * @param dc      the current draw context
+     * @param texture the texture to release
+     */
+    public void releaseRegion(DrawContext dc, AtlasTexture texture) {
+        Page emptyPage = null;
+
+        synchronized (this) {
+            if (!texture.isValid()) {
+                return; // the texture's region was discarded when its page was repacked
+            }
+
+            Page page = texture.page;
+            page.free(texture);
+
+            if (page.isEmpty() && this.pages.size() > 1 && this.pages.remove(page)) {
+                emptyPage = page;
+            }
+        }
+
+        if (emptyPage != null) {
+            emptyPage.release(dc);
+        }
+    }
+
+    /**
+     * Discards all pages. Called when the OpenGL context is lost, at which point the pages' OpenGL texture objects are
+     * no longer valid.
+     */
+    public synchronized void clear() {
+        for (Page page : this.pages) {
+            page.discard();
+        }
+
+        this.pages.clear();
+    }
+
+    /**
+     * Returns the number of atlas pages.
+     *
+     * @return the page count
+     */
+    public synchronized int getPageCount() {
+        return this.pages.size();
+    }
+
+    protected Page allocateRegion(int width, int height, int[] result) {
+        for (int idx = 0, len = this.pages.size(); idx < len; idx++) {
+            Page page = this.pages.get(idx);
+            if (page.allocate(width, height, result)) {
+                return page;
+            }
+        }
+
+        if (this.pages.size() < this.maxPages) {
+            Page page = new Page(this.pageWidth, this.pageHeight);
+            this.pages.add(page);
+            if (page.allocate(width, height, result)) {
+                return page;
+            }
+        }
+
+        return null;
+    }
+
+    protected Page repackColdPage() {
+        // Find the least recently drawn page that hasn't been drawn recently.
+        long now = System.currentTimeMillis();
+        Page coldPage = null;
+        for (int idx = 0, len = this.pages.size(); idx < len; idx++) {
+            Page page = this.pages.get(idx);
+            if (now - page.lastBindTime >= REPACK_MIN_AGE && (coldPage == null || coldPage.lastBindTime > page.lastBindTime)) {
+                coldPage = page;
+            }
+        }
+
+        if (coldPage == null) {
+            return null; // every page is in use
+        }
+
+        // Evict the page's textures from the render resource cache and discard the page's regions. Images still in use
+        // are retrieved again and packed on subsequent frames.
+        List<AtlasTexture> textures = coldPage.reset();
+        for (int idx = 0, len = textures.size(); idx < len; idx++) {
+            AtlasTexture texture = textures.get(idx);
+            if (this.cache.get(texture.key) == texture) {
+                this.cache.remove(texture.key);
+            }
+        }
+
+        if (Logger.isLoggable(Logger.DEBUG)) {
+            Logger.log(Logger.DEBUG, "Repacked texture atlas page, evicted " + textures.size() + " textures");
+        }
+
+        return coldPage;
+    }
+
+    protected Bitmap padBitmap(Bitmap bitmap) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        Bitmap padded = Bitmap.createBitmap(width + PADDING * 2, height + PADDING * 2, Bitmap.Config.ARGB_8888);
+        Canvas canvas = this.canvas;
+        canvas.setBitmap(padded);
+
+        // Draw the image in the center of the padded bitmap.
+        canvas.drawBitmap(bitmap, PADDING, PADDING, null);
+
+        // Replicate the image's edge texels into the padding: the left, right, top and bottom edges, then the corners.
+        int w = width, h = height, p = PADDING;
+        this.drawEdge(bitmap, 0, 0, 1, h, 0, p, p, h + p);
+        this.drawEdge(bitmap, w - 1, 0, w, h, w + p, p, w + p * 2, h + p);
+        this.drawEdge(bitmap, 0, 0, w, 1, p, 0, w + p, p);
+        this.drawEdge(bitmap, 0, h - 1, w, h, p, h + p, w + p, h + p * 2);
+        this.drawEdge(bitmap, 0, 0, 1, 1, 0, 0, p, p);
+        this.drawEdge(bitmap, w - 1, 0, w, 1, w + p, 0, w + p * 2, p);
+        this.drawEdge(bitmap, 0, h - 1, 1, h, 0, h + p, p, h + p * 2);
+        this.drawEdge(bitmap, w - 1, h - 1, w, h, w + p, h + p, w + p * 2, h + p * 2);
+
+        canvas.setBitmap(null);
+        return padded;
+    }
+
+    protected void drawEdge(Bitmap src, int sl, int st, int sr, int sb, int dl, int dt, int dr, int db) {
+        this.srcRect.set(sl, st, sr, sb);
+        this.dstRect.set(dl, dt, dr, db);
+        this.canvas.drawBitmap(src, this.srcRect, this.dstRect, null);
+    }
+
+    /**
+     * OpenGL texture page containing atlas regions packed into horizontal shelves. Page allocation and release are
+     * guarded by the owning atlas.
+     */
+    protected static class Page extends Texture {
+
+        protected List<Shelf> shelves = new ArrayList<>();
+
+        protected int nextShelfY;
+
+        protected int regionCount;
+
+        protected List<AtlasTexture> textures = new ArrayList<>();
+
+        protected List<Object> pendingImages = new ArrayList<>();
+
+        protected volatile int generation;
+
+        protected volatile long lastBindTime;
+
+        public Page(int width, int height) {
+            super(width, height, GLES20.GL_RGBA);
+            this.lastBindTime = System.currentTimeMillis();
+        }
+
+        public boolean isEmpty() {
+            return this.regionCount == 0;
+        }
+
+        public boolean allocate(int width, int height, int[] result) {
+            if (width > this.textureWidth || height > this.textureHeight) {
+                return false;
+            }
+
+            // Look for the shortest shelf that fits the region, rejecting shelves much taller than the region.
+            Shelf bestShelf = null;
+            for (int idx = 0, len = this.shelves.size(); idx < len; idx++) {
+                Shelf shelf = this.shelves.get(idx);
+                if (shelf.height >= height && shelf.height <= height + (height >> 1) + 2 && shelf.canFit(width, this.textureWidth)) {
+                    if (bestShelf == null || bestShelf.height > shelf.height) {
+                        bestShelf = shelf;
+                    }
+                }
+            }
+
+            // Open a new shelf above the existing shelves when none fit. Round shelf heights up to a multiple of four
+            // so that similarly sized images share shelves.
+            if (bestShelf == null) {
+                int shelfHeight = Math.min((height + 3) & ~3, this.textureHeight - this.nextShelfY);
+                if (shelfHeight < height) {
+                    return this.allocateInEmptyShelf(width, height, result);
+                }
+
+                bestShelf = new Shelf(this.nextShelfY, shelfHeight);
+                this.shelves.add(bestShelf);
+                this.nextShelfY += shelfHeight;
+            }
+
+            result[0] = bestShelf.allocate(width, this.textureWidth);
+            result[1] = bestShelf.y;
+            this.regionCount++;
+            return true;
+        }
+
+        protected boolean allocateInEmptyShelf(int width, int height, int[] result) {
+            // Reuse an empty shelf tall enough for the region, regardless of how much taller it is.
+            for (int idx = 0, len = this.shelves.size(); idx < len; idx++) {
+                Shelf shelf = this.shelves.get(idx);
+                if (shelf.regionCount == 0 && shelf.height >= height) {
+                    result[0] = shelf.allocate(width, this.textureWidth);
+                    result[1] = shelf.y;
+                    this.regionCount++;
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        public void free(AtlasTexture texture) {
+            for (int idx = 0, len = this.shelves.size(); idx < len; idx++) {
+                Shelf shelf = this.shelves.get(idx);
+                if (shelf.y == texture.regionY) {
+                    shelf.free(texture.regionX, texture.regionWidth);
+                    break;
+                }
+            }
+
+            // Reclaim empty shelves at the top of the page.
+            while (!this.shelves.isEmpty()) {
+                Shelf top = this.shelves.get(this.shelves.size() - 1);
+                if (top.regionCount != 0) {
+                    break;
+                }
+                this.shelves.remove(this.shelves.size() - 1);
+                this.nextShelfY = top.y;
+            }
+
+            this.textures.remove(texture);
+            this.regionCount--;
+        }
+
+        public List<AtlasTexture> reset() {
+            List<AtlasTexture> evicted = new ArrayList<>(this.textures);
+            this.discard();
+            return evicted;
+        }
+
+        public void discard() {
+            this.generation++; // invalidates textures referencing the page's previous regions
+            this.shelves.clear();
+            this.nextShelfY = 0;
+            this.regionCount = 0;
+            this.textures.clear();
+
+            synchronized (this.pendingImages) {
+                this.pendingImages.clear();
+            }
+        }
+
+        public void addImage(AtlasTexture texture, Bitmap bitmap) {
+            this.textures.add(texture);
+
+            synchronized (this.pendingImages) {
+                this.pendingImages.add(texture);
+                this.pendingImages.add(bitmap);
+            }
+        }
+
+        @Override
+        public boolean bindTexture(DrawContext dc) {
+            if (!super.bindTexture(dc)) {
+                return false;
+            }
+
+            this.lastBindTime = System.currentTimeMillis();
+
+            // Upload images packed since the page was last bound. The page's texture is bound to the active texture
+            // unit by the call above.
+            synchronized (this.pendingImages) {
+                for (int idx = 0, len = this.pendingImages.size(); idx < len; idx += 2) {
+                    AtlasTexture texture = (AtlasTexture) this.pendingImages.get(idx);
+                    Bitmap bitmap = (Bitmap) this.pendingImages.get(idx + 1);
+                    if (texture.isValid()) {
+                        this.loadSubImage(texture.regionX, texture.regionY, bitmap);
+                    }
+                }
+
+                this.pendingImages.clear();
+            }
+
+            return true;
+        }
+
+        protected void loadSubImage(int x, int y, Bitmap bitmap) {
+            try {
+                GLUtils.texSubImage2D(GLES20.GL_TEXTURE_2D, 0 /*level*/, x, y, bitmap);
+            } catch (Exception e) {
+                // The Android utility was unable to load the texture image data.
+                Logger.logMessage(Logger.ERROR, "TextureAtlas", "loadSubImage",
+                    "Exception attempting to load texture atlas image \'" + bitmap + "\'", e);
+            }
+        }
+    }
+
+    /**
+     * Horizontal band of atlas regions sharing a common height. Regions are allocated left to right, and released
+     * regions are kept in a list of free spans for reuse.
+     */
+    protected static class Shelf {
+
+        protected int y;
+
+        protected int height;
+
+        protected int nextX;
+
+        protected int regionCount;
+
+        protected List<int[]> freeSpans = new ArrayList<>();
+
+        public Shelf(int y, int height) {
+            this.y = y;
+            this.height = height;
+        }
+
+        public boolean canFit(int width, int pageWidth) {
+            if (this.nextX + width <= pageWidth) {
+                return true;
+            }
+
+            for (int idx = 0, len = this.freeSpans.size(); idx < len; idx++) {
+                if (this.freeSpans.get(idx)[1] >= width) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        public int allocate(int width, int pageWidth) {
+            this.regionCount++;
+
+            // Reuse the first released span wide enough for the region.
+            for (Iterator<int[]> iter = this.freeSpans.iterator(); iter.hasNext(); ) {
+                int[] span = iter.next();
+                if (span[1] >= width) {
+                    int x = span[0];
+                    span[0] += width;
+                    span[1] -= width;
+                    if (span[1] == 0) {
+                        iter.remove();
+                    }
+                    return x;
+                }
+            }
+
+            int x = this.nextX;
+            this.nextX += width;
+            return x;
+        }
+
+        public void free(int x, int width) {
+            if (--this.regionCount == 0) {
+                this.nextX = 0;
+                this.freeSpans.clear();
+            } else if (x + width == this.nextX) {
+                this.nextX = x;
+            } else {
+                this.freeSpans.add(new int[]{x, width});
+            }
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.render;
+
+import android.opengl.GLES20;
+import android.opengl.GLES30;
+
+import gov.nasa.worldwind.draw.DrawContext;
+
+/**
+ * Captures the vertex attribute setup of a drawable in OpenGL vertex array objects, enabling the drawable to replace
+ * its buffer bindings and glVertexAttribPointer calls with a single vertex array binding. A vertex array object
+ * maintains one OpenGL vertex array for each of its layouts, identified by an index, since a shape's primitives may
+ * address its vertex buffer at different offsets or with different tex coord attributes.
+ * <p/>
+ * Drawables specify the layout's attributes and element buffer with {@link #vertexAttrib(int, BufferObject, int, int,
+ * boolean, int, int)} and {@link #elementBuffer(BufferObject)}, then call {@link #bindVertexArray(DrawContext, int)}.
+ * The OpenGL vertex array is respecified only when the layout or its buffer objects differ from the last binding, and
+ * is otherwise bound with one OpenGL call. Drawables call {@link DrawContext#unbindVertexArray()} to restore the
+ * default World Wind OpenGL state before returning, and must not bind a different element buffer while a vertex array
+ * is bound.
+ * <p/>
+ * Vertex array objects are core in OpenGL ES 3.0, which Android exposes on API level 18 and later. When the OpenGL
+ * context does not support vertex array objects, binding a layout emulates the vertex array by applying its attributes
+ * directly. All methods must be called on the OpenGL thread.
+ */
+public class VertexArrayObject implements RenderResource {
+
+    public static final int MAX_ATTRIBS = 4;
+
+    protected static final int ATTRIB_STRIDE = 5;
+
+    protected int[] vertexArrayId = new int[0];
+
+    protected BufferObject[] attribBuffers = new BufferObject[MAX_ATTRIBS];
+
+    protected int[] attribs = new int[MAX_ATTRIBS * ATTRIB_STRIDE];
+
+    protected int attribMask;
+
+    protected BufferObject elementBuffer;
+
+    protected BufferObject[] appliedBuffers = new BufferObject[0];
+
+    protected int[] appliedBufferIds = new int[0];
+
+    protected int[] appliedAttribs = new int[0];
+
+    protected int[] appliedAttribMask = new int[0];
+
+    protected BufferObject[] appliedElementBuffers = new BufferObject[0];
+
+    protected int[] appliedElementBufferId = new int[0];
+
+    public VertexArrayObject() {
+    }
+
+    @Override
+    public void release(DrawContext dc) {
+        for (int idx = 0, len = this.vertexArrayId.length; idx < len; idx++) {
+            if (this.vertexArrayId[idx] != 0) {
+                if (dc.currentVertexArray() == this.vertexArrayId[idx]) {
+                    dc.unbindVertexArray();
+                }
+                GLES30.glDeleteVertexArrays(1, this.vertexArrayId, idx);
+                this.vertexArrayId[idx] = 0;
+            }
+        }
+
+        this.clearLayouts();
+    }
+
+    /**
+     * Specifies a vertex attribute of the layout bound by the next call to {@link #bindVertexArray(DrawContext, int)}.
+     * The arguments have the same meaning as those of glVertexAttribPointer.
+     *
+     * @param index      the attribute location, in the range [0, MAX_ATTRIBS)
+     * @param buffer     the buffer object containing the attribute's values
+     * @param size       the number of components per value
+     * @param type       the data type of each component
+     * @param normalized true to normalize fixed point values
+     * @param stride     the byte offset between consecutive values
+     * @param offset     the byte offset of the first value in the buffer object
+     */
+    public void vertexAttrib(int index, BufferObject buffer, int size, int type, boolean normalized, int stride,
+                             int offset) {
+        int base = index * ATTRIB_STRIDE;
+        this.attribBuffers[index] = buffer;
+        this.attribs[base] = size;
+        this.attribs[base + 1] = type;
+        this.attribs[base + 2] = normalized ? 1 : 0;
+        this.attribs[base + 3] = stride;
+        this.attribs[base + 4] = offset;
+        this.attribMask |= (1 << index);
+    }
+
+    /**
+     * Specifies the element buffer of the layout bound by the next call to {@link #bindVertexArray(DrawContext, int)}.
+     *
+     * @param buffer the element buffer object, or null to use no element buffer
+     */
+    public void elementBuffer(BufferObject buffer) {
+        this.elementBuffer = buffer;
+    }
+
+    /**
+     * Binds the vertex array for a layout, respecifying the layout's attributes first if they differ from the
+     * attributes specified since the previous call. The specified attributes are cleared, so each call must be
+     * preceded by calls specifying the layout's attributes.
+     *
+     * @param dc     the current draw context
+     * @param layout the layout's index
+     *
+     * @return true if the vertex array is bound, or false if a buffer object failed to bind
+     */
+    public boolean bindVertexArray(DrawContext dc, int layout) {
+        try {
+            if (!this.prepareBuffers(dc)) {
+                return false; // buffer object failed to bind
+            }
+
+            if (dc.vertexArraysSupported) {
+                return this.bindLayout(dc, layout);
+            } else {
+                return this.emulateLayout(dc);
+            }
+        } finally {
+            for (int idx = 0; idx < MAX_ATTRIBS; idx++) {
+                this.attribBuffers[idx] = null;
+            }
+            this.attribMask = 0;
+            this.elementBuffer = null;
+        }
+    }
+
+    protected boolean prepareBuffers(DrawContext dc) {
+        for (int idx = 0; idx < MAX_ATTRIBS; idx++) {
+            if ((this.attribMask & (1 << idx)) != 0 && !this.attribBuffers[idx].prepareBuffer(dc)) {
+                return false;
+            }
+        }
+
+        return this.elementBuffer == null || this.elementBuffer.prepareBuffer(dc);
+    }
+
+    protected boolean bindLayout(DrawContext dc, int layout) {
+        if (this.vertexArrayId.length <= layout) {
+            this.growLayouts(layout + 1);
+        }
+
+        // Create the OpenGL vertex array object the first time the layout is bound.
+        if (this.vertexArrayId[layout] == 0) {
+            GLES30.glGenVertexArrays(1, this.vertexArrayId, layout);
+            this.appliedAttribMask[layout] = 0;
+            this.appliedElementBuffers[layout] = null;
+            this.appliedElementBufferId[layout] = 0;
+            if (this.vertexArrayId[layout] == 0) {
+                return false; // vertex array object failed to create
+            }
+        }
+
+        // Bind the vertex array, informing the draw context of the element buffer bound to it. A vertex array bound to
+        // a different buffer object may reference a deleted buffer whose name has been reused, so report no element
+        // buffer in that case to ensure the element buffer is bound below.
+        boolean sameElementBuffer = this.appliedElementBuffers[layout] == this.elementBuffer;
+        dc.bindVertexArray(this.vertexArrayId[layout], sameElementBuffer ? this.appliedElementBufferId[layout] : 0);
+
+        // Respecify the attributes that differ from the vertex array's current attributes, and disable the vertex
+        // array's attributes that are no longer specified.
+        int appliedMask = this.appliedAttribMask[layout];
+        for (int idx = 0; idx < MAX_ATTRIBS; idx++) {
+            int bit = 1 << idx;
+            int applied = layout * MAX_ATTRIBS + idx;
+            if ((this.attribMask & bit) != 0) {
+                if ((appliedMask & bit) == 0 || !this.isAttribApplied(idx, applied)) {
+                    BufferObject buffer = this.attribBuffers[idx];
+                    dc.bindBuffer(GLES20.GL_ARRAY_BUFFER, buffer.getBufferId());
+                    this.vertexAttribPointer(idx);
+                    this.appliedBuffers[applied] = buffer;
+                    this.appliedBufferIds[applied] = buffer.getBufferId();
+                    System.arraycopy(this.attribs, idx * ATTRIB_STRIDE, this.appliedAttribs, applied * ATTRIB_STRIDE,
+                        ATTRIB_STRIDE);
+                }
+                if ((appliedMask & bit) == 0) {
+                    GLES20.glEnableVertexAttribArray(idx);
+                }
+            } else if ((appliedMask & bit) != 0) {
+                GLES20.glDisableVertexAttribArray(idx);
+                this.appliedBuffers[applied] = null;
+            }
+        }
+        this.appliedAttribMask[layout] = this.attribMask;
+
+        // Bind the element buffer to the vertex array. The draw context tracks the vertex array's element buffer
+        // binding, so this has no effect when the element buffer is unchanged.
+        int elementBufferId = (this.elementBuffer != null) ? this.elementBuffer.getBufferId() : 0;
+        dc.bindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, elementBufferId);
+        this.appliedElementBuffers[layout] = this.elementBuffer;
+        this.appliedElementBufferId[layout] = elementBufferId;
+
+        return true;
+    }
+
+    protected boolean emulateLayout(DrawContext dc) {
+        for (int idx = 0; idx < MAX_ATTRIBS; idx++) {
+            if ((this.attribMask & (1 << idx)) != 0) {
+                dc.bindBuffer(GLES20.GL_ARRAY_BUFFER, this.attribBuffers[idx].getBufferId());
+                this.vertexAttribPointer(idx);
+            }
+        }
+
+        dc.enableVertexAttribArrays(this.attribMask);
+
+        if (this.elementBuffer != null) {
+            dc.bindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, this.elementBuffer.getBufferId());
+        }
+
+        return true;
+    }
+
+    protected boolean isAttribApplied(int index, int applied) {
+        BufferObject buffer = this.attribBuffers[index];
+        if (this.appliedBuffers[applied] != buffer || this.appliedBufferIds[applied] != buffer.getBufferId()) {
+            return false;
+        }
+
+        for (int idx = 0, lhs = index * ATTRIB_STRIDE, rhs = applied * ATTRIB_STRIDE; idx < ATTRIB_STRIDE; idx++) {
+            if (this.attribs[lhs + idx] != this.appliedAttribs[rhs + idx]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    protected void vertexAttribPointer(int index) {
+        int base = index * ATTRIB_STRIDE;
+        GLES20.glVertexAttribPointer(index, this.attribs[base], this.attribs[base + 1], this.attribs[base + 2] != 0,
+            this.attribs[base + 3], this.attribs[base + 4]);
+    }
+
+    protected void growLayouts(int count) {
+        int[] newIds = new int[count];
+        BufferObject[] newBuffers = new BufferObject[count * MAX_ATTRIBS];
+        int[] newBufferIds = new int[count * MAX_ATTRIBS];
+        int[] newAttribs = new int[count * MAX_ATTRIBS * ATTRIB_STRIDE];
+        int[] newMask = new int[count];
+        BufferObject[] newElementBuffers = new BufferObject[count];
+        int[] newElementIds = new int[count];
+        int oldCount = this.vertexArrayId.length;
+        System.arraycopy(this.vertexArrayId, 0, newIds, 0, oldCount);
+        System.arraycopy(this.appliedBuffers, 0, newBuffers, 0, oldCount * MAX_ATTRIBS);
+        System.arraycopy(this.appliedBufferIds, 0, newBufferIds, 0, oldCount * MAX_ATTRIBS);
+        System.arraycopy(this.appliedAttribs, 0, newAttribs, 0, oldCount * MAX_ATTRIBS * ATTRIB_STRIDE);
+        System.arraycopy(this.appliedAttribMask, 0, newMask, 0, oldCount);
+        System.arraycopy(this.appliedElementBuffers, 0, newElementBuffers, 0, oldCount);
+        System.arraycopy(this.appliedElementBufferId, 0, newElementIds, 0, oldCount);
+        this.vertexArrayId = newIds;
+        this.appliedBuffers = newBuffers;
+        this.appliedBufferIds = newBufferIds;
+        this.appliedAttribs = newAttribs;
+        this.appliedAttribMask = newMask;
+        this.appliedElementBuffers = newElementBuffers;
+        this.appliedElementBufferId = newElementIds;
+    }
+
+    protected void clearLayouts() {
+        for (int idx = 0, len = this.appliedBuffers.length; idx < len; idx++) {
+            this.appliedBuffers[idx] = null;
+        }
+
+        for (int idx = 0, len = this.appliedAttribMask.length; idx < len; idx++) {
+            this.appliedAttribMask[idx] = 0;
+            this.appliedElementBuffers[idx] = null;
+            this.appliedElementBufferId[idx] = 0;
+        }
+    }
+}
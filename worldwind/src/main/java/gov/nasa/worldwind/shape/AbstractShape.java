@@ -8,11 +8,14 @@ package gov.nasa.worldwind.shape;
 import gov.nasa.worldwind.PickedObject;
 import gov.nasa.worldwind.WorldWind;
 import gov.nasa.worldwind.geom.BoundingBox;
+import gov.nasa.worldwind.geom.Frustum;
 import gov.nasa.worldwind.geom.Sector;
 import gov.nasa.worldwind.geom.Vec3;
 import gov.nasa.worldwind.render.AbstractRenderable;
 import gov.nasa.worldwind.render.Color;
 import gov.nasa.worldwind.render.RenderContext;
+import gov.nasa.worldwind.util.Logger;
+import gov.nasa.worldwind.util.PolylineSimplifier;
 import gov.nasa.worldwind.util.WWMath;
 
 public abstract class AbstractShape extends AbstractRenderable implements Attributable, Highlightable {
@@ -33,6 +36,8 @@ public abstract class AbstractShape extends AbstractRenderable implements Attrib
 
     protected int maximumIntermediatePoints = 10;
 
+    protected double simplificationTolerance = 0.5;
+
     protected int pickedObjectId;
 
     protected Color pickColor = new Color();
@@ -41,6 +46,12 @@ public abstract class AbstractShape extends AbstractRenderable implements Attrib
 
     protected BoundingBox boundingBox = new BoundingBox();
 
+    /**
+     * The index of the frustum plane that last rejected the shape's bounding box, tested first the next time the shape
+     * is culled.
+     */
+    protected int cullPlane;
+
     protected static final double NEAR_ZERO_THRESHOLD = 1.0e-10;
 
     private Vec3 scratchPoint = new Vec3();
@@ -111,6 +122,34 @@ public abstract class AbstractShape extends AbstractRenderable implements Attrib
         this.maximumIntermediatePoints = maximumIntermediatePoints;
     }
 
+    /**
+     * Indicates the maximum distance in pixels between this shape's geometry and the simplified geometry it's
+     * displayed with. See {@link #setSimplificationTolerance(double)}.
+     *
+     * @return the simplification tolerance in pixels
+     */
+    public double getSimplificationTolerance() {
+        return this.simplificationTolerance;
+    }
+
+    /**
+     * Sets the maximum distance in pixels between this shape's geometry and the simplified geometry it's displayed
+     * with. Shapes with many positions omit positions that are not visually significant at the shape's current screen
+     * size. A tolerance of 0 disables simplification. The default is half a pixel.
+     *
+     * @param tolerance the simplification tolerance in pixels
+     *
+     * @throws IllegalArgumentException If the tolerance is negative
+     */
+    public void setSimplificationTolerance(double tolerance) {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "AbstractShape", "setSimplificationTolerance", "invalidTolerance"));
+        }
+
+        this.simplificationTolerance = tolerance;
+    }
+
     @Override
     protected void doRender(RenderContext rc) {
         // Don't render anything if the shape is not visible.
@@ -138,10 +177,27 @@ public abstract class AbstractShape extends AbstractRenderable implements Attrib
         if (rc.pickMode && rc.drawableCount() != drawableCount) {
             rc.offerPickedObject(PickedObject.fromRenderable(this.pickedObjectId, this, rc.currentLayer));
         }
+
+        // Record the shape's geometry for picking on the CPU.
+        if (rc.pickIndex != null && rc.drawableCount() != drawableCount) {
+            this.recordPickGeometry(rc);
+        }
     }
 
     protected boolean intersectsFrustum(RenderContext rc) {
-        return this.boundingBox.isUnitBox() || this.boundingBox.intersectsFrustum(rc.frustum);
+        if (this.boundingBox.isUnitBox()) {
+            return true;
+        }
+
+        // Off screen shapes tend to stay off screen for many frames, and are usually rejected by the same plane each
+        // frame. Test the plane that last rejected the shape first.
+        int planes = this.boundingBox.intersectsFrustum(rc.frustum, Frustum.ALL_PLANES, this.cullPlane);
+        if (planes < 0) {
+            this.cullPlane = ~planes;
+            return false;
+        }
+
+        return true;
     }
 
     protected void determineActiveAttributes(RenderContext rc) {
@@ -183,6 +239,36 @@ public abstract class AbstractShape extends AbstractRenderable implements Attrib
         return Math.sqrt(minDistance2);
     }
 
+    /**
+     * Determines the level of detail at which to display this shape's geometry, given the distance from the camera to
+     * the nearest point on the shape. The level's tolerance in meters corresponds to at most this shape's
+     * simplification tolerance in pixels.
+     *
+     * @param rc             the current render context
+     * @param cameraDistance the distance from the camera to the nearest point on the shape, in meters
+     *
+     * @return the level of detail, or 0 to display this shape's geometry without simplification
+     */
+    protected int simplificationLevel(RenderContext rc, double cameraDistance) {
+        if (this.simplificationTolerance == 0) {
+            return 0; // simplification is disabled
+        }
+
+        double tolerance = rc.pixelSizeAtDistance(cameraDistance) * this.simplificationTolerance;
+        return PolylineSimplifier.levelForTolerance(tolerance);
+    }
+
+    /**
+     * Records the geometry this shape displayed in the current frame in the render context's pick index. Shapes that
+     * cannot be picked on the CPU, such as shapes drawn on the terrain surface, record their geographic region instead.
+     * The default implementation records this shape's bounding sector as a surface region.
+     *
+     * @param rc the current render context
+     */
+    protected void recordPickGeometry(RenderContext rc) {
+        rc.pickIndex.addSurfaceRegion(this.boundingSector);
+    }
+
     protected abstract void reset();
 
     protected abstract void makeDrawable(RenderContext rc);
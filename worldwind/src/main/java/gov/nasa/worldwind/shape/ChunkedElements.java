@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.shape;
+
+import android.opengl.GLES20;
+
+import java.util.Arrays;
+
+import gov.nasa.worldwind.draw.DrawShapeState;
+import gov.nasa.worldwind.util.FloatArray;
+import gov.nasa.worldwind.util.IntArray;
+import gov.nasa.worldwind.util.Logger;
+import gov.nasa.worldwind.util.ShortArray;
+
+/**
+ * Divides shape geometry with more vertices than 16-bit elements can address into chunks of vertices that 16-bit
+ * elements can address. Shapes use chunked elements when the OpenGL context does not support 32-bit elements.
+ * <p/>
+ * Each primitive is added to the current chunk, copying the vertices the chunk does not yet contain. When a primitive's
+ * vertices would exceed the chunk's capacity a new chunk is started, duplicating any vertices shared with the previous
+ * chunk. Strip primitives are converted to independent primitives, so that each primitive can be placed in a chunk on
+ * its own. Elements are added in segments identified by an application-defined range, such as a shape's interior or
+ * outline, and each range is drawn as one primitive per chunk, with the draw state's vertex offset locating the chunk's
+ * vertices in the shared vertex buffer.
+ */
+public class ChunkedElements {
+
+    /**
+     * The maximum number of vertices addressable by 16-bit elements.
+     */
+    public static final int MAX_CHUNK_VERTICES = 65536;
+
+    protected static final int SEGMENT_STRIDE = 5;
+
+    protected int maxChunkVertices;
+
+    protected float[] vertices;
+
+    protected int vertexStride;
+
+    protected FloatArray vertexArray = new FloatArray();
+
+    protected ShortArray elementArray = new ShortArray();
+
+    /**
+     * Segments of the element array, each indicating its range, its primitive mode, the index of its first element,
+     * its element count and the index of its chunk's first vertex.
+     */
+    protected IntArray segments = new IntArray();
+
+    /**
+     * The index within the current chunk of each source vertex, valid only when the vertex's chunk tag matches the
+     * current chunk.
+     */
+    protected int[] vertexIndex;
+
+    protected int[] vertexChunk;
+
+    protected int chunkTag;
+
+    protected int chunkBase;
+
+    protected int chunkSize;
+
+    private int[] primitive = new int[3];
+
+    public ChunkedElements() {
+        this(MAX_CHUNK_VERTICES);
+    }
+
+    public ChunkedElements(int maxChunkVertices) {
+        if (maxChunkVertices < 3 || maxChunkVertices > MAX_CHUNK_VERTICES) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ChunkedElements", "constructor", "invalidSize"));
+        }
+
+        this.maxChunkVertices = maxChunkVertices;
+    }
+
+    /**
+     * Starts chunking the elements of a shape's vertices, discarding any previously added elements.
+     *
+     * @param vertices     the shape's vertex array
+     * @param vertexStride the number of values per vertex
+     * @param vertexCount  the number of vertices in the vertex array
+     *
+     * @return this chunked elements instance
+     *
+     * @throws IllegalArgumentException If the array is null, or if the stride or count is invalid
+     */
+    public ChunkedElements reset(float[] vertices, int vertexStride, int vertexCount) {
+        if (vertices == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ChunkedElements", "reset", "missingArray"));
+        }
+
+        if (vertexStride < 1) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ChunkedElements", "reset", "invalidStride"));
+        }
+
+        if (vertexCount < 0 || vertexCount * vertexStride > vertices.length) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ChunkedElements", "reset", "invalidCount"));
+        }
+
+        this.vertices = vertices;
+        this.vertexStride = vertexStride;
+        this.vertexArray.clear();
+        this.elementArray.clear();
+        this.segments.clear();
+
+        if (this.vertexIndex == null || this.vertexIndex.length < vertexCount) {
+            this.vertexIndex = new int[vertexCount];
+            this.vertexChunk = new int[vertexCount];
+        } else {
+            Arrays.fill(this.vertexChunk, 0);
+        }
+
+        this.chunkTag = 1;
+        this.chunkBase = 0;
+        this.chunkSize = 0;
+
+        return this;
+    }
+
+    /**
+     * Adds primitives to the chunked elements. Triangle strips are added as triangles and line strips are added as
+     * lines.
+     *
+     * @param range    the application-defined range the primitives belong to
+     * @param mode     the primitive mode: GL_TRIANGLES, GL_TRIANGLE_STRIP, GL_LINES or GL_LINE_STRIP
+     * @param elements the primitives' elements, indicating vertices of the array specified to reset
+     * @param count    the number of elements
+     *
+     * @throws IllegalArgumentException If the mode is not supported
+     */
+    public void addElements(int range, int mode, int[] elements, int count) {
+        int[] prim = this.primitive;
+
+        if (mode == GLES20.GL_TRIANGLES) {
+            for (int idx = 0; idx + 2 < count; idx += 3) {
+                prim[0] = elements[idx];
+                prim[1] = elements[idx + 1];
+                prim[2] = elements[idx + 2];
+                this.addPrimitive(range, GLES20.GL_TRIANGLES, 3);
+            }
+        } else if (mode == GLES20.GL_TRIANGLE_STRIP) {
+            for (int idx = 0; idx + 2 < count; idx++) {
+                boolean odd = (idx & 1) != 0; // preserve the strip's winding order
+                prim[0] = elements[odd ? idx + 1 : idx];
+                prim[1] = elements[odd ? idx : idx + 1];
+                prim[2] = elements[idx + 2];
+                this.addPrimitive(range, GLES20.GL_TRIANGLES, 3);
+            }
+        } else if (mode == GLES20.GL_LINES) {
+            for (int idx = 0; idx + 1 < count; idx += 2) {
+                prim[0] = elements[idx];
+                prim[1] = elements[idx + 1];
+                this.addPrimitive(range, GLES20.GL_LINES, 2);
+            }
+        } else if (mode == GLES20.GL_LINE_STRIP) {
+            for (int idx = 0; idx + 1 < count; idx++) {
+                prim[0] = elements[idx];
+                prim[1] = elements[idx + 1];
+                this.addPrimitive(range, GLES20.GL_LINES, 2);
+            }
+        } else {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "ChunkedElements", "addElements", "invalidMode"));
+        }
+    }
+
+    /**
+     * Returns the vertices of each chunk, in chunk order. Vertices shared between chunks appear once per chunk.
+     *
+     * @return the chunked vertex array
+     */
+    public FloatArray getVertexArray() {
+        return this.vertexArray;
+    }
+
+    /**
+     * Returns the 16-bit elements of each segment, relative to the first vertex of the segment's chunk.
+     *
+     * @return the chunked element array
+     */
+    public ShortArray getElementArray() {
+        return this.elementArray;
+    }
+
+    public int getSegmentCount() {
+        return this.segments.size() / SEGMENT_STRIDE;
+    }
+
+    /**
+     * Configures a draw state to draw the segments belonging to a range, with one drawElements primitive per segment.
+     * The draw state's vertex buffer and element buffer must contain the chunked vertex array and element array,
+     * respectively, starting at offset 0. The draw state's vertex offset is 0 when this method returns.
+     *
+     * @param drawState the draw state to configure
+     * @param range     the range to draw
+     */
+    public void drawElements(DrawShapeState drawState, int range) {
+        int[] segments = this.segments.array();
+        for (int idx = 0, len = this.segments.size(); idx < len; idx += SEGMENT_STRIDE) {
+            if (segments[idx] == range) {
+                drawState.vertexOffset(segments[idx + 4] * this.vertexStride * 4 /*offset in bytes*/);
+                drawState.drawElements(segments[idx + 1], segments[idx + 3], GLES20.GL_UNSIGNED_SHORT,
+                    segments[idx + 2] * 2 /*offset in bytes*/);
+            }
+        }
+
+        drawState.vertexOffset(0);
+    }
+
+    protected void addPrimitive(int range, int mode, int vertexCount) {
+        int[] prim = this.primitive;
+
+        // Start a new chunk when the primitive's vertices would exceed the capacity of the current chunk.
+        int newVertices = 0;
+        for (int idx = 0; idx < vertexCount; idx++) {
+            if (this.vertexChunk[prim[idx]] != this.chunkTag) {
+                newVertices++;
+            }
+        }
+
+        if (this.chunkSize + newVertices > this.maxChunkVertices) {
+            this.chunkTag++;
+            this.chunkBase += this.chunkSize;
+            this.chunkSize = 0;
+        }
+
+        // Start a new segment when the range, the mode or the chunk differ from the current segment.
+        int last = this.segments.size() - SEGMENT_STRIDE;
+        int[] segments = this.segments.array();
+        if (last < 0 || segments[last] != range || segments[last + 1] != mode || segments[last + 4] != this.chunkBase) {
+            this.segments.add(range).add(mode).add(this.elementArray.size()).add(0).add(this.chunkBase);
+            last = this.segments.size() - SEGMENT_STRIDE;
+        }
+
+        // Add the primitive's elements, copying vertices the current chunk does not yet contain.
+        for (int idx = 0; idx < vertexCount; idx++) {
+            int vertex = prim[idx];
+            if (this.vertexChunk[vertex] != this.chunkTag) {
+                this.vertexChunk[vertex] = this.chunkTag;
+                this.vertexIndex[vertex] = this.chunkSize++;
+                for (int vidx = vertex * this.vertexStride, vlen = vidx + this.vertexStride; vidx < vlen; vidx++) {
+                    this.vertexArray.add(this.vertices[vidx]);
+                }
+            }
+
+            this.elementArray.add((short) this.vertexIndex[vertex]);
+        }
+
+        this.segments.set(last + 3, this.segments.get(last + 3) + vertexCount);
+    }
+}
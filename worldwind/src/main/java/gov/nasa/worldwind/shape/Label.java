@@ -7,7 +7,7 @@ package gov.nasa.worldwind.shape;
 
 import gov.nasa.worldwind.PickedObject;
 import gov.nasa.worldwind.WorldWind;
-import gov.nasa.worldwind.draw.DrawableScreenTexture;
+import gov.nasa.worldwind.draw.DrawableText;
 import gov.nasa.worldwind.geom.Matrix4;
 import gov.nasa.worldwind.geom.Position;
 import gov.nasa.worldwind.geom.Vec2;
@@ -15,10 +15,11 @@ import gov.nasa.worldwind.geom.Vec3;
 import gov.nasa.worldwind.geom.Viewport;
 import gov.nasa.worldwind.globe.Globe;
 import gov.nasa.worldwind.render.AbstractRenderable;
-import gov.nasa.worldwind.render.BasicShaderProgram;
 import gov.nasa.worldwind.render.Color;
+import gov.nasa.worldwind.render.GlyphAtlas;
+import gov.nasa.worldwind.render.GlyphRun;
 import gov.nasa.worldwind.render.RenderContext;
-import gov.nasa.worldwind.render.Texture;
+import gov.nasa.worldwind.render.TextProgram;
 import gov.nasa.worldwind.util.Logger;
 import gov.nasa.worldwind.util.Pool;
 import gov.nasa.worldwind.util.WWMath;
@@ -87,6 +88,22 @@ public class Label extends AbstractRenderable implements Highlightable, Movable
      */
     protected boolean highlighted;
 
+    /**
+     * The label's text laid out as glyph quads, retained until the label's text or active attributes change.
+     */
+    protected GlyphRun glyphRun;
+
+    /**
+     * Determines whether the label is hidden when it overlaps other decluttered labels and placemarks.
+     */
+    protected boolean enableDeclutter;
+
+    /**
+     * The label's declutter priority. Labels with higher priorities are displayed in favor of overlapping labels with
+     * lower priorities.
+     */
+    protected double declutterPriority;
+
     /**
      * Constructs a label that displays text at a geographic position.
      *
@@ -350,6 +367,52 @@ public class Label extends AbstractRenderable implements Highlightable, Movable
         this.highlighted = highlighted;
     }
 
+    /**
+     * Indicates whether this label is hidden when it overlaps other decluttered labels and placemarks of higher
+     * priority.
+     *
+     * @return true if this label is decluttered, false otherwise
+     */
+    public boolean isEnableDeclutter() {
+        return this.enableDeclutter;
+    }
+
+    /**
+     * Sets whether this label is hidden when it overlaps other decluttered labels and placemarks of higher priority.
+     * Decluttered labels fade in and out as they are displayed and hidden.
+     *
+     * @param enable true to declutter this label, false to always display this label
+     *
+     * @return this label with its declutter state set to the specified value
+     */
+    public Label setEnableDeclutter(boolean enable) {
+        this.enableDeclutter = enable;
+        return this;
+    }
+
+    /**
+     * Indicates this label's declutter priority. When decluttered labels or placemarks overlap, those with higher
+     * priority are displayed, followed by those nearest the camera.
+     *
+     * @return this label's declutter priority
+     */
+    public double getDeclutterPriority() {
+        return this.declutterPriority;
+    }
+
+    /**
+     * Sets this label's declutter priority. When decluttered labels or placemarks overlap, those with higher priority
+     * are displayed, followed by those nearest the camera.
+     *
+     * @param priority this label's new declutter priority
+     *
+     * @return this label with its declutter priority set to the specified value
+     */
+    public Label setDeclutterPriority(double priority) {
+        this.declutterPriority = priority;
+        return this;
+    }
+
     /**
      * A position associated with the object that indicates its aggregate geographic position. For a Label, this is
      * simply it's position property.
@@ -429,24 +492,33 @@ public class Label extends AbstractRenderable implements Highlightable, Movable
     }
 
     protected void makeDrawable(RenderContext rc) {
-        // Render the label's texture when the label's position is in the frustum. If the label's position is outside
-        // the frustum we don't do anything. This ensures that label textures are rendered only as necessary.
-        Texture texture = rc.getText(this.text, this.activeAttributes);
-        if (texture == null && rc.frustum.containsPoint(renderData.placePoint)) {
-            texture = rc.renderText(this.text, this.activeAttributes);
-        } else if (texture == null) {
+        // Lay out the label's text as glyph quads when the label's position is in the frustum. If the label's position
+        // is outside the frustum we don't do anything. This ensures that label text is laid out only as necessary.
+        GlyphAtlas glyphAtlas = rc.getGlyphAtlas();
+        if (this.glyphRun == null || !glyphAtlas.isCurrent(this.glyphRun, this.text, this.activeAttributes)) {
+            if (!rc.frustum.containsPoint(renderData.placePoint)) {
+                return;
+            } else if (this.glyphRun == null) {
+                this.glyphRun = new GlyphRun();
+            }
+            glyphAtlas.layoutText(this.text, this.activeAttributes, this.glyphRun);
+        }
+
+        // Skip the label while its glyphs are rasterized on a separate thread. The label is displayed on a subsequent
+        // frame once the glyph atlas adopts its glyphs.
+        if (!this.glyphRun.isComplete()) {
             return;
         }
 
-        // Initialize the unit square transform to the identity matrix.
-        renderData.unitSquareTransform.setToIdentity();
+        // Initialize the text transform to the identity matrix.
+        renderData.textTransform.setToIdentity();
 
         // Apply the label's translation according to its text size and text offset. The text offset is defined with its
         // origin at the text's bottom-left corner and axes that extend up and to the right from the origin point.
-        int w = texture.getWidth();
-        int h = texture.getHeight();
+        double w = this.glyphRun.getWidth();
+        double h = this.glyphRun.getHeight();
         this.activeAttributes.textOffset.offsetForSize(w, h, renderData.offset);
-        renderData.unitSquareTransform.setTranslation(
+        renderData.textTransform.setTranslation(
             renderData.screenPlacePoint.x - renderData.offset.x,
             renderData.screenPlacePoint.y - renderData.offset.y,
             renderData.screenPlacePoint.z);
@@ -456,41 +528,54 @@ public class Label extends AbstractRenderable implements Highlightable, Movable
         double rotation = (this.rotationMode == WorldWind.RELATIVE_TO_GLOBE) ?
             (rc.camera.heading - this.rotation) : -this.rotation;
         if (rotation != 0) {
-            renderData.unitSquareTransform.multiplyByTranslation(renderData.offset.x, renderData.offset.y, 0);
-            renderData.unitSquareTransform.multiplyByRotation(0, 0, 1, rotation);
-            renderData.unitSquareTransform.multiplyByTranslation(-renderData.offset.x, -renderData.offset.y, 0);
+            renderData.textTransform.multiplyByTranslation(renderData.offset.x, renderData.offset.y, 0);
+            renderData.textTransform.multiplyByRotation(0, 0, 1, rotation);
+            renderData.textTransform.multiplyByTranslation(-renderData.offset.x, -renderData.offset.y, 0);
         }
 
-        // Apply the label's translation and scale according to its text size.
-        renderData.unitSquareTransform.multiplyByScale(w, h, 1);
-
-        WWMath.boundingRectForUnitSquare(renderData.unitSquareTransform, renderData.screenBounds);
+        // Test the text's screen bounds against the viewport. The glyph quads are in pixels relative to the text's
+        // bottom-left corner, so the bounds are the text transform scaled by the text's size.
+        renderData.boundsTransform.set(renderData.textTransform);
+        renderData.boundsTransform.multiplyByScale(w, h, 1);
+        WWMath.boundingRectForUnitSquare(renderData.boundsTransform, renderData.screenBounds);
         if (!rc.frustum.intersectsViewport(renderData.screenBounds)) {
             return; // the text is outside the viewport
         }
 
         // Obtain a pooled drawable and configure it to draw the label's text.
-        Pool<DrawableScreenTexture> pool = rc.getDrawablePool(DrawableScreenTexture.class);
-        DrawableScreenTexture drawable = DrawableScreenTexture.obtain(pool);
+        Pool<DrawableText> pool = rc.getDrawablePool(DrawableText.class);
+        DrawableText drawable = DrawableText.obtain(pool);
 
-        // Use the basic GLSL program to draw the text.
-        drawable.program = (BasicShaderProgram) rc.getShaderProgram(BasicShaderProgram.KEY);
+        // Use the text GLSL program to draw the text.
+        drawable.program = (TextProgram) rc.getShaderProgram(TextProgram.KEY);
         if (drawable.program == null) {
-            drawable.program = (BasicShaderProgram) rc.putShaderProgram(BasicShaderProgram.KEY, new BasicShaderProgram(rc.resources));
+            drawable.program = (TextProgram) rc.putShaderProgram(TextProgram.KEY, new TextProgram(rc.resources));
         }
 
-        // Use the text's unit square transform matrix.
-        drawable.unitSquareTransform.set(renderData.unitSquareTransform);
+        // Use the text's glyph quads and transform matrix.
+        drawable.setGlyphRun(this.glyphRun);
+        drawable.transform.set(renderData.textTransform);
 
         // Configure the drawable according to the active attributes. Use a color appropriate for the pick mode. When
-        // picking use a unique color associated with the picked object ID. Use the texture associated with the active
-        // attributes' text image and its associated tex coord transform.
+        // picking use a unique color associated with the picked object ID.
         drawable.color.set(rc.pickMode ? renderData.pickColor : this.activeAttributes.textColor);
-        drawable.texture = texture;
+        drawable.outlineColor.set(0, 0, 0, 1); // the declutterer may have modulated the pooled drawable's outline alpha
         drawable.enableDepthTest = this.activeAttributes.enableDepthTest;
 
-        // Enqueue a drawable for processing on the OpenGL thread.
-        rc.offerShapeDrawable(drawable, renderData.cameraDistance);
+        // Enqueue a drawable for processing on the OpenGL thread. Decluttered labels are enqueued once the render
+        // context's declutterer determines they don't overlap labels or placemarks of higher priority.
+        if (this.enableDeclutter) {
+            rc.offerDeclutterDrawable(this, drawable, drawable.color, drawable.outlineColor, renderData.screenBounds,
+                this.declutterPriority, renderData.cameraDistance);
+        } else {
+            rc.offerShapeDrawable(drawable, renderData.cameraDistance);
+        }
+
+        // Record the text's screen bounds for picking on the CPU. Rotated text is picked by its bounding rectangle.
+        if (rc.pickIndex != null) {
+            rc.pickIndex.addScreenRect(this, rc.currentLayer, renderData.screenBounds, renderData.screenPlacePoint.z,
+                this.activeAttributes.enableDepthTest, this.enableDeclutter ? this : null);
+        }
     }
 
     /**
@@ -514,9 +599,14 @@ public class Label extends AbstractRenderable implements Highlightable, Movable
         public Vec2 offset = new Vec2();
 
         /**
-         * The screen coordinate transform to apply to the drawable unit square.
+         * The screen coordinate transform to apply to the text's glyph quads.
+         */
+        public Matrix4 textTransform = new Matrix4();
+
+        /**
+         * The screen coordinate transform that maps the unit square to the text's bounds.
          */
-        public Matrix4 unitSquareTransform = new Matrix4();
+        public Matrix4 boundsTransform = new Matrix4();
 
         /**
          * The screen viewport indicating the label's screen bounds.
@@ -11,6 +11,8 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -24,22 +26,34 @@ import gov.nasa.worldwind.geom.Position;
 import gov.nasa.worldwind.geom.Vec3;
 import gov.nasa.worldwind.render.BasicShaderProgram;
 import gov.nasa.worldwind.render.BufferObject;
+import gov.nasa.worldwind.render.DynamicBufferObject;
 import gov.nasa.worldwind.render.ImageOptions;
 import gov.nasa.worldwind.render.RenderContext;
 import gov.nasa.worldwind.render.Texture;
+import gov.nasa.worldwind.render.VertexArrayObject;
 import gov.nasa.worldwind.util.FloatArray;
+import gov.nasa.worldwind.util.IntArray;
 import gov.nasa.worldwind.util.Logger;
 import gov.nasa.worldwind.util.Pool;
+import gov.nasa.worldwind.util.PolylineSimplifier;
 import gov.nasa.worldwind.util.ShortArray;
 
 public class Path extends AbstractShape {
 
     protected static final int VERTEX_STRIDE = 4;
 
+    protected static final int POSITION_STRIDE = 4;
+
     protected static final double CLAMP_TO_GROUND_DEPTH_OFFSET = -0.01;
 
     protected static final double FOLLOW_TERRAIN_SEGMENT_LENGTH = 1000.0;
 
+    protected static final int INTERIOR_RANGE = 0;
+
+    protected static final int OUTLINE_RANGE = 1;
+
+    protected static final int VERTICAL_RANGE = 2;
+
     protected static final ImageOptions defaultOutlineImageOptions = new ImageOptions();
 
     protected List<Position> positions = Collections.emptyList();
@@ -50,21 +64,102 @@ public class Path extends AbstractShape {
 
     protected FloatArray vertexArray = new FloatArray();
 
-    protected ShortArray interiorElements = new ShortArray();
+    protected IntArray interiorElements = new IntArray();
 
-    protected ShortArray outlineElements = new ShortArray();
+    protected IntArray outlineElements = new IntArray();
 
-    protected ShortArray verticalElements = new ShortArray();
+    protected IntArray verticalElements = new IntArray();
 
     protected Object vertexBufferKey = nextCacheKey();
 
     protected Object elementBufferKey = nextCacheKey();
 
+    protected Object vertexArrayObjectKey = nextCacheKey();
+
+    /**
+     * The element type of the element buffer: GL_UNSIGNED_SHORT while 16-bit elements can address every vertex, and
+     * GL_UNSIGNED_INT otherwise.
+     */
+    protected int elementBufferType = GLES20.GL_UNSIGNED_SHORT;
+
+    /**
+     * The path's elements divided into chunks addressable by 16-bit elements, or null if the path's elements are drawn
+     * directly. Assembled for paths with more than 65536 vertices when the OpenGL context does not support 32-bit
+     * elements.
+     */
+    protected ChunkedElements chunkedElements;
+
+    protected Object chunkedVertexBufferKey;
+
+    protected Object chunkedElementBufferKey;
+
+    protected int chunkedVertexCount;
+
     protected Vec3 vertexOrigin = new Vec3();
 
     protected double texCoord1d;
 
-    private Vec3 point = new Vec3();
+    /**
+     * The number of positions whose geometry is in the vertex array and element arrays.
+     */
+    protected int assembledPositionCount;
+
+    /**
+     * The number of vertices the bounding box was last computed from.
+     */
+    protected int boundingBoxVertexCount;
+
+    /**
+     * The number of vertex array values loaded into the vertex buffer.
+     */
+    protected int vertexBufferSize;
+
+    protected int interiorBufferSize;
+
+    protected int outlineBufferSize;
+
+    protected int verticalBufferSize;
+
+    /**
+     * The number of elements reserved for the interior elements at the start of the element buffer.
+     */
+    protected int interiorBufferCapacity;
+
+    /**
+     * The number of elements reserved for the outline elements, following the interior elements.
+     */
+    protected int outlineBufferCapacity;
+
+    /**
+     * The number of elements reserved for the vertical elements, following the outline elements.
+     */
+    protected int verticalBufferCapacity;
+
+    /**
+     * The simplification importance of each outline vertex, in meters. Computed each time the geometry is assembled;
+     * positions appended since then have no importance, and the path is displayed without simplification.
+     */
+    protected float[] outlineImportance;
+
+    protected int outlineImportanceCount;
+
+    /**
+     * Element buffers for the path's simplified levels of detail, indexed by level. Each level draws a subset of the
+     * path's vertex buffer.
+     */
+    protected LevelElements[] levelElements = new LevelElements[PolylineSimplifier.MAX_LEVEL + 1];
+
+    private IntArray levelElementArray = new IntArray();
+
+    /**
+     * The positions of the vertices added since the vertex array was last extended, as latitude, longitude, altitude
+     * and an intermediate flag. Converted to Cartesian points in bulk by assembleVertices.
+     */
+    private double[] vertexPositions = new double[0];
+
+    private int vertexPositionCount;
+
+    private float[] vertexPoints = new float[0];
 
     private Vec3 prevPoint = new Vec3();
 
@@ -122,6 +217,29 @@ public class Path extends AbstractShape {
         this.reset();
     }
 
+    /**
+     * Appends a position to the end of this path. Appending is optimized for paths that grow over time, such as live
+     * tracks: the path assembles geometry only for the new segment, and loads only the new geometry into its OpenGL
+     * buffers. The path's positions list must be modifiable. If this path has no positions list, a new list is
+     * created.
+     *
+     * @param position the position to append
+     *
+     * @throws IllegalArgumentException If the position is null
+     */
+    public void addPosition(Position position) {
+        if (position == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "Path", "addPosition", "missingPosition"));
+        }
+
+        if (this.positions == Collections.<Position>emptyList()) {
+            this.positions = new ArrayList<>();
+        }
+
+        this.positions.add(position);
+    }
+
     public boolean isExtrude() {
         return this.extrude;
     }
@@ -145,6 +263,7 @@ public class Path extends AbstractShape {
         this.interiorElements.clear();
         this.outlineElements.clear();
         this.verticalElements.clear();
+        this.chunkedElements = null;
     }
 
     @Override
@@ -157,6 +276,8 @@ public class Path extends AbstractShape {
             this.assembleGeometry(rc);
             this.vertexBufferKey = nextCacheKey();
             this.elementBufferKey = nextCacheKey();
+        } else if (this.mustAppendGeometry(rc)) {
+            this.appendGeometry(rc);
         }
 
         // Obtain a drawable form the render context pool, and compute distance to the render camera.
@@ -171,28 +292,49 @@ public class Path extends AbstractShape {
             drawState.program = (BasicShaderProgram) rc.putShaderProgram(BasicShaderProgram.KEY, new BasicShaderProgram(rc.resources));
         }
 
-        // Assemble the drawable's OpenGL vertex buffer object.
-        drawState.vertexBuffer = rc.getBufferObject(this.vertexBufferKey);
-        if (drawState.vertexBuffer == null) {
-            int size = this.vertexArray.size() * 4;
-            FloatBuffer buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder()).asFloatBuffer();
-            buffer.put(this.vertexArray.array(), 0, this.vertexArray.size());
-            drawState.vertexBuffer = new BufferObject(GLES20.GL_ARRAY_BUFFER, size, buffer.rewind());
-            rc.putBufferObject(this.vertexBufferKey, drawState.vertexBuffer);
+        // Use the shape's vertex array object to retain the attribute setup of each primitive across frames.
+        drawState.vertexArray = rc.getVertexArray(this.vertexArrayObjectKey);
+        if (drawState.vertexArray == null) {
+            drawState.vertexArray = rc.putVertexArray(this.vertexArrayObjectKey, new VertexArrayObject());
         }
 
-        // Assemble the drawable's OpenGL element buffer object.
-        drawState.elementBuffer = rc.getBufferObject(this.elementBufferKey);
-        if (drawState.elementBuffer == null) {
-            int size = (this.interiorElements.size() * 2) + (this.outlineElements.size() * 2) + (this.verticalElements.size() * 2);
-            ShortBuffer buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder()).asShortBuffer();
-            buffer.put(this.interiorElements.array(), 0, this.interiorElements.size());
-            buffer.put(this.outlineElements.array(), 0, this.outlineElements.size());
-            buffer.put(this.verticalElements.array(), 0, this.verticalElements.size());
-            drawState.elementBuffer = new BufferObject(GLES20.GL_ELEMENT_ARRAY_BUFFER, size, buffer.rewind());
-            rc.putBufferObject(this.elementBufferKey, drawState.elementBuffer);
+        // Assemble the drawable's OpenGL vertex buffer object and element buffer object. Paths displayed at a
+        // simplified level of detail draw a subset of the vertex buffer using the level's element buffer. Paths with
+        // more vertices than 16-bit elements can address use 32-bit elements, or chunked 16-bit elements when the
+        // OpenGL context does not support 32-bit elements.
+        int vertexCount = this.vertexArray.size() / VERTEX_STRIDE;
+        boolean chunked = vertexCount > ChunkedElements.MAX_CHUNK_VERTICES && !rc.elementIndexUint;
+        int elementType = (vertexCount > ChunkedElements.MAX_CHUNK_VERTICES) ? GLES20.GL_UNSIGNED_INT : GLES20.GL_UNSIGNED_SHORT;
+        int interiorCount, outlineCount, verticalCount;
+        int interiorOffset, outlineOffset, verticalOffset; // offsets in elements
+        LevelElements level = chunked ? null : this.assembleLevelElements(rc, this.simplificationLevel(rc, cameraDistance), elementType);
+        if (chunked) {
+            this.assembleChunkedBuffers(rc, drawState);
+            interiorCount = outlineCount = verticalCount = 0; // drawn by the chunked elements
+            interiorOffset = outlineOffset = verticalOffset = 0;
+        } else if (level != null) {
+            drawState.vertexBuffer = this.assembleVertexBuffer(rc);
+            drawState.elementBuffer = level.buffer;
+            elementType = level.elementType;
+            interiorCount = level.interiorCount;
+            outlineCount = level.outlineCount;
+            verticalCount = level.verticalCount;
+            interiorOffset = 0;
+            outlineOffset = interiorCount;
+            verticalOffset = interiorCount + outlineCount;
+        } else {
+            drawState.vertexBuffer = this.assembleVertexBuffer(rc);
+            drawState.elementBuffer = this.assembleElementBuffer(rc, elementType);
+            interiorCount = this.interiorElements.size();
+            outlineCount = this.outlineElements.size();
+            verticalCount = this.verticalElements.size();
+            interiorOffset = 0;
+            outlineOffset = this.interiorBufferCapacity;
+            verticalOffset = this.interiorBufferCapacity + this.outlineBufferCapacity;
         }
 
+        int elementSize = (elementType == GLES20.GL_UNSIGNED_INT) ? 4 : 2;
+
         // Configure the drawable's vertex texture coordinate attribute.
         drawState.texCoordAttrib(1 /*size*/, 12 /*stride in bytes*/);
 
@@ -216,8 +358,11 @@ public class Path extends AbstractShape {
         if (this.activeAttributes.drawOutline) {
             drawState.color(rc.pickMode ? this.pickColor : this.activeAttributes.outlineColor);
             drawState.lineWidth(this.activeAttributes.outlineWidth);
-            drawState.drawElements(GLES20.GL_LINE_STRIP, this.outlineElements.size(),
-                GLES20.GL_UNSIGNED_SHORT, this.interiorElements.size() * 2);
+            if (chunked) {
+                this.chunkedElements.drawElements(drawState, OUTLINE_RANGE);
+            } else {
+                drawState.drawElements(GLES20.GL_LINE_STRIP, outlineCount, elementType, outlineOffset * elementSize);
+            }
         }
 
         // Disable texturing for the remaining drawable primitives.
@@ -227,15 +372,21 @@ public class Path extends AbstractShape {
         if (this.activeAttributes.drawOutline && this.activeAttributes.drawVerticals && this.extrude) {
             drawState.color(rc.pickMode ? this.pickColor : this.activeAttributes.outlineColor);
             drawState.lineWidth(this.activeAttributes.outlineWidth);
-            drawState.drawElements(GLES20.GL_LINES, this.verticalElements.size(),
-                GLES20.GL_UNSIGNED_SHORT, (this.interiorElements.size() * 2) + (this.outlineElements.size() * 2));
+            if (chunked) {
+                this.chunkedElements.drawElements(drawState, VERTICAL_RANGE);
+            } else {
+                drawState.drawElements(GLES20.GL_LINES, verticalCount, elementType, verticalOffset * elementSize);
+            }
         }
 
         // Configure the drawable to display the shape's extruded interior.
         if (this.activeAttributes.drawInterior && this.extrude) {
             drawState.color(rc.pickMode ? this.pickColor : this.activeAttributes.interiorColor);
-            drawState.drawElements(GLES20.GL_TRIANGLE_STRIP, this.interiorElements.size(),
-                GLES20.GL_UNSIGNED_SHORT, 0);
+            if (chunked) {
+                this.chunkedElements.drawElements(drawState, INTERIOR_RANGE);
+            } else {
+                drawState.drawElements(GLES20.GL_TRIANGLE_STRIP, interiorCount, elementType, interiorOffset * elementSize);
+            }
         }
 
         // Configure the drawable according to the shape's attributes.
@@ -248,15 +399,47 @@ public class Path extends AbstractShape {
         // Enqueue the drawable for processing on the OpenGL thread.
         if (this.altitudeMode == WorldWind.CLAMP_TO_GROUND) {
             rc.offerSurfaceDrawable(drawable, 0 /*zOrder*/);
+        } else if (drawState.isOrderIndependent()) {
+            rc.offerOpaqueShapeDrawable(drawable, drawState.stateKey());
         } else {
             rc.offerShapeDrawable(drawable, cameraDistance);
         }
     }
 
+    @Override
+    protected void recordPickGeometry(RenderContext rc) {
+        // Record the path's full resolution geometry, depth tested against the terrain as the path is drawn.
+        rc.pickIndex.beginShape(this, rc.currentLayer, this.vertexArray.array(), VERTEX_STRIDE, this.vertexOrigin,
+            this.boundingBox, this.activeAttributes.outlineWidth, this.activeAttributes.depthTest);
+
+        if (this.activeAttributes.drawOutline) {
+            rc.pickIndex.addShapeElements(GLES20.GL_LINE_STRIP, this.outlineElements.array(), this.outlineElements.size());
+        }
+
+        if (this.activeAttributes.drawOutline && this.activeAttributes.drawVerticals && this.extrude) {
+            rc.pickIndex.addShapeElements(GLES20.GL_LINES, this.verticalElements.array(), this.verticalElements.size());
+        }
+
+        if (this.activeAttributes.drawInterior && this.extrude) {
+            rc.pickIndex.addShapeElements(GLES20.GL_TRIANGLE_STRIP, this.interiorElements.array(), this.interiorElements.size());
+        }
+    }
+
+    @Override
+    protected boolean intersectsFrustum(RenderContext rc) {
+        // Positions appended since the last frame may extend the path into the frustum. Append their geometry to
+        // bring the bounding box up to date before testing it.
+        return this.mustAppendGeometry(rc) || super.intersectsFrustum(rc);
+    }
+
     protected boolean mustAssembleGeometry(RenderContext rc) {
         return this.vertexArray.size() == 0;
     }
 
+    protected boolean mustAppendGeometry(RenderContext rc) {
+        return this.vertexArray.size() != 0 && this.assembledPositionCount < this.positions.size();
+    }
+
     protected void assembleGeometry(RenderContext rc) {
         // Clear the shape's vertex array and element arrays. These arrays will accumulate values as the shapes's
         // geometry is assembled.
@@ -264,6 +447,7 @@ public class Path extends AbstractShape {
         this.interiorElements.clear();
         this.outlineElements.clear();
         this.verticalElements.clear();
+        this.chunkedElements = null;
 
         // Add the first vertex.
         Position begin = this.positions.get(0);
@@ -277,9 +461,261 @@ public class Path extends AbstractShape {
             begin = end;
         }
 
+        this.assembleVertices(rc);
+
         // Compute the shape's bounding box from its assembled coordinates.
         this.boundingBox.setToPoints(this.vertexArray.array(), this.vertexArray.size(), VERTEX_STRIDE);
         this.boundingBox.translate(this.vertexOrigin.x, this.vertexOrigin.y, this.vertexOrigin.z);
+        this.boundingBoxVertexCount = this.vertexArray.size() / VERTEX_STRIDE;
+        this.assembledPositionCount = this.positions.size();
+
+        // Compute the importance of each outline vertex for simplification, and discard the element buffers of the
+        // previous geometry's levels of detail. Extruded paths interleave each outline vertex with its ground vertex.
+        int outlineStride = this.extrude ? (VERTEX_STRIDE * 2) : VERTEX_STRIDE;
+        this.outlineImportanceCount = this.outlineElements.size();
+        this.outlineImportance = PolylineSimplifier.computeImportance(this.vertexArray.array(), 0, outlineStride,
+            this.outlineImportanceCount, this.outlineImportance);
+        Arrays.fill(this.levelElements, null);
+    }
+
+    protected void appendGeometry(RenderContext rc) {
+        // Add vertices for the positions appended since the geometry was last assembled, continuing from the last
+        // assembled position. The vertex origin and outline texture coordinates continue from the existing vertices.
+        int vertexStart = this.vertexArray.size();
+        Position begin = this.positions.get(this.assembledPositionCount - 1);
+        for (int idx = this.assembledPositionCount, len = this.positions.size(); idx < len; idx++) {
+            Position end = this.positions.get(idx);
+            this.addIntermediateVertices(rc, begin, end);
+            this.addVertex(rc, end.latitude, end.longitude, end.altitude, false /*intermediate*/);
+            begin = end;
+        }
+
+        this.assembleVertices(rc);
+        this.assembledPositionCount = this.positions.size();
+
+        // Expand the shape's bounding box to include the appended coordinates. The box's axes were chosen for the
+        // vertices it was last computed from, so recompute the box each time the vertex count doubles in order to keep
+        // it reasonably tight as the path grows.
+        int vertexCount = this.vertexArray.size() / VERTEX_STRIDE;
+        if (vertexCount >= this.boundingBoxVertexCount * 2) {
+            this.boundingBox.setToPoints(this.vertexArray.array(), this.vertexArray.size(), VERTEX_STRIDE);
+            this.boundingBox.translate(this.vertexOrigin.x, this.vertexOrigin.y, this.vertexOrigin.z);
+            this.boundingBoxVertexCount = vertexCount;
+        } else {
+            this.boundingBox.translate(-this.vertexOrigin.x, -this.vertexOrigin.y, -this.vertexOrigin.z);
+            this.boundingBox.addPoints(this.vertexArray.array(), vertexStart, this.vertexArray.size() - vertexStart,
+                VERTEX_STRIDE);
+            this.boundingBox.translate(this.vertexOrigin.x, this.vertexOrigin.y, this.vertexOrigin.z);
+        }
+    }
+
+    /**
+     * Assembles the element buffer for a simplified level of detail. Levels include the outline vertices whose
+     * importance meets the level's tolerance, and the ground vertices and verticals associated with those outline
+     * vertices.
+     *
+     * @param rc          the current render context
+     * @param level       the level of detail
+     * @param elementType the element type, either GL_UNSIGNED_SHORT or GL_UNSIGNED_INT
+     *
+     * @return the level's elements, or null if the path must be displayed without simplification
+     */
+    protected LevelElements assembleLevelElements(RenderContext rc, int level, int elementType) {
+        if (level == 0 || this.outlineImportanceCount != this.outlineElements.size()) {
+            return null; // no simplification, or positions have been appended since importance was computed
+        }
+
+        LevelElements elements = this.levelElements[level];
+        if (elements == null) {
+            elements = (this.levelElements[level] = new LevelElements());
+        }
+
+        elements.buffer = rc.getBufferObject(elements.bufferKey);
+        if (elements.buffer != null) {
+            return elements;
+        }
+
+        float tolerance = (float) PolylineSimplifier.toleranceForLevel(level);
+        float[] importance = this.outlineImportance;
+        int[] outline = this.outlineElements.array();
+        IntArray array = this.levelElementArray.clear();
+
+        if (this.extrude) {
+            for (int idx = 0, len = this.outlineImportanceCount; idx < len; idx++) {
+                if (importance[idx] >= tolerance) {
+                    array.add(outline[idx]).add(outline[idx] + 1);
+                }
+            }
+        }
+        elements.interiorCount = array.size();
+
+        for (int idx = 0, len = this.outlineImportanceCount; idx < len; idx++) {
+            if (importance[idx] >= tolerance) {
+                array.add(outline[idx]);
+            }
+        }
+        elements.outlineCount = array.size() - elements.interiorCount;
+
+        int[] verticals = this.verticalElements.array();
+        for (int idx = 0, len = this.verticalElements.size(); idx < len; idx += 2) {
+            int outlineIndex = verticals[idx] / 2; // verticals are present only for extruded paths
+            if (importance[outlineIndex] >= tolerance) {
+                array.add(verticals[idx]).add(verticals[idx + 1]);
+            }
+        }
+        elements.verticalCount = array.size() - elements.interiorCount - elements.outlineCount;
+
+        boolean uint = (elementType == GLES20.GL_UNSIGNED_INT);
+        int size = array.size() * (uint ? 4 : 2);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+        for (int idx = 0, len = array.size(); idx < len; idx++) {
+            if (uint) {
+                buffer.putInt(array.get(idx));
+            } else {
+                buffer.putShort((short) array.get(idx));
+            }
+        }
+        elements.elementType = elementType;
+        elements.buffer = new BufferObject(GLES20.GL_ELEMENT_ARRAY_BUFFER, size, buffer.rewind());
+        rc.putBufferObject(elements.bufferKey, elements.buffer);
+
+        return elements;
+    }
+
+    protected BufferObject assembleVertexBuffer(RenderContext rc) {
+        int size = this.vertexArray.size();
+
+        // Load the vertices appended since the vertex buffer was assembled, if the buffer has room for them.
+        DynamicBufferObject buffer = (DynamicBufferObject) rc.getBufferObject(this.vertexBufferKey);
+        if (buffer != null && size * 4 <= buffer.getBufferByteCount()) {
+            if (this.vertexBufferSize < size) {
+                buffer.putFloats(this.vertexBufferSize * 4, this.vertexArray.array(), this.vertexBufferSize,
+                    size - this.vertexBufferSize);
+                this.vertexBufferSize = size;
+            }
+            return buffer;
+        }
+
+        // Assemble a new vertex buffer. When the existing buffer has been outgrown by appended vertices, use a new
+        // cache key and leave room for subsequent vertices.
+        int capacity = size;
+        if (buffer != null) {
+            capacity += (size >> 1);
+            this.vertexBufferKey = nextCacheKey();
+        }
+
+        buffer = new DynamicBufferObject(GLES20.GL_ARRAY_BUFFER, capacity * 4);
+        buffer.putFloats(0, this.vertexArray.array(), 0, size);
+        this.vertexBufferSize = size;
+
+        return rc.putBufferObject(this.vertexBufferKey, buffer);
+    }
+
+    protected BufferObject assembleElementBuffer(RenderContext rc, int elementType) {
+        int interiorSize = this.interiorElements.size();
+        int outlineSize = this.outlineElements.size();
+        int verticalSize = this.verticalElements.size();
+
+        // Load the elements appended since the element buffer was assembled, if the buffer has room for them and has
+        // the required element type. The interior, outline and vertical elements are each stored in a fixed range of
+        // the buffer.
+        DynamicBufferObject buffer = (DynamicBufferObject) rc.getBufferObject(this.elementBufferKey);
+        if (buffer != null && elementType == this.elementBufferType && interiorSize <= this.interiorBufferCapacity && outlineSize <= this.outlineBufferCapacity
+            && verticalSize <= this.verticalBufferCapacity) {
+            if (this.interiorBufferSize < interiorSize) {
+                this.putElements(buffer, this.interiorBufferSize, this.interiorElements, this.interiorBufferSize,
+                    interiorSize - this.interiorBufferSize);
+                this.interiorBufferSize = interiorSize;
+            }
+            if (this.outlineBufferSize < outlineSize) {
+                int offset = this.interiorBufferCapacity + this.outlineBufferSize;
+                this.putElements(buffer, offset, this.outlineElements, this.outlineBufferSize,
+                    outlineSize - this.outlineBufferSize);
+                this.outlineBufferSize = outlineSize;
+            }
+            if (this.verticalBufferSize < verticalSize) {
+                int offset = this.interiorBufferCapacity + this.outlineBufferCapacity + this.verticalBufferSize;
+                this.putElements(buffer, offset, this.verticalElements, this.verticalBufferSize,
+                    verticalSize - this.verticalBufferSize);
+                this.verticalBufferSize = verticalSize;
+            }
+            return buffer;
+        }
+
+        // Assemble a new element buffer. When the existing buffer has been outgrown by appended elements, or when
+        // appended vertices require 32-bit elements, use a new cache key and leave room for subsequent elements.
+        this.interiorBufferCapacity = interiorSize;
+        this.outlineBufferCapacity = outlineSize;
+        this.verticalBufferCapacity = verticalSize;
+        if (buffer != null) {
+            this.interiorBufferCapacity += (interiorSize >> 1);
+            this.outlineBufferCapacity += (outlineSize >> 1);
+            this.verticalBufferCapacity += (verticalSize >> 1);
+            this.elementBufferKey = nextCacheKey();
+        }
+
+        this.elementBufferType = elementType;
+        int capacity = this.interiorBufferCapacity + this.outlineBufferCapacity + this.verticalBufferCapacity;
+        int elementSize = (elementType == GLES20.GL_UNSIGNED_INT) ? 4 : 2;
+        buffer = new DynamicBufferObject(GLES20.GL_ELEMENT_ARRAY_BUFFER, capacity * elementSize);
+        this.putElements(buffer, 0, this.interiorElements, 0, interiorSize);
+        this.putElements(buffer, this.interiorBufferCapacity, this.outlineElements, 0, outlineSize);
+        this.putElements(buffer, this.interiorBufferCapacity + this.outlineBufferCapacity, this.verticalElements, 0,
+            verticalSize);
+        this.interiorBufferSize = interiorSize;
+        this.outlineBufferSize = outlineSize;
+        this.verticalBufferSize = verticalSize;
+
+        return rc.putBufferObject(this.elementBufferKey, buffer);
+    }
+
+    protected void putElements(DynamicBufferObject buffer, int bufferIndex, IntArray elements, int index, int count) {
+        if (this.elementBufferType == GLES20.GL_UNSIGNED_INT) {
+            buffer.putInts(bufferIndex * 4, elements.array(), index, count);
+        } else {
+            buffer.putShorts(bufferIndex * 2, elements.array(), index, count);
+        }
+    }
+
+    /**
+     * Assembles static vertex and element buffers from the path's chunked elements, dividing the path's elements into
+     * chunks each time its vertices change. Chunked paths are displayed without simplification, and positions appended
+     * to a chunked path cause its buffers to be assembled again.
+     *
+     * @param rc        the current render context
+     * @param drawState the draw state to receive the buffers
+     */
+    protected void assembleChunkedBuffers(RenderContext rc, DrawShapeState drawState) {
+        int vertexCount = this.vertexArray.size() / VERTEX_STRIDE;
+        if (this.chunkedElements == null || this.chunkedVertexCount != vertexCount) {
+            this.chunkedElements = new ChunkedElements().reset(this.vertexArray.array(), VERTEX_STRIDE, vertexCount);
+            this.chunkedElements.addElements(INTERIOR_RANGE, GLES20.GL_TRIANGLE_STRIP, this.interiorElements.array(), this.interiorElements.size());
+            this.chunkedElements.addElements(OUTLINE_RANGE, GLES20.GL_LINE_STRIP, this.outlineElements.array(), this.outlineElements.size());
+            this.chunkedElements.addElements(VERTICAL_RANGE, GLES20.GL_LINES, this.verticalElements.array(), this.verticalElements.size());
+            this.chunkedVertexCount = vertexCount;
+            this.chunkedVertexBufferKey = nextCacheKey();
+            this.chunkedElementBufferKey = nextCacheKey();
+        }
+
+        drawState.vertexBuffer = rc.getBufferObject(this.chunkedVertexBufferKey);
+        if (drawState.vertexBuffer == null) {
+            FloatArray array = this.chunkedElements.getVertexArray();
+            int size = array.size() * 4;
+            FloatBuffer buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder()).asFloatBuffer();
+            buffer.put(array.array(), 0, array.size());
+            drawState.vertexBuffer = rc.putBufferObject(this.chunkedVertexBufferKey,
+                new BufferObject(GLES20.GL_ARRAY_BUFFER, size, buffer.rewind()));
+        }
+
+        drawState.elementBuffer = rc.getBufferObject(this.chunkedElementBufferKey);
+        if (drawState.elementBuffer == null) {
+            ShortArray array = this.chunkedElements.getElementArray();
+            int size = array.size() * 2;
+            ShortBuffer buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder()).asShortBuffer();
+            buffer.put(array.array(), 0, array.size());
+            drawState.elementBuffer = rc.putBufferObject(this.chunkedElementBufferKey,
+                new BufferObject(GLES20.GL_ELEMENT_ARRAY_BUFFER, size, buffer.rewind()));
+        }
     }
 
     protected void addIntermediateVertices(RenderContext rc, Position begin, Position end) {
@@ -342,40 +778,105 @@ public class Path extends AbstractShape {
             altitude = 0;
         }
 
-        int vertex = this.vertexArray.size() / VERTEX_STRIDE;
-        Vec3 point = rc.geographicToCartesian(latitude, longitude, altitude, WorldWind.ABSOLUTE, this.point);
+        int pos = this.vertexPositionCount * POSITION_STRIDE;
+        if (this.vertexPositions.length < pos + POSITION_STRIDE) {
+            double[] newPositions = new double[Math.max(pos * 2, POSITION_STRIDE * 16)];
+            System.arraycopy(this.vertexPositions, 0, newPositions, 0, pos);
+            this.vertexPositions = newPositions;
+        }
+
+        // Defer the vertex's Cartesian point to assembleVertices. Absolute altitudes are scaled by the vertical
+        // exaggeration, as in RenderContext.geographicToCartesian.
+        this.vertexPositions[pos] = latitude;
+        this.vertexPositions[pos + 1] = longitude;
+        this.vertexPositions[pos + 2] = altitude * rc.verticalExaggeration;
+        this.vertexPositions[pos + 3] = intermediate ? 1 : 0;
+        this.vertexPositionCount++;
+    }
+
+    /**
+     * Appends the vertices added since the last call to the vertex array and element arrays, converting their
+     * positions to Cartesian points with one call to the globe. The path's first vertex defines the vertex origin.
+     *
+     * @param rc the current render context
+     */
+    protected void assembleVertices(RenderContext rc) {
+        int count = this.vertexPositionCount;
+        if (count == 0) {
+            return; // no vertices added since the last call
+        }
 
+        double[] positions = this.vertexPositions;
         if (this.vertexArray.size() == 0) {
-            this.vertexOrigin.set(point);
-            this.prevPoint.set(point);
+            rc.globe.geographicToCartesian(positions[0], positions[1], positions[2], this.vertexOrigin);
+            this.prevPoint.set(0, 0, 0);
             this.texCoord1d = 0;
-        } else {
-            this.texCoord1d += point.distanceTo(this.prevPoint);
-            this.prevPoint.set(point);
         }
 
-        this.vertexArray.add((float) (point.x - this.vertexOrigin.x));
-        this.vertexArray.add((float) (point.y - this.vertexOrigin.y));
-        this.vertexArray.add((float) (point.z - this.vertexOrigin.z));
-        this.vertexArray.add((float) this.texCoord1d);
-        this.outlineElements.add((short) vertex);
+        // Convert the vertex positions to points relative to the vertex origin. Extruded paths interleave each point
+        // with its ground point, which is converted from the same positions with their altitude set to zero.
+        // TODO clamp to ground points must be continually updated to reflect change in terrain
+        // TODO use absolute altitude 0 as a temporary workaround while the globe has no terrain
+        int pointStride = this.extrude ? 6 : 3;
+        if (this.vertexPoints.length < count * pointStride) {
+            this.vertexPoints = new float[count * pointStride];
+        }
 
-        if (this.extrude) {
-            // TODO clamp to ground points must be continually updated to reflect change in terrain
-            // TODO use absolute altitude 0 as a temporary workaround while the globe has no terrain
-            point = rc.geographicToCartesian(latitude, longitude, 0, WorldWind.ABSOLUTE, this.point);
+        float[] points = this.vertexPoints;
+        rc.globe.geographicToCartesianArray(positions, POSITION_STRIDE, 0, count, this.vertexOrigin, points,
+            pointStride, 0);
 
-            this.vertexArray.add((float) (point.x - this.vertexOrigin.x));
-            this.vertexArray.add((float) (point.y - this.vertexOrigin.y));
-            this.vertexArray.add((float) (point.z - this.vertexOrigin.z));
-            this.vertexArray.add((float) 0 /*unused*/);
-            this.interiorElements.add((short) vertex);
-            this.interiorElements.add((short) (vertex + 1));
+        if (this.extrude) {
+            for (int pos = 2, len = count * POSITION_STRIDE; pos < len; pos += POSITION_STRIDE) {
+                positions[pos] = 0;
+            }
+            rc.globe.geographicToCartesianArray(positions, POSITION_STRIDE, 0, count, this.vertexOrigin, points,
+                pointStride, 3);
         }
 
-        if (this.extrude && !intermediate) {
-            this.verticalElements.add((short) vertex);
-            this.verticalElements.add((short) (vertex + 1));
+        for (int idx = 0, ppos = 0, pos = 0; idx < count; idx++, ppos += POSITION_STRIDE, pos += pointStride) {
+            int vertex = this.vertexArray.size() / VERTEX_STRIDE;
+            float x = points[pos], y = points[pos + 1], z = points[pos + 2];
+            double dx = x - this.prevPoint.x, dy = y - this.prevPoint.y, dz = z - this.prevPoint.z;
+            this.texCoord1d += Math.sqrt(dx * dx + dy * dy + dz * dz);
+            this.prevPoint.set(x, y, z);
+
+            this.vertexArray.add(x);
+            this.vertexArray.add(y);
+            this.vertexArray.add(z);
+            this.vertexArray.add((float) this.texCoord1d);
+            this.outlineElements.add(vertex);
+
+            if (this.extrude) {
+                this.vertexArray.add(points[pos + 3]);
+                this.vertexArray.add(points[pos + 4]);
+                this.vertexArray.add(points[pos + 5]);
+                this.vertexArray.add((float) 0 /*unused*/);
+                this.interiorElements.add(vertex);
+                this.interiorElements.add(vertex + 1);
+
+                if (positions[ppos + 3] == 0 /*not intermediate*/) {
+                    this.verticalElements.add(vertex);
+                    this.verticalElements.add(vertex + 1);
+                }
+            }
         }
+
+        this.vertexPositionCount = 0;
+    }
+
+    protected static class LevelElements {
+
+        public Object bufferKey = nextCacheKey();
+
+        public BufferObject buffer;
+
+        public int elementType;
+
+        public int interiorCount;
+
+        public int outlineCount;
+
+        public int verticalCount;
     }
 }
@@ -176,6 +176,17 @@ public class Placemark extends AbstractRenderable implements Highlightable, Mova
 
     protected LevelOfDetailSelector levelOfDetailSelector;
 
+    /**
+     * Determines whether the placemark is hidden when it overlaps other decluttered placemarks and labels.
+     */
+    protected boolean enableDeclutter;
+
+    /**
+     * The placemark's declutter priority. Placemarks with higher priorities are displayed in favor of overlapping
+     * placemarks with lower priorities.
+     */
+    protected double declutterPriority;
+
     /**
      * Constructs a Placemark that draws its representation at the supplied position using default {@link
      * PlacemarkAttributes} bundle. The displayName and label properties are empty.
@@ -436,6 +447,52 @@ public class Placemark extends AbstractRenderable implements Highlightable, Mova
         return this;
     }
 
+    /**
+     * Indicates whether this placemark is hidden when its icon overlaps other decluttered placemarks and labels of
+     * higher priority.
+     *
+     * @return true if this placemark is decluttered, false otherwise
+     */
+    public boolean isEnableDeclutter() {
+        return this.enableDeclutter;
+    }
+
+    /**
+     * Sets whether this placemark is hidden when its icon overlaps other decluttered placemarks and labels of higher
+     * priority. Decluttered placemarks fade in and out as they are displayed and hidden, along with their leader line.
+     *
+     * @param enable true to declutter this placemark, false to always display this placemark
+     *
+     * @return This placemark.
+     */
+    public Placemark setEnableDeclutter(boolean enable) {
+        this.enableDeclutter = enable;
+        return this;
+    }
+
+    /**
+     * Indicates this placemark's declutter priority. When decluttered placemarks or labels overlap, those with higher
+     * priority are displayed, followed by those nearest the camera.
+     *
+     * @return this placemark's declutter priority
+     */
+    public double getDeclutterPriority() {
+        return this.declutterPriority;
+    }
+
+    /**
+     * Sets this placemark's declutter priority. When decluttered placemarks or labels overlap, those with higher
+     * priority are displayed, followed by those nearest the camera.
+     *
+     * @param priority this placemark's new declutter priority
+     *
+     * @return This placemark.
+     */
+    public Placemark setDeclutterPriority(double priority) {
+        this.declutterPriority = priority;
+        return this;
+    }
+
     /**
      * Gets the eye distance above which to reduce the size of this placemark, in meters. If {@link
      * Placemark#isEyeDistanceScaling()} is true, this placemark's image, label and leader sizes are reduced as the eye
@@ -724,7 +781,11 @@ public class Placemark extends AbstractRenderable implements Highlightable, Mova
                 Pool<DrawableLines> pool = rc.getDrawablePool(DrawableLines.class);
                 DrawableLines drawable = DrawableLines.obtain(pool);
                 this.prepareDrawableLeader(rc, drawable);
-                rc.offerShapeDrawable(drawable, this.cameraDistance);
+                if (this.enableDeclutter) {
+                    rc.offerDeclutterAttachment(this, drawable, drawable.color, this.cameraDistance);
+                } else {
+                    rc.offerShapeDrawable(drawable, this.cameraDistance);
+                }
             }
         }
 
@@ -754,7 +815,18 @@ public class Placemark extends AbstractRenderable implements Highlightable, Mova
             Pool<DrawableScreenTexture> pool = rc.getDrawablePool(DrawableScreenTexture.class);
             DrawableScreenTexture drawable = DrawableScreenTexture.obtain(pool);
             this.prepareDrawableIcon(rc, drawable);
-            rc.offerShapeDrawable(drawable, this.cameraDistance);
+            if (this.enableDeclutter) {
+                rc.offerDeclutterDrawable(this, drawable, drawable.color, null, screenBounds, this.declutterPriority,
+                    this.cameraDistance);
+            } else {
+                rc.offerShapeDrawable(drawable, this.cameraDistance);
+            }
+
+            // Record the icon's screen bounds for picking on the CPU.
+            if (rc.pickIndex != null) {
+                rc.pickIndex.addScreenRect(this, rc.currentLayer, screenBounds, screenPlacePoint.z,
+                    this.activeAttributes.depthTest, this.enableDeclutter ? this : null);
+            }
         }
 
         // Release references to objects stored in the render resource cache.
@@ -0,0 +1,594 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.shape;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import gov.nasa.worldwind.PickedObject;
+import gov.nasa.worldwind.WorldWind;
+import gov.nasa.worldwind.draw.DrawableScreenQuads;
+import gov.nasa.worldwind.geom.Vec2;
+import gov.nasa.worldwind.geom.Vec3;
+import gov.nasa.worldwind.geom.Viewport;
+import gov.nasa.worldwind.globe.Globe;
+import gov.nasa.worldwind.render.AbstractRenderable;
+import gov.nasa.worldwind.render.BasicShaderProgram;
+import gov.nasa.worldwind.render.RenderContext;
+import gov.nasa.worldwind.render.Texture;
+import gov.nasa.worldwind.util.Logger;
+import gov.nasa.worldwind.util.Pool;
+import gov.nasa.worldwind.util.PositionUpdateChannel;
+
+/**
+ * Displays a large number of simple point symbols with a single renderable. PlacemarkCollection stores each
+ * placemark's position, attributes index and flags in primitive arrays rather than as individual {@link Placemark}
+ * objects, avoiding the heap overhead and per-object traversal of large numbers of placemarks.
+ * <p/>
+ * Each frame the collection transforms its positions to Cartesian coordinates and then to screen coordinates in tight
+ * loops, and enqueues a single drawable containing the visible placemarks. Cartesian coordinates are retained between
+ * frames for placemarks with absolute altitudes. Placemarks are drawn as their attributes' image, or as a colored
+ * square, positioned by the attributes' image offset, scaled by the attributes' image scale, and rotated by the
+ * placemark's heading. Leaders, labels and eye distance scaling are not supported; use {@link Placemark} for placemarks
+ * requiring those features.
+ * <p/>
+ * Positions and headings of moving placemarks may be published from any thread with a {@link PositionUpdateChannel}.
+ * The collection applies the channel's latest snapshot at the start of each frame, without marshaling each update to
+ * the render thread.
+ * <p/>
+ * Placemarks are identified by their index in the collection. Picking a placemark in the collection produces a {@link
+ * PickedObject} whose user object is the collection, and whose item index is the picked placemark's index.
+ */
+public class PlacemarkCollection extends AbstractRenderable {
+
+    protected static final int FLAG_VISIBLE = 1;
+
+    protected static final int FLAG_HIGHLIGHTED = 1 << 1;
+
+    protected static final double DEFAULT_DEPTH_OFFSET = -0.1;
+
+    protected static final int MIN_CAPACITY = 16;
+
+    protected int count;
+
+    protected double[] latitudes = new double[0];
+
+    protected double[] longitudes = new double[0];
+
+    protected double[] altitudes = new double[0];
+
+    protected double[] headings = new double[0];
+
+    protected int[] attributeIndices = new int[0];
+
+    protected int[] flags = new int[0];
+
+    protected List<PlacemarkAttributes> attributes = new ArrayList<>();
+
+    protected PlacemarkAttributes highlightAttributes;
+
+    protected int altitudeMode = WorldWind.ABSOLUTE;
+
+    protected int headingReference = WorldWind.RELATIVE_TO_SCREEN;
+
+    protected PositionUpdateChannel updateChannel;
+
+    /**
+     * The generation of the update channel snapshot most recently applied to the placemarks.
+     */
+    protected long updateGeneration;
+
+    /**
+     * The Cartesian point of each placemark, as consecutive X, Y and Z coordinates.
+     */
+    protected double[] points = new double[0];
+
+    /**
+     * Indicates whether the Cartesian points reflect the placemarks' current positions on the globe and vertical
+     * exaggeration they were computed with.
+     */
+    protected boolean pointsValid;
+
+    protected Globe pointsGlobe;
+
+    protected double pointsVerticalExaggeration;
+
+    /**
+     * The index of the drawable style for each attributes bundle this frame, or -1 if the style has not been added.
+     */
+    protected int[] attributeStyles = new int[0];
+
+    protected float[] styleWidths = new float[0];
+
+    protected float[] styleHeights = new float[0];
+
+    protected float[] styleOffsetX = new float[0];
+
+    protected float[] styleOffsetY = new float[0];
+
+    private Vec3 point = new Vec3();
+
+    private Vec2 offset = new Vec2();
+
+    public PlacemarkCollection() {
+    }
+
+    public PlacemarkCollection(PlacemarkAttributes attributes) {
+        this.addAttributes(attributes);
+    }
+
+    /**
+     * Indicates the number of placemarks in this collection.
+     *
+     * @return the number of placemarks
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * Adds a placemark to this collection. The placemark is visible and not highlighted.
+     *
+     * @param latitude       the placemark's latitude in degrees
+     * @param longitude      the placemark's longitude in degrees
+     * @param altitude       the placemark's altitude in meters
+     * @param attributeIndex the index of the placemark's attributes, as returned by {@link
+     *                       #addAttributes(PlacemarkAttributes)}
+     *
+     * @return the index of the new placemark
+     *
+     * @throws IllegalArgumentException If the attributes index is invalid
+     */
+    public int add(double latitude, double longitude, double altitude, int attributeIndex) {
+        if (attributeIndex < 0 || attributeIndex >= this.attributes.size()) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "PlacemarkCollection", "add", "invalidIndex"));
+        }
+
+        if (this.latitudes.length == this.count) {
+            this.ensureCapacity(Math.max(MIN_CAPACITY, this.count * 2));
+        }
+
+        int index = this.count++;
+        this.latitudes[index] = latitude;
+        this.longitudes[index] = longitude;
+        this.altitudes[index] = altitude;
+        this.headings[index] = 0;
+        this.attributeIndices[index] = attributeIndex;
+        this.flags[index] = FLAG_VISIBLE;
+        this.pointsValid = false;
+
+        return index;
+    }
+
+    /**
+     * Removes all placemarks from this collection. The collection's attributes are retained.
+     */
+    public void clear() {
+        this.count = 0;
+        this.pointsValid = false;
+    }
+
+    /**
+     * Ensures this collection can hold the specified number of placemarks without growing its arrays.
+     *
+     * @param capacity the number of placemarks
+     */
+    public void ensureCapacity(int capacity) {
+        if (this.latitudes.length >= capacity) {
+            return;
+        }
+
+        this.latitudes = Arrays.copyOf(this.latitudes, capacity);
+        this.longitudes = Arrays.copyOf(this.longitudes, capacity);
+        this.altitudes = Arrays.copyOf(this.altitudes, capacity);
+        this.headings = Arrays.copyOf(this.headings, capacity);
+        this.attributeIndices = Arrays.copyOf(this.attributeIndices, capacity);
+        this.flags = Arrays.copyOf(this.flags, capacity);
+        this.points = Arrays.copyOf(this.points, capacity * 3);
+    }
+
+    public double getLatitude(int index) {
+        this.checkIndex(index, "getLatitude");
+        return this.latitudes[index];
+    }
+
+    public double getLongitude(int index) {
+        this.checkIndex(index, "getLongitude");
+        return this.longitudes[index];
+    }
+
+    public double getAltitude(int index) {
+        this.checkIndex(index, "getAltitude");
+        return this.altitudes[index];
+    }
+
+    /**
+     * Sets the position of a placemark in this collection.
+     *
+     * @param index     the placemark's index
+     * @param latitude  the placemark's latitude in degrees
+     * @param longitude the placemark's longitude in degrees
+     * @param altitude  the placemark's altitude in meters
+     *
+     * @throws IllegalArgumentException If the index is invalid
+     */
+    public void setPosition(int index, double latitude, double longitude, double altitude) {
+        this.checkIndex(index, "setPosition");
+        this.latitudes[index] = latitude;
+        this.longitudes[index] = longitude;
+        this.altitudes[index] = altitude;
+        this.pointsValid = false;
+    }
+
+    public double getHeading(int index) {
+        this.checkIndex(index, "getHeading");
+        return this.headings[index];
+    }
+
+    /**
+     * Sets the heading of a placemark in this collection. The placemark's image is rotated by its heading, according to
+     * the collection's heading reference.
+     *
+     * @param index   the placemark's index
+     * @param heading the placemark's heading in degrees clockwise from north
+     *
+     * @throws IllegalArgumentException If the index is invalid
+     */
+    public void setHeading(int index, double heading) {
+        this.checkIndex(index, "setHeading");
+        this.headings[index] = heading;
+    }
+
+    public int getAttributeIndex(int index) {
+        this.checkIndex(index, "getAttributeIndex");
+        return this.attributeIndices[index];
+    }
+
+    public void setAttributeIndex(int index, int attributeIndex) {
+        this.checkIndex(index, "setAttributeIndex");
+
+        if (attributeIndex < 0 || attributeIndex >= this.attributes.size()) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "PlacemarkCollection", "setAttributeIndex", "invalidIndex"));
+        }
+
+        this.attributeIndices[index] = attributeIndex;
+    }
+
+    public boolean isVisible(int index) {
+        this.checkIndex(index, "isVisible");
+        return (this.flags[index] & FLAG_VISIBLE) != 0;
+    }
+
+    public void setVisible(int index, boolean visible) {
+        this.checkIndex(index, "setVisible");
+        this.flags[index] = visible ? (this.flags[index] | FLAG_VISIBLE) : (this.flags[index] & ~FLAG_VISIBLE);
+    }
+
+    public boolean isHighlighted(int index) {
+        this.checkIndex(index, "isHighlighted");
+        return (this.flags[index] & FLAG_HIGHLIGHTED) != 0;
+    }
+
+    public void setHighlighted(int index, boolean highlighted) {
+        this.checkIndex(index, "setHighlighted");
+        this.flags[index] = highlighted ? (this.flags[index] | FLAG_HIGHLIGHTED) : (this.flags[index] & ~FLAG_HIGHLIGHTED);
+    }
+
+    /**
+     * Adds an attributes bundle that placemarks in this collection may refer to by index. The collection retains a
+     * reference to the attributes; changes to the attributes are reflected on the next frame.
+     *
+     * @param attributes the attributes to add
+     *
+     * @return the index of the attributes
+     *
+     * @throws IllegalArgumentException If the attributes are null
+     */
+    public int addAttributes(PlacemarkAttributes attributes) {
+        if (attributes == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "PlacemarkCollection", "addAttributes", "missingAttributes"));
+        }
+
+        this.attributes.add(attributes);
+        return this.attributes.size() - 1;
+    }
+
+    public PlacemarkAttributes getAttributes(int attributeIndex) {
+        if (attributeIndex < 0 || attributeIndex >= this.attributes.size()) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "PlacemarkCollection", "getAttributes", "invalidIndex"));
+        }
+
+        return this.attributes.get(attributeIndex);
+    }
+
+    public int getAttributesCount() {
+        return this.attributes.size();
+    }
+
+    /**
+     * Returns the attributes used for highlighted placemarks.
+     *
+     * @return the highlight attributes, or null if highlighted placemarks are displayed with their own attributes
+     */
+    public PlacemarkAttributes getHighlightAttributes() {
+        return this.highlightAttributes;
+    }
+
+    public void setHighlightAttributes(PlacemarkAttributes highlightAttributes) {
+        this.highlightAttributes = highlightAttributes;
+    }
+
+    public int getAltitudeMode() {
+        return this.altitudeMode;
+    }
+
+    public void setAltitudeMode(@WorldWind.AltitudeMode int altitudeMode) {
+        this.altitudeMode = altitudeMode;
+        this.pointsValid = false;
+    }
+
+    /**
+     * Indicates whether placemark headings are relative to the screen or to the globe. See {@link
+     * Placemark#getImageRotationReference()}.
+     *
+     * @return WorldWind.RELATIVE_TO_SCREEN or WorldWind.RELATIVE_TO_GLOBE
+     */
+    public int getHeadingReference() {
+        return this.headingReference;
+    }
+
+    public void setHeadingReference(@WorldWind.OrientationMode int headingReference) {
+        this.headingReference = headingReference;
+    }
+
+    public PositionUpdateChannel getUpdateChannel() {
+        return this.updateChannel;
+    }
+
+    /**
+     * Specifies a channel that publishes the positions and headings of this collection's placemarks, indexed by
+     * placemark. When a channel is specified the collection applies the channel's latest snapshot at the start of each
+     * frame, replacing the positions and headings of the placemarks the snapshot contains.
+     *
+     * @param updateChannel the update channel, or null to use the positions and headings set on this collection
+     */
+    public void setUpdateChannel(PositionUpdateChannel updateChannel) {
+        this.updateChannel = updateChannel;
+        this.updateGeneration = 0;
+    }
+
+    @Override
+    protected void doRender(RenderContext rc) {
+        // Apply the latest positions and headings published to the update channel.
+        this.applyUpdates(rc);
+
+        if (this.count == 0 || this.attributes.isEmpty()) {
+            return; // nothing to render
+        }
+
+        // Compute the placemarks' Cartesian points.
+        this.assemblePoints(rc);
+
+        // Obtain a drawable from the render context pool, and use the basic GLSL program to draw the placemarks.
+        Pool<DrawableScreenQuads> pool = rc.getDrawablePool(DrawableScreenQuads.class);
+        DrawableScreenQuads drawable = DrawableScreenQuads.obtain(pool);
+        drawable.program = (BasicShaderProgram) rc.getShaderProgram(BasicShaderProgram.KEY);
+        if (drawable.program == null) {
+            drawable.program = (BasicShaderProgram) rc.putShaderProgram(BasicShaderProgram.KEY, new BasicShaderProgram(rc.resources));
+        }
+
+        // Project the visible placemarks to screen coordinates and add them to the drawable.
+        double nearestDistance = this.assembleQuads(rc, drawable);
+
+        // Enqueue the drawable for processing on the OpenGL thread, ordered by the nearest placemark's distance.
+        if (drawable.getQuadCount() > 0) {
+            rc.offerShapeDrawable(drawable, nearestDistance);
+        } else {
+            drawable.recycle();
+        }
+    }
+
+    protected void applyUpdates(RenderContext rc) {
+        if (this.updateChannel == null) {
+            return;
+        }
+
+        PositionUpdateChannel.Snapshot snapshot = this.updateChannel.acquireLatest();
+        if (snapshot.getGeneration() == this.updateGeneration) {
+            return; // the latest snapshot has already been applied
+        }
+
+        for (int idx = 0, len = Math.min(snapshot.getCount(), this.count); idx < len; idx++) {
+            this.latitudes[idx] = snapshot.getLatitude(idx);
+            this.longitudes[idx] = snapshot.getLongitude(idx);
+            this.altitudes[idx] = snapshot.getAltitude(idx);
+            this.headings[idx] = snapshot.getHeading(idx);
+        }
+
+        this.updateGeneration = snapshot.getGeneration();
+        this.pointsValid = false;
+    }
+
+    protected void assemblePoints(RenderContext rc) {
+        // Points relative to the terrain must be computed each frame. Absolute points are retained until the
+        // placemarks, the globe or the vertical exaggeration change.
+        if (this.pointsValid && this.altitudeMode == WorldWind.ABSOLUTE && this.pointsGlobe == rc.globe
+            && this.pointsVerticalExaggeration == rc.verticalExaggeration) {
+            return;
+        }
+
+        double[] points = this.points;
+        Vec3 point = this.point;
+        for (int idx = 0, pidx = 0, len = this.count; idx < len; idx++, pidx += 3) {
+            rc.geographicToCartesian(this.latitudes[idx], this.longitudes[idx], this.altitudes[idx],
+                this.altitudeMode, point);
+            points[pidx] = point.x;
+            points[pidx + 1] = point.y;
+            points[pidx + 2] = point.z;
+        }
+
+        this.pointsValid = true;
+        this.pointsGlobe = rc.globe;
+        this.pointsVerticalExaggeration = rc.verticalExaggeration;
+    }
+
+    protected double assembleQuads(RenderContext rc, DrawableScreenQuads drawable) {
+        // Styles are added to the drawable for each attributes bundle used by a visible placemark. The highlight
+        // attributes use the slot following the collection's attributes.
+        int attributeCount = this.attributes.size();
+        this.prepareStyles(attributeCount + 1);
+
+        double[] mv = rc.modelview.m;
+        double[] p = rc.projection.m;
+        double cx = rc.cameraPoint.x, cy = rc.cameraPoint.y, cz = rc.cameraPoint.z;
+        double horizon2 = rc.horizonDistance * rc.horizonDistance;
+        Viewport viewport = rc.viewport;
+        Viewport bounds = rc.pickMode ? rc.pickViewport : rc.viewport;
+        double nearestDistance2 = Double.MAX_VALUE;
+
+        for (int idx = 0, len = this.count; idx < len; idx++) {
+            int flags = this.flags[idx];
+            if ((flags & FLAG_VISIBLE) == 0) {
+                continue;
+            }
+
+            // Transform the model point to eye coordinates, then to clip coordinates.
+            int pidx = idx * 3;
+            double mx = this.points[pidx], my = this.points[pidx + 1], mz = this.points[pidx + 2];
+            double ex = mv[0] * mx + mv[1] * my + mv[2] * mz + mv[3];
+            double ey = mv[4] * mx + mv[5] * my + mv[6] * mz + mv[7];
+            double ez = mv[8] * mx + mv[9] * my + mv[10] * mz + mv[11];
+            double ew = mv[12] * mx + mv[13] * my + mv[14] * mz + mv[15];
+            double w = p[12] * ex + p[13] * ey + p[14] * ez + p[15] * ew;
+            if (w == 0) {
+                continue;
+            }
+
+            double z = (p[8] * ex + p[9] * ey + p[10] * ez + p[11] * ew) / w;
+            if (z < -1 || z > 1) {
+                continue; // clipped by the near plane or the far plane
+            }
+
+            // Apply a depth offset to placemarks nearer than the horizon, as Placemark does.
+            double dx = mx - cx, dy = my - cy, dz = mz - cz;
+            double distance2 = dx * dx + dy * dy + dz * dz;
+            if (distance2 < horizon2) {
+                z = (p[8] * ex + p[9] * ey + p[10] * ez * (1 + DEFAULT_DEPTH_OFFSET) + p[11] * ew) / w;
+                z = (z < -1) ? -1 : (z > 1 ? 1 : z);
+            }
+
+            double x = (p[0] * ex + p[1] * ey + p[2] * ez + p[3] * ew) / w;
+            double y = (p[4] * ex + p[5] * ey + p[6] * ez + p[7] * ew) / w;
+            double sx = (x * 0.5 + 0.5) * viewport.width + viewport.x;
+            double sy = (y * 0.5 + 0.5) * viewport.height + viewport.y;
+
+            // Determine the placemark's style, adding the style to the drawable the first time it's used this frame.
+            boolean highlighted = (flags & FLAG_HIGHLIGHTED) != 0 && this.highlightAttributes != null;
+            int slot = highlighted ? attributeCount : this.attributeIndices[idx];
+            if (this.attributeStyles[slot] < 0) {
+                this.addStyle(rc, drawable, slot, highlighted ? this.highlightAttributes : this.attributes.get(slot));
+            }
+
+            // Cull placemarks whose screen rectangle is outside the viewport, or outside the pick viewport when
+            // picking. Rotated rectangles are culled by the bounds of the circle enclosing the rectangle.
+            double x0 = sx - this.styleOffsetX[slot];
+            double y0 = sy - this.styleOffsetY[slot];
+            double x1 = x0 + this.styleWidths[slot];
+            double y1 = y0 + this.styleHeights[slot];
+            double rotation = (this.headingReference == WorldWind.RELATIVE_TO_GLOBE) ?
+                rc.camera.heading - this.headings[idx] : -this.headings[idx];
+            double margin = 0;
+            if (rotation != 0) {
+                double rw = x1 - x0, rh = y1 - y0;
+                margin = (Math.sqrt(rw * rw + rh * rh) - Math.min(rw, rh)) * 0.5;
+            }
+            if (x1 + margin <= bounds.x || x0 - margin >= bounds.x + bounds.width
+                || y1 + margin <= bounds.y || y0 - margin >= bounds.y + bounds.height) {
+                continue;
+            }
+
+            // Assign a picked object ID to the placemark when picking, and enqueue a picked object that maps the ID to
+            // the placemark's index.
+            int pickedObjectId = 0;
+            if (rc.pickMode) {
+                pickedObjectId = rc.nextPickedObjectId();
+                rc.offerPickedObject(PickedObject.fromRenderableItem(pickedObjectId, this, idx, rc.currentLayer));
+            }
+
+            // Record the placemark's screen bounds for picking on the CPU. Rotated placemarks are picked by the bounds
+            // of the circle enclosing their rectangle.
+            if (rc.pickIndex != null) {
+                PlacemarkAttributes attributes = highlighted ? this.highlightAttributes : this.attributes.get(slot);
+                rc.pickIndex.addScreenRect(this, idx, rc.currentLayer, x0 - margin, y0 - margin, x1 + margin,
+                    y1 + margin, z * 0.5 + 0.5, attributes.depthTest);
+            }
+
+            drawable.addQuad(this.attributeStyles[slot], (float) x0, (float) y0, (float) x1, (float) y1,
+                (float) (z * 0.5 + 0.5), (float) rotation, pickedObjectId);
+
+            if (nearestDistance2 > distance2) {
+                nearestDistance2 = distance2;
+            }
+        }
+
+        return Math.sqrt(nearestDistance2);
+    }
+
+    protected void prepareStyles(int slotCount) {
+        if (this.attributeStyles.length < slotCount) {
+            this.attributeStyles = new int[slotCount];
+            this.styleWidths = new float[slotCount];
+            this.styleHeights = new float[slotCount];
+            this.styleOffsetX = new float[slotCount];
+            this.styleOffsetY = new float[slotCount];
+        }
+
+        Arrays.fill(this.attributeStyles, 0, slotCount, -1);
+    }
+
+    protected void addStyle(RenderContext rc, DrawableScreenQuads drawable, int slot, PlacemarkAttributes attributes) {
+        // Determine the attributes' texture, retrieving the texture if it's not in the cache.
+        Texture texture = null;
+        if (attributes.imageSource != null) {
+            texture = rc.getTexture(attributes.imageSource);
+            if (texture == null) {
+                texture = rc.retrieveTexture(attributes.imageSource, null);
+            }
+        }
+
+        // Compute the screen size and offset of placemarks using the attributes. Placemarks without a texture are
+        // drawn as a square with the image scale as its size, as Placemark does.
+        double width, height;
+        if (texture != null) {
+            width = texture.getWidth() * attributes.imageScale;
+            height = texture.getHeight() * attributes.imageScale;
+            attributes.imageOffset.offsetForSize(texture.getWidth(), texture.getHeight(), this.offset);
+            this.offset.x *= attributes.imageScale;
+            this.offset.y *= attributes.imageScale;
+        } else {
+            width = height = (attributes.imageSource != null) ? 24 : attributes.imageScale;
+            attributes.imageOffset.offsetForSize(width, height, this.offset);
+        }
+
+        this.styleWidths[slot] = (float) width;
+        this.styleHeights[slot] = (float) height;
+        this.styleOffsetX[slot] = (float) this.offset.x;
+        this.styleOffsetY[slot] = (float) this.offset.y;
+        this.attributeStyles[slot] = drawable.addStyle(texture, attributes.imageColor, attributes.depthTest);
+    }
+
+    protected void checkIndex(int index, String methodName) {
+        if (index < 0 || index >= this.count) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "PlacemarkCollection", methodName, "invalidIndex"));
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 import java.nio.ShortBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import gov.nasa.worldwind.WorldWind;
@@ -23,15 +24,20 @@ import gov.nasa.worldwind.geom.Location;
 import gov.nasa.worldwind.geom.Matrix3;
 import gov.nasa.worldwind.geom.Matrix4;
 import gov.nasa.worldwind.geom.Position;
+import gov.nasa.worldwind.geom.Sector;
 import gov.nasa.worldwind.geom.Vec3;
 import gov.nasa.worldwind.render.BasicShaderProgram;
 import gov.nasa.worldwind.render.BufferObject;
 import gov.nasa.worldwind.render.ImageOptions;
 import gov.nasa.worldwind.render.RenderContext;
 import gov.nasa.worldwind.render.Texture;
+import gov.nasa.worldwind.render.VertexArrayObject;
 import gov.nasa.worldwind.util.FloatArray;
+import gov.nasa.worldwind.util.IntArray;
 import gov.nasa.worldwind.util.Logger;
 import gov.nasa.worldwind.util.Pool;
+import gov.nasa.worldwind.util.PolylineSimplifier;
+import gov.nasa.worldwind.util.Retriever;
 import gov.nasa.worldwind.util.ShortArray;
 import gov.nasa.worldwind.util.glu.GLU;
 import gov.nasa.worldwind.util.glu.GLUtessellator;
@@ -41,6 +47,18 @@ public class Polygon extends AbstractShape {
 
     protected static final int VERTEX_STRIDE = 6;
 
+    protected static final int MAX_SIMULTANEOUS_ASSEMBLIES = 4;
+
+    /**
+     * Assembles polygon geometry on separate threads, so that tessellating many polygons does not stall the render
+     * thread.
+     */
+    protected static Retriever<Polygon, PolygonGeometryRetriever.Request, Polygon> geometryRetriever =
+        new PolygonGeometryRetriever(MAX_SIMULTANEOUS_ASSEMBLIES);
+
+    protected static Retriever.Callback<Polygon, PolygonGeometryRetriever.Request, Polygon> geometryCallback =
+        new GeometryCallback();
+
     protected static final ImageOptions defaultInteriorImageOptions = new ImageOptions();
 
     protected static final ImageOptions defaultOutlineImageOptions = new ImageOptions();
@@ -53,18 +71,31 @@ public class Polygon extends AbstractShape {
 
     protected FloatArray vertexArray = new FloatArray();
 
-    protected ShortArray topElements = new ShortArray();
+    protected IntArray topElements = new IntArray();
 
-    protected ShortArray sideElements = new ShortArray();
+    protected IntArray sideElements = new IntArray();
 
-    protected ShortArray outlineElements = new ShortArray();
+    protected IntArray outlineElements = new IntArray();
 
-    protected ShortArray verticalElements = new ShortArray();
+    protected IntArray verticalElements = new IntArray();
 
     protected Object vertexBufferKey = nextCacheKey();
 
     protected Object elementBufferKey = nextCacheKey();
 
+    protected Object vertexArrayObjectKey = nextCacheKey();
+
+    /**
+     * The polygon's elements divided into chunks addressable by 16-bit elements, or null if the polygon's elements
+     * are drawn directly. Assembled for polygons with more than 65536 vertices when the OpenGL context does not
+     * support 32-bit elements.
+     */
+    protected ChunkedElements chunkedElements;
+
+    protected int elementType = GLES20.GL_UNSIGNED_SHORT;
+
+    protected int elementSize = 2;
+
     protected Vec3 vertexOrigin = new Vec3();
 
     protected boolean isSurfaceShape;
@@ -73,6 +104,50 @@ public class Polygon extends AbstractShape {
 
     protected double texCoord1d;
 
+    /**
+     * Identifies the polygon's current boundaries and geometry properties. Incremented each time the polygon is reset.
+     */
+    protected int geometryGeneration;
+
+    /**
+     * The geometry generation most recently requested from the geometry retriever, or -1 if none is outstanding.
+     */
+    protected int requestedGeneration = -1;
+
+    /**
+     * Geometry assembled on a separate thread, awaiting adoption on the render thread.
+     */
+    protected volatile Polygon assembledGeometry;
+
+    /**
+     * The level of detail of this polygon's geometry. Level 0 indicates geometry assembled from every boundary
+     * position, and subsequent levels indicate geometry assembled from progressively simplified boundaries.
+     */
+    protected int geometryLevel;
+
+    /**
+     * Geometry adopted for the polygon's current generation, indexed by level of detail.
+     */
+    protected Polygon[] levelGeometry = new Polygon[PolylineSimplifier.MAX_LEVEL + 1];
+
+    /**
+     * The geometry the polygon is currently displayed with, or null if the polygon has no geometry for its current
+     * generation.
+     */
+    protected Polygon currentGeometry;
+
+    /**
+     * The simplification importance of each boundary position, in meters. Computed on a separate thread the first time
+     * the polygon's current generation is assembled at a simplified level of detail.
+     */
+    protected float[][] boundaryImportance;
+
+    /**
+     * The geographic region containing the boundary positions, used to choose a level of detail before the polygon's
+     * geometry has been assembled.
+     */
+    protected Sector positionSector = new Sector();
+
     protected GLUtessellatorCallbackAdapter tessCallback = new GLUtessellatorCallbackAdapter() {
         @Override
         public void combineData(double[] coords, Object[] data, float[] weight, Object[] outData, Object polygonData) {
@@ -101,6 +176,14 @@ public class Polygon extends AbstractShape {
 
     protected static final int VERTEX_COMBINED = 2;
 
+    protected static final int TOP_RANGE = 0;
+
+    protected static final int SIDE_RANGE = 1;
+
+    protected static final int OUTLINE_RANGE = 2;
+
+    protected static final int VERTICAL_RANGE = 3;
+
     private Vec3 point = new Vec3();
 
     private Vec3 prevPoint = new Vec3();
@@ -115,6 +198,10 @@ public class Polygon extends AbstractShape {
 
     private double[] tessCoords = new double[3];
 
+    private double[] boundaryPositions = new double[0];
+
+    private float[] boundaryPoints = new float[0];
+
     private int[] tessVertices = new int[3];
 
     private boolean[] tessEdgeFlags = new boolean[3];
@@ -249,11 +336,17 @@ public class Polygon extends AbstractShape {
     }
 
     protected void reset() {
+        this.geometryGeneration++;
+        Arrays.fill(this.levelGeometry, null);
+        this.currentGeometry = null;
+        this.boundaryImportance = null;
+        this.positionSector.setEmpty();
         this.vertexArray.clear();
         this.topElements.clear();
         this.sideElements.clear();
         this.outlineElements.clear();
         this.verticalElements.clear();
+        this.chunkedElements = null;
     }
 
     @Override
@@ -262,10 +355,8 @@ public class Polygon extends AbstractShape {
             return; // nothing to draw
         }
 
-        if (this.mustAssembleGeometry(rc)) {
-            this.assembleGeometry(rc);
-            this.vertexBufferKey = nextCacheKey();
-            this.elementBufferKey = nextCacheKey();
+        if (!this.adoptAssembledGeometry(rc)) {
+            return; // the polygon's geometry is being assembled on a separate thread
         }
 
         // Obtain a drawable form the render context pool.
@@ -290,28 +381,15 @@ public class Polygon extends AbstractShape {
             drawState.program = (BasicShaderProgram) rc.putShaderProgram(BasicShaderProgram.KEY, new BasicShaderProgram(rc.resources));
         }
 
-        // Assemble the drawable's OpenGL vertex buffer object.
-        drawState.vertexBuffer = rc.getBufferObject(this.vertexBufferKey);
-        if (drawState.vertexBuffer == null) {
-            int size = this.vertexArray.size() * 4;
-            FloatBuffer buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder()).asFloatBuffer();
-            buffer.put(this.vertexArray.array(), 0, this.vertexArray.size());
-            drawState.vertexBuffer = new BufferObject(GLES20.GL_ARRAY_BUFFER, size, buffer.rewind());
-            rc.putBufferObject(this.vertexBufferKey, drawState.vertexBuffer);
+        // Use the shape's vertex array object to retain the attribute setup of each primitive across frames.
+        drawState.vertexArray = rc.getVertexArray(this.vertexArrayObjectKey);
+        if (drawState.vertexArray == null) {
+            drawState.vertexArray = rc.putVertexArray(this.vertexArrayObjectKey, new VertexArrayObject());
         }
 
-        // Assemble the drawable's OpenGL element buffer object.
-        drawState.elementBuffer = rc.getBufferObject(this.elementBufferKey);
-        if (drawState.elementBuffer == null) {
-            int size = (this.topElements.size() * 2) + (this.sideElements.size() * 2) + (this.outlineElements.size() * 2) + (this.verticalElements.size() * 2);
-            ShortBuffer buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder()).asShortBuffer();
-            buffer.put(this.topElements.array(), 0, this.topElements.size());
-            buffer.put(this.sideElements.array(), 0, this.sideElements.size());
-            buffer.put(this.outlineElements.array(), 0, this.outlineElements.size());
-            buffer.put(this.verticalElements.array(), 0, this.verticalElements.size());
-            drawState.elementBuffer = new BufferObject(GLES20.GL_ELEMENT_ARRAY_BUFFER, size, buffer.rewind());
-            rc.putBufferObject(this.elementBufferKey, drawState.elementBuffer);
-        }
+        // Assemble the drawable's OpenGL vertex buffer object and element buffer object.
+        drawState.vertexBuffer = this.assembleVertexBuffer(rc);
+        drawState.elementBuffer = this.assembleElementBuffer(rc);
 
         if (this.isSurfaceShape || this.activeAttributes.interiorColor.alpha >= 1.0) {
             this.drawInterior(rc, drawState);
@@ -331,11 +409,108 @@ public class Polygon extends AbstractShape {
         // Enqueue the drawable for processing on the OpenGL thread.
         if (this.isSurfaceShape) {
             rc.offerSurfaceDrawable(drawable, 0 /*zOrder*/);
+        } else if (drawState.isOrderIndependent()) {
+            rc.offerOpaqueShapeDrawable(drawable, drawState.stateKey());
         } else {
             rc.offerShapeDrawable(drawable, this.cameraDistance);
         }
     }
 
+    @Override
+    protected void recordPickGeometry(RenderContext rc) {
+        if (this.isSurfaceShape) {
+            super.recordPickGeometry(rc); // surface polygons are picked by rendering a pick frame
+            return;
+        }
+
+        rc.pickIndex.beginShape(this, rc.currentLayer, this.vertexArray.array(), VERTEX_STRIDE, this.vertexOrigin,
+            this.boundingBox, this.activeAttributes.outlineWidth, this.activeAttributes.depthTest);
+
+        if (this.activeAttributes.drawInterior) {
+            rc.pickIndex.addShapeElements(GLES20.GL_TRIANGLES, this.topElements.array(), this.topElements.size());
+        }
+
+        if (this.activeAttributes.drawInterior && this.extrude) {
+            rc.pickIndex.addShapeElements(GLES20.GL_TRIANGLES, this.sideElements.array(), this.sideElements.size());
+        }
+
+        if (this.activeAttributes.drawOutline) {
+            rc.pickIndex.addShapeElements(GLES20.GL_LINES, this.outlineElements.array(), this.outlineElements.size());
+        }
+
+        if (this.activeAttributes.drawOutline && this.activeAttributes.drawVerticals && this.extrude) {
+            rc.pickIndex.addShapeElements(GLES20.GL_LINES, this.verticalElements.array(), this.verticalElements.size());
+        }
+    }
+
+    protected BufferObject assembleVertexBuffer(RenderContext rc) {
+        BufferObject bufferObject = rc.getBufferObject(this.vertexBufferKey);
+        if (bufferObject != null) {
+            return bufferObject;
+        }
+
+        // Chunked elements index a copy of the vertices, arranged in chunks addressable by 16-bit elements.
+        FloatArray array = (this.chunkedElements != null) ? this.chunkedElements.getVertexArray() : this.vertexArray;
+        int size = array.size() * 4;
+        FloatBuffer buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        buffer.put(array.array(), 0, array.size());
+        bufferObject = new BufferObject(GLES20.GL_ARRAY_BUFFER, size, buffer.rewind());
+
+        return rc.putBufferObject(this.vertexBufferKey, bufferObject);
+    }
+
+    protected BufferObject assembleElementBuffer(RenderContext rc) {
+        // Use 16-bit elements when they can address every vertex, and 32-bit elements otherwise. Polygons assembled
+        // without support for 32-bit elements have chunked elements, which are always 16-bit.
+        int vertexCount = this.vertexArray.size() / VERTEX_STRIDE;
+        boolean uint = this.chunkedElements == null && vertexCount > ChunkedElements.MAX_CHUNK_VERTICES;
+        this.elementType = uint ? GLES20.GL_UNSIGNED_INT : GLES20.GL_UNSIGNED_SHORT;
+        this.elementSize = uint ? 4 : 2;
+
+        BufferObject bufferObject = rc.getBufferObject(this.elementBufferKey);
+        if (bufferObject != null) {
+            return bufferObject;
+        }
+
+        if (this.chunkedElements != null) {
+            ShortArray array = this.chunkedElements.getElementArray();
+            int size = array.size() * 2;
+            ShortBuffer buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder()).asShortBuffer();
+            buffer.put(array.array(), 0, array.size());
+            bufferObject = new BufferObject(GLES20.GL_ELEMENT_ARRAY_BUFFER, size, buffer.rewind());
+        } else {
+            int count = this.topElements.size() + this.sideElements.size() + this.outlineElements.size() + this.verticalElements.size();
+            int size = count * this.elementSize;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+            putElements(buffer, this.topElements, uint);
+            putElements(buffer, this.sideElements, uint);
+            putElements(buffer, this.outlineElements, uint);
+            putElements(buffer, this.verticalElements, uint);
+            bufferObject = new BufferObject(GLES20.GL_ELEMENT_ARRAY_BUFFER, size, buffer.rewind());
+        }
+
+        return rc.putBufferObject(this.elementBufferKey, bufferObject);
+    }
+
+    protected static void putElements(ByteBuffer buffer, IntArray elements, boolean uint) {
+        int[] array = elements.array();
+        for (int idx = 0, len = elements.size(); idx < len; idx++) {
+            if (uint) {
+                buffer.putInt(array[idx]);
+            } else {
+                buffer.putShort((short) array[idx]);
+            }
+        }
+    }
+
+    protected void drawElements(DrawShapeState drawState, int mode, int range, int count, int offset) {
+        if (this.chunkedElements != null) {
+            this.chunkedElements.drawElements(drawState, range);
+        } else {
+            drawState.drawElements(mode, count, this.elementType, offset * this.elementSize /*offset in bytes*/);
+        }
+    }
+
     protected void drawInterior(RenderContext rc, DrawShapeState drawState) {
         if (!this.activeAttributes.drawInterior) {
             return;
@@ -364,14 +539,13 @@ public class Polygon extends AbstractShape {
         // Configure the drawable to display the shape's interior top.
         drawState.color(rc.pickMode ? this.pickColor : this.activeAttributes.interiorColor);
         drawState.texCoordAttrib(2 /*size*/, 12 /*offset in bytes*/);
-        drawState.drawElements(GLES20.GL_TRIANGLES, this.topElements.size(),
-            GLES20.GL_UNSIGNED_SHORT, 0 /*offset*/);
+        this.drawElements(drawState, GLES20.GL_TRIANGLES, TOP_RANGE, this.topElements.size(), 0 /*offset*/);
 
         // Configure the drawable to display the shape's interior sides.
         if (this.extrude) {
             drawState.texture(null);
-            drawState.drawElements(GLES20.GL_TRIANGLES, this.sideElements.size(),
-                GLES20.GL_UNSIGNED_SHORT, this.topElements.size() * 2 /*offset*/);
+            this.drawElements(drawState, GLES20.GL_TRIANGLES, SIDE_RANGE, this.sideElements.size(),
+                this.topElements.size() /*offset*/);
         }
     }
 
@@ -402,27 +576,131 @@ public class Polygon extends AbstractShape {
         drawState.color(rc.pickMode ? this.pickColor : this.activeAttributes.outlineColor);
         drawState.lineWidth(this.activeAttributes.outlineWidth);
         drawState.texCoordAttrib(1 /*size*/, 20 /*offset in bytes*/);
-        drawState.drawElements(GLES20.GL_LINES, this.outlineElements.size(),
-            GLES20.GL_UNSIGNED_SHORT, (this.topElements.size() * 2) + (this.sideElements.size() * 2) /*offset*/);
+        this.drawElements(drawState, GLES20.GL_LINES, OUTLINE_RANGE, this.outlineElements.size(),
+            this.topElements.size() + this.sideElements.size() /*offset*/);
 
         // Configure the drawable to display the shape's extruded verticals.
         if (this.activeAttributes.drawVerticals && this.extrude) {
             drawState.color(rc.pickMode ? this.pickColor : this.activeAttributes.outlineColor);
             drawState.lineWidth(this.activeAttributes.outlineWidth);
             drawState.texture(null);
-            drawState.drawElements(GLES20.GL_LINES, this.verticalElements.size(),
-                GLES20.GL_UNSIGNED_SHORT, (this.topElements.size() * 2) + (this.sideElements.size() * 2) + (this.outlineElements.size() * 2) /*offset*/);
+            this.drawElements(drawState, GLES20.GL_LINES, VERTICAL_RANGE, this.verticalElements.size(),
+                this.topElements.size() + this.sideElements.size() + this.outlineElements.size() /*offset*/);
+        }
+    }
+
+    /**
+     * Adopts the polygon's geometry once it has been assembled on a separate thread, and selects the geometry for the
+     * level of detail appropriate to the polygon's screen size. Geometry for a level that has not been assembled is
+     * requested from the geometry retriever, and the polygon is displayed with its current geometry in the meantime.
+     * Geometry that does not reflect the polygon's current boundaries and properties is discarded.
+     *
+     * @param rc the current render context
+     *
+     * @return true if the polygon adopted geometry to draw, false if the polygon has no geometry to draw this frame
+     */
+    protected boolean adoptAssembledGeometry(RenderContext rc) {
+        Polygon geometry = this.assembledGeometry;
+        if (geometry != null) {
+            this.assembledGeometry = null;
+            if (geometry.geometryGeneration == this.geometryGeneration) {
+                this.levelGeometry[geometry.geometryLevel] = geometry;
+                this.requestedGeneration = -1; // allow requests for other levels of the current generation
+                if (geometry.boundaryImportance != null) {
+                    this.boundaryImportance = geometry.boundaryImportance;
+                }
+            }
+        }
+
+        // Determine the level of detail from the distance to the region containing the boundary positions, which is
+        // known before any geometry has been assembled.
+        int level = this.simplificationLevel(rc, this.cameraDistanceGeographic(rc, this.assemblePositionSector()));
+        geometry = this.levelGeometry[level];
+
+        if (geometry == null) {
+            if (this.requestedGeneration != this.geometryGeneration) {
+                this.requestedGeneration = this.geometryGeneration;
+                geometryRetriever.retrieve(this, this.makeGeometryRequest(rc, level), geometryCallback);
+            }
+            geometry = this.currentGeometry;
+        }
+
+        if (geometry == null) {
+            return false; // no geometry has been assembled for the current generation
+        }
+
+        if (this.currentGeometry != geometry) {
+            this.currentGeometry = geometry;
+            this.geometryLevel = geometry.geometryLevel;
+            this.isSurfaceShape = geometry.isSurfaceShape;
+            this.vertexArray = geometry.vertexArray;
+            this.topElements = geometry.topElements;
+            this.sideElements = geometry.sideElements;
+            this.outlineElements = geometry.outlineElements;
+            this.verticalElements = geometry.verticalElements;
+            this.chunkedElements = geometry.chunkedElements;
+            this.vertexOrigin = geometry.vertexOrigin;
+            this.boundingBox = geometry.boundingBox;
+            this.boundingSector = geometry.boundingSector;
+            this.vertexBufferKey = geometry.vertexBufferKey; // each level's buffers remain cached by their own keys
+            this.elementBufferKey = geometry.elementBufferKey;
         }
+
+        return this.vertexArray.size() != 0;
     }
 
-    protected boolean mustAssembleGeometry(RenderContext rc) {
-        return this.vertexArray.size() == 0;
+    protected Sector assemblePositionSector() {
+        if (this.positionSector.isEmpty()) {
+            for (int boundaryIdx = 0, boundaryCount = this.boundaries.size(); boundaryIdx < boundaryCount; boundaryIdx++) {
+                List<Position> positions = this.boundaries.get(boundaryIdx);
+                for (int idx = 0, len = positions.size(); idx < len; idx++) {
+                    Position pos = positions.get(idx);
+                    this.positionSector.union(pos.latitude, pos.longitude);
+                }
+            }
+        }
+
+        return this.positionSector;
+    }
+
+    /**
+     * Creates a request to assemble the polygon's geometry on a separate thread. The request's polygon is a copy of
+     * this polygon's boundaries and geometry properties, which may be changed on the render thread while the copy is
+     * assembled.
+     *
+     * @param rc    the current render context
+     * @param level the level of detail to assemble
+     *
+     * @return a new geometry request
+     */
+    protected PolygonGeometryRetriever.Request makeGeometryRequest(RenderContext rc, int level) {
+        Polygon geometry = new Polygon();
+        geometry.altitudeMode = this.altitudeMode;
+        geometry.pathType = this.pathType;
+        geometry.maximumIntermediatePoints = this.maximumIntermediatePoints;
+        geometry.extrude = this.extrude;
+        geometry.followTerrain = this.followTerrain;
+        geometry.geometryGeneration = this.geometryGeneration;
+        geometry.geometryLevel = level;
+        geometry.boundaryImportance = this.boundaryImportance; // shared with the copy; never modified
+
+        for (int idx = 0, len = this.boundaries.size(); idx < len; idx++) {
+            geometry.boundaries.add(new ArrayList<>(this.boundaries.get(idx)));
+        }
+
+        return new PolygonGeometryRetriever.Request(geometry, rc.globe, rc.verticalExaggeration,
+            rc.elementIndexUint);
     }
 
     protected void assembleGeometry(RenderContext rc) {
         // Determine whether the shape geometry must be assembled as Cartesian geometry or as geographic geometry.
         this.isSurfaceShape = (this.altitudeMode == WorldWind.CLAMP_TO_GROUND) && this.followTerrain;
 
+        // Remove the boundary positions that are not significant at the geometry's level of detail.
+        if (this.geometryLevel > 0) {
+            this.simplifyBoundaries(rc);
+        }
+
         // Clear the shape's vertex array and element arrays. These arrays will accumulate values as the shapes's
         // geometry is assembled.
         this.vertexArray.clear();
@@ -430,6 +708,7 @@ public class Polygon extends AbstractShape {
         this.sideElements.clear();
         this.outlineElements.clear();
         this.verticalElements.clear();
+        this.chunkedElements = null;
 
         this.determineShapeOrigin(rc);
 
@@ -488,6 +767,72 @@ public class Polygon extends AbstractShape {
             this.boundingBox.translate(this.vertexOrigin.x, this.vertexOrigin.y, this.vertexOrigin.z);
             this.boundingSector.setEmpty(); // Cartesian shape bounding sector is unused
         }
+
+        // Divide the elements into chunks addressable by 16-bit elements when the polygon has more vertices than
+        // 16-bit elements can address, and the OpenGL context does not support 32-bit elements.
+        int vertexCount = this.vertexArray.size() / VERTEX_STRIDE;
+        if (vertexCount > ChunkedElements.MAX_CHUNK_VERTICES && !rc.elementIndexUint) {
+            this.chunkedElements = new ChunkedElements().reset(this.vertexArray.array(), VERTEX_STRIDE, vertexCount);
+            this.chunkedElements.addElements(TOP_RANGE, GLES20.GL_TRIANGLES, this.topElements.array(), this.topElements.size());
+            this.chunkedElements.addElements(SIDE_RANGE, GLES20.GL_TRIANGLES, this.sideElements.array(), this.sideElements.size());
+            this.chunkedElements.addElements(OUTLINE_RANGE, GLES20.GL_LINES, this.outlineElements.array(), this.outlineElements.size());
+            this.chunkedElements.addElements(VERTICAL_RANGE, GLES20.GL_LINES, this.verticalElements.array(), this.verticalElements.size());
+        }
+    }
+
+    protected void simplifyBoundaries(RenderContext rc) {
+        if (this.boundaryImportance == null) {
+            this.boundaryImportance = this.computeBoundaryImportance(rc);
+        }
+
+        float tolerance = (float) PolylineSimplifier.toleranceForLevel(this.geometryLevel);
+        for (int boundaryIdx = 0, boundaryCount = this.boundaries.size(); boundaryIdx < boundaryCount; boundaryIdx++) {
+            List<Position> positions = this.boundaries.get(boundaryIdx);
+            float[] importance = this.boundaryImportance[boundaryIdx];
+            List<Position> simplified = new ArrayList<>();
+            for (int idx = 0, len = positions.size(); idx < len; idx++) {
+                if (importance[idx] >= tolerance) {
+                    simplified.add(positions.get(idx));
+                }
+            }
+            this.boundaries.set(boundaryIdx, simplified);
+        }
+    }
+
+    protected float[][] computeBoundaryImportance(RenderContext rc) {
+        float[][] result = new float[this.boundaries.size()][];
+
+        for (int boundaryIdx = 0, boundaryCount = this.boundaries.size(); boundaryIdx < boundaryCount; boundaryIdx++) {
+            List<Position> positions = this.boundaries.get(boundaryIdx);
+            float[] points = new float[positions.size() * 3];
+            Vec3 origin = null;
+
+            // Compute Cartesian points relative to the boundary's first position, keeping the points' single precision
+            // coordinates well within the smallest simplification tolerance. Absolute positions are converted in bulk.
+            if (this.altitudeMode == WorldWind.ABSOLUTE && !positions.isEmpty()) {
+                Position pos = positions.get(0);
+                origin = rc.geographicToCartesian(pos.latitude, pos.longitude, pos.altitude, WorldWind.ABSOLUTE,
+                    this.point);
+                double[] array = this.assembleBoundaryPositions(rc, positions);
+                rc.globe.geographicToCartesianArray(array, 3, 0, positions.size(), origin, points, 3, 0);
+            } else {
+                for (int idx = 0, len = positions.size(); idx < len; idx++) {
+                    Position pos = positions.get(idx);
+                    Vec3 point = rc.geographicToCartesian(pos.latitude, pos.longitude, pos.altitude,
+                        this.altitudeMode, this.point);
+                    if (origin == null) {
+                        origin = new Vec3(point);
+                    }
+                    points[idx * 3] = (float) (point.x - origin.x);
+                    points[idx * 3 + 1] = (float) (point.y - origin.y);
+                    points[idx * 3 + 2] = (float) (point.z - origin.z);
+                }
+            }
+
+            result[boundaryIdx] = PolylineSimplifier.computeImportance(points, 0, 3, positions.size(), null);
+        }
+
+        return result;
     }
 
     protected void addIntermediateVertices(RenderContext rc, Position begin, Position end) {
@@ -575,8 +920,8 @@ public class Polygon extends AbstractShape {
                 this.vertexArray.add((float) 0 /*unused*/);
 
                 if (type == VERTEX_ORIGINAL) {
-                    this.verticalElements.add((short) vertex);
-                    this.verticalElements.add((short) (vertex + 1));
+                    this.verticalElements.add(vertex);
+                    this.verticalElements.add(vertex + 1);
                 }
             }
         }
@@ -595,14 +940,24 @@ public class Polygon extends AbstractShape {
                 continue; // no boundary positions
             }
 
-            for (int idx = 0, len = positions.size(); idx < len; idx++) {
-                Position pos = positions.get(idx);
-                Vec3 point = rc.geographicToCartesian(pos.latitude, pos.longitude, pos.altitude, WorldWind.ABSOLUTE, this.point);
-                mx += point.x;
-                my += point.y;
-                mz += point.z;
-                numPoints++;
+            // Convert the boundary's positions in bulk. The single precision points are sufficient to place the origin
+            // near the polygon's center.
+            int count = positions.size();
+            if (this.boundaryPoints.length < count * 3) {
+                this.boundaryPoints = new float[count * 3];
+            }
+
+            float[] points = this.boundaryPoints;
+            double[] array = this.assembleBoundaryPositions(rc, positions);
+            rc.globe.geographicToCartesianArray(array, 3, 0, count, null /*origin*/, points, 3, 0);
+
+            for (int pos = 0, len = count * 3; pos < len; pos += 3) {
+                mx += points[pos];
+                my += points[pos + 1];
+                mz += points[pos + 2];
             }
+
+            numPoints += count;
         }
 
         mx /= numPoints;
@@ -613,6 +968,28 @@ public class Polygon extends AbstractShape {
         this.modelToLocal = rc.globe.cartesianToLocalTransform(mx, my, mz, this.modelToLocal).invertOrthonormal();
     }
 
+    /**
+     * Copies a boundary's positions to a scratch array of consecutive latitude, longitude and altitude values, applying
+     * the vertical exaggeration to the altitudes as in {@link RenderContext#geographicToCartesian} for absolute
+     * positions.
+     */
+    protected double[] assembleBoundaryPositions(RenderContext rc, List<Position> positions) {
+        int count = positions.size();
+        if (this.boundaryPositions.length < count * 3) {
+            this.boundaryPositions = new double[count * 3];
+        }
+
+        double[] array = this.boundaryPositions;
+        for (int idx = 0, pos = 0; idx < count; idx++, pos += 3) {
+            Position position = positions.get(idx);
+            array[pos] = position.latitude;
+            array[pos + 1] = position.longitude;
+            array[pos + 2] = position.altitude * rc.verticalExaggeration;
+        }
+
+        return array;
+    }
+
     protected void tessCombine(RenderContext rc, double[] coords, Object[] data, float[] weight, Object[] outData) {
         int vertex = this.addVertex(rc, coords[1] /*lat*/, coords[0] /*lon*/, coords[2] /*alt*/, VERTEX_COMBINED /*type*/);
         outData[0] = vertex;
@@ -633,32 +1010,32 @@ public class Polygon extends AbstractShape {
         int v1 = this.tessVertices[1];
         int v2 = this.tessVertices[2];
 
-        this.topElements.add((short) v0).add((short) v1).add((short) v2);
+        this.topElements.add(v0).add(v1).add(v2);
 
         if (this.tessEdgeFlags[0] && this.extrude && !this.isSurfaceShape) {
-            this.sideElements.add((short) v0).add((short) (v0 + 1)).add((short) v1);
-            this.sideElements.add((short) v1).add((short) (v0 + 1)).add((short) (v1 + 1));
+            this.sideElements.add(v0).add(v0 + 1).add(v1);
+            this.sideElements.add(v1).add(v0 + 1).add(v1 + 1);
         }
         if (this.tessEdgeFlags[1] && this.extrude && !this.isSurfaceShape) {
-            this.sideElements.add((short) v1).add((short) (v1 + 1)).add((short) v2);
-            this.sideElements.add((short) v2).add((short) (v1 + 1)).add((short) (v2 + 1));
+            this.sideElements.add(v1).add(v1 + 1).add(v2);
+            this.sideElements.add(v2).add(v1 + 1).add(v2 + 1);
         }
         if (this.tessEdgeFlags[2] && this.extrude && !this.isSurfaceShape) {
-            this.sideElements.add((short) v2).add((short) (v2 + 1)).add((short) v0);
-            this.sideElements.add((short) v0).add((short) (v2 + 1)).add((short) (v0 + 1));
+            this.sideElements.add(v2).add(v2 + 1).add(v0);
+            this.sideElements.add(v0).add(v2 + 1).add(v0 + 1);
         }
 
         if (this.tessEdgeFlags[0]) {
-            this.outlineElements.add((short) v0);
-            this.outlineElements.add((short) v1);
+            this.outlineElements.add(v0);
+            this.outlineElements.add(v1);
         }
         if (this.tessEdgeFlags[1]) {
-            this.outlineElements.add((short) v1);
-            this.outlineElements.add((short) v2);
+            this.outlineElements.add(v1);
+            this.outlineElements.add(v2);
         }
         if (this.tessEdgeFlags[2]) {
-            this.outlineElements.add((short) v2);
-            this.outlineElements.add((short) v0);
+            this.outlineElements.add(v2);
+            this.outlineElements.add(v0);
         }
     }
 
@@ -670,4 +1047,30 @@ public class Polygon extends AbstractShape {
         String errstr = GLU.gluErrorString(errnum);
         Logger.logMessage(Logger.WARN, "Polygon", "assembleGeometry", "Error attempting to tessellate polygon \'" + errstr + "\'");
     }
+
+    protected static class GeometryCallback
+        implements Retriever.Callback<Polygon, PolygonGeometryRetriever.Request, Polygon> {
+
+        @Override
+        public void retrievalSucceeded(Retriever<Polygon, PolygonGeometryRetriever.Request, Polygon> retriever,
+                                       Polygon key, PolygonGeometryRetriever.Request options, Polygon value) {
+            key.assembledGeometry = value;
+            WorldWind.requestRedraw();
+        }
+
+        @Override
+        public void retrievalFailed(Retriever<Polygon, PolygonGeometryRetriever.Request, Polygon> retriever,
+                                    Polygon key, Throwable ex) {
+            // Leave the failed generation marked as requested, suppressing further requests until the polygon changes.
+            Logger.logMessage(Logger.ERROR, "Polygon", "assembleGeometry", "Geometry assembly failed", ex);
+        }
+
+        @Override
+        public void retrievalRejected(Retriever<Polygon, PolygonGeometryRetriever.Request, Polygon> retriever,
+                                      Polygon key) {
+            // Too many polygons are being assembled. Request the polygon's geometry again on a subsequent frame.
+            key.requestedGeneration = -1;
+            WorldWind.requestRedraw();
+        }
+    }
 }
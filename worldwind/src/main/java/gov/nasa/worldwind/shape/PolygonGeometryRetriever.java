@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.shape;
+
+import gov.nasa.worldwind.globe.Globe;
+import gov.nasa.worldwind.render.RenderContext;
+import gov.nasa.worldwind.util.Retriever;
+
+/**
+ * Assembles polygon geometry on separate threads on behalf of {@link Polygon}. Each request carries a copy of the
+ * polygon's boundaries and geometry properties, which the retriever assembles into the copy's vertex and element
+ * arrays. The polygon adopts the assembled geometry on a subsequent frame.
+ * <p/>
+ * Each retrieval thread assembles geometry with its own render context and its own GLU tessellator, since neither the
+ * render thread's context nor its tessellator may be used concurrently. Retrieval contexts have the globe and vertical
+ * exaggeration of the requesting frame, but no terrain; geometry relative to the terrain is assembled relative to the
+ * globe's ellipsoid.
+ */
+public class PolygonGeometryRetriever extends Retriever<Polygon, PolygonGeometryRetriever.Request, Polygon> {
+
+    protected ThreadLocal<RenderContext> threadContext = new ThreadLocal<RenderContext>() {
+        @Override
+        protected RenderContext initialValue() {
+            return new RenderContext();
+        }
+    };
+
+    public PolygonGeometryRetriever(int maxSimultaneousRetrievals) {
+        super(maxSimultaneousRetrievals);
+    }
+
+    @Override
+    protected void retrieveAsync(Polygon key, Request options, Callback<Polygon, Request, Polygon> callback) {
+        RenderContext rc = this.threadContext.get();
+        rc.globe = options.globe;
+        rc.verticalExaggeration = options.verticalExaggeration;
+        rc.elementIndexUint = options.elementIndexUint;
+
+        try {
+            options.geometry.assembleGeometry(rc);
+        } finally {
+            rc.globe = null; // release the reference to the globe; the thread's tessellator is retained for reuse
+        }
+
+        callback.retrievalSucceeded(this, key, options, options.geometry);
+    }
+
+    /**
+     * Geometry assembly request. Identifies the polygon copy to assemble, the globe to assemble it on, and whether the
+     * OpenGL context supports 32-bit elements.
+     */
+    public static class Request {
+
+        public Polygon geometry;
+
+        public Globe globe;
+
+        public double verticalExaggeration;
+
+        public boolean elementIndexUint;
+
+        public Request(Polygon geometry, Globe globe, double verticalExaggeration, boolean elementIndexUint) {
+            this.geometry = geometry;
+            this.globe = globe;
+            this.verticalExaggeration = verticalExaggeration;
+            this.elementIndexUint = elementIndexUint;
+        }
+    }
+}
@@ -101,6 +101,11 @@ public class SurfaceImage extends AbstractRenderable {
             PickedObject.identifierToUniqueColor(pickedObjectId, drawable.color);
             rc.offerPickedObject(PickedObject.fromRenderable(pickedObjectId, this, rc.currentLayer));
         }
+
+        // Surface images are picked by rendering a pick frame. Record the image's region in the pick index.
+        if (rc.pickIndex != null) {
+            rc.pickIndex.addSurfaceRegion(this.sector);
+        }
     }
 
     protected SurfaceTextureProgram getShaderProgram(RenderContext rc) {
@@ -8,8 +8,10 @@ package gov.nasa.worldwind.shape;
 import java.util.ArrayList;
 import java.util.List;
 
+import gov.nasa.worldwind.WorldWind;
 import gov.nasa.worldwind.draw.Drawable;
 import gov.nasa.worldwind.draw.DrawableSurfaceTexture;
+import gov.nasa.worldwind.geom.Frustum;
 import gov.nasa.worldwind.geom.Matrix3;
 import gov.nasa.worldwind.render.AbstractRenderable;
 import gov.nasa.worldwind.render.ImageOptions;
@@ -32,7 +34,11 @@ public class TiledSurfaceImage extends AbstractRenderable {
 
     protected LevelSet levelSet = new LevelSet(); // empty level set
 
-    protected ImageOptions imageOptions;
+    /**
+     * Image options for this surface image's tiles. By default, each tile is represented in the 16-bit RGB_565
+     * configuration when its image is opaque, and the 32-bit RGBA_8888 configuration otherwise.
+     */
+    protected ImageOptions imageOptions = new ImageOptions(WorldWind.RGB_565_IF_OPAQUE);
 
     protected double detailControl = 4;
 
@@ -131,7 +137,10 @@ public class TiledSurfaceImage extends AbstractRenderable {
         }
 
         for (int idx = 0, len = this.topLevelTiles.size(); idx < len; idx++) {
-            this.addTileOrDescendants(rc, (ImageTile) this.topLevelTiles.get(idx));
+            ImageTile tile = (ImageTile) this.topLevelTiles.get(idx);
+            if (tile.intersectsFrustum(rc, rc.frustum)) { // test the top level tiles against all frustum planes
+                this.addTileOrDescendants(rc, tile);
+            }
         }
     }
 
@@ -143,8 +152,9 @@ public class TiledSurfaceImage extends AbstractRenderable {
     }
 
     protected void addTileOrDescendants(RenderContext rc, ImageTile tile) {
-        if (!tile.intersectsSector(this.levelSet.sector) || !tile.intersectsFrustum(rc, rc.frustum)) {
-            return; // ignore the tile and its descendants if it's not needed or not visible
+        // The tile has been culled against the frustum, either individually or with its siblings.
+        if (!tile.intersectsSector(this.levelSet.sector)) {
+            return; // ignore the tile and its descendants if it's not needed
         }
 
         if (tile.level.isLastLevel() || !tile.mustSubdivide(rc, this.detailControl)) {
@@ -164,8 +174,15 @@ public class TiledSurfaceImage extends AbstractRenderable {
             }
         }
 
-        for (Tile child : tile.subdivideToCache(this.tileFactory, this.tileCache, 4)) { // each tile has a cached size of 1
-            this.addTileOrDescendants(rc, (ImageTile) child); // recursively process the tile's children
+        // Cull the tile's children in one pass, testing only the frustum planes the tile straddles. Children are
+        // enclosed by the tile, so they're inside the planes the tile is inside.
+        Tile[] children = tile.subdivideToCache(this.tileFactory, this.tileCache, 4); // each tile has a cached size of 1
+        Tile.intersectsFrustum(rc, rc.frustum, children, tile.getFrustumPlaneMask());
+
+        for (Tile child : children) {
+            if (child.getFrustumPlaneMask() != Frustum.CULLED) { // ignore the child and its descendants if not visible
+                this.addTileOrDescendants(rc, (ImageTile) child); // recursively process the tile's children
+            }
         }
 
         this.ancestorTile = currentAncestorTile; // restore the last fallback tile, even if it was null
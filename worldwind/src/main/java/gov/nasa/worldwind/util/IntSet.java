@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.util;
+
+import java.util.Arrays;
+
+/**
+ * A set of primitive int values. Values are stored in an open addressing hash table, and are additionally kept in the
+ * order they were added, which enables iteration by index. Clearing the set retains its capacity, so a set that is
+ * reused does not allocate once it reaches its working size.
+ */
+public class IntSet {
+
+    protected static final int MIN_CAPACITY = 8;
+
+    protected static final int EMPTY_SLOT = 0;
+
+    /**
+     * Hash table of the set's non-zero values, with length a power of two. Zero indicates an empty slot; membership of
+     * the value zero is indicated by containsZero.
+     */
+    protected int[] table;
+
+    protected int[] values;
+
+    protected int size;
+
+    protected boolean containsZero;
+
+    public IntSet() {
+        this(MIN_CAPACITY);
+    }
+
+    public IntSet(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "IntSet", "constructor", "invalidCapacity"));
+        }
+
+        int tableLength = MIN_CAPACITY * 2;
+        while (tableLength < initialCapacity * 2) {
+            tableLength <<= 1;
+        }
+
+        this.table = new int[tableLength];
+        this.values = new int[tableLength >> 1];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns a value in this set, in the order the values were added.
+     *
+     * @param index the value's index in the range [0, size)
+     *
+     * @return the value at the specified index
+     *
+     * @throws IllegalArgumentException If the index is out of range
+     */
+    public int get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "IntSet", "get", "invalidIndex"));
+        }
+
+        return this.values[index];
+    }
+
+    public boolean contains(int value) {
+        if (value == EMPTY_SLOT) {
+            return this.containsZero;
+        }
+
+        int[] table = this.table;
+        int mask = table.length - 1;
+        for (int slot = hash(value) & mask; table[slot] != EMPTY_SLOT; slot = (slot + 1) & mask) {
+            if (table[slot] == value) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds a value to this set.
+     *
+     * @param value the value to add
+     *
+     * @return true if the value was added, false if the set already contains the value
+     */
+    public boolean add(int value) {
+        if (value == EMPTY_SLOT) {
+            if (this.containsZero) {
+                return false;
+            }
+
+            this.containsZero = true;
+            this.appendValue(value);
+            return true;
+        }
+
+        int[] table = this.table;
+        int mask = table.length - 1;
+        int slot = hash(value) & mask;
+        for (; table[slot] != EMPTY_SLOT; slot = (slot + 1) & mask) {
+            if (table[slot] == value) {
+                return false;
+            }
+        }
+
+        table[slot] = value;
+        this.appendValue(value);
+
+        // Keep the table at most half full, which keeps probe sequences short.
+        if (this.size * 2 > table.length) {
+            this.rehash(table.length * 2);
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes all values from this set, retaining its capacity.
+     *
+     * @return this set
+     */
+    public IntSet clear() {
+        if (this.size > 0) {
+            Arrays.fill(this.table, EMPTY_SLOT);
+        }
+
+        this.size = 0;
+        this.containsZero = false;
+        return this;
+    }
+
+    protected void appendValue(int value) {
+        if (this.values.length == this.size) {
+            int[] newValues = new int[this.size * 2];
+            System.arraycopy(this.values, 0, newValues, 0, this.size);
+            this.values = newValues;
+        }
+
+        this.values[this.size++] = value;
+    }
+
+    protected void rehash(int tableLength) {
+        int[] table = new int[tableLength];
+        int mask = tableLength - 1;
+        for (int idx = 0; idx < this.size; idx++) {
+            int value = this.values[idx];
+            if (value != EMPTY_SLOT) {
+                int slot = hash(value) & mask;
+                while (table[slot] != EMPTY_SLOT) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = value;
+            }
+        }
+
+        this.table = table;
+    }
+
+    protected static int hash(int value) {
+        // Spread sequential values, such as picked object identifiers, across the table.
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
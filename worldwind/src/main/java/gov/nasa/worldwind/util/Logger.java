@@ -32,18 +32,26 @@ public class Logger {
         messageTable.put("invalidClass", "The class is null or cannot be found");
         messageTable.put("invalidCount", "The count is invalid");
         messageTable.put("invalidClipDistance", "The clip distance is invalid");
+        messageTable.put("invalidDuration", "The duration is invalid");
+        messageTable.put("invalidEntry", "The entry is null or not in the collection");
         messageTable.put("invalidFieldOfView", "The field of view is invalid");
         messageTable.put("invalidHeight", "The height is invalid");
         messageTable.put("invalidIndex", "The index is invalid");
+        messageTable.put("invalidMode", "The mode is invalid");
         messageTable.put("invalidNumLevels", "The number of levels is invalid");
         messageTable.put("invalidRadius", "The radius is invalid");
+        messageTable.put("invalidRange", "The range is invalid");
         messageTable.put("invalidResolution", "The resolution is invalid");
         messageTable.put("invalidResource", "The resource is invalid");
+        messageTable.put("invalidSize", "The size is invalid");
+        messageTable.put("invalidSnapshot", "The snapshot is invalid");
         messageTable.put("invalidStride", "The stride is invalid");
         messageTable.put("invalidTileDelta", "The tile delta is invalid");
+        messageTable.put("invalidTolerance", "The tolerance is invalid");
         messageTable.put("invalidWidth", "The width is invalid");
         messageTable.put("invalidWidthOrHeight", "The width or the height is invalid");
         messageTable.put("missingArray", "The array is null or insufficient length");
+        messageTable.put("missingAttributes", "The attributes are null");
         messageTable.put("missingBitmap", "The bitmap is null");
         messageTable.put("missingCache", "The cache is null");
         messageTable.put("missingCallback", "The callback is null");
@@ -51,6 +59,7 @@ public class Logger {
         messageTable.put("missingColor", "The color is null");
         messageTable.put("missingConfig", "The configuration is null");
         messageTable.put("missingCoordinateSystem", "The coordinate system is null");
+        messageTable.put("missingDirectory", "The directory is null");
         messageTable.put("missingFactory", "The factory is null");
         messageTable.put("missingFormat", "The format is null");
         messageTable.put("missingFrameMetrics", "The frame metrics argument is null");
@@ -84,7 +93,9 @@ public class Logger {
         messageTable.put("missingSector", "The sector is null");
         messageTable.put("missingServiceAddress", "The service address is null");
         messageTable.put("missingSource", "The source is null");
+        messageTable.put("missingStream", "The stream is null");
         messageTable.put("missingTessellator", "The tessellator is null");
+        messageTable.put("missingText", "The text is null");
         messageTable.put("missingTile", "The tile is null");
         messageTable.put("missingTileFactory", "The tile factory is null");
         messageTable.put("missingTileUrlFactory", "The tile url factory is null");
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.util;
+
+/**
+ * Computes per-vertex importance for polyline simplification, and maps simplification tolerances to discrete levels of
+ * detail.
+ * <p/>
+ * A vertex's importance is the largest Douglas-Peucker tolerance at which the vertex is retained: the distance from
+ * the vertex to the simplified segment it would otherwise be replaced by, limited to the importance of the vertices
+ * that bound that segment. Importance therefore never increases as the Douglas-Peucker recursion descends, and the
+ * vertices whose importance is at least a given tolerance form the same polyline the Douglas-Peucker algorithm
+ * computes for that tolerance. The first and last vertices are always retained.
+ * <p/>
+ * Levels of detail are numbered from 0, indicating no simplification, with each subsequent level doubling the
+ * tolerance of the previous level, starting at one unit. Shapes cache geometry by level, so that a shape's geometry
+ * changes only when its screen size changes by a factor of two.
+ */
+public class PolylineSimplifier {
+
+    /**
+     * The largest level of detail. The tolerance at this level exceeds the diameter of the Earth in meters.
+     */
+    public static final int MAX_LEVEL = 25;
+
+    /**
+     * Computes the importance of each vertex in a polyline. The polyline's vertices are read as three consecutive
+     * coordinates at the specified offset and stride. Each vertex is assigned an importance in the units of its
+     * coordinates, or Float.MAX_VALUE for the first and last vertices.
+     *
+     * @param points the array containing the polyline's vertex coordinates
+     * @param offset the index of the first vertex's x coordinate
+     * @param stride the number of coordinates between the start of consecutive vertices, at least 3
+     * @param count  the number of vertices in the polyline
+     * @param result an optional pre-allocated array to receive the importance of each vertex, may be null
+     *
+     * @return the result array, or a new array if the result argument is null or too short
+     *
+     * @throws IllegalArgumentException If the array is null, if the stride is less than 3, or if the vertices exceed
+     *                                  the array's length
+     */
+    public static float[] computeImportance(float[] points, int offset, int stride, int count, float[] result) {
+        if (points == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "PolylineSimplifier", "computeImportance", "missingArray"));
+        }
+
+        if (stride < 3) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "PolylineSimplifier", "computeImportance", "invalidStride"));
+        }
+
+        if (offset < 0 || count < 0 || (count > 0 && offset + (count - 1) * stride + 3 > points.length)) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "PolylineSimplifier", "computeImportance", "invalidCount"));
+        }
+
+        if (result == null || result.length < count) {
+            result = new float[count];
+        }
+
+        if (count == 0) {
+            return result;
+        }
+
+        result[0] = Float.MAX_VALUE;
+        result[count - 1] = Float.MAX_VALUE;
+
+        // Visit each polyline segment without recursion, using a stack of vertex index pairs. Each segment is split at
+        // its farthest vertex, whose importance is limited by the importance of the segment's vertices.
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = count - 1;
+
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            if (last - first < 2) {
+                continue; // no vertices between the segment's endpoints
+            }
+
+            int ia = offset + first * stride;
+            int ib = offset + last * stride;
+            double ax = points[ia], ay = points[ia + 1], az = points[ia + 2];
+            double dx = points[ib] - ax, dy = points[ib + 1] - ay, dz = points[ib + 2] - az;
+            double length2 = dx * dx + dy * dy + dz * dz;
+
+            int farthest = first + 1;
+            double maxDistance2 = -1;
+            for (int idx = first + 1, ip = offset + idx * stride; idx < last; idx++, ip += stride) {
+                double px = points[ip] - ax, py = points[ip + 1] - ay, pz = points[ip + 2] - az;
+                double distance2 = segmentDistanceSquared(px, py, pz, dx, dy, dz, length2);
+                if (maxDistance2 < distance2) {
+                    maxDistance2 = distance2;
+                    farthest = idx;
+                }
+            }
+
+            float limit = Math.min(result[first], result[last]);
+            result[farthest] = Math.min((float) Math.sqrt(maxDistance2), limit);
+
+            if (stack.length < top + 4) {
+                int[] newStack = new int[stack.length * 2];
+                System.arraycopy(stack, 0, newStack, 0, top);
+                stack = newStack;
+            }
+
+            stack[top++] = first;
+            stack[top++] = farthest;
+            stack[top++] = farthest;
+            stack[top++] = last;
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the level of detail whose tolerance is the largest tolerance not exceeding the specified tolerance.
+     *
+     * @param tolerance the maximum simplification tolerance
+     *
+     * @return the level of detail, 0 if the tolerance is less than one unit, and no more than {@link #MAX_LEVEL}
+     */
+    public static int levelForTolerance(double tolerance) {
+        if (!(tolerance >= 1)) { // also handles NaN
+            return 0;
+        }
+
+        int level = Math.getExponent(tolerance) + 1; // floor(log2(tolerance)) + 1
+        return Math.min(level, MAX_LEVEL);
+    }
+
+    /**
+     * Returns the simplification tolerance of a level of detail.
+     *
+     * @param level the level of detail
+     *
+     * @return the level's tolerance, or 0 if the level is 0 or less
+     */
+    public static double toleranceForLevel(int level) {
+        return (level > 0) ? Math.scalb(1.0, level - 1) : 0;
+    }
+
+    protected static double segmentDistanceSquared(double px, double py, double pz, double dx, double dy, double dz,
+                                                   double length2) {
+        // Project the point onto the segment, clamping the projection to the segment's endpoints.
+        double t = (length2 > 0) ? (px * dx + py * dy + pz * dz) / length2 : 0;
+        if (t < 0) {
+            t = 0;
+        } else if (t > 1) {
+            t = 1;
+        }
+
+        double ex = px - t * dx, ey = py - t * dy, ez = pz - t * dz;
+        return ex * ex + ey * ey + ez * ez;
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.util;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes positions and headings of indexed objects from any thread to the render thread without locks and without
+ * allocation. Producers such as a network decoder write bulk updates between calls to {@link #beginUpdate()} and
+ * {@link #endUpdate(Snapshot)}; the render thread calls {@link #acquireLatest()} at the start of each frame to obtain
+ * the most recently published snapshot.
+ * <p/>
+ * The channel holds three snapshots: one owned by the producer, one owned by the render thread, and one pending
+ * snapshot exchanged between them with a single atomic operation. Publishing swaps the producer's snapshot with the
+ * pending snapshot, and acquiring swaps the render thread's snapshot with the pending snapshot if a newer snapshot has
+ * been published. Neither side ever reads a snapshot the other side is writing, so snapshots are never torn, and the
+ * render thread never waits. Each snapshot contains the complete state of every object: beginUpdate copies the latest
+ * published state into the producer's snapshot before the producer applies its updates. Producers on different threads
+ * may publish concurrently, but wait for one another to finish.
+ */
+public class PositionUpdateChannel {
+
+    protected static final int FRESH = 1 << 2;
+
+    protected static final int INDEX_MASK = 3;
+
+    protected Snapshot[] snapshots = new Snapshot[3];
+
+    /**
+     * The index of the pending snapshot, combined with the FRESH bit when the pending snapshot has been published but
+     * not yet acquired.
+     */
+    protected AtomicInteger pendingState = new AtomicInteger(1);
+
+    protected AtomicBoolean producerActive = new AtomicBoolean();
+
+    /**
+     * The index of the producer's snapshot. Accessed only by the active producer.
+     */
+    protected int backIndex = 0;
+
+    /**
+     * The index of the snapshot most recently published. Accessed only by the active producer.
+     */
+    protected int latestIndex = 1;
+
+    /**
+     * The index of the render thread's snapshot. Accessed only by the render thread.
+     */
+    protected int frontIndex = 2;
+
+    /**
+     * Constructs a channel for objects with indices in the range [0, capacity).
+     *
+     * @param capacity the number of objects
+     *
+     * @throws IllegalArgumentException If the capacity is less than 1
+     */
+    public PositionUpdateChannel(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "PositionUpdateChannel", "constructor", "invalidCapacity"));
+        }
+
+        for (int idx = 0; idx < 3; idx++) {
+            this.snapshots[idx] = new Snapshot(capacity);
+        }
+    }
+
+    public int getCapacity() {
+        return this.snapshots[0].latitudes.length;
+    }
+
+    /**
+     * Begins a bulk update on the calling thread, returning a snapshot containing the most recently published state.
+     * The caller applies its updates to the snapshot and publishes it by calling {@link #endUpdate(Snapshot)}. Waits
+     * for any update in progress on another thread to end.
+     *
+     * @return the snapshot to update
+     */
+    public Snapshot beginUpdate() {
+        while (!this.producerActive.compareAndSet(false, true)) {
+            Thread.yield(); // another producer is publishing; its update is brief
+        }
+
+        // Bring the producer's snapshot up to date with the most recently published snapshot. The published snapshot
+        // may be concurrently read by the render thread, but is never written until it's returned to a producer.
+        Snapshot back = this.snapshots[this.backIndex];
+        back.set(this.snapshots[this.latestIndex]);
+
+        return back;
+    }
+
+    /**
+     * Publishes a snapshot returned by {@link #beginUpdate()}, ending the bulk update. The snapshot must not be
+     * modified after this method is called.
+     *
+     * @param snapshot the snapshot to publish
+     *
+     * @throws IllegalArgumentException If the snapshot is not the snapshot returned by beginUpdate
+     */
+    public void endUpdate(Snapshot snapshot) {
+        if (snapshot == null || snapshot != this.snapshots[this.backIndex] || !this.producerActive.get()) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "PositionUpdateChannel", "endUpdate", "invalidSnapshot"));
+        }
+
+        snapshot.generation++;
+
+        // Exchange the producer's snapshot with the pending snapshot, marking the producer's snapshot as fresh. The
+        // atomic exchange makes the snapshot's contents visible to the render thread.
+        int published = this.backIndex;
+        int previous = this.pendingState.getAndSet(published | FRESH);
+        this.backIndex = previous & INDEX_MASK;
+        this.latestIndex = published;
+
+        this.producerActive.set(false);
+    }
+
+    /**
+     * Returns the most recently published snapshot. Called on the render thread, typically once at the start of each
+     * frame. The returned snapshot remains valid and unchanged until the next call to this method.
+     *
+     * @return the latest snapshot, which has generation 0 if no snapshot has been published
+     */
+    public Snapshot acquireLatest() {
+        if ((this.pendingState.get() & FRESH) != 0) {
+            // Exchange the render thread's snapshot with the fresh pending snapshot, marking the returned snapshot as
+            // acquired.
+            int previous = this.pendingState.getAndSet(this.frontIndex);
+            this.frontIndex = previous & INDEX_MASK;
+        }
+
+        return this.snapshots[this.frontIndex];
+    }
+
+    /**
+     * The positions and headings of a channel's objects, indexed by object.
+     */
+    public static class Snapshot {
+
+        protected double[] latitudes;
+
+        protected double[] longitudes;
+
+        protected double[] altitudes;
+
+        protected double[] headings;
+
+        protected int count;
+
+        protected long generation;
+
+        protected Snapshot(int capacity) {
+            this.latitudes = new double[capacity];
+            this.longitudes = new double[capacity];
+            this.altitudes = new double[capacity];
+            this.headings = new double[capacity];
+        }
+
+        /**
+         * Indicates the number of objects with a position in this snapshot: one more than the largest index updated.
+         *
+         * @return the number of objects
+         */
+        public int getCount() {
+            return this.count;
+        }
+
+        /**
+         * Indicates the number of times the channel's snapshots have been published, as of this snapshot.
+         *
+         * @return this snapshot's generation, or 0 if no snapshot has been published
+         */
+        public long getGeneration() {
+            return this.generation;
+        }
+
+        public double getLatitude(int index) {
+            return this.latitudes[index];
+        }
+
+        public double getLongitude(int index) {
+            return this.longitudes[index];
+        }
+
+        public double getAltitude(int index) {
+            return this.altitudes[index];
+        }
+
+        public double getHeading(int index) {
+            return this.headings[index];
+        }
+
+        /**
+         * Sets an object's position and heading.
+         *
+         * @param index     the object's index
+         * @param latitude  the object's latitude in degrees
+         * @param longitude the object's longitude in degrees
+         * @param altitude  the object's altitude in meters
+         * @param heading   the object's heading in degrees clockwise from north
+         *
+         * @throws IllegalArgumentException If the index is outside the channel's capacity
+         */
+        public void setPosition(int index, double latitude, double longitude, double altitude, double heading) {
+            if (index < 0 || index >= this.latitudes.length) {
+                throw new IllegalArgumentException(
+                    Logger.logMessage(Logger.ERROR, "PositionUpdateChannel.Snapshot", "setPosition", "invalidIndex"));
+            }
+
+            this.latitudes[index] = latitude;
+            this.longitudes[index] = longitude;
+            this.altitudes[index] = altitude;
+            this.headings[index] = heading;
+
+            if (this.count <= index) {
+                this.count = index + 1;
+            }
+        }
+
+        protected void set(Snapshot that) {
+            if (this == that) {
+                return;
+            }
+
+            int count = that.count;
+            System.arraycopy(that.latitudes, 0, this.latitudes, 0, count);
+            System.arraycopy(that.longitudes, 0, this.longitudes, 0, count);
+            System.arraycopy(that.altitudes, 0, this.altitudes, 0, count);
+            System.arraycopy(that.headings, 0, this.headings, 0, count);
+            this.count = count;
+            this.generation = that.generation;
+        }
+    }
+}
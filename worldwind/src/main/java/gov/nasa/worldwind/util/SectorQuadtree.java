@@ -0,0 +1,388 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gov.nasa.worldwind.geom.Sector;
+
+/**
+ * Geographic quadtree that indexes values by their bounding sector. Each value is stored in the smallest quadtree node
+ * that fully contains its sector, so that values may be inserted, moved and removed incrementally without rebuilding
+ * the tree. Point values are indexed by their location.
+ * <p/>
+ * Values are inserted with {@link #insert(Sector, Object)} or {@link #insert(double, double, Object)}, which return an
+ * entry that identifies the value within the tree. The entry is then used to move the value with {@link
+ * #update(Entry, Sector)} or {@link #update(Entry, double, double)}, or to remove it with {@link #remove(Entry)}.
+ * Nodes are split when they exceed a fixed number of entries, and are never merged.
+ * <p/>
+ * SectorQuadtree is not thread safe.
+ *
+ * @param <T> the indexed value type
+ */
+public class SectorQuadtree<T> {
+
+    /**
+     * Value indexed by a SectorQuadtree, along with the bounding sector used to index it.
+     *
+     * @param <T> the indexed value type
+     */
+    public static class Entry<T> {
+
+        protected T value;
+
+        protected double minLatitude;
+
+        protected double maxLatitude;
+
+        protected double minLongitude;
+
+        protected double maxLongitude;
+
+        protected Node<T> node;
+
+        protected int nodeIndex;
+
+        protected Entry(T value) {
+            this.value = value;
+        }
+
+        /**
+         * Returns the value associated with this entry.
+         *
+         * @return the entry's value
+         */
+        public T getValue() {
+            return this.value;
+        }
+
+        /**
+         * Indicates whether this entry is currently in a quadtree.
+         *
+         * @return true if the entry is in a quadtree, false otherwise
+         */
+        public boolean isIndexed() {
+            return this.node != null;
+        }
+
+        protected void setBounds(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+            this.minLatitude = minLatitude;
+            this.maxLatitude = maxLatitude;
+            this.minLongitude = minLongitude;
+            this.maxLongitude = maxLongitude;
+        }
+    }
+
+    protected static class Node<T> {
+
+        protected double minLatitude;
+
+        protected double maxLatitude;
+
+        protected double minLongitude;
+
+        protected double maxLongitude;
+
+        protected int depth;
+
+        protected Node<T>[] children;
+
+        protected ArrayList<Entry<T>> entries = new ArrayList<>();
+
+        protected Node(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude, int depth) {
+            this.minLatitude = minLatitude;
+            this.maxLatitude = maxLatitude;
+            this.minLongitude = minLongitude;
+            this.maxLongitude = maxLongitude;
+            this.depth = depth;
+        }
+
+        protected boolean contains(Entry<T> entry) {
+            return this.minLatitude <= entry.minLatitude && this.maxLatitude >= entry.maxLatitude
+                && this.minLongitude <= entry.minLongitude && this.maxLongitude >= entry.maxLongitude;
+        }
+
+        protected boolean intersects(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+            return this.minLatitude <= maxLatitude && this.maxLatitude >= minLatitude
+                && this.minLongitude <= maxLongitude && this.maxLongitude >= minLongitude;
+        }
+
+        protected Node<T> childContaining(Entry<T> entry) {
+            if (this.children != null) {
+                for (Node<T> child : this.children) {
+                    if (child.contains(entry)) {
+                        return child;
+                    }
+                }
+            }
+
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        protected void split() {
+            double midLatitude = (this.minLatitude + this.maxLatitude) * 0.5;
+            double midLongitude = (this.minLongitude + this.maxLongitude) * 0.5;
+            int childDepth = this.depth + 1;
+            this.children = new Node[]{
+                new Node<>(this.minLatitude, midLatitude, this.minLongitude, midLongitude, childDepth),
+                new Node<>(this.minLatitude, midLatitude, midLongitude, this.maxLongitude, childDepth),
+                new Node<>(midLatitude, this.maxLatitude, this.minLongitude, midLongitude, childDepth),
+                new Node<>(midLatitude, this.maxLatitude, midLongitude, this.maxLongitude, childDepth)};
+        }
+
+        protected void addEntry(Entry<T> entry) {
+            entry.node = this;
+            entry.nodeIndex = this.entries.size();
+            this.entries.add(entry);
+        }
+
+        protected void removeEntry(Entry<T> entry) {
+            // Swap the last entry into the removed entry's slot to remove the entry in constant time.
+            int lastIndex = this.entries.size() - 1;
+            Entry<T> last = this.entries.remove(lastIndex);
+            if (last != entry) {
+                this.entries.set(entry.nodeIndex, last);
+                last.nodeIndex = entry.nodeIndex;
+            }
+
+            entry.node = null;
+            entry.nodeIndex = -1;
+        }
+    }
+
+    protected static final int DEFAULT_MAX_NODE_ENTRIES = 16;
+
+    protected static final int DEFAULT_MAX_DEPTH = 20;
+
+    protected Node<T> root = new Node<>(-90, 90, -180, 180, 0);
+
+    protected int maxNodeEntries = DEFAULT_MAX_NODE_ENTRIES;
+
+    protected int maxDepth = DEFAULT_MAX_DEPTH;
+
+    protected int count;
+
+    public SectorQuadtree() {
+    }
+
+    /**
+     * Returns the number of values in the quadtree.
+     *
+     * @return the value count
+     */
+    public int count() {
+        return this.count;
+    }
+
+    /**
+     * Indexes a value by its bounding sector.
+     *
+     * @param sector the value's bounding sector
+     * @param value  the value to index
+     *
+     * @return an entry identifying the value in this quadtree
+     *
+     * @throws IllegalArgumentException If the sector is null
+     */
+    public Entry<T> insert(Sector sector, T value) {
+        if (sector == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "SectorQuadtree", "insert", "missingSector"));
+        }
+
+        Entry<T> entry = new Entry<>(value);
+        entry.setBounds(sector.minLatitude(), sector.maxLatitude(), sector.minLongitude(), sector.maxLongitude());
+        this.insertEntry(this.root, entry);
+        this.count++;
+
+        return entry;
+    }
+
+    /**
+     * Indexes a value by its location.
+     *
+     * @param latitude  the value's latitude in degrees
+     * @param longitude the value's longitude in degrees
+     * @param value     the value to index
+     *
+     * @return an entry identifying the value in this quadtree
+     */
+    public Entry<T> insert(double latitude, double longitude, T value) {
+        Entry<T> entry = new Entry<>(value);
+        entry.setBounds(latitude, latitude, longitude, longitude);
+        this.insertEntry(this.root, entry);
+        this.count++;
+
+        return entry;
+    }
+
+    /**
+     * Moves an entry to a new bounding sector. Entries that remain within their current node are updated in place.
+     *
+     * @param entry  the entry to move
+     * @param sector the entry's new bounding sector
+     *
+     * @throws IllegalArgumentException If either argument is null, or if the entry is not in this quadtree
+     */
+    public void update(Entry<T> entry, Sector sector) {
+        if (entry == null || entry.node == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "SectorQuadtree", "update", "invalidEntry"));
+        }
+
+        if (sector == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "SectorQuadtree", "update", "missingSector"));
+        }
+
+        entry.setBounds(sector.minLatitude(), sector.maxLatitude(), sector.minLongitude(), sector.maxLongitude());
+        this.updateEntry(entry);
+    }
+
+    /**
+     * Moves an entry to a new location. Entries that remain within their current node are updated in place.
+     *
+     * @param entry     the entry to move
+     * @param latitude  the entry's new latitude in degrees
+     * @param longitude the entry's new longitude in degrees
+     *
+     * @throws IllegalArgumentException If the entry is null or is not in this quadtree
+     */
+    public void update(Entry<T> entry, double latitude, double longitude) {
+        if (entry == null || entry.node == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "SectorQuadtree", "update", "invalidEntry"));
+        }
+
+        entry.setBounds(latitude, latitude, longitude, longitude);
+        this.updateEntry(entry);
+    }
+
+    /**
+     * Removes an entry from the quadtree. This has no effect if the entry has already been removed.
+     *
+     * @param entry the entry to remove
+     *
+     * @throws IllegalArgumentException If the entry is null
+     */
+    public void remove(Entry<T> entry) {
+        if (entry == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "SectorQuadtree", "remove", "invalidEntry"));
+        }
+
+        if (entry.node != null) {
+            entry.node.removeEntry(entry);
+            this.count--;
+        }
+    }
+
+    /**
+     * Removes all entries from the quadtree.
+     */
+    public void clear() {
+        this.root = new Node<>(-90, 90, -180, 180, 0);
+        this.count = 0;
+    }
+
+    /**
+     * Collects the values whose bounding sectors intersect the specified sector. Sectors sharing an edge are considered
+     * to intersect, so that point values on a sector's boundary are included.
+     *
+     * @param sector the sector to search
+     * @param result a list in which to collect the values
+     *
+     * @return the result list
+     *
+     * @throws IllegalArgumentException If either argument is null
+     */
+    public List<? super T> query(Sector sector, List<? super T> result) {
+        if (sector == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "SectorQuadtree", "query", "missingSector"));
+        }
+
+        if (result == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "SectorQuadtree", "query", "missingResult"));
+        }
+
+        if (!sector.isEmpty()) {
+            this.queryNode(this.root, sector.minLatitude(), sector.maxLatitude(), sector.minLongitude(),
+                sector.maxLongitude(), result);
+        }
+
+        return result;
+    }
+
+    protected void updateEntry(Entry<T> entry) {
+        // Keep the entry in its current node when the node still contains the entry and none of the node's children
+        // can contain it. Otherwise reinsert the entry starting at the root.
+        Node<T> node = entry.node;
+        if (node.contains(entry) && node.childContaining(entry) == null) {
+            return;
+        }
+
+        node.removeEntry(entry);
+        this.insertEntry(this.root, entry);
+    }
+
+    protected void insertEntry(Node<T> node, Entry<T> entry) {
+        while (true) {
+            // Split full leaf nodes, moving their entries into the new children where possible.
+            if (node.children == null && node.entries.size() >= this.maxNodeEntries && node.depth < this.maxDepth) {
+                this.splitNode(node);
+            }
+
+            Node<T> child = node.childContaining(entry);
+            if (child == null) {
+                node.addEntry(entry);
+                return;
+            }
+
+            node = child;
+        }
+    }
+
+    protected void splitNode(Node<T> node) {
+        node.split();
+
+        ArrayList<Entry<T>> entries = node.entries;
+        node.entries = new ArrayList<>();
+
+        for (int idx = 0, len = entries.size(); idx < len; idx++) {
+            Entry<T> entry = entries.get(idx);
+            Node<T> child = node.childContaining(entry);
+            if (child != null) {
+                child.addEntry(entry);
+            } else {
+                node.addEntry(entry);
+            }
+        }
+    }
+
+    protected void queryNode(Node<T> node, double minLatitude, double maxLatitude, double minLongitude,
+                             double maxLongitude, List<? super T> result) {
+        ArrayList<Entry<T>> entries = node.entries;
+        for (int idx = 0, len = entries.size(); idx < len; idx++) {
+            Entry<T> entry = entries.get(idx);
+            if (entry.minLatitude <= maxLatitude && entry.maxLatitude >= minLatitude
+                && entry.minLongitude <= maxLongitude && entry.maxLongitude >= minLongitude) {
+                result.add(entry.value);
+            }
+        }
+
+        if (node.children != null) {
+            for (Node<T> child : node.children) {
+                if (child.intersects(minLatitude, maxLatitude, minLongitude, maxLongitude)) {
+                    this.queryNode(child, minLatitude, maxLatitude, minLongitude, maxLongitude, result);
+                }
+            }
+        }
+    }
+}
@@ -55,6 +55,18 @@ public class Tile {
      */
     protected float[] samplePoints;
 
+    /**
+     * The index of the frustum plane that last rejected this tile's extent, tested first the next time the tile is
+     * culled.
+     */
+    protected int cullPlane;
+
+    /**
+     * The frustum planes this tile's extent straddled when it was last culled, or {@link Frustum#CULLED} if the extent
+     * was outside the frustum.
+     */
+    protected int frustumPlaneMask = Frustum.ALL_PLANES;
+
     /**
      * Constructs a tile with a specified sector, level, row and column.
      *
@@ -210,7 +222,8 @@ public class Tile {
     }
 
     /**
-     * Indicates whether this tile's Cartesian extent intersects a specified frustum.
+     * Indicates whether this tile's Cartesian extent intersects a specified frustum. The planes the extent straddles are
+     * available from {@link #getFrustumPlaneMask()} afterward.
      *
      * @param rc      the current render context
      * @param frustum the frustum of interest
@@ -225,7 +238,68 @@ public class Tile {
                 Logger.logMessage(Logger.ERROR, "Tile", "intersectsFrustum", "missingFrustum"));
         }
 
-        return this.getExtent(rc).intersectsFrustum(frustum);
+        int planes = this.getExtent(rc).intersectsFrustum(frustum, Frustum.ALL_PLANES, this.cullPlane);
+        if (planes < 0) {
+            this.cullPlane = ~planes;
+            this.frustumPlaneMask = Frustum.CULLED;
+            return false;
+        }
+
+        this.frustumPlaneMask = planes;
+        return true;
+    }
+
+    /**
+     * Culls an array of tiles against a specified frustum in one pass, typically the children of a tile that intersects
+     * the frustum. Each tile is tested against only the planes in planeMask, beginning with the plane that last
+     * rejected it. The planes each tile straddles, or {@link Frustum#CULLED}, are available from {@link
+     * #getFrustumPlaneMask()} afterward.
+     *
+     * @param rc        the current render context
+     * @param frustum   the frustum of interest
+     * @param tiles     the tiles to cull
+     * @param planeMask the frustum planes to test, typically the planes straddled by the tiles' parent
+     *
+     * @return the number of tiles that intersect the frustum
+     *
+     * @throws IllegalArgumentException If the frustum or the tiles array is null
+     */
+    public static int intersectsFrustum(RenderContext rc, Frustum frustum, Tile[] tiles, int planeMask) {
+        if (frustum == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "Tile", "intersectsFrustum", "missingFrustum"));
+        }
+
+        if (tiles == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "Tile", "intersectsFrustum", "missingArray"));
+        }
+
+        int intersectCount = 0;
+
+        for (Tile tile : tiles) {
+            int planes = tile.getExtent(rc).intersectsFrustum(frustum, planeMask, tile.cullPlane);
+            if (planes < 0) {
+                tile.cullPlane = ~planes;
+                tile.frustumPlaneMask = Frustum.CULLED;
+            } else {
+                tile.frustumPlaneMask = planes;
+                intersectCount++;
+            }
+        }
+
+        return intersectCount;
+    }
+
+    /**
+     * Indicates the frustum planes this tile's extent straddled when it was last culled by one of the intersectsFrustum
+     * methods, as a bit mask in the form defined by {@link Frustum#ALL_PLANES}. Tiles enclosed by this tile need only
+     * be tested against these planes.
+     *
+     * @return the straddled planes, or {@link Frustum#CULLED} if the tile's extent was outside the frustum
+     */
+    public int getFrustumPlaneMask() {
+        return this.frustumPlaneMask;
     }
 
     /**
@@ -9,6 +9,7 @@ import android.content.res.Resources;
 import android.support.annotation.RawRes;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
@@ -57,6 +58,32 @@ public class WWUtil {
         }
     }
 
+    /**
+     * Reads the remaining contents of an input stream into a byte array. This does not close the stream.
+     *
+     * @param stream the stream to read
+     *
+     * @return a byte array containing the stream's remaining contents
+     *
+     * @throws IOException If an exception occurs while reading the stream
+     */
+    public static byte[] readStreamAsBytes(InputStream stream) throws IOException {
+        if (stream == null) {
+            throw new IllegalArgumentException(
+                Logger.logMessage(Logger.ERROR, "WWUtil", "readStreamAsBytes", "missingStream"));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int count;
+
+        while ((count = stream.read(buffer)) != -1) {
+            out.write(buffer, 0, count);
+        }
+
+        return out.toByteArray();
+    }
+
     public static String readResourceAsText(Resources resources, @RawRes int id) throws IOException {
         if (resources == null) {
             throw new IllegalArgumentException(
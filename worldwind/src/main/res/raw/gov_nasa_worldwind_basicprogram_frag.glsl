@@ -7,23 +7,28 @@ precision mediump float;
 
 uniform bool enablePickMode;
 uniform bool enableTexture;
+uniform bool enableVertexColor;
 uniform vec4 color;
 uniform sampler2D texSampler;
 
 varying vec2 texCoord;
+varying vec4 vertColor;
 
 void main() {
+    /* Use either the per-vertex color or the uniform color. Both are RGBA colors with premultiplied alpha. */
+    vec4 baseColor = enableVertexColor ? vertColor : color;
+
     /* TODO consolidate pickMode and enableTexture into a single textureMode */
     /* TODO it's confusing that pickMode must be disabled during surface shape render-to-texture */
     if (enablePickMode && enableTexture) {
         /* Modulate the RGBA color with the 2D texture's Alpha component (rounded to 0.0 or 1.0). */
         float texMask = floor(texture2D(texSampler, texCoord).a + 0.5);
-        gl_FragColor = color * texMask;
+        gl_FragColor = baseColor * texMask;
     } else if (!enablePickMode && enableTexture) {
         /* Modulate the RGBA color with the 2D texture's RGBA color. */
-        gl_FragColor = color * texture2D(texSampler, texCoord);
+        gl_FragColor = baseColor * texture2D(texSampler, texCoord);
     } else {
         /* Return the RGBA color as-is. */
-        gl_FragColor = color;
+        gl_FragColor = baseColor;
     }
 }
\ No newline at end of file
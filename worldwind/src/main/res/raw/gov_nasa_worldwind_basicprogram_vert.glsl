@@ -6,13 +6,16 @@
 precision mediump float;
 
 uniform bool enableTexture;
+uniform bool enableVertexColor;
 uniform mat4 mvpMatrix;
 uniform mat3 texCoordMatrix;
 
 attribute vec4 vertexPoint;
 attribute vec2 vertexTexCoord;
+attribute vec4 vertexColor;
 
 varying vec2 texCoord;
+varying vec4 vertColor;
 
 void main() {
     /* Transform the vertex position by the modelview-projection matrix. */
@@ -22,4 +25,9 @@ void main() {
     if (enableTexture) {
         texCoord = (texCoordMatrix * vec3(vertexTexCoord, 1.0)).st;
     }
+
+    /* Pass the vertex color to the fragment shader when colors are specified per vertex. */
+    if (enableVertexColor) {
+        vertColor = vertexColor;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+precision mediump float;
+
+uniform bool enablePickMode;
+uniform bool enableVertexColor;
+uniform vec4 color;
+uniform vec4 outlineColor;
+uniform float outlineEdge;
+uniform float edgeSmoothing;
+uniform sampler2D texSampler;
+
+varying vec2 texCoord;
+varying vec4 vertColor;
+
+void main() {
+    /* Use either the per-vertex color or the uniform color. Both are RGBA colors with premultiplied alpha. */
+    vec4 baseColor = enableVertexColor ? vertColor : color;
+
+    /* Sample the glyph's signed distance field. The glyph's edge is at 0.5, and the outline's edge is at outlineEdge. */
+    float distance = texture2D(texSampler, texCoord).a;
+
+    if (enablePickMode) {
+        /* Return the RGBA color inside the glyph and its outline, and nothing outside. */
+        gl_FragColor = baseColor * step(outlineEdge, distance);
+    } else {
+        /* Blend from the outline color to the RGBA color at the glyph's edge, and fade out at the outline's edge. */
+        float fill = smoothstep(0.5 - edgeSmoothing, 0.5 + edgeSmoothing, distance);
+        float coverage = smoothstep(outlineEdge - edgeSmoothing, outlineEdge + edgeSmoothing, distance);
+        gl_FragColor = mix(outlineColor * baseColor.a, baseColor, fill) * coverage;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind;
+
+import android.opengl.GLES20;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gov.nasa.worldwind.geom.Vec3;
+import gov.nasa.worldwind.geom.Viewport;
+import gov.nasa.worldwind.layer.Layer;
+import gov.nasa.worldwind.layer.RenderableLayer;
+import gov.nasa.worldwind.render.AbstractRenderable;
+import gov.nasa.worldwind.render.RenderContext;
+import gov.nasa.worldwind.render.Renderable;
+
+import static org.junit.Assert.*;
+
+public class ScreenPickIndexTest {
+
+    private ScreenPickIndex index;
+
+    private RenderContext rc;
+
+    private Layer layer;
+
+    @Before
+    public void setUp() throws Exception {
+        // Use an identity modelview-projection, which maps model coordinates in the range [-1, 1] to the viewport.
+        this.rc = new RenderContext();
+        this.rc.viewport.set(0, 0, 100, 100);
+        this.rc.fieldOfView = 45;
+        this.layer = new RenderableLayer();
+        this.index = new ScreenPickIndex();
+        this.index.setEnabled(true);
+        this.index.beginFrame(this.rc);
+    }
+
+    @Test
+    public void testPick_NoFrameRecorded() throws Exception {
+        TestPickedObjectList result = new TestPickedObjectList();
+
+        assertFalse("declined", this.index.pick(50, 50, result));
+        assertEquals("count", 0, result.count());
+    }
+
+    @Test
+    public void testPick_DisabledByDefault() throws Exception {
+        ScreenPickIndex index = new ScreenPickIndex();
+        index.beginFrame(this.rc);
+        index.addScreenRect(new TestRenderable(), this.layer, new Viewport(40, 40, 20, 20), 0.5, true, null);
+        index.endFrame(this.rc);
+
+        assertFalse("enabled", index.isEnabled());
+        assertFalse("declined", index.pick(50, 50, new TestPickedObjectList()));
+    }
+
+    @Test
+    public void testPick_OutsideViewport() throws Exception {
+        this.index.endFrame(this.rc);
+
+        assertFalse("declined", this.index.pick(150, 50, new TestPickedObjectList()));
+    }
+
+    @Test
+    public void testPick_ScreenRect() throws Exception {
+        Renderable renderable = new TestRenderable();
+        this.index.addScreenRect(renderable, this.layer, new Viewport(40, 40, 20, 20), 0.5, true, null);
+        this.index.endFrame(this.rc);
+
+        TestPickedObjectList hit = new TestPickedObjectList();
+        TestPickedObjectList miss = new TestPickedObjectList();
+
+        assertTrue("hit answered", this.index.pick(45, 55, hit));
+        assertEquals("hit count", 1, hit.count());
+        assertSame("hit object", renderable, hit.topPickedObject().getUserObject());
+        assertTrue("hit on top", hit.topPickedObject().isOnTop());
+        assertTrue("miss answered", this.index.pick(70, 55, miss));
+        assertEquals("miss count", 0, miss.count());
+    }
+
+    @Test
+    public void testPick_NearestScreenRect() throws Exception {
+        Renderable far = new TestRenderable(), near = new TestRenderable();
+        this.index.addScreenRect(near, this.layer, new Viewport(40, 40, 20, 20), 0.25, true, null);
+        this.index.addScreenRect(far, this.layer, new Viewport(30, 30, 40, 40), 0.75, true, null);
+        this.index.endFrame(this.rc);
+
+        TestPickedObjectList result = new TestPickedObjectList();
+        this.index.pick(50, 50, result);
+
+        assertSame("nearest", near, result.topPickedObject().getUserObject());
+    }
+
+    @Test
+    public void testPick_LayerNotPickEnabled() throws Exception {
+        Renderable far = new TestRenderable(), near = new TestRenderable(), shape = new TestRenderable();
+        Layer disabledLayer = new RenderableLayer();
+        disabledLayer.setPickEnabled(false);
+        float[] vertices = {-0.5f, -0.5f, -0.5f, 0.5f, -0.5f, -0.5f, 0, 0.5f, -0.5f};
+        this.index.addScreenRect(near, disabledLayer, new Viewport(40, 40, 20, 20), 0.25, true, null);
+        this.index.addScreenRect(far, this.layer, new Viewport(30, 30, 40, 40), 0.75, true, null);
+        this.index.beginShape(shape, disabledLayer, vertices, 3, new Vec3(), null, 1, true);
+        this.index.addShapeElements(GLES20.GL_TRIANGLES, new int[]{0, 1, 2}, 3);
+        this.index.endFrame(this.rc);
+
+        TestPickedObjectList result = new TestPickedObjectList();
+        this.index.pick(50, 50, result);
+
+        assertSame("pick enabled", far, result.topPickedObject().getUserObject());
+    }
+
+    @Test
+    public void testPick_FramePickDelegate() throws Exception {
+        Renderable renderable = new TestRenderable();
+        TestFramePickDelegate delegate = new TestFramePickDelegate();
+        renderable.setPickDelegate(delegate);
+        this.index.addScreenRect(renderable, this.layer, new Viewport(40, 40, 20, 20), 0.5, true, null);
+        this.index.endFrame(this.rc);
+
+        TestPickedObjectList result = new TestPickedObjectList();
+        this.index.pick(50, 50, result);
+
+        Object picked = result.topPickedObject().getUserObject();
+        assertTrue("delegate type", picked instanceof TestFramePickDelegate);
+        assertNotSame("delegate copied", delegate, picked);
+    }
+
+    @Test
+    public void testPick_ScreenRectItem() throws Exception {
+        Renderable renderable = new TestRenderable();
+        this.index.addScreenRect(renderable, 7, this.layer, 10, 10, 20, 20, 0.5, true);
+        this.index.endFrame(this.rc);
+
+        TestPickedObjectList result = new TestPickedObjectList();
+        this.index.pick(15, 15, result);
+
+        assertEquals("item index", 7, result.topPickedObject().getItemIndex());
+    }
+
+    @Test
+    public void testPick_SuppressedByDeclutterer() throws Exception {
+        Renderable renderable = new TestRenderable();
+        this.index.addScreenRect(renderable, this.layer, new Viewport(40, 40, 20, 20), 0.5, true, renderable);
+        this.index.endFrame(this.rc);
+
+        TestPickedObjectList result = new TestPickedObjectList();
+        this.index.pick(50, 50, result);
+
+        assertEquals("count", 0, result.count()); // the declutterer has not placed the renderable
+    }
+
+    @Test
+    public void testPick_ShapeLines() throws Exception {
+        // A line from screen point (25, 50) to screen point (75, 50).
+        Renderable renderable = new TestRenderable();
+        float[] vertices = {-0.5f, 0, 0, 0.5f, 0, 0};
+        this.index.beginShape(renderable, this.layer, vertices, 3, new Vec3(), null, 2, true);
+        this.index.addShapeElements(GLES20.GL_LINE_STRIP, new int[]{0, 1}, 2);
+        this.index.endFrame(this.rc);
+
+        TestPickedObjectList hit = new TestPickedObjectList();
+        TestPickedObjectList miss = new TestPickedObjectList();
+        this.index.pick(50, 51, hit);
+        this.index.pick(50, 55, miss);
+
+        assertSame("hit", renderable, hit.topPickedObject().getUserObject());
+        assertEquals("miss", 0, miss.count());
+    }
+
+    @Test
+    public void testPick_ShapeInFrontOfScreenRect() throws Exception {
+        // A triangle covering the screen point (50, 50) at depth 0.25, in front of a rectangle at depth 0.5.
+        Renderable shape = new TestRenderable(), rect = new TestRenderable();
+        float[] vertices = {-0.5f, -0.5f, -0.5f, 0.5f, -0.5f, -0.5f, 0, 0.5f, -0.5f};
+        this.index.addScreenRect(rect, this.layer, new Viewport(40, 40, 20, 20), 0.5, true, null);
+        this.index.beginShape(shape, this.layer, vertices, 3, new Vec3(), null, 1, true);
+        this.index.addShapeElements(GLES20.GL_TRIANGLES, new int[]{0, 1, 2}, 3);
+        this.index.endFrame(this.rc);
+
+        TestPickedObjectList result = new TestPickedObjectList();
+        this.index.pick(50, 50, result);
+
+        assertSame("shape", shape, result.topPickedObject().getUserObject());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddShapeElements_InvalidMode() throws Exception {
+        this.index.beginShape(new TestRenderable(), this.layer, new float[9], 3, new Vec3(), null, 1, true);
+        this.index.addShapeElements(GLES20.GL_POINTS, new int[]{0}, 1);
+    }
+
+    private static class TestRenderable extends AbstractRenderable {
+
+        @Override
+        protected void doRender(RenderContext rc) {
+        }
+    }
+
+    private static class TestFramePickDelegate implements ScreenPickIndex.FramePickDelegate {
+
+        @Override
+        public Object copyPickDelegate() {
+            return new TestFramePickDelegate();
+        }
+    }
+
+    /**
+     * Records offered picked objects in a list, since Android's SparseArray is not available to unit tests.
+     */
+    private static class TestPickedObjectList extends PickedObjectList {
+
+        private List<PickedObject> offered = new ArrayList<>();
+
+        @Override
+        public int count() {
+            return this.offered.size();
+        }
+
+        @Override
+        public void offerPickedObject(PickedObject pickedObject) {
+            if (pickedObject != null) {
+                this.offered.add(pickedObject);
+            }
+        }
+
+        @Override
+        public PickedObject topPickedObject() {
+            for (PickedObject po : this.offered) {
+                if (po.isOnTop()) {
+                    return po;
+                }
+            }
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.draw;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DrawableQueueTest {
+
+    private DrawableQueue queue;
+
+    @Before
+    public void setUp() throws Exception {
+        this.queue = new DrawableQueue();
+    }
+
+    @Test
+    public void testSortDrawables_Order() throws Exception {
+        Drawable far = new TestDrawable();
+        Drawable near = new TestDrawable();
+        Drawable surface = new TestDrawable();
+        this.queue.offerDrawable(near, 2, -10);
+        this.queue.offerDrawable(far, 2, -100);
+        this.queue.offerDrawable(surface, 1, 0);
+
+        this.queue.sortDrawables();
+
+        assertSame("surface", surface, this.queue.pollDrawable());
+        assertSame("far", far, this.queue.pollDrawable());
+        assertSame("near", near, this.queue.pollDrawable());
+        assertNull("end", this.queue.pollDrawable());
+    }
+
+    @Test
+    public void testSortDrawables_UnorderedFirst() throws Exception {
+        Drawable ordered = new TestDrawable();
+        Drawable unordered = new TestDrawable();
+        this.queue.offerDrawable(ordered, 2, -100);
+        this.queue.offerUnorderedDrawable(unordered, 2, 7);
+
+        this.queue.sortDrawables();
+
+        assertSame("unordered", unordered, this.queue.pollDrawable());
+        assertSame("ordered", ordered, this.queue.pollDrawable());
+    }
+
+    @Test
+    public void testSortDrawables_UnorderedByStateKey() throws Exception {
+        Drawable a1 = new TestDrawable();
+        Drawable b1 = new TestDrawable();
+        Drawable a2 = new TestDrawable();
+        Drawable b2 = new TestDrawable();
+        this.queue.offerUnorderedDrawable(a1, 2, 5);
+        this.queue.offerUnorderedDrawable(b1, 2, -3);
+        this.queue.offerUnorderedDrawable(a2, 2, 5);
+        this.queue.offerUnorderedDrawable(b2, 2, -3);
+
+        this.queue.sortDrawables();
+
+        assertSame("b1", b1, this.queue.pollDrawable());
+        assertSame("b2", b2, this.queue.pollDrawable());
+        assertSame("a1", a1, this.queue.pollDrawable());
+        assertSame("a2", a2, this.queue.pollDrawable());
+    }
+
+    @Test
+    public void testSortDrawables_UnorderedWithinGroup() throws Exception {
+        Drawable surface = new TestDrawable();
+        Drawable unordered = new TestDrawable();
+        this.queue.offerUnorderedDrawable(unordered, 2, 0);
+        this.queue.offerDrawable(surface, 1, 0);
+
+        this.queue.sortDrawables();
+
+        assertSame("surface", surface, this.queue.pollDrawable());
+        assertSame("unordered", unordered, this.queue.pollDrawable());
+    }
+
+    @Test
+    public void testClearDrawables() throws Exception {
+        TestDrawable drawable = new TestDrawable();
+        this.queue.offerUnorderedDrawable(drawable, 2, 0);
+        this.queue.offerDrawable(new TestDrawable(), 2, 0);
+
+        this.queue.clearDrawables();
+
+        assertEquals("count", 0, this.queue.count());
+        assertTrue("recycled", drawable.recycled);
+    }
+
+    private static class TestDrawable implements Drawable {
+
+        public boolean recycled;
+
+        @Override
+        public void recycle() {
+            this.recycled = true;
+        }
+
+        @Override
+        public void draw(DrawContext dc) {
+        }
+    }
+}
@@ -104,6 +104,74 @@ public class BoundingBoxTest {
         assertEquals(boundingBox.center.z - radius, result, 1e-3);
     }
 
+    @Test
+    public void testAddPoints() throws Exception {
+        float[] points = {
+            0, 0, 0,
+            10, 1, 0,
+            20, 0, 1,
+            30, 1, 1,
+            100, 0.5f, 0.5f};
+        BoundingBox boundingBox = new BoundingBox();
+        boundingBox.setToPoints(points, 12, 3);
+        BoundingBox expected = new BoundingBox();
+        expected.setToPoints(points, 15, 3);
+
+        boundingBox.addPoints(points, 12, 3, 3);
+
+        for (int idx = 0; idx < points.length; idx += 3) {
+            Vec3 point = new Vec3(points[idx], points[idx + 1], points[idx + 2]).subtract(boundingBox.center);
+            // The box's axes are scaled by its extent, so a contained point's projection onto each axis is within
+            // half the axis' squared length.
+            assertTrue("r " + idx, Math.abs(point.dot(boundingBox.r)) <= 0.5 * boundingBox.r.magnitudeSquared() + 1e-6);
+            assertTrue("s " + idx, Math.abs(point.dot(boundingBox.s)) <= 0.5 * boundingBox.s.magnitudeSquared() + 1e-6);
+            assertTrue("t " + idx, Math.abs(point.dot(boundingBox.t)) <= 0.5 * boundingBox.t.magnitudeSquared() + 1e-6);
+        }
+        assertEquals("radius", expected.radius, boundingBox.radius, 1);
+        assertEquals("r length", 100, boundingBox.r.magnitude(), 0.1);
+    }
+
+    @Test
+    public void testIntersectsFrustum_PlaneMask() throws Exception {
+        Frustum frustum = new Frustum(); // unit frustum, with the left plane at x = -1 and the near plane at z = 1
+
+        assertEquals("inside", 0, boxAt(0, 0, 0).intersectsFrustum(frustum, Frustum.ALL_PLANES, 0));
+        assertEquals("straddles left", 1, boxAt(-1, 0, 0).intersectsFrustum(frustum, Frustum.ALL_PLANES, 0));
+        assertEquals("straddles left and near", 1 | (1 << 4),
+            boxAt(-1, 0, 1).intersectsFrustum(frustum, Frustum.ALL_PLANES, 0));
+        assertEquals("outside left", ~0, boxAt(-2, 0, 0).intersectsFrustum(frustum, Frustum.ALL_PLANES, 0));
+        assertEquals("outside near", ~4, boxAt(0, 0, 2).intersectsFrustum(frustum, Frustum.ALL_PLANES, 0));
+
+        // Planes excluded from the mask are not tested.
+        assertEquals("left excluded", 0, boxAt(-2, 0, 0).intersectsFrustum(frustum, Frustum.ALL_PLANES & ~1, 0));
+        assertEquals("only left", 1, boxAt(-1, 0, 2).intersectsFrustum(frustum, 1, 0));
+    }
+
+    @Test
+    public void testIntersectsFrustum_FirstPlane() throws Exception {
+        Frustum frustum = new Frustum();
+        BoundingBox boundingBox = boxAt(-2, 0, 2); // outside both the left and near planes
+
+        assertEquals("left first", ~0, boundingBox.intersectsFrustum(frustum, Frustum.ALL_PLANES, 0));
+        assertEquals("near first", ~4, boundingBox.intersectsFrustum(frustum, Frustum.ALL_PLANES, 4));
+        assertEquals("right first", ~4, boundingBox.intersectsFrustum(frustum, Frustum.ALL_PLANES, 1));
+        assertFalse("boolean form", boundingBox.intersectsFrustum(frustum));
+    }
+
+    /**
+     * Creates a small bounding box with distinct extents along the X, Y and Z axes, centered on a specified point.
+     */
+    private static BoundingBox boxAt(double x, double y, double z) {
+        float[] points = new float[24];
+        for (int idx = 0; idx < 8; idx++) {
+            points[idx * 3] = (float) (x + (((idx & 1) != 0) ? 0.3 : -0.3));
+            points[idx * 3 + 1] = (float) (y + (((idx & 2) != 0) ? 0.2 : -0.2));
+            points[idx * 3 + 2] = (float) (z + (((idx & 4) != 0) ? 0.1 : -0.1));
+        }
+
+        return new BoundingBox().setToPoints(points, points.length, 3);
+    }
+
     /**
      * Creates Sector with a centroid set to the specified latitude and longitude.
      *
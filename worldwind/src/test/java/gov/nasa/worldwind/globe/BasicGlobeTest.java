@@ -241,6 +241,45 @@ public class BasicGlobeTest {
             referencePoint, null, result, stride, 0);
     }
 
+    /**
+     * Ensures the proper passing of parameters to the projection object.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testGeographicToCartesianArray() throws Exception {
+        int count = 10;
+        double[] positions = new double[count * 4];
+        Vec3 origin = new Vec3();
+        float[] result = new float[count * 3];
+
+        globe.geographicToCartesianArray(positions, 4, 0, count, origin, result, 3, 0);
+
+        verify(mockedProjection).geographicToCartesianArray(globe, positions, 4, 0, count, origin, null, result, 3, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGeographicToCartesianArray_ResultTooSmall() throws Exception {
+        globe.geographicToCartesianArray(new double[30], 3, 0, 10, null, new float[29], 3, 0);
+    }
+
+    /**
+     * Ensures the proper passing of parameters to the projection object.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCartesianToGeographicArray() throws Exception {
+        int count = 10;
+        float[] points = new float[count * 3];
+        Vec3 origin = new Vec3();
+        double[] result = new double[count * 4];
+
+        globe.cartesianToGeographicArray(points, 3, 0, count, origin, result, 4, 0);
+
+        verify(mockedProjection).cartesianToGeographicArray(globe, points, 3, 0, count, origin, null, result, 4, 0);
+    }
+
     /**
      * Ensures the proper passing of parameters to the projection object.
      *
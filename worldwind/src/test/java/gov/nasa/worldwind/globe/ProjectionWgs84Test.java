@@ -8,7 +8,6 @@ package gov.nasa.worldwind.globe;
 
 import org.junit.After;
 import org.junit.Before;
-import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.powermock.api.mockito.PowerMockito;
@@ -174,25 +173,177 @@ public class ProjectionWgs84Test {
         assertArrayEquals(expected.m, result.m, 1e-6);
     }
 
-    @Ignore("not implemented yet.")
+    /**
+     * Tests the grid against the single position conversion, which computes each sine and cosine exactly. Each
+     * coordinate must be within one single precision ulp of the exact value.
+     *
+     * @throws Exception
+     */
     @Test
     public void testGeographicToCartesianGrid() throws Exception {
         ProjectionWgs84 wgs84 = new ProjectionWgs84();
+        Sector sector = new Sector(-12.5, 101.25, 11.25, 5.625);
+        Vec3 origin = wgs84.geographicToCartesian(globe, sector.centroidLatitude(), sector.centroidLongitude(), 0,
+            null, new Vec3());
+
+        assertGridAccuracy(wgs84, sector, 32, 32, origin);
+    }
+
+    /**
+     * Tests a grid spanning the globe with enough rows and columns to exercise many resynchronizations of the sine
+     * and cosine recurrence.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testGeographicToCartesianGrid_FullSphere() throws Exception {
+        ProjectionWgs84 wgs84 = new ProjectionWgs84();
+
+        assertGridAccuracy(wgs84, new Sector().setFullSphere(), 181, 361, null);
+    }
+
+    /**
+     * Tests that a grid with a single row and column is placed at the sector's maximum latitude and longitude.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testGeographicToCartesianGrid_SinglePoint() throws Exception {
+        ProjectionWgs84 wgs84 = new ProjectionWgs84();
+
+        assertGridAccuracy(wgs84, new Sector(10, 20, 1, 1), 1, 1, null);
+    }
+
+    /**
+     * Tests a tile sample grid, whose middle row and column are computed by bisection.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testGeographicToCartesianGrid_SampleGrid() throws Exception {
+        ProjectionWgs84 wgs84 = new ProjectionWgs84();
+
+        assertGridAccuracy(wgs84, new Sector(-45, 135, 45, 45), 3, 3, null);
+        assertGridAccuracy(wgs84, new Sector(-90, -180, 180, 180), 3, 3, null);
+    }
+
+    @Test
+    public void testSinCosSequence() throws Exception {
+        int count = 1000;
+        double minAngle = -Math.PI;
+        double maxAngle = Math.PI * 0.75;
+        double[] sin = new double[count];
+        double[] cos = new double[count];
+
+        ProjectionWgs84.sinCosSequence(minAngle, maxAngle, count, sin, cos);
+
+        double delta = (maxAngle - minAngle) / (count - 1);
+        for (int idx = 0; idx < count; idx++) {
+            double angle = (idx == count - 1) ? maxAngle : minAngle + idx * delta;
+            assertEquals("sin " + idx, Math.sin(angle), sin[idx], 1e-14);
+            assertEquals("cos " + idx, Math.cos(angle), cos[idx], 1e-14);
+        }
+        assertEquals("last sin", Math.sin(maxAngle), sin[count - 1], 0);
+        assertEquals("last cos", Math.cos(maxAngle), cos[count - 1], 0);
+    }
+
+    /**
+     * Tests the array conversion against the single position conversion, using positions interleaved with an unused
+     * value and points relative to an origin.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testGeographicToCartesianArray() throws Exception {
+        ProjectionWgs84 wgs84 = new ProjectionWgs84();
+        Vec3 origin = wgs84.geographicToCartesian(globe, 34.2, -119.2, 0, null, new Vec3());
+        int count = 100;
+        double[] positions = new double[count * 4];
+        for (int idx = 0, pos = 0; idx < count; idx++, pos += 4) {
+            positions[pos] = 34.2 + idx * 0.01;
+            positions[pos + 1] = -119.2 - idx * 0.01;
+            positions[pos + 2] = idx * 100;
+            positions[pos + 3] = -1;
+        }
 
-        int stride = 5;
-        int numLat = 17;
-        int numLon = 33;
-        int count = numLat * numLon * stride;
-        double[] elevations = new double[count];
-        Sector sector = new Sector();
-        Vec3 referencePoint = new Vec3();
-        Vec3 offset = new Vec3();
-        float[] result = new float[count];
+        float[] result = wgs84.geographicToCartesianArray(globe, positions, 4, 0, count, origin, null,
+            new float[count * 3 + 1], 3, 1);
 
-        wgs84.geographicToCartesianGrid(globe, sector, numLat, numLon, elevations, referencePoint, offset, result, stride, 0);
+        Vec3 expected = new Vec3();
+        for (int idx = 0, pos = 0; idx < count; idx++, pos += 4) {
+            wgs84.geographicToCartesian(globe, positions[pos], positions[pos + 1], positions[pos + 2], null, expected);
+            assertEquals("x", expected.x - origin.x, result[idx * 3 + 1], 1e-2);
+            assertEquals("y", expected.y - origin.y, result[idx * 3 + 2], 1e-2);
+            assertEquals("z", expected.z - origin.z, result[idx * 3 + 3], 1e-2);
+        }
+        assertEquals("untouched", 0, result[0], 0);
+    }
 
-        fail("The test case is a stub.");
+    /**
+     * Tests the array conversion against values defined in the NIMA WGS specifications, with no origin.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testGeographicToCartesianArray_Stations() throws Exception {
+        ProjectionWgs84 wgs84 = new ProjectionWgs84();
+        Map<String, Object[]> stations = getStations();
+        double[] positions = new double[stations.size() * 3];
+        Vec3[] expected = new Vec3[stations.size()];
+        int idx = 0;
+        for (Map.Entry<String, Object[]> station : stations.entrySet()) {
+            Position p = (Position) station.getValue()[0];
+            positions[idx * 3] = p.latitude;
+            positions[idx * 3 + 1] = p.longitude;
+            positions[idx * 3 + 2] = p.altitude;
+            expected[idx++] = (Vec3) station.getValue()[1];
+        }
 
+        float[] result = wgs84.geographicToCartesianArray(globe, positions, 3, 0, expected.length, null, null,
+            new float[expected.length * 3], 3, 0);
+
+        // Single precision coordinates on the order of 6e6 meters are accurate to about half a meter.
+        for (idx = 0; idx < expected.length; idx++) {
+            assertEquals("x", expected[idx].x, result[idx * 3], 1);
+            assertEquals("y", expected[idx].y, result[idx * 3 + 1], 1);
+            assertEquals("z", expected[idx].z, result[idx * 3 + 2], 1);
+        }
+    }
+
+    /**
+     * Tests that the inverse array conversion regenerates the original positions.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testCartesianToGeographicArray_Reciprocal() throws Exception {
+        ProjectionWgs84 wgs84 = new ProjectionWgs84();
+        Vec3 origin = wgs84.geographicToCartesian(globe, -33.9, 151.2, 0, null, new Vec3());
+        int count = 50;
+        double[] positions = new double[count * 3];
+        for (int idx = 0, pos = 0; idx < count; idx++, pos += 3) {
+            positions[pos] = -33.9 + idx * 0.002;
+            positions[pos + 1] = 151.2 + idx * 0.002;
+            positions[pos + 2] = 1000 - idx * 10;
+        }
+
+        float[] points = wgs84.geographicToCartesianArray(globe, positions, 3, 0, count, origin, null,
+            new float[count * 3], 3, 0);
+        double[] result = wgs84.cartesianToGeographicArray(globe, points, 3, 0, count, origin, null,
+            new double[count * 4], 4, 0);
+
+        for (int idx = 0; idx < count; idx++) {
+            assertEquals("latitude", positions[idx * 3], result[idx * 4], 1e-6);
+            assertEquals("longitude", positions[idx * 3 + 1], result[idx * 4 + 1], 1e-6);
+            assertEquals("altitude", positions[idx * 3 + 2], result[idx * 4 + 2], 1e-2);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGeographicToCartesianArray_InvalidStride() throws Exception {
+        ProjectionWgs84 wgs84 = new ProjectionWgs84();
+
+        wgs84.geographicToCartesianArray(globe, new double[6], 2, 0, 3, null, null, new float[9], 3, 0);
     }
 
     /**
@@ -256,6 +407,40 @@ public class ProjectionWgs84Test {
         return a / Math.sqrt(1 - e2 * sinSquared);
     }
 
+    private void assertGridAccuracy(ProjectionWgs84 wgs84, Sector sector, int numLat, int numLon, Vec3 origin) {
+        int stride = 4;
+        double[] elevations = new double[numLat * numLon];
+        for (int idx = 0; idx < elevations.length; idx++) {
+            elevations[idx] = (idx % 7) * 100 - 200;
+        }
+
+        float[] result = wgs84.geographicToCartesianGrid(globe, sector, numLat, numLon, elevations, origin, null,
+            new float[numLat * numLon * stride], stride, 0);
+
+        double deltaLat = sector.deltaLatitude() / (numLat > 1 ? numLat - 1 : 1);
+        double deltaLon = sector.deltaLongitude() / (numLon > 1 ? numLon - 1 : 1);
+        double ox = (origin != null) ? origin.x : 0;
+        double oy = (origin != null) ? origin.y : 0;
+        double oz = (origin != null) ? origin.z : 0;
+        Vec3 point = new Vec3();
+        for (int row = 0, idx = 0; row < numLat; row++) {
+            double lat = (row == numLat - 1) ? sector.maxLatitude() : sector.minLatitude() + row * deltaLat;
+            for (int col = 0; col < numLon; col++, idx++) {
+                double lon = (col == numLon - 1) ? sector.maxLongitude() : sector.minLongitude() + col * deltaLon;
+                wgs84.geographicToCartesian(globe, lat, lon, elevations[idx], null, point);
+                assertFloatEquals("x " + row + "," + col, point.x - ox, result[idx * stride]);
+                assertFloatEquals("y " + row + "," + col, point.y - oy, result[idx * stride + 1]);
+                assertFloatEquals("z " + row + "," + col, point.z - oz, result[idx * stride + 2]);
+            }
+        }
+    }
+
+    private static void assertFloatEquals(String message, double expected, float actual) {
+        // Coordinates that are exactly zero in theory, such as X on the prime meridian, may differ from zero by a tiny
+        // amount in either computation. Allow a micrometer of absolute error there.
+        assertEquals(message, expected, actual, Math.max(Math.ulp((float) expected), 1e-6));
+    }
+
     /**
      * Creates a Vec3 in the WorldWind coordinate system from WGS84 ECEF coordinates.
      *
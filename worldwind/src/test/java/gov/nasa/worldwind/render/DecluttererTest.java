@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.render;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import gov.nasa.worldwind.draw.DrawContext;
+import gov.nasa.worldwind.draw.Drawable;
+import gov.nasa.worldwind.draw.DrawableQueue;
+import gov.nasa.worldwind.geom.Viewport;
+
+import static org.junit.Assert.*;
+
+public class DecluttererTest {
+
+    private RenderContext rc;
+
+    private Declutterer declutterer;
+
+    @Before
+    public void setUp() throws Exception {
+        this.rc = new RenderContext();
+        this.rc.viewport.set(0, 0, 400, 300);
+        this.rc.drawableQueue = new DrawableQueue();
+        this.declutterer = new Declutterer();
+        this.declutterer.setFadeDuration(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetFadeDuration_Negative() throws Exception {
+        this.declutterer.setFadeDuration(-1);
+    }
+
+    @Test
+    public void testDeclutter_NearestWins() throws Exception {
+        Object near = new Object(), far = new Object();
+        TestDrawable nearDrawable = this.offer(near, 10, 10, 0, 100);
+        TestDrawable farDrawable = this.offer(far, 20, 20, 0, 200);
+        TestDrawable apart = this.offer(new Object(), 200, 200, 0, 300);
+
+        this.declutterer.declutter(this.rc);
+
+        assertEquals("offered", 2, this.rc.drawableQueue.count());
+        assertFalse("near", nearDrawable.recycled);
+        assertTrue("far suppressed", farDrawable.recycled);
+        assertFalse("apart", apart.recycled);
+    }
+
+    @Test
+    public void testDeclutter_PriorityWins() throws Exception {
+        TestDrawable near = this.offer(new Object(), 10, 10, 0, 100);
+        TestDrawable far = this.offer(new Object(), 20, 20, 1, 200);
+
+        this.declutterer.declutter(this.rc);
+
+        assertTrue("near suppressed", near.recycled);
+        assertFalse("far", far.recycled);
+    }
+
+    @Test
+    public void testDeclutter_Hysteresis() throws Exception {
+        Object first = new Object(), second = new Object();
+        this.offer(first, 10, 10, 0, 200);
+        this.declutterer.declutter(this.rc);
+
+        // A nearer candidate overlapping the candidate placed on the previous frame is suppressed.
+        TestDrawable firstDrawable = this.offer(first, 10, 10, 0, 200);
+        TestDrawable secondDrawable = this.offer(second, 20, 20, 0, 100);
+        this.declutterer.declutter(this.rc);
+
+        assertFalse("first", firstDrawable.recycled);
+        assertTrue("second suppressed", secondDrawable.recycled);
+
+        // A candidate within the hysteresis margin of a placed candidate is suppressed.
+        this.offer(first, 10, 10, 0, 200);
+        TestDrawable margin = this.offer(new Object(), 10 + 42, 10, 0, 300);
+        this.declutterer.declutter(this.rc);
+
+        assertTrue("margin suppressed", margin.recycled);
+    }
+
+    @Test
+    public void testDeclutter_Attachment() throws Exception {
+        Object placed = new Object(), suppressed = new Object();
+        this.offer(placed, 10, 10, 0, 100);
+        this.offer(suppressed, 20, 20, 0, 200);
+        TestDrawable placedLeader = new TestDrawable();
+        TestDrawable suppressedLeader = new TestDrawable();
+        TestDrawable orphanLeader = new TestDrawable();
+        this.declutterer.offerAttachedDrawable(placed, placedLeader, placedLeader.color, 100);
+        this.declutterer.offerAttachedDrawable(suppressed, suppressedLeader, suppressedLeader.color, 200);
+        this.declutterer.offerAttachedDrawable(new Object(), orphanLeader, orphanLeader.color, 300);
+
+        this.declutterer.declutter(this.rc);
+
+        assertFalse("placed leader", placedLeader.recycled);
+        assertTrue("suppressed leader", suppressedLeader.recycled);
+        assertFalse("orphan leader", orphanLeader.recycled);
+    }
+
+    @Test
+    public void testDeclutter_Fade() throws Exception {
+        this.declutterer.setFadeDuration(1000000);
+        Object key = new Object();
+        this.offer(key, 10, 10, 0, 100);
+        assertTrue("fade started", this.declutterer.declutter(this.rc)); // first frame, no elapsed time
+        assertEquals("faded out", 0, this.rc.drawableQueue.count());
+
+        this.declutterer.lastFrameTime -= 500000; // half the fade duration
+        TestDrawable drawable = this.offer(key, 10, 10, 0, 100);
+        boolean fading = this.declutterer.declutter(this.rc);
+
+        assertTrue("fading", fading);
+        assertEquals("alpha", 0.5, drawable.color.alpha, 0.01);
+    }
+
+    @Test
+    public void testDeclutter_PickMode() throws Exception {
+        Object placed = new Object(), suppressed = new Object();
+        this.offer(placed, 10, 10, 0, 100);
+        this.offer(suppressed, 20, 20, 0, 200);
+        this.declutterer.declutter(this.rc);
+        this.rc.drawableQueue.clearDrawables();
+
+        // Pick frames display the candidates placed on the previous frame, even if their order has changed.
+        this.rc.pickMode = true;
+        TestDrawable placedDrawable = this.offer(placed, 10, 10, 0, 300);
+        TestDrawable suppressedDrawable = this.offer(suppressed, 20, 20, 0, 100);
+        TestDrawable unknownDrawable = this.offer(new Object(), 200, 200, 0, 100);
+        this.declutterer.declutter(this.rc);
+
+        assertFalse("placed", placedDrawable.recycled);
+        assertTrue("suppressed", suppressedDrawable.recycled);
+        assertTrue("unknown", unknownDrawable.recycled);
+    }
+
+    @Test
+    public void testRadixSort() throws Exception {
+        double[] distances = {5.5, -1, 1e6, 0, 3.25, 5.5, 1e-3, 42};
+        for (int idx = 0; idx < distances.length; idx++) {
+            this.offer(new Object(), idx * 50, 0, 0, distances[idx]);
+        }
+
+        for (int idx = 0; idx < distances.length; idx++) {
+            this.declutterer.order[idx] = idx;
+            this.declutterer.sortKeys[idx] = Declutterer.sortableBits((float) distances[idx]);
+        }
+        this.declutterer.radixSort(distances.length, 32);
+
+        int[] expected = {1, 3, 6, 4, 0, 5, 7, 2}; // stable for the equal distances at 0 and 5
+        for (int idx = 0; idx < expected.length; idx++) {
+            assertEquals("order " + idx, expected[idx], this.declutterer.order[idx]);
+        }
+    }
+
+    private TestDrawable offer(Object key, int x, int y, double priority, double cameraDistance) {
+        TestDrawable drawable = new TestDrawable();
+        this.declutterer.offerDrawable(key, drawable, drawable.color, null, new Viewport(x, y, 40, 20), priority,
+            cameraDistance);
+        return drawable;
+    }
+
+    private static class TestDrawable implements Drawable {
+
+        public Color color = new Color(1, 1, 1, 1);
+
+        public boolean recycled;
+
+        @Override
+        public void recycle() {
+            this.recycled = true;
+        }
+
+        @Override
+        public void draw(DrawContext dc) {
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.render;
+
+import android.opengl.GLES20;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+public class DynamicBufferObjectTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_InvalidCapacity() throws Exception {
+        new DynamicBufferObject(GLES20.GL_ARRAY_BUFFER, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutFloats_ExceedsCapacity() throws Exception {
+        DynamicBufferObject buffer = new DynamicBufferObject(GLES20.GL_ARRAY_BUFFER, 16);
+        buffer.putFloats(8, new float[3], 0, 3);
+    }
+
+    @Test
+    public void testSerialNumber() throws Exception {
+        DynamicBufferObject buffer = new DynamicBufferObject(GLES20.GL_ARRAY_BUFFER, 64);
+        DynamicBufferObject other = new DynamicBufferObject(GLES20.GL_ARRAY_BUFFER, 64);
+        long serialNumber = buffer.getSerialNumber();
+
+        assertNotEquals("unique", serialNumber, other.getSerialNumber());
+
+        buffer.putFloats(0, new float[0], 0, 0); // empty ranges leave the contents unchanged
+        assertEquals("empty range", serialNumber, buffer.getSerialNumber());
+
+        buffer.putFloats(0, new float[]{1, 2, 3}, 0, 3);
+        assertNotEquals("contents changed", serialNumber, buffer.getSerialNumber());
+    }
+
+    @Test
+    public void testPutShorts_StagesRanges() throws Exception {
+        DynamicBufferObject buffer = new DynamicBufferObject(GLES20.GL_ELEMENT_ARRAY_BUFFER, 64);
+        buffer.putShorts(0, new short[]{1, 2, 3}, 0, 3);
+        buffer.putShorts(32, new short[]{4, 5, 6}, 1, 2);
+        buffer.putShorts(16, new short[0], 0, 0); // empty ranges are ignored
+
+        assertEquals("range count", 2, buffer.stagingRangeCount);
+        assertEquals("second offset", 32, buffer.stagingRanges[3]);
+        assertEquals("second position", 6, buffer.stagingRanges[4]);
+        assertEquals("second size", 4, buffer.stagingRanges[5]);
+
+        ByteBuffer staging = buffer.stagingBuffer;
+        assertEquals("first value", 1, staging.getShort(0));
+        assertEquals("third value", 3, staging.getShort(4));
+        assertEquals("fourth value", 5, staging.getShort(6));
+        assertEquals("fifth value", 6, staging.getShort(8));
+    }
+
+    @Test
+    public void testPutInts_StagesValues() throws Exception {
+        DynamicBufferObject buffer = new DynamicBufferObject(GLES20.GL_ELEMENT_ARRAY_BUFFER, 64);
+        buffer.putInts(0, new int[]{70000, 70001}, 0, 2);
+        buffer.putShorts(16, new int[]{65535, 1}, 0, 2); // ints written as unsigned shorts
+
+        assertEquals("range count", 2, buffer.stagingRangeCount);
+        assertEquals("second size", 4, buffer.stagingRanges[5]);
+        assertEquals("first int", 70000, buffer.stagingBuffer.getInt(0));
+        assertEquals("second int", 70001, buffer.stagingBuffer.getInt(4));
+        assertEquals("first short", 65535, buffer.stagingBuffer.getShort(8) & 0xFFFF);
+        assertEquals("second short", 1, buffer.stagingBuffer.getShort(10));
+    }
+
+    @Test
+    public void testPutFloats_GrowsStaging() throws Exception {
+        DynamicBufferObject buffer = new DynamicBufferObject(GLES20.GL_ARRAY_BUFFER, 4096);
+        float[] values = new float[256];
+        for (int idx = 0; idx < values.length; idx++) {
+            values[idx] = idx;
+        }
+
+        for (int idx = 0; idx < 4; idx++) {
+            buffer.putFloats(idx * 1024, values, 0, values.length);
+        }
+
+        assertEquals("range count", 4, buffer.stagingRangeCount);
+        assertEquals("first range value", 255, buffer.stagingBuffer.getFloat(255 * 4), 0);
+        assertEquals("last range value", 255, buffer.stagingBuffer.getFloat(4096 - 4), 0);
+    }
+}
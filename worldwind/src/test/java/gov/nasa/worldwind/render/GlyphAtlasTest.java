@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.render;
+
+import org.junit.Test;
+
+import gov.nasa.worldwind.shape.TextAttributes;
+
+import static org.junit.Assert.*;
+
+public class GlyphAtlasTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_InvalidPageCount() throws Exception {
+        new GlyphAtlas(64, 64, 0);
+    }
+
+    @Test
+    public void testAdoptGlyphs_Budget() throws Exception {
+        GlyphAtlas atlas = new GlyphAtlas(64, 64, 1);
+        atlas.setMaxAdoptedGlyphs(8);
+        for (char c = 'a'; c < 'a' + 12; c++) {
+            GlyphAtlas.Glyph glyph = new GlyphAtlas.Glyph();
+            glyph.key = new GlyphAtlas.GlyphKey().set(null, c);
+            atlas.rasterizedGlyphs.offer(glyph);
+        }
+
+        assertTrue("glyphs remaining", atlas.adoptGlyphs());
+        assertEquals("first frame", 8, atlas.glyphs.size());
+        assertFalse("no glyphs remaining", atlas.adoptGlyphs());
+        assertEquals("second frame", 12, atlas.glyphs.size());
+    }
+
+    @Test
+    public void testAdoptGlyphs_PacksImage() throws Exception {
+        GlyphAtlas atlas = new GlyphAtlas(64, 64, 1);
+        GlyphAtlas.Glyph glyph = new GlyphAtlas.Glyph();
+        glyph.key = new GlyphAtlas.GlyphKey().set(null, 'a');
+        glyph.image = new byte[16 * 8];
+        glyph.width = 16;
+        glyph.height = 8;
+        atlas.rasterizedGlyphs.offer(glyph);
+
+        atlas.adoptGlyphs();
+
+        assertNotNull("page", glyph.page);
+        assertNull("image released", glyph.image);
+        assertEquals("s1", 16 / 64.0f, glyph.s1, 0);
+        assertEquals("t0", 8 / 64.0f, glyph.t0, 0); // the glyph's bottom row is at the region's top
+    }
+
+    @Test
+    public void testComputeDistanceField() throws Exception {
+        // A 10 x 10 square centered in a 20 x 20 image.
+        int size = 20;
+        byte[] coverage = new byte[size * size];
+        for (int y = 5; y < 15; y++) {
+            for (int x = 5; x < 15; x++) {
+                coverage[y * size + x] = (byte) 0xFF;
+            }
+        }
+
+        byte[] field = new byte[size * size];
+        GlyphAtlas.computeDistanceField(coverage, size, size, 4, field);
+
+        assertEquals("inside edge", 143, field[10 * size + 5] & 0xFF); // half a texel inside the edge, 0.5 + 0.5 / 8
+        assertEquals("outside edge", 112, field[10 * size + 4] & 0xFF); // half a texel outside the edge, 0.5 - 0.5 / 8
+        assertEquals("center", 0xFF, field[10 * size + 10] & 0xFF); // beyond the spread inside the square
+        assertEquals("corner", 0x00, field[0] & 0xFF); // beyond the spread outside the square
+        assertTrue("increases inward", (field[10 * size + 6] & 0xFF) > (field[10 * size + 5] & 0xFF));
+        assertTrue("decreases outward", (field[10 * size + 3] & 0xFF) < (field[10 * size + 4] & 0xFF));
+    }
+
+    @Test
+    public void testComputeDistanceField_Empty() throws Exception {
+        byte[] coverage = new byte[16];
+        byte[] field = new byte[16];
+        GlyphAtlas.computeDistanceField(coverage, 4, 4, 2, field);
+
+        for (byte value : field) {
+            assertEquals(0, value);
+        }
+    }
+
+    @Test
+    public void testGlyphRun_Bounds() throws Exception {
+        TextAttributes attributes = new TextAttributes().setTextSize(GlyphAtlas.BASE_SIZE).setOutlineWidth(4);
+        GlyphRun run = new GlyphRun();
+        run.set("ab", attributes, 0);
+
+        float spread = GlyphAtlas.SPREAD;
+        run.addQuad(null, -spread, -2 - spread, 10 + spread, 20 + spread, 0, 0, 0, 0);
+        run.addQuad(null, 12 - spread, -spread, 20 + spread, 15 + spread, 0, 0, 0, 0);
+        run.finish(3);
+
+        float[] quads = run.getQuads();
+        assertEquals("quad count", 2, run.getQuadCount());
+        assertEquals("width", 20 + 6, run.getWidth(), 0);
+        assertEquals("height", 22 + 6, run.getHeight(), 0);
+        assertEquals("first x0", 3 - spread, quads[0], 0);
+        assertEquals("first y0", 3 - spread, quads[1], 0);
+        assertEquals("second y0", 5 - spread, quads[GlyphRun.QUAD_STRIDE + 1], 0);
+        assertTrue("matches", run.matches("ab", attributes));
+        assertFalse("text changed", run.matches("abc", attributes));
+        assertFalse("size changed", run.matches("ab", new TextAttributes(attributes).setTextSize(12)));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.render;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import gov.nasa.worldwind.WorldWind;
+import gov.nasa.worldwind.util.LruMemoryCache;
+
+import static org.junit.Assert.*;
+
+public class TextureAtlasTest {
+
+    private TextureAtlas atlas;
+
+    private TextureAtlas.Page page;
+
+    @Before
+    public void setUp() throws Exception {
+        this.atlas = new TextureAtlas(new LruMemoryCache<Object, RenderResource>(1024), 64, 64, 1, 32, 32);
+        this.page = new TextureAtlas.Page(64, 64);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_NullCache() throws Exception {
+        new TextureAtlas(null, 64, 64, 1, 32, 32);
+    }
+
+    @Test
+    public void testIsCompatible() throws Exception {
+        ImageOptions repeat = new ImageOptions();
+        repeat.wrapMode = WorldWind.REPEAT;
+
+        assertTrue("default options", this.atlas.isCompatible(null, 32, 32));
+        assertTrue("RGBA options", this.atlas.isCompatible(new ImageOptions(WorldWind.RGBA_8888), 16, 8));
+        assertFalse("too wide", this.atlas.isCompatible(null, 33, 8));
+        assertFalse("too tall", this.atlas.isCompatible(null, 8, 33));
+        assertFalse("RGB_565 options", this.atlas.isCompatible(new ImageOptions(WorldWind.RGB_565), 16, 16));
+        assertFalse("repeat options", this.atlas.isCompatible(repeat, 16, 16));
+    }
+
+    @Test
+    public void testAllocate_Shelves() throws Exception {
+        int[] result = new int[2];
+
+        assertTrue(this.page.allocate(30, 10, result));
+        assertEquals("first x", 0, result[0]);
+        assertEquals("first y", 0, result[1]);
+
+        assertTrue(this.page.allocate(30, 10, result));
+        assertEquals("same shelf x", 30, result[0]);
+        assertEquals("same shelf y", 0, result[1]);
+
+        assertTrue(this.page.allocate(30, 10, result));
+        assertEquals("next shelf x", 0, result[0]);
+        assertEquals("next shelf y", 12, result[1]); // shelf heights are rounded up to a multiple of four
+
+        assertTrue(this.page.allocate(10, 30, result));
+        assertEquals("tall shelf x", 0, result[0]);
+        assertEquals("tall shelf y", 24, result[1]);
+
+        assertTrue(this.page.allocate(10, 30, result));
+        assertEquals("tall shelf second x", 10, result[0]);
+
+        assertFalse("page full", this.page.allocate(10, 40, result));
+    }
+
+    @Test
+    public void testFree_ReusesRegion() throws Exception {
+        int[] result = new int[2];
+        this.page.allocate(20, 10, result);
+        AtlasTexture first = this.newTexture(result, 20, 10);
+        this.page.allocate(20, 10, result);
+        AtlasTexture second = this.newTexture(result, 20, 10);
+        this.page.allocate(20, 10, result);
+        this.newTexture(result, 20, 10);
+
+        this.page.free(first);
+        assertTrue(this.page.allocate(20, 10, result));
+        assertEquals("reused x", first.regionX, result[0]);
+        assertEquals("reused y", first.regionY, result[1]);
+
+        this.page.free(second);
+        assertTrue(this.page.allocate(12, 10, result));
+        assertEquals("partially reused x", second.regionX, result[0]);
+    }
+
+    @Test
+    public void testFree_ReclaimsEmptyShelves() throws Exception {
+        int[] result = new int[2];
+        this.page.allocate(20, 30, result);
+        AtlasTexture texture = this.newTexture(result, 20, 30);
+
+        this.page.free(texture);
+        assertTrue(this.page.isEmpty());
+        assertTrue("reclaimed shelf", this.page.allocate(60, 60, result));
+        assertEquals("reclaimed y", 0, result[1]);
+    }
+
+    @Test
+    public void testReset_InvalidatesTextures() throws Exception {
+        int[] result = new int[2];
+        this.page.allocate(20, 10, result);
+        AtlasTexture texture = this.newTexture(result, 18, 8);
+        assertTrue(texture.isValid());
+
+        assertEquals("evicted", 1, this.page.reset().size());
+        assertFalse(texture.isValid());
+        assertTrue(this.page.isEmpty());
+    }
+
+    @Test
+    public void testTexCoordTransform() throws Exception {
+        int[] result = new int[2];
+        this.page.allocate(10, 10, result);
+        this.page.allocate(18, 10, result);
+        AtlasTexture texture = this.newTexture(result, 18, 10); // image at (11, 1) inside a padded 18 x 10 region
+
+        double[] m = texture.getTexCoordTransform().m;
+        assertEquals("s scale", 16 / 64.0, m[0], 0);
+        assertEquals("s offset", 11 / 64.0, m[2], 0);
+        assertEquals("t scale", -8 / 64.0, m[4], 0);
+        assertEquals("t offset", 9 / 64.0, m[5], 0);
+    }
+
+    private AtlasTexture newTexture(int[] result, int regionWidth, int regionHeight) {
+        AtlasTexture texture = new AtlasTexture(this.atlas, this.page, null, result[0], result[1],
+            regionWidth - TextureAtlas.PADDING * 2, regionHeight - TextureAtlas.PADDING * 2);
+        this.page.textures.add(texture);
+        return texture;
+    }
+}
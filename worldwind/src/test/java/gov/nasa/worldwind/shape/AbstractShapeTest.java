@@ -186,4 +186,30 @@ public class AbstractShapeTest {
 
         assertEquals(123, shape.maximumIntermediatePoints);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetSimplificationTolerance() throws Exception {
+        AbstractShape shape = new AbstractShapeImpl();
+        shape.simplificationTolerance = 2;
+
+        double result = shape.getSimplificationTolerance();
+
+        assertEquals(2, result, 0);
+    }
+
+    @Test
+    public void testSetSimplificationTolerance() throws Exception {
+        AbstractShape shape = new AbstractShapeImpl();
+
+        shape.setSimplificationTolerance(0);
+
+        assertEquals(0, shape.simplificationTolerance, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetSimplificationTolerance_Negative() throws Exception {
+        AbstractShape shape = new AbstractShapeImpl();
+
+        shape.setSimplificationTolerance(-1);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.shape;
+
+import android.opengl.GLES20;
+
+import org.junit.Test;
+
+import gov.nasa.worldwind.util.FloatArray;
+import gov.nasa.worldwind.util.ShortArray;
+
+import static org.junit.Assert.*;
+
+public class ChunkedElementsTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_InvalidSize() throws Exception {
+        new ChunkedElements(ChunkedElements.MAX_CHUNK_VERTICES + 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReset_InvalidCount() throws Exception {
+        new ChunkedElements().reset(new float[6], 2, 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddElements_InvalidMode() throws Exception {
+        new ChunkedElements().reset(new float[6], 2, 3).addElements(0, GLES20.GL_POINTS, new int[]{0, 1, 2}, 3);
+    }
+
+    @Test
+    public void testAddElements_SingleChunk() throws Exception {
+        ChunkedElements chunks = new ChunkedElements().reset(vertices(4), 1, 4);
+        chunks.addElements(0, GLES20.GL_TRIANGLES, new int[]{0, 1, 2, 2, 1, 3}, 6);
+
+        assertEquals("segment count", 1, chunks.getSegmentCount());
+        assertEquals("vertex count", 4, chunks.getVertexArray().size());
+        assertElements(chunks.getElementArray(), 0, 1, 2, 2, 1, 3);
+    }
+
+    @Test
+    public void testAddElements_SplitsChunks() throws Exception {
+        // A line strip through 6 vertices, with chunks of at most 4 vertices. The second chunk repeats the vertex
+        // shared with the first chunk.
+        ChunkedElements chunks = new ChunkedElements(4).reset(vertices(6), 1, 6);
+        chunks.addElements(0, GLES20.GL_LINE_STRIP, new int[]{0, 1, 2, 3, 4, 5}, 6);
+
+        assertEquals("segment count", 2, chunks.getSegmentCount());
+        assertVertices(chunks.getVertexArray(), 0, 1, 2, 3, 3, 4, 5);
+        assertElements(chunks.getElementArray(), 0, 1, 1, 2, 2, 3, 0, 1, 1, 2);
+    }
+
+    @Test
+    public void testAddElements_TriangleStripWinding() throws Exception {
+        ChunkedElements chunks = new ChunkedElements().reset(vertices(4), 1, 4);
+        chunks.addElements(0, GLES20.GL_TRIANGLE_STRIP, new int[]{0, 1, 2, 3}, 4);
+
+        assertElements(chunks.getElementArray(), 0, 1, 2, 2, 1, 3);
+    }
+
+    @Test
+    public void testAddElements_Ranges() throws Exception {
+        ChunkedElements chunks = new ChunkedElements().reset(vertices(3), 1, 3);
+        chunks.addElements(0, GLES20.GL_TRIANGLES, new int[]{0, 1, 2}, 3);
+        chunks.addElements(1, GLES20.GL_LINES, new int[]{0, 1, 1, 2}, 4);
+
+        // Ranges share the chunk's vertices, but are drawn as separate segments.
+        assertEquals("segment count", 2, chunks.getSegmentCount());
+        assertEquals("vertex count", 3, chunks.getVertexArray().size());
+    }
+
+    private static float[] vertices(int count) {
+        float[] vertices = new float[count];
+        for (int idx = 0; idx < count; idx++) {
+            vertices[idx] = idx;
+        }
+        return vertices;
+    }
+
+    private static void assertVertices(FloatArray array, float... expected) {
+        assertEquals("vertex count", expected.length, array.size());
+        for (int idx = 0; idx < expected.length; idx++) {
+            assertEquals("vertex " + idx, expected[idx], array.get(idx), 0);
+        }
+    }
+
+    private static void assertElements(ShortArray array, int... expected) {
+        assertEquals("element count", expected.length, array.size());
+        for (int idx = 0; idx < expected.length; idx++) {
+            assertEquals("element " + idx, expected[idx], array.get(idx));
+        }
+    }
+}
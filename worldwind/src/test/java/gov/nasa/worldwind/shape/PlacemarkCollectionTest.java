@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.shape;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PlacemarkCollectionTest {
+
+    private PlacemarkCollection collection;
+
+    private int attributeIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        this.collection = new PlacemarkCollection();
+        this.attributeIndex = this.collection.addAttributes(new PlacemarkAttributes());
+    }
+
+    @Test
+    public void testAdd() throws Exception {
+        for (int idx = 0; idx < 100; idx++) {
+            assertEquals("index", idx, this.collection.add(idx * 0.5, -idx, idx * 10, this.attributeIndex));
+        }
+
+        assertEquals("count", 100, this.collection.getCount());
+        assertEquals("latitude", 49.5, this.collection.getLatitude(99), 0);
+        assertEquals("longitude", -99, this.collection.getLongitude(99), 0);
+        assertEquals("altitude", 990, this.collection.getAltitude(99), 0);
+        assertEquals("attribute index", this.attributeIndex, this.collection.getAttributeIndex(99));
+        assertTrue("visible", this.collection.isVisible(99));
+        assertFalse("highlighted", this.collection.isHighlighted(99));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAdd_InvalidAttributeIndex() throws Exception {
+        this.collection.add(0, 0, 0, this.attributeIndex + 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddAttributes_Null() throws Exception {
+        this.collection.addAttributes(null);
+    }
+
+    @Test
+    public void testSetPosition() throws Exception {
+        int index = this.collection.add(1, 2, 3, this.attributeIndex);
+        this.collection.setPosition(index, 4, 5, 6);
+
+        assertEquals("latitude", 4, this.collection.getLatitude(index), 0);
+        assertEquals("longitude", 5, this.collection.getLongitude(index), 0);
+        assertEquals("altitude", 6, this.collection.getAltitude(index), 0);
+    }
+
+    @Test
+    public void testSetHeading() throws Exception {
+        int index = this.collection.add(1, 2, 3, this.attributeIndex);
+        assertEquals("default heading", 0, this.collection.getHeading(index), 0);
+
+        this.collection.setHeading(index, 90);
+
+        assertEquals("heading", 90, this.collection.getHeading(index), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetLatitude_InvalidIndex() throws Exception {
+        this.collection.add(1, 2, 3, this.attributeIndex);
+        this.collection.getLatitude(1);
+    }
+
+    @Test
+    public void testFlags() throws Exception {
+        int index = this.collection.add(0, 0, 0, this.attributeIndex);
+        this.collection.setHighlighted(index, true);
+        this.collection.setVisible(index, false);
+
+        assertTrue("highlighted", this.collection.isHighlighted(index));
+        assertFalse("visible", this.collection.isVisible(index));
+
+        this.collection.setVisible(index, true);
+
+        assertTrue("highlighted retained", this.collection.isHighlighted(index));
+        assertTrue("visible", this.collection.isVisible(index));
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        this.collection.add(0, 0, 0, this.attributeIndex);
+        this.collection.clear();
+
+        assertEquals("count", 0, this.collection.getCount());
+        assertEquals("attributes retained", 1, this.collection.getAttributesCount());
+    }
+}
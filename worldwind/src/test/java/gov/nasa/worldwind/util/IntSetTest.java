@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IntSetTest {
+
+    @Test
+    public void testAdd() throws Exception {
+        IntSet set = new IntSet();
+
+        assertTrue("added", set.add(7));
+        assertFalse("duplicate", set.add(7));
+        assertEquals("size", 1, set.size());
+        assertTrue("contains", set.contains(7));
+        assertFalse("does not contain", set.contains(8));
+    }
+
+    @Test
+    public void testAdd_Zero() throws Exception {
+        IntSet set = new IntSet();
+
+        assertFalse("does not contain zero", set.contains(0));
+        assertTrue("added", set.add(0));
+        assertFalse("duplicate", set.add(0));
+        assertTrue("contains zero", set.contains(0));
+        assertEquals("size", 1, set.size());
+    }
+
+    @Test
+    public void testAdd_Growth() throws Exception {
+        IntSet set = new IntSet(0);
+        for (int value = 1; value <= 10000; value++) {
+            set.add(value);
+            set.add(-value);
+        }
+
+        assertEquals("size", 20000, set.size());
+        for (int value = 1; value <= 10000; value++) {
+            assertTrue("contains " + value, set.contains(value));
+            assertTrue("contains " + -value, set.contains(-value));
+        }
+        assertFalse("does not contain", set.contains(10001));
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        IntSet set = new IntSet();
+        set.add(3);
+        set.add(1);
+        set.add(3);
+        set.add(2);
+
+        assertEquals("first", 3, set.get(0));
+        assertEquals("second", 1, set.get(1));
+        assertEquals("third", 2, set.get(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGet_InvalidIndex() throws Exception {
+        IntSet set = new IntSet();
+        set.add(1);
+        set.get(1);
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        IntSet set = new IntSet();
+        set.add(0);
+        set.add(1);
+        set.clear();
+
+        assertTrue("empty", set.isEmpty());
+        assertFalse("does not contain zero", set.contains(0));
+        assertFalse("does not contain", set.contains(1));
+        assertTrue("added after clear", set.add(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_InvalidCapacity() throws Exception {
+        new IntSet(-1);
+    }
+}
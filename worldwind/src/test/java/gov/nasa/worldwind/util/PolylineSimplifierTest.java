@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PolylineSimplifierTest {
+
+    @Test
+    public void testComputeImportance_Collinear() throws Exception {
+        float[] points = {0, 0, 0, 1, 0, 0, 2, 0, 0, 3, 0, 0};
+
+        float[] importance = PolylineSimplifier.computeImportance(points, 0, 3, 4, null);
+
+        assertEquals("first", Float.MAX_VALUE, importance[0], 0);
+        assertEquals("second", 0, importance[1], 0);
+        assertEquals("third", 0, importance[2], 0);
+        assertEquals("last", Float.MAX_VALUE, importance[3], 0);
+    }
+
+    @Test
+    public void testComputeImportance_Spikes() throws Exception {
+        // Stride 4 with an unused fourth coordinate, as in Path's vertex array.
+        float[] points = {
+            0, 0, 0, -1,
+            1, 2, 0, -1,
+            2, 0, 0, -1,
+            3, 10, 0, -1,
+            4, 0, 0, -1};
+
+        float[] importance = PolylineSimplifier.computeImportance(points, 0, 4, 5, null);
+
+        assertEquals("largest spike", 10, importance[3], 1e-6);
+        assertEquals("vertex farthest from the first segment", 20 / Math.sqrt(109), importance[2], 1e-6);
+        assertTrue("remaining vertex", importance[1] > 0 && importance[1] <= importance[2]);
+    }
+
+    @Test
+    public void testComputeImportance_LimitedByParent() throws Exception {
+        // The vertex at index 1 is farther from its segment than its parent vertex at index 2 is from the polyline's
+        // chord. Its importance is limited to the parent's, so it's never retained without its parent.
+        float[] points = {
+            0, 0, 0,
+            1, -1.9f, 0,
+            9, 2, 0,
+            10, 0, 0};
+
+        float[] importance = PolylineSimplifier.computeImportance(points, 0, 3, 4, null);
+
+        assertEquals("parent", 2, importance[2], 1e-6);
+        assertEquals("child limited by parent", 2, importance[1], 1e-6);
+    }
+
+    @Test
+    public void testComputeImportance_Offset() throws Exception {
+        float[] points = {99, 99, 99, 0, 0, 0, 1, 1, 0, 2, 0, 0};
+        float[] result = new float[8];
+
+        float[] importance = PolylineSimplifier.computeImportance(points, 3, 3, 3, result);
+
+        assertSame("result", result, importance);
+        assertEquals("middle", 1, importance[1], 1e-6);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testComputeImportance_InvalidStride() throws Exception {
+        PolylineSimplifier.computeImportance(new float[6], 0, 2, 3, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testComputeImportance_ExceedsArray() throws Exception {
+        PolylineSimplifier.computeImportance(new float[6], 0, 3, 3, null);
+    }
+
+    @Test
+    public void testLevelForTolerance() throws Exception {
+        assertEquals("below one", 0, PolylineSimplifier.levelForTolerance(0.9));
+        assertEquals("NaN", 0, PolylineSimplifier.levelForTolerance(Double.NaN));
+        assertEquals("one", 1, PolylineSimplifier.levelForTolerance(1));
+        assertEquals("three", 2, PolylineSimplifier.levelForTolerance(3));
+        assertEquals("four", 3, PolylineSimplifier.levelForTolerance(4));
+        assertEquals("infinity", PolylineSimplifier.MAX_LEVEL,
+            PolylineSimplifier.levelForTolerance(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    public void testToleranceForLevel() throws Exception {
+        assertEquals("level 0", 0, PolylineSimplifier.toleranceForLevel(0), 0);
+        for (int level = 1; level <= PolylineSimplifier.MAX_LEVEL; level++) {
+            double tolerance = PolylineSimplifier.toleranceForLevel(level);
+            assertEquals("level " + level, level, PolylineSimplifier.levelForTolerance(tolerance));
+        }
+    }
+}
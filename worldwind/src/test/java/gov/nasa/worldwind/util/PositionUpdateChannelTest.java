@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PositionUpdateChannelTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_InvalidCapacity() throws Exception {
+        new PositionUpdateChannel(0);
+    }
+
+    @Test
+    public void testAcquireLatest_NothingPublished() throws Exception {
+        PositionUpdateChannel channel = new PositionUpdateChannel(4);
+        PositionUpdateChannel.Snapshot snapshot = channel.acquireLatest();
+
+        assertEquals("generation", 0, snapshot.getGeneration());
+        assertEquals("count", 0, snapshot.getCount());
+        assertSame("unchanged", snapshot, channel.acquireLatest());
+    }
+
+    @Test
+    public void testPublishAndAcquire() throws Exception {
+        PositionUpdateChannel channel = new PositionUpdateChannel(4);
+        PositionUpdateChannel.Snapshot update = channel.beginUpdate();
+        update.setPosition(2, 10, 20, 30, 45);
+        channel.endUpdate(update);
+
+        PositionUpdateChannel.Snapshot snapshot = channel.acquireLatest();
+        assertEquals("generation", 1, snapshot.getGeneration());
+        assertEquals("count", 3, snapshot.getCount());
+        assertEquals("latitude", 10, snapshot.getLatitude(2), 0);
+        assertEquals("longitude", 20, snapshot.getLongitude(2), 0);
+        assertEquals("altitude", 30, snapshot.getAltitude(2), 0);
+        assertEquals("heading", 45, snapshot.getHeading(2), 0);
+    }
+
+    @Test
+    public void testPublish_RetainsPreviousUpdates() throws Exception {
+        PositionUpdateChannel channel = new PositionUpdateChannel(4);
+        for (int idx = 0; idx < 4; idx++) {
+            PositionUpdateChannel.Snapshot update = channel.beginUpdate();
+            update.setPosition(idx, idx, idx, idx, idx);
+            channel.endUpdate(update);
+        }
+
+        PositionUpdateChannel.Snapshot snapshot = channel.acquireLatest();
+        assertEquals("generation", 4, snapshot.getGeneration());
+        assertEquals("count", 4, snapshot.getCount());
+        for (int idx = 0; idx < 4; idx++) {
+            assertEquals("latitude " + idx, idx, snapshot.getLatitude(idx), 0);
+        }
+    }
+
+    @Test
+    public void testAcquireLatest_RetainsSnapshotUntilNextAcquire() throws Exception {
+        PositionUpdateChannel channel = new PositionUpdateChannel(1);
+        PositionUpdateChannel.Snapshot update = channel.beginUpdate();
+        update.setPosition(0, 1, 1, 1, 1);
+        channel.endUpdate(update);
+        PositionUpdateChannel.Snapshot snapshot = channel.acquireLatest();
+
+        // Publishing further updates must not modify the snapshot held by the render thread.
+        for (int idx = 2; idx < 5; idx++) {
+            update = channel.beginUpdate();
+            assertNotSame("producer snapshot", snapshot, update);
+            update.setPosition(0, idx, idx, idx, idx);
+            channel.endUpdate(update);
+        }
+
+        assertEquals("held latitude", 1, snapshot.getLatitude(0), 0);
+        assertEquals("latest latitude", 4, channel.acquireLatest().getLatitude(0), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEndUpdate_WrongSnapshot() throws Exception {
+        PositionUpdateChannel channel = new PositionUpdateChannel(4);
+        channel.beginUpdate();
+        channel.endUpdate(channel.acquireLatest());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetPosition_InvalidIndex() throws Exception {
+        PositionUpdateChannel channel = new PositionUpdateChannel(4);
+        channel.beginUpdate().setPosition(4, 0, 0, 0, 0);
+    }
+}
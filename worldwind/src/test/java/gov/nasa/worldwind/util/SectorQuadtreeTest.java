@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2016 United States Government as represented by the Administrator of the
+ * National Aeronautics and Space Administration. All Rights Reserved.
+ */
+
+package gov.nasa.worldwind.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gov.nasa.worldwind.geom.Sector;
+
+import static org.junit.Assert.*;
+
+public class SectorQuadtreeTest {
+
+    @Test
+    public void testInsertAndQuery() throws Exception {
+        SectorQuadtree<Integer> tree = new SectorQuadtree<>();
+        for (int lat = -80; lat <= 80; lat += 10) {
+            for (int lon = -170; lon <= 170; lon += 10) {
+                tree.insert(lat, lon, lat * 1000 + lon);
+            }
+        }
+
+        List<Integer> result = new ArrayList<>();
+        tree.query(new Sector(0, 0, 20, 20), result);
+
+        assertEquals("count", 17 * 35, tree.count());
+        assertEquals("query size", 9, result.size()); // points on the query sector's edges are included
+        assertTrue("contains corner", result.contains(20 * 1000 + 20));
+        assertFalse("excludes outside", result.contains(30 * 1000));
+    }
+
+    @Test
+    public void testQuery_SectorValues() throws Exception {
+        SectorQuadtree<String> tree = new SectorQuadtree<>();
+        tree.insert(new Sector(-10, -10, 20, 20), "straddles equator");
+        tree.insert(new Sector(50, 50, 1, 1), "small");
+
+        List<String> result = new ArrayList<>();
+        tree.query(new Sector(5, 5, 1, 1), result);
+
+        assertEquals(1, result.size());
+        assertEquals("straddles equator", result.get(0));
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        SectorQuadtree<String> tree = new SectorQuadtree<>();
+        for (int idx = 0; idx < 100; idx++) {
+            tree.insert(-45, idx, "filler");
+        }
+        SectorQuadtree.Entry<String> entry = tree.insert(10, 10, "moving");
+
+        tree.update(entry, -60, -120);
+
+        List<String> before = new ArrayList<>();
+        tree.query(new Sector(9, 9, 2, 2), before);
+        List<String> after = new ArrayList<>();
+        tree.query(new Sector(-61, -121, 2, 2), after);
+
+        assertTrue("old location", before.isEmpty());
+        assertEquals("new location", 1, after.size());
+        assertEquals("count", 101, tree.count());
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        SectorQuadtree<String> tree = new SectorQuadtree<>();
+        SectorQuadtree.Entry<String> first = tree.insert(10, 10, "first");
+        tree.insert(10, 10, "second");
+
+        tree.remove(first);
+        tree.remove(first); // removing twice has no effect
+
+        List<String> result = new ArrayList<>();
+        tree.query(new Sector(0, 0, 20, 20), result);
+
+        assertFalse(first.isIndexed());
+        assertEquals("count", 1, tree.count());
+        assertEquals("second", result.get(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUpdate_RemovedEntry() throws Exception {
+        SectorQuadtree<String> tree = new SectorQuadtree<>();
+        SectorQuadtree.Entry<String> entry = tree.insert(10, 10, "entry");
+        tree.remove(entry);
+
+        tree.update(entry, 20, 20);
+    }
+}